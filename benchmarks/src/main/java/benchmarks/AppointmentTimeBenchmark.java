@@ -0,0 +1,156 @@
+package benchmarks;
+
+import model.Appointment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utilities.TimeManager;
+
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the epoch-second Appointment times with the ZonedDateTime fields they replaced.
+ *
+ * The construct* benchmarks build one appointment from the values of a database row. Run with -prof gc and read
+ * gc.alloc.rate.norm: every object allocated is kept by the appointment, so it is the heap size of one appointment
+ * with its times. constructEager builds the previous layout with three ZonedDateTimes and a Timestamp;
+ * constructEpoch builds the current model, which holds four longs until a view is asked for.
+ *
+ * The remaining benchmarks measure conversion throughput: binding a time to a statement with the old
+ * format-and-parse path and with the epoch path, reading a Timestamp, and reading the cached start views.
+ * No database is needed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AppointmentTimeBenchmark {
+    private static final DateTimeFormatter SQL_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final ZoneId EASTERN = ZoneId.of("America/New_York");
+
+    private Timestamp start;
+    private Timestamp end;
+    private Timestamp created;
+    private Timestamp updated;
+    private ZoneId zone;
+    private Appointment appointment;
+    private ZonedDateTime startDateTime;
+
+    @Setup
+    public void setUp() {
+        start = Timestamp.valueOf("2026-10-19 09:30:00");
+        end = Timestamp.valueOf("2026-10-19 10:00:00");
+        created = Timestamp.valueOf("2026-10-01 08:12:45");
+        updated = Timestamp.valueOf("2026-10-02 11:03:10");
+        zone = ZoneId.systemDefault();
+        appointment = constructEpoch();
+        startDateTime = appointment.getStart();
+    }
+
+    @Benchmark
+    public Object constructEager() {
+        return new EagerAppointment(1, "Title", "Description", "Location", "Type",
+                TimeManager.toSystemTimeZone(start), TimeManager.toSystemTimeZone(end), 1, 1, 1,
+                TimeManager.toSystemTimeZone(created), "admin", new Timestamp(updated.getTime()), "admin");
+    }
+
+    @Benchmark
+    public Appointment constructEpoch() {
+        return new Appointment(1, "Title", "Description", "Location", "Type", TimeManager.toEpochSecond(start),
+                TimeManager.toEpochSecond(end), zone, 1, 1, 1, TimeManager.toEpochSecond(created), "admin",
+                updated.getTime(), "admin");
+    }
+
+    @Benchmark
+    public Timestamp bindFormatAndParse() {
+        return Timestamp.valueOf(SQL_FORMAT.format(startDateTime));
+    }
+
+    @Benchmark
+    public Timestamp bindSqlFormat() {
+        return TimeManager.toTimestampUsingSQLFormat(startDateTime);
+    }
+
+    @Benchmark
+    public Timestamp bindEpoch() {
+        return TimeManager.toTimestamp(appointment.getStartEpochSecond());
+    }
+
+    @Benchmark
+    public ZonedDateTime readTimestampAsZonedDateTime() {
+        return TimeManager.toSystemTimeZone(start);
+    }
+
+    @Benchmark
+    public long readTimestampAsEpoch() {
+        return TimeManager.toEpochSecond(start);
+    }
+
+    @Benchmark
+    public ZonedDateTime cachedStartView() {
+        return appointment.getStart();
+    }
+
+    @Benchmark
+    public ZonedDateTime cachedEasternView() {
+        return appointment.getStart(EASTERN);
+    }
+
+    @Benchmark
+    public ZonedDateTime relabelToEastern() {
+        return TimeManager.toESTTimeZone(startDateTime);
+    }
+
+    /**
+     * The fields the Appointment model held before it switched to epoch seconds.
+     */
+    private static final class EagerAppointment {
+        private final int id;
+        private final String title;
+        private final String description;
+        private final String location;
+        private final String type;
+        private final ZonedDateTime start;
+        private final ZonedDateTime end;
+        private final int customerId;
+        private final int userId;
+        private final int contactId;
+        private final ZonedDateTime createDate;
+        private final String createdBy;
+        private final Timestamp lastUpdate;
+        private final String lastUpdatedBy;
+
+        private EagerAppointment(int id, String title, String description, String location, String type,
+                                 ZonedDateTime start, ZonedDateTime end, int customerId, int userId, int contactId,
+                                 ZonedDateTime createDate, String createdBy, Timestamp lastUpdate,
+                                 String lastUpdatedBy) {
+            this.id = id;
+            this.title = title;
+            this.description = description;
+            this.location = location;
+            this.type = type;
+            this.start = start;
+            this.end = end;
+            this.customerId = customerId;
+            this.userId = userId;
+            this.contactId = contactId;
+            this.createDate = createDate;
+            this.createdBy = createdBy;
+            this.lastUpdate = lastUpdate;
+            this.lastUpdatedBy = lastUpdatedBy;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package benchmarks;
+
+import model.Appointment;
+import model.Contact;
+import utilities.ConflictDetector;
+import utilities.TimeZones;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Generates the same appointment table for any benchmark that needs one. Row i always gets the same values, so
+ * results at a given size are comparable between runs and between benchmarks.
+ *
+ * Appointments start on the half hour between 08:00 and 21:30 Eastern time over two years from 2026-01-01 and
+ * last 30, 60 or 90 minutes. The number of contacts and customers grows with the row count, so every size has a
+ * similar share of double-bookings.
+ */
+final class BenchmarkData {
+    static final String[] TYPES = {"Planning Session", "De-Briefing", "Check-in", "Review", "Training"};
+    private static final long FIRST_DAY = LocalDate.of(2026, 1, 1).toEpochDay();
+    private static final int DAYS = 730;
+    private static final int SLOTS_PER_DAY = 28;
+
+    private final int rows;
+    private final int contacts;
+    private final int customers;
+    private final int[] customerIds;
+    private final int[] contactIds;
+    private final int[] userIds;
+    private final int[] types;
+    private final long[] starts;
+    private final long[] ends;
+
+    BenchmarkData(int rows) {
+        this.rows = rows;
+        this.contacts = rows / 1000 + 3;
+        this.customers = rows / 20 + 1;
+        this.customerIds = new int[rows];
+        this.contactIds = new int[rows];
+        this.userIds = new int[rows];
+        this.types = new int[rows];
+        this.starts = new long[rows];
+        this.ends = new long[rows];
+        SplittableRandom random = new SplittableRandom(195);
+        for (int i = 0; i < rows; i++) {
+            long day = FIRST_DAY + random.nextInt(DAYS);
+            int secondOfDay = 8 * 3600 + random.nextInt(SLOTS_PER_DAY) * 1800;
+            this.starts[i] = TimeZones.toEpochSecond(day, secondOfDay, TimeZones.EASTERN);
+            this.ends[i] = this.starts[i] + (1 + random.nextInt(3)) * 1800L;
+            this.customerIds[i] = 1 + random.nextInt(this.customers);
+            this.contactIds[i] = 1 + random.nextInt(this.contacts);
+            this.userIds[i] = 1 + random.nextInt(2);
+            this.types[i] = random.nextInt(TYPES.length);
+        }
+    }
+
+    int rows() {
+        return this.rows;
+    }
+
+    /**
+     * @return One Appointment per row, shown in the given zone.
+     */
+    List<Appointment> appointments(ZoneId zone) {
+        List<Appointment> appointments = new ArrayList<>(this.rows);
+        for (int i = 0; i < this.rows; i++) {
+            appointments.add(new Appointment(i + 1, "Appointment " + (i + 1), "Synthetic appointment",
+                    "Room " + (i % 12 + 1), TYPES[this.types[i]], this.starts[i], this.ends[i], zone,
+                    this.customerIds[i], this.userIds[i], this.contactIds[i], this.starts[i] - 86_400, "script",
+                    (this.starts[i] - 86_400) * 1000, "script"));
+        }
+        return appointments;
+    }
+
+    /**
+     * @return The rows as a ConflictDetector schedule.
+     */
+    ConflictDetector.Schedule schedule() {
+        ConflictDetector.Schedule schedule = new ConflictDetector.Schedule();
+        for (int i = 0; i < this.rows; i++) {
+            schedule.add(i + 1, this.customerIds[i], this.contactIds[i], this.starts[i], this.ends[i]);
+        }
+        return schedule;
+    }
+
+    List<Contact> contacts() {
+        List<Contact> contacts = new ArrayList<>(this.contacts);
+        for (int id = 1; id <= this.contacts; id++) {
+            contacts.add(new Contact(id, "Contact " + id, "contact" + id + "@example.com"));
+        }
+        return contacts;
+    }
+
+    Map<Integer, String> contactNames() {
+        Map<Integer, String> names = new HashMap<>();
+        for (int id = 1; id <= this.contacts; id++) {
+            names.put(id, "Contact " + id);
+        }
+        return names;
+    }
+
+    /**
+     * Spreads the customers over the first-level divisions 1 to 70, numbered as in client_schedule.
+     */
+    Map<Integer, Integer> customerDivisions() {
+        Map<Integer, Integer> divisions = new HashMap<>();
+        for (int id = 1; id <= this.customers; id++) {
+            divisions.put(id, id % 70 + 1);
+        }
+        return divisions;
+    }
+
+    Map<Integer, String> divisionNames() {
+        Map<Integer, String> names = new HashMap<>();
+        for (int id = 1; id <= 70; id++) {
+            names.put(id, "Division " + id);
+        }
+        return names;
+    }
+
+    Map<Integer, String> divisionCountries() {
+        Map<Integer, String> countries = new HashMap<>();
+        for (int id = 1; id <= 70; id++) {
+            countries.put(id, id <= 54 ? "U.S" : id <= 67 ? "Canada" : "UK");
+        }
+        return countries;
+    }
+
+    Map<Integer, String> userNames() {
+        return Map.of(1, "test", 2, "admin");
+    }
+
+    /**
+     * Creates the appointments table with the client_schedule column layout and inserts every row in batches.
+     * Start and End are written in the JVM's zone, as the application writes them.
+     *
+     * @param connection An open connection to an empty database.
+     * @throws SQLException if the table cannot be created or filled.
+     */
+    void load(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE appointments (Appointment_ID INT PRIMARY KEY, Title VARCHAR(50), " +
+                    "Description VARCHAR(50), Location VARCHAR(50), Type VARCHAR(50), Start DATETIME, " +
+                    "End DATETIME, Create_Date DATETIME, Created_By VARCHAR(50), Last_Update TIMESTAMP, " +
+                    "Last_Updated_By VARCHAR(50), Customer_ID INT, User_ID INT, Contact_ID INT)");
+        }
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO appointments VALUES " +
+                "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < this.rows; i++) {
+                Timestamp created = new Timestamp((this.starts[i] - 86_400) * 1000);
+                insert.setInt(1, i + 1);
+                insert.setString(2, "Appointment " + (i + 1));
+                insert.setString(3, "Synthetic appointment");
+                insert.setString(4, "Room " + (i % 12 + 1));
+                insert.setString(5, TYPES[this.types[i]]);
+                insert.setTimestamp(6, new Timestamp(this.starts[i] * 1000));
+                insert.setTimestamp(7, new Timestamp(this.ends[i] * 1000));
+                insert.setTimestamp(8, created);
+                insert.setString(9, "script");
+                insert.setTimestamp(10, created);
+                insert.setString(11, "script");
+                insert.setInt(12, this.customerIds[i]);
+                insert.setInt(13, this.userIds[i]);
+                insert.setInt(14, this.contactIds[i]);
+                insert.addBatch();
+                if (i % 10_000 == 9_999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
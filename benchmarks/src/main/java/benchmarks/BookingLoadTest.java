@@ -0,0 +1,545 @@
+package benchmarks;
+
+import dbQueries.AppointmentQueries;
+import exceptions.AppointmentOverlap;
+import helper.ConnectionPool;
+import helper.QueryMetrics;
+import model.Appointment;
+import utilities.AlertManager;
+import utilities.LatencyHistogram;
+import utilities.TimeManager;
+import utilities.TimeZones;
+import utilities.Validator;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Simulates many schedulers booking appointments at once through the same path as the appointment form, without
+ * JavaFX, and reports how the booking path holds up:
+ *
+ *     gradle :benchmarks:loadtest --args="--agents=200 --duration=60 --think=500 --skew=1.2"
+ *
+ * Each agent repeats what a scheduler does with the form: it opens the form, which reads the next appointment ID
+ * with AppointmentQueries.getNextAppointmentId, thinks for a random time (exponentially distributed around
+ * --think milliseconds), then saves, which runs the Appointments.validateFields checks, the
+ * Validator.isAppointmentAvailable overlap check and AppointmentQueries.addAppointment. Every database call runs on
+ * a ConnectionPool lease, and the pool is as large as the number of agents unless -Dscheduler.poolSize says
+ * otherwise, so each agent has a connection to itself like a desktop client. Agents run on virtual threads on
+ * Java 21 and later, and on platform threads before that.
+ *
+ * Bookings are 30 minutes long, on the half hours of the weekdays in a window starting after the latest
+ * appointment in the database. --skew sets how much the agents crowd onto the same slots: 0 picks slots evenly,
+ * and larger values make a few popular slots take most of the bookings (the k-th most popular slot is picked in
+ * proportion to 1/k^skew).
+ *
+ * The report gives the throughput, the save latency percentiles and how the saves ended: booked, rejected for an
+ * overlap (the conflict rate), rejected for another reason, or failed. It also counts the two races of the form.
+ * The first is duplicate IDs: two agents read the same next ID and both saved it, so the database refused the
+ * second insert and that booking was lost. The second is admitted overlaps: two agents passed the overlap check
+ * at the same time and both booked the same time. Refused inserts are counted as the agents see them, and the
+ * database is checked afterwards for overlaps and for bookings that were reported saved but are missing. The
+ * first few other failures are printed to standard error and the rest are only counted. The bookings are deleted
+ * again unless --keep is given.
+ *
+ * The database is the H2 test bed from SyntheticDataset unless --url names another one; --dataset=N first refills
+ * it with N synthetic appointments. The overlap check reads every appointment, so keep the data set small enough
+ * for the save latency to mean something.
+ */
+public final class BookingLoadTest {
+    private static final int SLOTS_PER_DAY = 28;
+    private static final long BOOKING_SECONDS = 1800;
+    private static final int PRINTED_FAILURES = 10;
+
+    private final int agents;
+    private final long durationMillis;
+    private final long thinkMillis;
+    private final long[] slots;
+    private final double[] cumulativeWeights;
+    private final int customers;
+    private final int contacts;
+    private final int users;
+    // Marks this run's bookings, so they can be found and removed afterwards
+    private final String location;
+    private final long seed;
+
+    private final LatencyHistogram openTimes = new LatencyHistogram();
+    private final LatencyHistogram saveTimes = new LatencyHistogram();
+    private final LongAdder booked = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder refusedIds = new LongAdder();
+    // The ID each booking was saved with, by title
+    private final Map<String, Integer> bookings = new ConcurrentHashMap<>();
+    // The ID each of this run's titles has in the database, read after the run
+    private final Map<String, Integer> savedTitles = new HashMap<>();
+
+    private BookingLoadTest(int agents, long durationMillis, long thinkMillis, long[] slots, double skew,
+                            int customers, int contacts, int users, long seed) {
+        this.agents = agents;
+        this.durationMillis = durationMillis;
+        this.thinkMillis = thinkMillis;
+        this.customers = customers;
+        this.contacts = contacts;
+        this.users = users;
+        this.seed = seed;
+        this.location = "Load test " + Long.toString(System.currentTimeMillis(), 36);
+
+        // The popular slots are spread over the window instead of being its first ones
+        SplittableRandom random = new SplittableRandom(seed);
+        this.slots = slots.clone();
+        for (int i = this.slots.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long swap = this.slots[i];
+            this.slots[i] = this.slots[j];
+            this.slots[j] = swap;
+        }
+        this.cumulativeWeights = new double[slots.length];
+        double total = 0;
+        for (int k = 0; k < slots.length; k++) {
+            total += 1 / Math.pow(k + 1, skew);
+            this.cumulativeWeights[k] = total;
+        }
+    }
+
+    /**
+     * Starts the agents, waits for them to finish and prints the report.
+     *
+     * @return Whether no booking was lost to a duplicate ID or otherwise, and no overlap was admitted.
+     */
+    private boolean run(boolean keep) throws SQLException, InterruptedException {
+        ExecutorService executor = newExecutor(this.agents);
+        CountDownLatch done = new CountDownLatch(this.agents);
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(this.durationMillis);
+        SplittableRandom master = new SplittableRandom(this.seed);
+        for (int agent = 1; agent <= this.agents; agent++) {
+            int number = agent;
+            SplittableRandom random = master.split();
+            executor.execute(() -> {
+                try {
+                    runAgent(number, random, deadline);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        double seconds = (System.nanoTime() - started) / 1e9;
+        executor.shutdown();
+
+        List<long[]> saved = readBookings();
+        long lost = countLost();
+        long duplicateIds = countDuplicateIds();
+        long overlaps = countOverlaps(saved);
+        printReport(seconds, lost, duplicateIds, overlaps);
+        if (!keep) {
+            deleteBookings();
+        }
+        return lost == 0 && this.refusedIds.sum() == 0 && duplicateIds == 0 && overlaps == 0;
+    }
+
+    private void runAgent(int agent, SplittableRandom random, long deadline) {
+        int sequence = 0;
+        while (System.nanoTime() < deadline) {
+            try {
+                long opened = System.nanoTime();
+                int appointmentId;
+                // The query classes find the leased connection themselves, so the lease is only closed here
+                ConnectionPool.Lease lease = ConnectionPool.lease();
+                try {
+                    appointmentId = AppointmentQueries.getNextAppointmentId();
+                } finally {
+                    lease.close();
+                }
+                this.openTimes.record(System.nanoTime() - opened);
+                // -log(1 - u) is exponentially distributed with mean 1
+                Thread.sleep((long) (-Math.log(1 - random.nextDouble()) * this.thinkMillis));
+                if (System.nanoTime() >= deadline) {
+                    return;
+                }
+                if (appointmentId < 0) {
+                    this.failed.increment();
+                    continue;
+                }
+                String title = "Load " + agent + "-" + ++sequence;
+                long saving = System.nanoTime();
+                lease = ConnectionPool.lease();
+                try {
+                    save(appointmentId, title, random);
+                } finally {
+                    lease.close();
+                    this.saveTimes.record(System.nanoTime() - saving);
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                this.failed.increment();
+                if (this.failed.sum() <= PRINTED_FAILURES) {
+                    System.err.println("Agent " + agent + ": " + e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks and saves one booking as Appointments.onSaveButton does for a new appointment.
+     */
+    private void save(int appointmentId, String title, SplittableRandom random) throws SQLException {
+        long start = pickSlot(random);
+        ZonedDateTime startTime = Instant.ofEpochSecond(start).atZone(TimeZones.system());
+        ZonedDateTime endTime = startTime.plusSeconds(BOOKING_SECONDS);
+        int customerId = 1 + random.nextInt(this.customers);
+        int userId = 1 + random.nextInt(this.users);
+        int contactId = 1 + random.nextInt(this.contacts);
+
+        AlertManager.startCollecting();
+        boolean valid;
+        boolean overlap = false;
+        try {
+            valid = Validator.validateVarcharFifty("Title", title)
+                    & Validator.validateVarcharFifty("Description", "Load test booking")
+                    & Validator.validateVarcharFifty("Location", this.location)
+                    & Validator.validateVarcharFifty("Type", "Load Test")
+                    & Validator.isUserId(userId)
+                    & Validator.isCustomerId(customerId)
+                    & Validator.isTimeValid(startTime, endTime,
+                    startTime.withZoneSameInstant(TimeZones.EASTERN).toLocalTime(),
+                    endTime.withZoneSameInstant(TimeZones.EASTERN).toLocalTime());
+            if (valid) {
+                Validator.isAppointmentAvailable(startTime, endTime, appointmentId);
+            }
+        } catch (AppointmentOverlap ao) {
+            valid = false;
+            overlap = true;
+        } finally {
+            AlertManager.stopCollecting();
+        }
+        if (overlap) {
+            this.conflicts.increment();
+            return;
+        }
+        if (!valid) {
+            this.rejected.increment();
+            return;
+        }
+        try {
+            AppointmentQueries.addAppointment(new Appointment(appointmentId, title, "Load test booking",
+                    this.location, "Load Test", TimeManager.toSystemTimeZone(startTime),
+                    TimeManager.toSystemTimeZone(endTime), customerId, userId, contactId, ZonedDateTime.now(),
+                    "admin", TimeManager.getTimestampForCurrentUTCTime(), "admin"));
+        } catch (SQLException sqlE) {
+            if (isDuplicateKey(sqlE)) {
+                this.refusedIds.increment();
+                return;
+            }
+            throw sqlE;
+        }
+        this.bookings.put(title, appointmentId);
+        this.booked.increment();
+    }
+
+    /**
+     * @return Whether the exception, or one of its causes, is the database refusing a key that is already taken.
+     */
+    private static boolean isDuplicateKey(SQLException exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLIntegrityConstraintViolationException) {
+                return true;
+            }
+            if (cause instanceof SQLException
+                    && String.valueOf(((SQLException) cause).getSQLState()).startsWith("23")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long pickSlot(SplittableRandom random) {
+        double target = random.nextDouble() * this.cumulativeWeights[this.cumulativeWeights.length - 1];
+        int index = Arrays.binarySearch(this.cumulativeWeights, target);
+        index = index >= 0 ? index : -index - 1;
+        return this.slots[Math.min(index, this.slots.length - 1)];
+    }
+
+    /**
+     * Reads this run's appointments from the database and notes the ID each title was saved under.
+     *
+     * @return The appointments as {Appointment_ID, start millis, end millis}, by start.
+     */
+    private List<long[]> readBookings() throws SQLException {
+        List<long[]> saved = new ArrayList<>();
+        this.savedTitles.clear();
+        try (ConnectionPool.Lease lease = ConnectionPool.lease();
+             PreparedStatement statement = lease.getConnection().prepareStatement("SELECT Appointment_ID, " +
+                     "Title, Start, End FROM appointments WHERE Location = ? ORDER BY Start")) {
+            statement.setString(1, this.location);
+            try (ResultSet results = statement.executeQuery()) {
+                while (results.next()) {
+                    this.savedTitles.put(results.getString(2), results.getInt(1));
+                    saved.add(new long[]{results.getInt(1), results.getTimestamp(3).getTime(),
+                            results.getTimestamp(4).getTime()});
+                }
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * @return The bookings reported as saved that are not in the database under their ID.
+     */
+    private long countLost() {
+        long lost = 0;
+        for (Map.Entry<String, Integer> booking : this.bookings.entrySet()) {
+            if (!booking.getValue().equals(this.savedTitles.get(booking.getKey()))) {
+                lost++;
+            }
+        }
+        return lost;
+    }
+
+    /**
+     * @return The number of IDs that more than one saved booking was given.
+     */
+    private long countDuplicateIds() {
+        Map<Integer, Integer> uses = new HashMap<>();
+        for (int appointmentId : this.bookings.values()) {
+            uses.merge(appointmentId, 1, Integer::sum);
+        }
+        return uses.values().stream().filter(count -> count > 1).count();
+    }
+
+    /**
+     * @return The number of this run's appointments that overlap an earlier one of this run.
+     */
+    private static long countOverlaps(List<long[]> saved) {
+        long overlaps = 0;
+        long latestEnd = Long.MIN_VALUE;
+        for (long[] appointment : saved) {
+            if (appointment[1] < latestEnd) {
+                overlaps++;
+            }
+            latestEnd = Math.max(latestEnd, appointment[2]);
+        }
+        return overlaps;
+    }
+
+    private void deleteBookings() throws SQLException {
+        try (ConnectionPool.Lease lease = ConnectionPool.lease();
+             PreparedStatement statement = lease.getConnection()
+                     .prepareStatement("DELETE FROM appointments WHERE Location = ?")) {
+            statement.setString(1, this.location);
+            statement.executeUpdate();
+        }
+    }
+
+    private void printReport(double seconds, long lost, long duplicateIds, long overlaps) {
+        long saves = this.booked.sum() + this.conflicts.sum() + this.rejected.sum() + this.refusedIds.sum();
+        LatencyHistogram.Snapshot save = this.saveTimes.snapshot();
+        LatencyHistogram.Snapshot open = this.openTimes.snapshot();
+        System.out.printf("%d agents for %.1f s on %s, %d slots%n", this.agents, seconds,
+                ConnectionPool.getMaxSize() + " pooled connections", this.slots.length);
+        System.out.printf("Saves:       %,d (%.1f/s), booked %,d (%.1f/s)%n", saves, saves / seconds,
+                this.booked.sum(), this.booked.sum() / seconds);
+        System.out.printf("Outcomes:    %.1f%% conflicts, %.1f%% rejected otherwise, %,d failed%n",
+                percent(this.conflicts.sum(), saves), percent(this.rejected.sum(), saves), this.failed.sum());
+        System.out.printf("Save ms:     p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f  max %.1f%n",
+                millis(save.getValueAtPercentile(50)), millis(save.getValueAtPercentile(90)),
+                millis(save.getValueAtPercentile(99)), millis(save.getValueAtPercentile(99.9)),
+                millis(save.getMaxNanos()));
+        System.out.printf("Open ms:     p50 %.1f  p99 %.1f%n", millis(open.getValueAtPercentile(50)),
+                millis(open.getValueAtPercentile(99)));
+        System.out.printf("Duplicate IDs: %,d saves refused for an ID already saved, %,d IDs saved twice%n",
+                this.refusedIds.sum(), duplicateIds);
+        System.out.printf("Lost bookings: %,d reported saved but missing from the database%n", lost);
+        System.out.printf("Admitted overlaps: %,d%n", overlaps);
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0 : 100.0 * part / whole;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    /**
+     * @return One virtual thread per agent on Java 21 and later, otherwise a platform thread per agent.
+     */
+    private static ExecutorService newExecutor(int agents) {
+        try {
+            Method virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtual.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(agents);
+        }
+    }
+
+    /**
+     * @return The start of every half-hour slot from 08:00 to 21:30 Eastern time on the weekdays in the range.
+     */
+    private static long[] businessSlots(LocalDate from, int days) {
+        long[] slots = new long[days * SLOTS_PER_DAY];
+        int count = 0;
+        for (int i = 0; i < days; i++) {
+            LocalDate day = from.plusDays(i);
+            if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            for (int slot = 0; slot < SLOTS_PER_DAY; slot++) {
+                slots[count++] = TimeZones.toEpochSecond(day.toEpochDay(), 8 * 3600 + slot * 1800,
+                        TimeZones.EASTERN);
+            }
+        }
+        return Arrays.copyOf(slots, count);
+    }
+
+    /**
+     * Reads the highest customer, contact and user IDs, and the day after the latest appointment.
+     */
+    private static long[] readDataSet(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet results = statement.executeQuery("SELECT (SELECT MAX(Customer_ID) FROM customers), " +
+                     "(SELECT MAX(Contact_ID) FROM contacts), (SELECT MAX(User_ID) FROM users), " +
+                     "(SELECT MAX(Start) FROM appointments)")) {
+            results.next();
+            Timestamp latest = results.getTimestamp(4);
+            LocalDate after = latest == null ? LocalDate.now(TimeZones.EASTERN)
+                    : LocalDateTime.ofInstant(latest.toInstant(), TimeZones.EASTERN).toLocalDate();
+            return new long[]{results.getInt(1), results.getInt(2), results.getInt(3),
+                    after.plusDays(1).toEpochDay()};
+        }
+    }
+
+    /**
+     * Usage: BookingLoadTest [--url=jdbc:...] [--user=sa] [--password=] [--agents=200] [--duration=30]
+     *        [--think=500] [--skew=1.0] [--from=yyyy-MM-dd] [--days=20] [--dataset=N] [--seed=195] [--keep]
+     *        [--query-stats]
+     */
+    public static void main(String[] args) {
+        String url = SyntheticDataset.DEFAULT_URL;
+        String user = "sa";
+        String password = "";
+        int agents = 200;
+        long duration = 30;
+        long think = 500;
+        double skew = 1.0;
+        LocalDate from = null;
+        int days = 20;
+        Integer dataset = null;
+        long seed = 195;
+        boolean keep = false;
+        boolean queryStats = false;
+        try {
+            for (String arg : args) {
+                String value = arg.contains("=") ? arg.substring(arg.indexOf('=') + 1) : "";
+                if (arg.startsWith("--url=")) {
+                    url = value;
+                } else if (arg.startsWith("--user=")) {
+                    user = value;
+                } else if (arg.startsWith("--password=")) {
+                    password = value;
+                } else if (arg.startsWith("--agents=")) {
+                    agents = Integer.parseInt(value);
+                } else if (arg.startsWith("--duration=")) {
+                    duration = Long.parseLong(value);
+                } else if (arg.startsWith("--think=")) {
+                    think = Long.parseLong(value);
+                } else if (arg.startsWith("--skew=")) {
+                    skew = Double.parseDouble(value);
+                } else if (arg.startsWith("--from=")) {
+                    from = LocalDate.parse(value);
+                } else if (arg.startsWith("--days=")) {
+                    days = Integer.parseInt(value);
+                } else if (arg.startsWith("--dataset=")) {
+                    dataset = Integer.parseInt(value);
+                } else if (arg.startsWith("--seed=")) {
+                    seed = Long.parseLong(value);
+                } else if (arg.equals("--keep")) {
+                    keep = true;
+                } else if (arg.equals("--query-stats")) {
+                    queryStats = true;
+                } else {
+                    exitWithUsage("Unknown argument: " + arg);
+                }
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            exitWithUsage("Invalid value: " + e.getMessage());
+        }
+        if (agents < 1 || duration < 1 || think < 0 || skew < 0 || days < 1) {
+            exitWithUsage("Agents, duration and days must be positive, think time and skew not negative.");
+        }
+        // JDBC and ConnectionPool read these when they are first used
+        System.setProperty("scheduler.jdbcUrl", url);
+        System.setProperty("scheduler.jdbcUser", user);
+        System.setProperty("scheduler.jdbcPassword", password);
+        if (System.getProperty("scheduler.poolSize") == null) {
+            System.setProperty("scheduler.poolSize", String.valueOf(agents));
+        }
+
+        boolean clean;
+        try {
+            long[] counts;
+            try (ConnectionPool.Lease lease = ConnectionPool.lease()) {
+                if (dataset != null) {
+                    new SyntheticDataset(dataset).load(lease.getConnection(), true);
+                }
+                counts = readDataSet(lease.getConnection());
+            }
+            if (counts[0] < 1 || counts[1] < 1 || counts[2] < 1) {
+                exitWithUsage("The database has no customers, contacts or users; load it with SyntheticDataset "
+                        + "or pass --dataset=N.");
+            }
+            long[] slots = businessSlots(from != null ? from : LocalDate.ofEpochDay(counts[3]), days);
+            if (slots.length == 0) {
+                exitWithUsage("The booking window holds no weekdays.");
+            }
+            BookingLoadTest test = new BookingLoadTest(agents, duration * 1000, think, slots, skew,
+                    (int) counts[0], (int) counts[1], (int) counts[2], seed);
+            clean = test.run(keep);
+        } catch (SQLException | InterruptedException e) {
+            System.err.println("The load test failed: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        if (queryStats) {
+            System.out.print(QueryMetrics.summary());
+        }
+        ConnectionPool.shutdown();
+        System.exit(clean ? 0 : 3);
+    }
+
+    private static void exitWithUsage(String problem) {
+        System.err.println(problem);
+        System.err.println("Usage: BookingLoadTest [--url=jdbc:...] [--user=sa] [--password=] [--agents=200] "
+                + "[--duration=30] [--think=500] [--skew=1.0] [--from=yyyy-MM-dd] [--days=20] [--dataset=N] "
+                + "[--seed=195] [--keep] [--query-stats]");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,79 @@
+package benchmarks;
+
+import dbQueries.UserQueries;
+import helper.JDBC;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of the credential lookup behind the login screen against the configured database.
+ * The throttle, the audit log and alerts are left out so only the database work is timed.
+ *
+ * preparedLookup is the cached, parameterized statement used by UserQueries.validateCredentials.
+ * concatenatedLookup reproduces the previous implementation, which built a new SELECT * statement for every attempt.
+ * warmUserIdCheck is the User_ID check Validator.isUserId makes once the user index is warm.
+ *
+ * Requires the database used by helper.JDBC with the sample user test/test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginLatencyBenchmark {
+    private static final String USERNAME = "test";
+    private static final String PASSWORD = "test";
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void connect() {
+        connection = JDBC.getConnection();
+        if (connection == null) {
+            throw new IllegalStateException("The login benchmark needs a database connection.");
+        }
+        UserQueries.warmUserIndex();
+    }
+
+    @TearDown(Level.Trial)
+    public void disconnect() {
+        JDBC.closeConnection();
+    }
+
+    @Benchmark
+    public int preparedLookup() throws SQLException {
+        return UserQueries.findUserId(USERNAME, PASSWORD);
+    }
+
+    @Benchmark
+    public boolean concatenatedLookup() throws SQLException {
+        String sql = "SELECT * FROM USERS WHERE USER_NAME = '" + USERNAME + "' AND password = '" + PASSWORD + "'";
+        try (PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet results = statement.executeQuery()) {
+            return results.next() && results.getString("User_Name").equals(USERNAME)
+                    && results.getString("Password").equals(PASSWORD);
+        }
+    }
+
+    @Benchmark
+    public boolean warmUserIdCheck() {
+        return UserQueries.isKnownUserId(1);
+    }
+}
@@ -0,0 +1,93 @@
+package benchmarks;
+
+import model.Appointment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import repository.InMemoryAppointmentRepository;
+import utilities.ConflictDetector;
+import utilities.TimeManager;
+import utilities.TimeZones;
+import utilities.Validator;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overlap checks over a calendar of 1k, 100k and 1M appointments.
+ *
+ * validatorScan repeats the loop in Validator.isAppointmentAvailable without the query: the new appointment is
+ * compared with every stored one through checkIfTimeIsBetween, after moving both into Eastern time. The new
+ * appointment falls on a Sunday outside the generated hours, so every row is compared.
+ * repositoryCheck makes the same check as Validator.isAppointmentAvailable now does against an
+ * InMemoryAppointmentRepository holding the calendar, which compares only the appointments its start index finds
+ * near the new one.
+ * conflictSweep finds every double-booking in the same calendar with ConflictDetector.
+ * No database is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class OverlapBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private List<Appointment> appointments;
+    private ConflictDetector.Schedule schedule;
+    private InMemoryAppointmentRepository repository;
+    private ZonedDateTime start;
+    private ZonedDateTime end;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData data = new BenchmarkData(rows);
+        appointments = data.appointments(TimeZones.system());
+        schedule = data.schedule();
+        repository = new InMemoryAppointmentRepository();
+        repository.addAll(appointments);
+        start = ZonedDateTime.of(2025, 12, 28, 6, 0, 0, 0, TimeZones.system());
+        end = start.plusMinutes(30);
+    }
+
+    @Benchmark
+    public boolean validatorScan() {
+        for (Appointment a : appointments) {
+            if (Validator.checkIfTimeIsBetween(TimeManager.toESTTimeZone(start), TimeManager.toESTTimeZone(end),
+                    TimeManager.toESTTimeZone(a.getStart()), TimeManager.toESTTimeZone(a.getEnd()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Benchmark
+    public boolean repositoryCheck() {
+        for (Appointment a : repository.findTouching(start, end, -1)) {
+            if (Validator.checkIfTimeIsBetween(TimeManager.toESTTimeZone(start), TimeManager.toESTTimeZone(end),
+                    TimeManager.toESTTimeZone(a.getStart()), TimeManager.toESTTimeZone(a.getEnd()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Benchmark
+    public long conflictSweep(Blackhole blackhole) throws IOException {
+        return ConflictDetector.findConflicts(schedule,
+                (resource, resourceId, first, second, overlapStart, overlapEnd) -> blackhole.consume(second));
+    }
+}
@@ -0,0 +1,516 @@
+package benchmarks;
+
+import dbQueries.AppointmentQueries;
+import dbQueries.CustomerQueries;
+import dbQueries.UserQueries;
+import exceptions.AppointmentOverlap;
+import helper.JDBC;
+import model.Appointment;
+import utilities.AlertManager;
+import utilities.AppointmentCube;
+import utilities.ReportManager;
+import utilities.TimeManager;
+import utilities.TimeZones;
+import utilities.Validator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Runs a fixed set of scenarios against a synthetic data set, compares their times with stored baselines and fails
+ * when one has slowed down by more than a threshold:
+ *
+ *     gradle :benchmarks:regression
+ *     gradle :benchmarks:regression --args="--update-baseline"
+ *
+ * The scenarios are the work behind the screens that matter most, run through the same query and report classes
+ * as the application:
+ * - startup.schedule-window: a new connection, the login lookup and the data the Schedule window loads when it
+ *   opens (customers, all appointments and the user's appointments in the next 15 minutes). The JavaFX window
+ *   itself is not opened, so the suite runs without a display.
+ * - schedule.reload-tables: the customer and appointment queries of Scheduler.reloadTables.
+ * - appointment.save: saving a new appointment, i.e. the form's validation, the overlap check and the insert.
+ *   The appointment is deleted again outside the timing.
+ * - report.*: each report of the Reports window, generated without the ReportCache.
+ *
+ * By default the data set is SyntheticDataset with 100,000 appointments (--rows) in an in-memory H2 database, so
+ * every run sees the same rows. Each scenario runs --warmup times untimed and then --iterations times timed, and
+ * its median is compared with the baseline in baselines/regression.properties, if that was recorded with the
+ * same rows and iteration counts. A median more than --threshold (default 0.25, i.e. 25%) and 2 ms above its
+ * baseline is a regression, and the suite exits with status 1. A scenario with no comparable baseline, because
+ * the file is missing, was recorded with other settings or lacks the scenario, makes the suite exit with status 3,
+ * so a run that compared nothing does not pass; --allow-missing-baseline accepts such a run.
+ * The summary is printed and written as Markdown and HTML to build/reports/regression.
+ *
+ * Baselines depend on the machine, so record them with --update-baseline on the machine that runs the suite,
+ * and again after a change that is meant to alter the times.
+ */
+public final class RegressionSuite {
+    private static final Path DEFAULT_BASELINE = Paths.get("baselines", "regression.properties");
+    private static final Path DEFAULT_OUT = Paths.get("build", "reports", "regression");
+    // Smaller differences than this are never reported, as they are within the timer and scheduler noise
+    private static final double MIN_REGRESSION_MILLIS = 2;
+
+    /**
+     * One timed unit of work. Setup and cleanup run outside the timing.
+     */
+    private interface Scenario {
+        default void setUp(int iteration) throws Exception {
+        }
+
+        void run() throws Exception;
+
+        default void tearDown() throws Exception {
+        }
+    }
+
+    /**
+     * The times of one scenario, in milliseconds, in the order they were taken.
+     */
+    private static final class Result {
+        private final String name;
+        private final double[] millis;
+
+        private Result(String name, double[] millis) {
+            this.name = name;
+            this.millis = millis;
+        }
+
+        private double median() {
+            return percentile(50);
+        }
+
+        private double percentile(double percentile) {
+            double[] sorted = this.millis.clone();
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+            return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+        }
+    }
+
+    private final int warmup;
+    private final int iterations;
+    private final long firstFreeDay;
+
+    private RegressionSuite(int warmup, int iterations, long firstFreeDay) {
+        this.warmup = warmup;
+        this.iterations = iterations;
+        this.firstFreeDay = firstFreeDay;
+    }
+
+    /**
+     * @return The scenarios in the order they run and are reported.
+     */
+    private Map<String, Scenario> scenarios() {
+        Map<String, Scenario> scenarios = new LinkedHashMap<>();
+        scenarios.put("startup.schedule-window", () -> {
+            JDBC.openConnection();
+            if (UserQueries.findUserId("test", "test") == -1) {
+                throw new IllegalStateException("User test is missing from the data set");
+            }
+            CustomerQueries.getAllCustomers();
+            AppointmentQueries.fetchAllAppointments();
+            AppointmentQueries.fetchAllAppointmentsWithin15Minutes();
+        });
+        scenarios.put("schedule.reload-tables", () -> {
+            CustomerQueries.getAllCustomers();
+            AppointmentQueries.fetchAllAppointments();
+        });
+        scenarios.put("appointment.save", new SaveScenario());
+        scenarios.put("report.contact-schedule", () -> ReportManager.streamContactSchedule(null, null,
+                new StringBuilder()));
+        scenarios.put("report.type-month", ReportManager::countAppointmentsByTypeAndMonth);
+        scenarios.put("report.customers-by-division", () -> ReportManager.streamCustomersByDivision(
+                new StringBuilder()));
+        scenarios.put("report.pivot-country-month", () -> ReportManager.pivot(AppointmentCube.Dimension.COUNTRY,
+                AppointmentCube.Dimension.MONTH, AppointmentCube.Measure.COUNT));
+        scenarios.put("report.conflicts", () -> ReportManager.streamConflicts(null, null, new StringBuilder()));
+        return scenarios;
+    }
+
+    /**
+     * Saves a new 30-minute appointment as Appointments.onSaveButton does, each time on a later day after the
+     * data set, and deletes it again afterwards.
+     */
+    private final class SaveScenario implements Scenario {
+        private int appointmentId;
+        private ZonedDateTime start;
+
+        @Override
+        public void setUp(int iteration) throws SQLException {
+            this.appointmentId = AppointmentQueries.getNextAppointmentId();
+            long day = RegressionSuite.this.firstFreeDay + iteration;
+            this.start = Instant.ofEpochSecond(TimeZones.toEpochSecond(day, 10 * 3600, TimeZones.EASTERN))
+                    .atZone(TimeZones.system());
+        }
+
+        @Override
+        public void run() throws SQLException {
+            ZonedDateTime end = this.start.plusMinutes(30);
+            AlertManager.startCollecting();
+            List<String> problems;
+            try {
+                Validator.validateVarcharFifty("Title", "Regression check");
+                Validator.validateVarcharFifty("Description", "Regression suite booking");
+                Validator.validateVarcharFifty("Location", "Regression");
+                Validator.validateVarcharFifty("Type", "Check-in");
+                Validator.isUserId(1);
+                Validator.isCustomerId(1);
+                Validator.isTimeValid(this.start, end,
+                        this.start.withZoneSameInstant(TimeZones.EASTERN).toLocalTime(),
+                        end.withZoneSameInstant(TimeZones.EASTERN).toLocalTime());
+                Validator.isAppointmentAvailable(this.start, end, this.appointmentId);
+            } catch (AppointmentOverlap ao) {
+                // Reported below with the other problems
+            } finally {
+                problems = AlertManager.stopCollecting();
+            }
+            if (!problems.isEmpty()) {
+                throw new IllegalStateException("The booking was rejected: " + problems);
+            }
+            AppointmentQueries.addAppointment(new Appointment(this.appointmentId, "Regression check",
+                    "Regression suite booking", "Regression", "Check-in", TimeManager.toSystemTimeZone(this.start),
+                    TimeManager.toSystemTimeZone(end), 1, 1, 1, ZonedDateTime.now(), "admin",
+                    TimeManager.getTimestampForCurrentUTCTime(), "admin"));
+        }
+
+        @Override
+        public void tearDown() throws SQLException {
+            AppointmentQueries.removeAppointment(this.appointmentId);
+        }
+    }
+
+    /**
+     * Runs every scenario. The application's console messages are held back while the scenarios run.
+     */
+    private List<Result> run(PrintStream console) throws Exception {
+        List<Result> results = new ArrayList<>();
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (Map.Entry<String, Scenario> entry : scenarios().entrySet()) {
+                Scenario scenario = entry.getValue();
+                int iteration = 0;
+                for (int i = 0; i < this.warmup; i++) {
+                    time(scenario, iteration++);
+                }
+                System.gc();
+                double[] millis = new double[this.iterations];
+                for (int i = 0; i < this.iterations; i++) {
+                    millis[i] = time(scenario, iteration++);
+                }
+                Result result = new Result(entry.getKey(), millis);
+                results.add(result);
+                console.printf("%-32s median %9.2f ms%n", result.name, result.median());
+            }
+        } finally {
+            System.setOut(out);
+        }
+        return results;
+    }
+
+    private static double time(Scenario scenario, int iteration) throws Exception {
+        scenario.setUp(iteration);
+        long started = System.nanoTime();
+        try {
+            scenario.run();
+            return (System.nanoTime() - started) / 1e6;
+        } finally {
+            scenario.tearDown();
+        }
+    }
+
+    /**
+     * @return The medians in the baseline file by scenario, plus the "rows", "warmup" and "iterations" they were
+     *         recorded with, or an empty map if there is no file.
+     */
+    private static Map<String, Double> readBaseline(Path file) throws IOException {
+        Map<String, Double> baseline = new TreeMap<>();
+        if (!Files.exists(file)) {
+            return baseline;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        for (String name : properties.stringPropertyNames()) {
+            try {
+                baseline.put(name, Double.parseDouble(properties.getProperty(name).trim()));
+            } catch (NumberFormatException nfe) {
+                System.err.println("Ignoring baseline " + name + ": " + nfe.getMessage());
+            }
+        }
+        return baseline;
+    }
+
+    private static void writeBaseline(Path file, int rows, int warmup, int iterations, List<Result> results)
+            throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("# Median milliseconds per RegressionSuite scenario, recorded with --update-baseline on "
+                    + LocalDate.now() + "\n");
+            out.write("# " + System.getProperty("os.name") + ", " + Runtime.getRuntime().availableProcessors()
+                    + " CPUs, Java " + System.getProperty("java.version") + "\n");
+            out.write("rows=" + rows + "\n");
+            out.write("warmup=" + warmup + "\n");
+            out.write("iterations=" + iterations + "\n");
+            for (Result result : results) {
+                out.write(result.name + "=" + String.format("%.2f", result.median()) + "\n");
+            }
+        }
+    }
+
+    private static String setting(Map<String, Double> baseline, String setting) {
+        Double recorded = baseline.get(setting);
+        return recorded == null ? "unknown" : String.valueOf(recorded.intValue());
+    }
+
+    private static boolean matches(Map<String, Double> baseline, String setting, int value) {
+        Double recorded = baseline.get(setting);
+        return recorded != null && recorded.intValue() == value;
+    }
+
+    /**
+     * @return The status of a result against its baseline: new, ok, faster or REGRESSION.
+     */
+    private static String status(Result result, Double baseline, double threshold) {
+        if (baseline == null) {
+            return "new";
+        }
+        double median = result.median();
+        if (median > baseline * (1 + threshold) && median - baseline > MIN_REGRESSION_MILLIS) {
+            return "REGRESSION";
+        }
+        if (median < baseline * (1 - threshold) && baseline - median > MIN_REGRESSION_MILLIS) {
+            return "faster";
+        }
+        return "ok";
+    }
+
+    private static String change(Result result, Double baseline) {
+        if (baseline == null || baseline == 0) {
+            return "";
+        }
+        return String.format("%+.1f%%", 100 * (result.median() - baseline) / baseline);
+    }
+
+    private static String markdown(int rows, List<Result> results, Map<String, Double> baseline,
+                                   double threshold) {
+        StringBuilder md = new StringBuilder();
+        md.append("# Performance regression summary\n\n");
+        md.append(String.format("%,d appointments, %d iterations per scenario, threshold %.0f%%, %s.%n%n", rows,
+                results.isEmpty() ? 0 : results.get(0).millis.length, threshold * 100, LocalDate.now()));
+        md.append("| Scenario | Baseline ms | Median ms | p90 ms | Change | Status |\n");
+        md.append("|---|---:|---:|---:|---:|---|\n");
+        for (Result result : results) {
+            Double base = baseline.get(result.name);
+            md.append(String.format("| %s | %s | %.2f | %.2f | %s | %s |%n", result.name,
+                    base == null ? "" : String.format("%.2f", base), result.median(), result.percentile(90),
+                    change(result, base), status(result, base, threshold)));
+        }
+        return md.toString();
+    }
+
+    private static String html(int rows, List<Result> results, Map<String, Double> baseline, double threshold) {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Performance regression summary"
+                + "</title>\n<style>body{font-family:sans-serif}table{border-collapse:collapse}"
+                + "td,th{border:1px solid #ccc;padding:4px 8px}td.n{text-align:right}"
+                + ".REGRESSION{background:#f8d0d0}.faster{background:#d0f0d0}</style></head><body>\n");
+        html.append("<h1>Performance regression summary</h1>\n");
+        html.append(String.format("<p>%,d appointments, %d iterations per scenario, threshold %.0f%%, %s.</p>%n",
+                rows, results.isEmpty() ? 0 : results.get(0).millis.length, threshold * 100, LocalDate.now()));
+        html.append("<table><tr><th>Scenario</th><th>Baseline ms</th><th>Median ms</th><th>p90 ms</th>"
+                + "<th>Change</th><th>Status</th></tr>\n");
+        for (Result result : results) {
+            Double base = baseline.get(result.name);
+            String status = status(result, base, threshold);
+            html.append(String.format("<tr class=\"%s\"><td>%s</td><td class=\"n\">%s</td><td class=\"n\">%.2f</td>"
+                            + "<td class=\"n\">%.2f</td><td class=\"n\">%s</td><td>%s</td></tr>%n", status,
+                    result.name, base == null ? "" : String.format("%.2f", base), result.median(),
+                    result.percentile(90), change(result, base), status));
+        }
+        html.append("</table>\n</body></html>\n");
+        return html.toString();
+    }
+
+    /**
+     * @return The epoch day after the latest appointment, so the save scenario books free days.
+     */
+    private static long firstFreeDay(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet results = statement.executeQuery("SELECT MAX(Start) FROM appointments")) {
+            Timestamp latest = results.next() ? results.getTimestamp(1) : null;
+            LocalDate last = latest == null ? LocalDate.now(TimeZones.EASTERN)
+                    : latest.toInstant().atZone(TimeZones.EASTERN).toLocalDate();
+            return last.plusDays(1).toEpochDay();
+        }
+    }
+
+    /**
+     * Usage: RegressionSuite [--rows=100000] [--url=jdbc:... --user=sa --password=] [--warmup=3]
+     *        [--iterations=10] [--threshold=0.25] [--baseline=baselines/regression.properties]
+     *        [--out=build/reports/regression] [--update-baseline]
+     */
+    public static void main(String[] args) {
+        int rows = 100_000;
+        String url = null;
+        String user = "sa";
+        String password = "";
+        int warmup = 3;
+        int iterations = 10;
+        double threshold = 0.25;
+        Path baselineFile = DEFAULT_BASELINE;
+        Path outDir = DEFAULT_OUT;
+        boolean update = false;
+        boolean allowMissing = false;
+        try {
+            for (String arg : args) {
+                String value = arg.contains("=") ? arg.substring(arg.indexOf('=') + 1) : "";
+                if (arg.startsWith("--rows=")) {
+                    rows = Integer.parseInt(value);
+                } else if (arg.startsWith("--url=")) {
+                    url = value;
+                } else if (arg.startsWith("--user=")) {
+                    user = value;
+                } else if (arg.startsWith("--password=")) {
+                    password = value;
+                } else if (arg.startsWith("--warmup=")) {
+                    warmup = Integer.parseInt(value);
+                } else if (arg.startsWith("--iterations=")) {
+                    iterations = Integer.parseInt(value);
+                } else if (arg.startsWith("--threshold=")) {
+                    threshold = Double.parseDouble(value);
+                } else if (arg.startsWith("--baseline=")) {
+                    baselineFile = Paths.get(value);
+                } else if (arg.startsWith("--out=")) {
+                    outDir = Paths.get(value);
+                } else if (arg.equals("--update-baseline")) {
+                    update = true;
+                } else if (arg.equals("--allow-missing-baseline")) {
+                    allowMissing = true;
+                } else {
+                    exitWithUsage("Unknown argument: " + arg);
+                }
+            }
+        } catch (NumberFormatException nfe) {
+            exitWithUsage("Invalid number: " + nfe.getMessage());
+        }
+        if (rows < 1 || warmup < 0 || iterations < 1 || threshold < 0) {
+            exitWithUsage("Rows and iterations must be positive, warmup and threshold not negative.");
+        }
+        boolean generate = url == null;
+        if (generate) {
+            url = "jdbc:h2:mem:regression;MODE=MySQL;NON_KEYWORDS=END;DB_CLOSE_DELAY=-1";
+        }
+        // JDBC reads these when it is first used
+        System.setProperty("scheduler.jdbcUrl", url);
+        System.setProperty("scheduler.jdbcUser", user);
+        System.setProperty("scheduler.jdbcPassword", password);
+
+        PrintStream console = System.out;
+        List<Result> results;
+        Map<String, Double> baseline;
+        try {
+            long firstFreeDay;
+            // Kept open for the whole run, as an in-memory database lives as long as a connection to it
+            try (Connection connection = DriverManager.getConnection(url, user, password)) {
+                if (generate) {
+                    console.printf("Loading %,d synthetic appointments...%n", rows);
+                    new SyntheticDataset(rows).load(connection, true);
+                } else {
+                    try (Statement statement = connection.createStatement();
+                         ResultSet count = statement.executeQuery("SELECT COUNT(*) FROM appointments")) {
+                        count.next();
+                        rows = count.getInt(1);
+                    }
+                }
+                firstFreeDay = firstFreeDay(connection);
+                results = new RegressionSuite(warmup, iterations, firstFreeDay).run(console);
+            }
+            baseline = readBaseline(baselineFile);
+            // Times taken over other data or with other iteration counts are not comparable
+            if (!baseline.isEmpty() && (!matches(baseline, "rows", rows) || !matches(baseline, "warmup", warmup)
+                    || !matches(baseline, "iterations", iterations))) {
+                console.printf("The baseline was recorded with %s rows, %s warmup and %s iterations, not %d, %d "
+                                + "and %d; it is not compared.%n", setting(baseline, "rows"), setting(baseline, "warmup"),
+                        setting(baseline, "iterations"), rows, warmup, iterations);
+                baseline = new TreeMap<>();
+            }
+            Files.createDirectories(outDir);
+            String md = markdown(rows, results, baseline, threshold);
+            Files.writeString(outDir.resolve("summary.md"), md, StandardCharsets.UTF_8);
+            Files.writeString(outDir.resolve("summary.html"), html(rows, results, baseline, threshold),
+                    StandardCharsets.UTF_8);
+            console.println();
+            console.print(md);
+            console.println();
+            console.println("Summary written to " + outDir.resolve("summary.md") + " and summary.html");
+            if (update) {
+                writeBaseline(baselineFile, rows, warmup, iterations, results);
+                console.println("Baseline written to " + baselineFile);
+            }
+        } catch (Exception e) {
+            System.err.println("The regression suite failed: " + e);
+            e.printStackTrace();
+            System.exit(2);
+            return;
+        }
+
+        long regressions = 0;
+        long missing = 0;
+        for (Result result : results) {
+            String status = status(result, baseline.get(result.name), threshold);
+            if (status.equals("REGRESSION")) {
+                regressions++;
+            } else if (status.equals("new")) {
+                missing++;
+            }
+        }
+        if (regressions > 0 && !update) {
+            System.err.println(regressions + " scenario(s) slowed down by more than "
+                    + Math.round(threshold * 100) + "% against the baseline");
+            System.exit(1);
+        }
+        if (missing > 0 && !update && !allowMissing) {
+            System.err.println(missing + " scenario(s) have no comparable baseline in " + baselineFile
+                    + "; record one on this machine with --update-baseline, or pass --allow-missing-baseline");
+            System.exit(3);
+        }
+        System.exit(0);
+    }
+
+    private static void exitWithUsage(String problem) {
+        System.err.println(problem);
+        System.err.println("Usage: RegressionSuite [--rows=100000] [--url=jdbc:... --user=sa --password=] "
+                + "[--warmup=3] [--iterations=10] [--threshold=0.25] "
+                + "[--baseline=baselines/regression.properties] [--out=build/reports/regression] "
+                + "[--update-baseline] [--allow-missing-baseline]");
+        System.exit(2);
+    }
+}
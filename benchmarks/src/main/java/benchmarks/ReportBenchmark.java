@@ -0,0 +1,120 @@
+package benchmarks;
+
+import model.Appointment;
+import model.Contact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utilities.AppointmentCube;
+import utilities.ConflictDetector;
+import utilities.ReportManager;
+import utilities.TimeZones;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures ReportManager report generation over 1k, 100k and 1M appointments that are already in memory, so the
+ * scores cover aggregation and formatting only. Reports that grow with the row count are written to an Appendable
+ * that only counts characters, the way ReportRunner streams them to a file, so the heap holds no report text.
+ * No database is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class ReportBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private BenchmarkData data;
+    private List<Appointment> appointments;
+    private List<Contact> contacts;
+    private Map<Integer, String> contactNames;
+    private Map<Integer, Integer> customerDivisions;
+    private Map<Integer, String> divisionNames;
+    private Map<Integer, String> divisionCountries;
+    private AppointmentCube cube;
+    private ConflictDetector.Schedule schedule;
+
+    @Setup
+    public void setUp() {
+        data = new BenchmarkData(rows);
+        appointments = data.appointments(TimeZones.system());
+        contacts = data.contacts();
+        contactNames = data.contactNames();
+        customerDivisions = data.customerDivisions();
+        divisionNames = data.divisionNames();
+        divisionCountries = data.divisionCountries();
+        cube = buildCube();
+        schedule = data.schedule();
+    }
+
+    @Benchmark
+    public String typeAndMonthCounts() {
+        return ReportManager.renderTypeAndMonthCounts(appointments);
+    }
+
+    @Benchmark
+    public long contactSchedule() throws IOException {
+        CharCounter out = new CharCounter();
+        ReportManager.appendContactSchedule(contacts, appointments, out);
+        return out.count;
+    }
+
+    @Benchmark
+    public AppointmentCube buildCube() {
+        return AppointmentCube.build(appointments, contactNames, customerDivisions, divisionNames,
+                divisionCountries, data.userNames());
+    }
+
+    @Benchmark
+    public String pivotCountryByMonth() {
+        return cube.pivot(AppointmentCube.Dimension.COUNTRY, AppointmentCube.Dimension.MONTH,
+                AppointmentCube.Measure.COUNT).render();
+    }
+
+    @Benchmark
+    public long conflicts() throws IOException {
+        CharCounter out = new CharCounter();
+        ReportManager.appendConflicts(schedule, out);
+        return out.count;
+    }
+
+    /**
+     * Discards the report text and keeps its length.
+     */
+    private static final class CharCounter implements Appendable {
+        private long count;
+
+        @Override
+        public Appendable append(CharSequence text) {
+            this.count += text.length();
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence text, int start, int end) {
+            this.count += end - start;
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            this.count++;
+            return this;
+        }
+    }
+}
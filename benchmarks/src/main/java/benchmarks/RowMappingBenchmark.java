@@ -0,0 +1,82 @@
+package benchmarks;
+
+import dbQueries.RowMapper;
+import model.Appointment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading the appointments table into Appointment objects, as AppointmentQueries and ReportQueries do,
+ * at 1k, 100k and 1M rows. The table lives in an in-memory H2 database in MySQL mode, so no server is needed and
+ * the score is mostly driver decoding plus RowMapper, not network time. END is not treated as a keyword, so the
+ * End column keeps the name it has in client_schedule.
+ *
+ * mapAppointments runs the SELECT * query behind AppointmentQueries.getAllAppointments and maps every row.
+ * readColumns reads the same columns without building appointments, which isolates the cost of the mapping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class RowMappingBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private Connection connection;
+    private PreparedStatement selectAll;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:rowmapping;MODE=MySQL;NON_KEYWORDS=END;DB_CLOSE_DELAY=-1");
+        new BenchmarkData(rows).load(connection);
+        selectAll = connection.prepareStatement("SELECT * FROM appointments");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        selectAll.close();
+        try (PreparedStatement drop = connection.prepareStatement("DROP ALL OBJECTS")) {
+            drop.execute();
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Appointment> mapAppointments() throws SQLException {
+        try (ResultSet results = selectAll.executeQuery()) {
+            return RowMapper.toAppointments(results);
+        }
+    }
+
+    @Benchmark
+    public long readColumns() throws SQLException {
+        long checksum = 0;
+        try (ResultSet results = selectAll.executeQuery()) {
+            while (results.next()) {
+                checksum += results.getInt("Appointment_ID") + results.getString("Title").length()
+                        + results.getTimestamp("Start").getTime() + results.getInt("Contact_ID");
+            }
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,558 @@
+package benchmarks;
+
+import utilities.TimeZones;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Fills a database with a complete client_schedule data set of any size, so performance work can be checked
+ * without the production database: the three countries and all 70 first-level divisions as numbered in
+ * client_schedule, customers spread over every division, contacts, users and any number of appointments.
+ *
+ *     gradle :benchmarks:dataset --args="--appointments=1000000 --overlap=0.02"
+ *
+ * Without --url the data goes into an H2 database in MySQL mode under build/testbed, which the application's
+ * queries run against unchanged. With --url=jdbc:mysql://localhost/client_schedule_perf (and --user and
+ * --password) it goes into a MySQL schema; point the application at the same schema with -Dscheduler.jdbcUrl,
+ * -Dscheduler.jdbcUser and -Dscheduler.jdbcPassword. Tables that do not exist are created. Tables that already
+ * hold rows are only emptied and refilled when --replace is given.
+ *
+ * Appointments fall on weekdays, on the half hour between 08:00 and 21:30 Eastern time, and last 30, 60 or 90
+ * minutes without running past 22:00. They are spread evenly over the days and generated in time order, with
+ * Appointment_ID increasing with Start. Each one is given a customer and a contact that are free at that time,
+ * except for the share set by --overlap: each of those starts together with the appointment before it, ends no
+ * later than it and takes its customer or its contact, so it double-books that customer or contact whether or
+ * not the data set is dense enough for appointments to run at the same time. The same seed and options always
+ * give the same rows.
+ *
+ * Users 1 and 2 are test/test and admin/admin as in client_schedule; the others are userN with password userN.
+ */
+public final class SyntheticDataset {
+    static final String DEFAULT_URL = "jdbc:h2:./build/testbed/client_schedule;MODE=MySQL;NON_KEYWORDS=END";
+
+    private static final String[] COUNTRIES = {"U.S", "UK", "Canada"};
+    private static final int[] DIVISION_IDS = {
+            1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28,
+            29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47, 48, 49, 52, 54,
+            60, 61, 62, 63, 64, 65, 66, 67, 68, 69, 70, 71, 72,
+            101, 102, 103, 104};
+    private static final String[] DIVISIONS = {
+            "Alabama", "Arizona", "Arkansas", "California", "Colorado", "Connecticut", "Delaware",
+            "District of Columbia", "Florida", "Georgia", "Idaho", "Illinois", "Indiana", "Iowa", "Kansas",
+            "Kentucky", "Louisiana", "Maine", "Maryland", "Massachusetts", "Michigan", "Minnesota", "Mississippi",
+            "Missouri", "Montana", "Nebraska", "Nevada", "New Hampshire", "New Jersey", "New Mexico", "New York",
+            "North Carolina", "North Dakota", "Ohio", "Oklahoma", "Oregon", "Pennsylvania", "Rhode Island",
+            "South Carolina", "South Dakota", "Tennessee", "Texas", "Utah", "Vermont", "Virginia", "Washington",
+            "West Virginia", "Wisconsin", "Wyoming", "Hawaii", "Alaska",
+            "Northwest Territories", "Alberta", "British Columbia", "Manitoba", "New Brunswick", "Nova Scotia",
+            "Prince Edward Island", "Ontario", "Québec", "Saskatchewan", "Nunavut", "Yukon",
+            "Newfoundland and Labrador",
+            "England", "Wales", "Scotland", "Northern Ireland"};
+    private static final String[] FIRST_NAMES = {"Anika", "Daniel", "Li", "Maria", "James", "Aisha", "Noah",
+            "Sofia", "Liam", "Chloe", "Mateo", "Priya", "Owen", "Hana", "Lucas", "Amara", "Ethan", "Zoe", "Omar",
+            "Grace", "Ravi", "Emma", "Jonas", "Mei"};
+    private static final String[] LAST_NAMES = {"Costa", "Garcia", "Lee", "Smith", "Nguyen", "Brown", "Patel",
+            "Martin", "Wilson", "Tremblay", "Kim", "Roy", "Taylor", "Singh", "Lopez", "Walker", "Chen", "Evans",
+            "Murphy", "Cohen", "Davies", "Okafor", "Fischer", "Silva"};
+    private static final String[] STREETS = {"Main Street", "Oak Avenue", "Maple Drive", "Boardwalk",
+            "High Street", "Park Road", "Cedar Lane", "King Street", "Lakeshore Road", "Elm Court"};
+    private static final String[] LOCATIONS = {"Phoenix, Arizona", "White Plains, New York", "Montreal, Canada",
+            "London, England"};
+    private static final int SLOTS_PER_DAY = 28;
+    private static final int BATCH_SIZE = 10_000;
+
+    private final int appointments;
+    private final int customers;
+    private final int contacts;
+    private final int users;
+    private final LocalDate firstDay;
+    private final int days;
+    private final double overlap;
+    private final long seed;
+
+    private long customerOverlaps;
+    private long contactOverlaps;
+
+    /**
+     * A data set with as many customers, contacts and users as suit the number of appointments, over two years
+     * from 2026-01-01, with 1% deliberate double-bookings.
+     *
+     * @param appointments The number of appointments.
+     */
+    SyntheticDataset(int appointments) {
+        this(appointments, appointments / 20 + 1, defaultContacts(appointments, 730), 10,
+                LocalDate.of(2026, 1, 1), 730, 0.01, 195);
+    }
+
+    /**
+     * @param appointments The number of appointments.
+     * @param customers    The number of customers.
+     * @param contacts     The number of contacts.
+     * @param users        The number of users, at least 2.
+     * @param firstDay     The first day appointments fall on.
+     * @param days         The number of days appointments are spread over.
+     * @param overlap      The share of appointments, from 0 to 1, that double-book a customer or contact.
+     * @param seed         The seed for the random choices.
+     */
+    SyntheticDataset(int appointments, int customers, int contacts, int users, LocalDate firstDay, int days,
+                     double overlap, long seed) {
+        if (appointments < 0 || customers < 1 || contacts < 1 || users < 2 || days < 1
+                || overlap < 0 || overlap > 1) {
+            throw new IllegalArgumentException("Counts must be positive, users at least 2 and overlap 0 to 1");
+        }
+        this.appointments = appointments;
+        this.customers = customers;
+        this.contacts = contacts;
+        this.users = users;
+        this.firstDay = firstDay;
+        this.days = days;
+        this.overlap = overlap;
+        this.seed = seed;
+    }
+
+    /**
+     * Enough contacts that each appointment can be given a free one: about one and a half times the number of
+     * appointments running at once, and never fewer than the three in client_schedule.
+     */
+    private static int defaultContacts(int appointments, int days) {
+        double perSlot = (double) appointments / (days * 5 / 7.0 * SLOTS_PER_DAY);
+        return Math.max(3, (int) Math.ceil(perSlot * 2 * 1.5));
+    }
+
+    /**
+     * @return The number of appointments that double-book their customer, after load.
+     */
+    long getCustomerOverlaps() {
+        return this.customerOverlaps;
+    }
+
+    /**
+     * @return The number of appointments that double-book their contact, after load.
+     */
+    long getContactOverlaps() {
+        return this.contactOverlaps;
+    }
+
+    /**
+     * Creates any missing tables and fills them.
+     *
+     * @param connection An open connection. Its auto-commit setting is restored afterwards.
+     * @param replace    Whether to delete rows that are already in the tables.
+     * @throws SQLException          if the tables cannot be created or filled.
+     * @throws IllegalStateException if the tables hold rows and replace is false.
+     */
+    void load(Connection connection, boolean replace) throws SQLException {
+        createTables(connection);
+        if (!replace && hasRows(connection)) {
+            throw new IllegalStateException("The tables already hold rows; use --replace to delete them");
+        }
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            try (Statement statement = connection.createStatement()) {
+                // Children first, so the client_schedule foreign keys are never violated
+                for (String table : new String[]{"appointments", "customers", "users", "contacts",
+                        "first_level_divisions", "countries"}) {
+                    statement.executeUpdate("DELETE FROM " + table);
+                }
+            }
+            connection.commit();
+            Timestamp created = Timestamp.valueOf(this.firstDay.minusDays(30).atTime(9, 0));
+            loadReferenceData(connection, created);
+            loadCustomers(connection, created);
+            loadAppointments(connection);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Creates the client_schedule tables that do not exist yet, with the same columns. On H2 the (User_ID, Start)
+     * index from db/001_appointments_user_start_index.sql is created too; on MySQL apply the db scripts.
+     */
+    private static void createTables(Connection connection) throws SQLException {
+        String audit = "Create_Date DATETIME, Created_By VARCHAR(50), Last_Update TIMESTAMP, " +
+                "Last_Updated_By VARCHAR(50)";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS countries (Country_ID INT AUTO_INCREMENT PRIMARY KEY, " +
+                    "Country VARCHAR(50), " + audit + ")");
+            statement.execute("CREATE TABLE IF NOT EXISTS first_level_divisions (Division_ID INT AUTO_INCREMENT " +
+                    "PRIMARY KEY, Division VARCHAR(50), " + audit + ", Country_ID INT)");
+            statement.execute("CREATE TABLE IF NOT EXISTS customers (Customer_ID INT AUTO_INCREMENT PRIMARY KEY, " +
+                    "Customer_Name VARCHAR(50), Address VARCHAR(100), Postal_Code VARCHAR(50), Phone VARCHAR(50), " +
+                    audit + ", Division_ID INT)");
+            statement.execute("CREATE TABLE IF NOT EXISTS users (User_ID INT AUTO_INCREMENT PRIMARY KEY, " +
+                    "User_Name VARCHAR(50) UNIQUE, Password TEXT, " + audit + ")");
+            statement.execute("CREATE TABLE IF NOT EXISTS contacts (Contact_ID INT AUTO_INCREMENT PRIMARY KEY, " +
+                    "Contact_Name VARCHAR(50), Email VARCHAR(50))");
+            statement.execute("CREATE TABLE IF NOT EXISTS appointments (Appointment_ID INT AUTO_INCREMENT " +
+                    "PRIMARY KEY, Title VARCHAR(50), Description VARCHAR(50), Location VARCHAR(50), " +
+                    "Type VARCHAR(50), Start DATETIME, End DATETIME, " + audit + ", Customer_ID INT, " +
+                    "User_ID INT, Contact_ID INT)");
+            if (connection.getMetaData().getURL().startsWith("jdbc:h2:")) {
+                statement.execute("CREATE INDEX IF NOT EXISTS idx_appointments_user_start " +
+                        "ON appointments (User_ID, Start)");
+            }
+        }
+    }
+
+    private static boolean hasRows(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet results = statement.executeQuery("SELECT (SELECT COUNT(*) FROM appointments) + " +
+                     "(SELECT COUNT(*) FROM customers) + (SELECT COUNT(*) FROM contacts) + " +
+                     "(SELECT COUNT(*) FROM users) + (SELECT COUNT(*) FROM first_level_divisions) + " +
+                     "(SELECT COUNT(*) FROM countries)")) {
+            return results.next() && results.getLong(1) > 0;
+        }
+    }
+
+    private void loadReferenceData(Connection connection, Timestamp created) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO countries (Country_ID, " +
+                "Country, Create_Date, Created_By, Last_Update, Last_Updated_By) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < COUNTRIES.length; i++) {
+                insert.setInt(1, i + 1);
+                insert.setString(2, COUNTRIES[i]);
+                setAudit(insert, 3, created);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO first_level_divisions " +
+                "(Division_ID, Division, Create_Date, Created_By, Last_Update, Last_Updated_By, Country_ID) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < DIVISION_IDS.length; i++) {
+                insert.setInt(1, DIVISION_IDS[i]);
+                insert.setString(2, DIVISIONS[i]);
+                setAudit(insert, 3, created);
+                insert.setInt(7, countryOf(DIVISION_IDS[i]));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO users (User_ID, User_Name, " +
+                "Password, Create_Date, Created_By, Last_Update, Last_Updated_By) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= this.users; id++) {
+                String name = id == 1 ? "test" : id == 2 ? "admin" : "user" + id;
+                insert.setInt(1, id);
+                insert.setString(2, name);
+                insert.setString(3, name);
+                setAudit(insert, 4, created);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO contacts (Contact_ID, " +
+                "Contact_Name, Email) VALUES (?, ?, ?)")) {
+            SplittableRandom random = new SplittableRandom(this.seed + 1);
+            for (int id = 1; id <= this.contacts; id++) {
+                String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                insert.setInt(1, id);
+                insert.setString(2, first + " " + last);
+                insert.setString(3, (first + "." + last).toLowerCase() + id + "@company.com");
+                insert.addBatch();
+                if (id % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+    }
+
+    /**
+     * Inserts the customers, assigning the divisions in turn so that every division has customers.
+     */
+    private void loadCustomers(Connection connection, Timestamp created) throws SQLException {
+        SplittableRandom random = new SplittableRandom(this.seed + 2);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO customers (Customer_ID, " +
+                "Customer_Name, Address, Postal_Code, Phone, Create_Date, Created_By, Last_Update, " +
+                "Last_Updated_By, Division_ID) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= this.customers; id++) {
+                int division = DIVISION_IDS[(id - 1) % DIVISION_IDS.length];
+                insert.setInt(1, id);
+                insert.setString(2, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                        + LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                insert.setString(3, (1 + random.nextInt(9999)) + " " + STREETS[random.nextInt(STREETS.length)]
+                        + ", " + DIVISIONS[(id - 1) % DIVISIONS.length]);
+                insert.setString(4, postalCode(countryOf(division), random));
+                insert.setString(5, String.format("%03d-%03d-%04d", 200 + random.nextInt(800),
+                        random.nextInt(1000), random.nextInt(10000)));
+                setAudit(insert, 6, created);
+                insert.setInt(10, division);
+                insert.addBatch();
+                if (id % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    /**
+     * Generates the appointments in time order and inserts them in batches, committing after each batch so a
+     * MySQL load of millions of rows does not build one huge transaction.
+     */
+    private void loadAppointments(Connection connection) throws SQLException {
+        SplittableRandom random = new SplittableRandom(this.seed);
+        long[] weekdays = weekdays();
+        long slots = (long) weekdays.length * SLOTS_PER_DAY;
+        // When each customer's and contact's latest appointment ends, in epoch seconds
+        long[] customerBusyUntil = new long[this.customers + 1];
+        long[] contactBusyUntil = new long[this.contacts + 1];
+        // The appointment generated last, which a deliberate double-booking clashes with
+        long previousStart = 0;
+        long previousEnd = 0;
+        int previousCustomer = 0;
+        int previousContact = 0;
+        this.customerOverlaps = 0;
+        this.contactOverlaps = 0;
+
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO appointments (Appointment_ID, " +
+                "Title, Description, Location, Type, Start, End, Create_Date, Created_By, Last_Update, " +
+                "Last_Updated_By, Customer_ID, User_ID, Contact_ID) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            int id = 0;
+            for (long slot = 0; slot < slots && id < this.appointments; slot++) {
+                long inSlot = (slot + 1) * this.appointments / slots - slot * this.appointments / slots;
+                int slotOfDay = (int) (slot % SLOTS_PER_DAY);
+                long start = TimeZones.toEpochSecond(weekdays[(int) (slot / SLOTS_PER_DAY)],
+                        8 * 3600 + slotOfDay * 1800, TimeZones.EASTERN);
+                for (long n = 0; n < inSlot; n++) {
+                    long begins = start;
+                    long end = start + (1 + random.nextInt(Math.min(3, SLOTS_PER_DAY - slotOfDay))) * 1800L;
+                    int customer = 0;
+                    int contact = 0;
+                    if (id > 0 && random.nextDouble() < this.overlap) {
+                        // Run within the previous appointment and share its customer or its contact, so the clash
+                        // does not depend on another appointment happening to be running; Start stays in ID order
+                        begins = previousStart;
+                        end = begins + (1 + random.nextInt((int) ((previousEnd - previousStart) / 1800))) * 1800L;
+                        if (random.nextBoolean()) {
+                            customer = previousCustomer;
+                        } else {
+                            contact = previousContact;
+                        }
+                    }
+                    if (customer == 0) {
+                        customer = pickFree(customerBusyUntil, begins, random);
+                    }
+                    if (contact == 0) {
+                        contact = pickFree(contactBusyUntil, begins, random);
+                    }
+                    if (customerBusyUntil[customer] > begins) {
+                        this.customerOverlaps++;
+                    }
+                    if (contactBusyUntil[contact] > begins) {
+                        this.contactOverlaps++;
+                    }
+                    customerBusyUntil[customer] = Math.max(customerBusyUntil[customer], end);
+                    contactBusyUntil[contact] = Math.max(contactBusyUntil[contact], end);
+                    previousStart = begins;
+                    previousEnd = end;
+                    previousCustomer = customer;
+                    previousContact = contact;
+                    id++;
+
+                    String type = BenchmarkData.TYPES[random.nextInt(BenchmarkData.TYPES.length)];
+                    Timestamp booked = new Timestamp((begins - 86_400L * (1 + random.nextInt(60))) * 1000);
+                    insert.setInt(1, id);
+                    insert.setString(2, type + " #" + id);
+                    insert.setString(3, type + " with customer " + customer);
+                    insert.setString(4, LOCATIONS[random.nextInt(LOCATIONS.length)]);
+                    insert.setString(5, type);
+                    insert.setTimestamp(6, new Timestamp(begins * 1000));
+                    insert.setTimestamp(7, new Timestamp(end * 1000));
+                    insert.setTimestamp(8, booked);
+                    insert.setString(9, "script");
+                    insert.setTimestamp(10, booked);
+                    insert.setString(11, "script");
+                    insert.setInt(12, customer);
+                    insert.setInt(13, 1 + random.nextInt(this.users));
+                    insert.setInt(14, contact);
+                    insert.addBatch();
+                    if (id % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    /**
+     * Picks a random ID from 1 to busyUntil.length - 1 that is free at the given time, or any ID if none is.
+     */
+    private static int pickFree(long[] busyUntil, long start, SplittableRandom random) {
+        int count = busyUntil.length - 1;
+        for (int tries = 0; tries < 16; tries++) {
+            int id = 1 + random.nextInt(count);
+            if (busyUntil[id] <= start) {
+                return id;
+            }
+        }
+        int first = random.nextInt(count);
+        for (int i = 0; i < count; i++) {
+            int id = 1 + (first + i) % count;
+            if (busyUntil[id] <= start) {
+                return id;
+            }
+        }
+        return 1 + first;
+    }
+
+    /**
+     * @return The epoch days of the Mondays to Fridays in the range.
+     */
+    private long[] weekdays() {
+        long[] weekdays = new long[this.days];
+        int count = 0;
+        for (int i = 0; i < this.days; i++) {
+            LocalDate day = this.firstDay.plusDays(i);
+            if (day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                weekdays[count++] = day.toEpochDay();
+            }
+        }
+        if (count == 0) {
+            throw new IllegalArgumentException("The date range holds no weekdays");
+        }
+        return Arrays.copyOf(weekdays, count);
+    }
+
+    private static int countryOf(int divisionId) {
+        return divisionId <= 54 ? 1 : divisionId <= 72 ? 3 : 2;
+    }
+
+    private static String postalCode(int countryId, SplittableRandom random) {
+        String letters = "ABCEGHJKLMNPRSTVXY";
+        switch (countryId) {
+            case 3:
+                return "" + letters.charAt(random.nextInt(letters.length())) + random.nextInt(10)
+                        + letters.charAt(random.nextInt(letters.length())) + " " + random.nextInt(10)
+                        + letters.charAt(random.nextInt(letters.length())) + random.nextInt(10);
+            case 2:
+                return "SW" + (1 + random.nextInt(20)) + " " + random.nextInt(10)
+                        + letters.charAt(random.nextInt(letters.length()))
+                        + letters.charAt(random.nextInt(letters.length()));
+            default:
+                return String.format("%05d", random.nextInt(100_000));
+        }
+    }
+
+    private static void setAudit(PreparedStatement insert, int first, Timestamp created) throws SQLException {
+        insert.setTimestamp(first, created);
+        insert.setString(first + 1, "script");
+        insert.setTimestamp(first + 2, created);
+        insert.setString(first + 3, "script");
+    }
+
+    /**
+     * Generates a data set from the command line options and loads it.
+     *
+     * Usage: SyntheticDataset [--url=jdbc:...] [--user=sa] [--password=] [--appointments=100000]
+     *        [--customers=N] [--contacts=N] [--users=10] [--from=2026-01-01] [--days=730] [--overlap=0.01]
+     *        [--seed=195] [--replace]
+     */
+    public static void main(String[] args) {
+        String url = DEFAULT_URL;
+        String user = "sa";
+        String password = "";
+        int appointments = 100_000;
+        Integer customers = null;
+        Integer contacts = null;
+        int users = 10;
+        LocalDate from = LocalDate.of(2026, 1, 1);
+        int days = 730;
+        double overlap = 0.01;
+        long seed = 195;
+        boolean replace = false;
+        try {
+            for (String arg : args) {
+                String value = arg.contains("=") ? arg.substring(arg.indexOf('=') + 1) : "";
+                if (arg.startsWith("--url=")) {
+                    url = value;
+                } else if (arg.startsWith("--user=")) {
+                    user = value;
+                } else if (arg.startsWith("--password=")) {
+                    password = value;
+                } else if (arg.startsWith("--appointments=")) {
+                    appointments = Integer.parseInt(value);
+                } else if (arg.startsWith("--customers=")) {
+                    customers = Integer.parseInt(value);
+                } else if (arg.startsWith("--contacts=")) {
+                    contacts = Integer.parseInt(value);
+                } else if (arg.startsWith("--users=")) {
+                    users = Integer.parseInt(value);
+                } else if (arg.startsWith("--from=")) {
+                    from = LocalDate.parse(value);
+                } else if (arg.startsWith("--days=")) {
+                    days = Integer.parseInt(value);
+                } else if (arg.startsWith("--overlap=")) {
+                    overlap = Double.parseDouble(value);
+                } else if (arg.startsWith("--seed=")) {
+                    seed = Long.parseLong(value);
+                } else if (arg.equals("--replace")) {
+                    replace = true;
+                } else {
+                    exitWithUsage("Unknown argument: " + arg);
+                }
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            exitWithUsage("Invalid value: " + e.getMessage());
+        }
+        if (url.startsWith("jdbc:mysql:") && !url.contains("rewriteBatchedStatements")) {
+            // Connector/J sends each batch as multi-row INSERTs only when asked to
+            url += (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
+        }
+
+        SyntheticDataset dataset;
+        try {
+            dataset = new SyntheticDataset(appointments,
+                    customers != null ? customers : appointments / 20 + 1,
+                    contacts != null ? contacts : defaultContacts(appointments, days),
+                    users, from, days, overlap, seed);
+        } catch (IllegalArgumentException iae) {
+            exitWithUsage(iae.getMessage());
+            return;
+        }
+        long started = System.nanoTime();
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            dataset.load(connection, replace);
+        } catch (SQLException | IllegalStateException e) {
+            System.err.println("Unable to load the data set: " + e.getMessage());
+            System.exit(1);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("Loaded %,d appointments, %,d customers, %,d contacts and %d users in %.1f s "
+                        + "(%,.0f appointments/s)%n", dataset.appointments, dataset.customers, dataset.contacts,
+                dataset.users, seconds, dataset.appointments / Math.max(seconds, 1e-9));
+        System.out.printf("Double-booked: %,d by customer, %,d by contact, for about %,.0f requested%n",
+                dataset.customerOverlaps, dataset.contactOverlaps, dataset.overlap * dataset.appointments);
+        if (url.startsWith("jdbc:mysql:")) {
+            System.out.println("Run the application against it with -Dscheduler.jdbcUrl=\"" + url + "\" "
+                    + "-Dscheduler.jdbcUser=" + user + " -Dscheduler.jdbcPassword=...");
+        }
+    }
+
+    private static void exitWithUsage(String problem) {
+        System.err.println(problem);
+        System.err.println("Usage: SyntheticDataset [--url=jdbc:...] [--user=sa] [--password=] "
+                + "[--appointments=100000] [--customers=N] [--contacts=N] [--users=10] [--from=2026-01-01] "
+                + "[--days=730] [--overlap=0.01] [--seed=195] [--replace]");
+        System.exit(2);
+    }
+}
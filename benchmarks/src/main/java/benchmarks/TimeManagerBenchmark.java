@@ -0,0 +1,180 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utilities.TimeManager;
+import utilities.TimeZones;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every TimeManager method ten million times per measurement, so each score is the time for 10M calls.
+ * The legacy* benchmarks repeat the previous implementations, which looked up ZoneIds and built formatters on
+ * every call, for comparison with the cached versions. Add -prof gc to see the allocation per call.
+ * No database is needed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, batchSize = TimeManagerBenchmark.OPERATIONS)
+@Measurement(iterations = 5, batchSize = TimeManagerBenchmark.OPERATIONS)
+@Fork(1)
+public class TimeManagerBenchmark {
+    static final int OPERATIONS = 10_000_000;
+    private static final DateTimeFormatter SQL_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final LocalTime[] times = new LocalTime[48];
+    private int next;
+    private LocalDate date;
+    private ZonedDateTime dateTime;
+    private Timestamp timestamp;
+    private long epochSecond;
+
+    @Setup
+    public void setUp() {
+        for (int slot = 0; slot < times.length; slot++) {
+            times[slot] = LocalTime.of(slot / 2, slot % 2 * 30);
+        }
+        date = LocalDate.of(2026, 10, 19);
+        dateTime = ZonedDateTime.of(2026, 10, 19, 9, 30, 0, 0, ZoneId.systemDefault());
+        timestamp = Timestamp.valueOf("2026-10-19 09:30:00");
+        epochSecond = dateTime.toEpochSecond();
+    }
+
+    private LocalTime nextTime() {
+        next = (next + 1) % times.length;
+        return times[next];
+    }
+
+    @Benchmark
+    public ZonedDateTime combineDateAndTime() {
+        return TimeManager.combineDateAndTime(date, nextTime());
+    }
+
+    @Benchmark
+    public LocalTime generateLocalTime() {
+        next = (next + 1) % times.length;
+        return TimeManager.generateLocalTime(next / 2, next % 2 * 30);
+    }
+
+    @Benchmark
+    public ZonedDateTime toSystemTimeZoneFromZonedDateTime() {
+        return TimeManager.toSystemTimeZone(dateTime);
+    }
+
+    @Benchmark
+    public ZonedDateTime toSystemTimeZoneFromTimestamp() {
+        return TimeManager.toSystemTimeZone(timestamp);
+    }
+
+    @Benchmark
+    public ZonedDateTime toESTTimeZoneFromZonedDateTime() {
+        return TimeManager.toESTTimeZone(dateTime);
+    }
+
+    @Benchmark
+    public LocalTime toESTTimeZoneFromLocalTime() {
+        return TimeManager.toESTTimeZone(nextTime());
+    }
+
+    @Benchmark
+    public LocalTime legacyToESTTimeZoneFromLocalTime() {
+        LocalDateTime today = LocalDateTime.of(LocalDate.now(), nextTime());
+        ZonedDateTime systemDateTime = ZonedDateTime.of(today, ZoneId.systemDefault());
+        return systemDateTime.withZoneSameInstant(ZoneId.of("America/New_York")).toLocalTime();
+    }
+
+    @Benchmark
+    public String convertToESTAndFormatLabel() {
+        return TimeManager.convertToESTAndFormatLabel(nextTime());
+    }
+
+    @Benchmark
+    public String legacyConvertToESTAndFormatLabel() {
+        LocalDateTime today = LocalDateTime.of(LocalDate.now(), nextTime());
+        ZonedDateTime systemZoneDateTime = ZonedDateTime.of(today, ZoneId.systemDefault());
+        ZonedDateTime estZoneDateTime = systemZoneDateTime.withZoneSameInstant(ZoneId.of("America/New_York"));
+        return " (" + DateTimeFormatter.ofPattern("hh:mm:ss a").format(estZoneDateTime) + ") EST";
+    }
+
+    @Benchmark
+    public Timestamp getTimestampForCurrentUTCTime() {
+        return TimeManager.getTimestampForCurrentUTCTime();
+    }
+
+    @Benchmark
+    public Timestamp legacyGetTimestampForCurrentUTCTime() {
+        return Timestamp.valueOf(SQL_FORMAT.format(ZonedDateTime.of(LocalDateTime.now(), ZoneId.of("UTC"))));
+    }
+
+    @Benchmark
+    public Timestamp toTimestampUsingSQLFormat() {
+        return TimeManager.toTimestampUsingSQLFormat(dateTime);
+    }
+
+    @Benchmark
+    public Timestamp legacyToTimestampUsingSQLFormat() {
+        return Timestamp.valueOf(SQL_FORMAT.format(dateTime));
+    }
+
+    @Benchmark
+    public long toEpochSecond() {
+        return TimeManager.toEpochSecond(timestamp);
+    }
+
+    @Benchmark
+    public Timestamp toTimestamp() {
+        return TimeManager.toTimestamp(epochSecond);
+    }
+
+    @Benchmark
+    public long epochDayWithOffset() {
+        return TimeManager.epochDay(epochSecond, -14_400);
+    }
+
+    @Benchmark
+    public int secondOfDayWithOffset() {
+        return TimeManager.secondOfDay(epochSecond, -14_400);
+    }
+
+    @Benchmark
+    public long epochDayInZone() {
+        return TimeManager.epochDay(epochSecond + next++, TimeZones.EASTERN);
+    }
+
+    @Benchmark
+    public int secondOfDayInZone() {
+        return TimeManager.secondOfDay(epochSecond + next++, TimeZones.EASTERN);
+    }
+
+    @Benchmark
+    public int legacySecondOfDayInZone() {
+        return dateTime.plusSeconds(next++).withZoneSameInstant(ZoneId.of("America/New_York")).toLocalTime()
+                .toSecondOfDay();
+    }
+
+    @Benchmark
+    public String getDateFromZonedDateTime() {
+        return TimeManager.getDateFromZonedDateTime(dateTime);
+    }
+
+    @Benchmark
+    public String getTimeFromZonedDateTime() {
+        return TimeManager.getTimeFromZonedDateTime(dateTime);
+    }
+}
@@ -0,0 +1,78 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utilities.Validator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the regular expression checks the customer and appointment forms run on every save.
+ * Each Validator method compiles its pattern on every call, which these scores include.
+ *
+ * Only inputs that pass are used: a failed check opens an alert, which needs the JavaFX toolkit. validateEmail is
+ * left out because its pattern rejects every address. No database is needed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidatorBenchmark {
+    private String title = "Quarterly planning";
+    private String description = "Review the roadmap for the next quarter with the whole team";
+    private String name = "Daniel Jones";
+    private String address = "123 Main St";
+    private String customerId = "1024";
+    private String phone = "555-555-1234";
+    private String postalCode = "12345";
+    private String number = "42";
+
+    @Benchmark
+    public boolean validateVarcharFifty() {
+        return Validator.validateVarcharFifty("Title", title);
+    }
+
+    @Benchmark
+    public boolean validateVarcharHundred() {
+        return Validator.validateVarcharHundred("Description", description);
+    }
+
+    @Benchmark
+    public boolean validateName() {
+        return Validator.validateName(name);
+    }
+
+    @Benchmark
+    public boolean validateAddress() {
+        return Validator.validateAddress(address);
+    }
+
+    @Benchmark
+    public boolean validateIntTen() {
+        return Validator.validateIntTen("Customer ID", customerId);
+    }
+
+    @Benchmark
+    public boolean isPhone() {
+        return Validator.isPhone(phone);
+    }
+
+    @Benchmark
+    public boolean isPostalCode() {
+        return Validator.isPostalCode(postalCode);
+    }
+
+    @Benchmark
+    public boolean isInt() {
+        return Validator.isInt(number);
+    }
+}
@@ -0,0 +1,57 @@
+package benchmarks;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that --overlap gives about the requested number of double-bookings, for sparse and dense data sets.
+ */
+class SyntheticDatasetTest {
+
+    @Test
+    void sparseDataSetIsDoubleBookedAsRequested() throws SQLException {
+        assertDoubleBookings(2_000, 0.01);
+        assertDoubleBookings(2_000, 0.5);
+    }
+
+    @Test
+    void denseDataSetIsDoubleBookedAsRequested() throws SQLException {
+        assertDoubleBookings(20_000, 0.02);
+    }
+
+    @Test
+    void noOverlapDoubleBooksNothing() throws SQLException {
+        SyntheticDataset dataset = load(2_000, 0);
+        assertEquals(0, dataset.getCustomerOverlaps() + dataset.getContactOverlaps());
+    }
+
+    /**
+     * Allows four standard deviations of the number of rows picked to overlap, and a few more for rows that find
+     * no free customer or contact.
+     */
+    private static void assertDoubleBookings(int appointments, double overlap) throws SQLException {
+        SyntheticDataset dataset = load(appointments, overlap);
+        double expected = overlap * appointments;
+        double tolerance = 4 * Math.sqrt(appointments * overlap * (1 - overlap)) + 5;
+        long actual = dataset.getCustomerOverlaps() + dataset.getContactOverlaps();
+        assertTrue(Math.abs(actual - expected) <= tolerance,
+                actual + " double-bookings for " + expected + " requested");
+    }
+
+    private static SyntheticDataset load(int appointments, double overlap) throws SQLException {
+        SyntheticDataset dataset = new SyntheticDataset(appointments, appointments / 20 + 1, 30, 10,
+                LocalDate.of(2026, 1, 1), 730, overlap, 195);
+        String url = "jdbc:h2:mem:dataset" + appointments + "_" + overlap + ";MODE=MySQL;NON_KEYWORDS=END";
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            dataset.load(connection, true);
+        }
+        return dataset;
+    }
+}
@@ -0,0 +1,7 @@
+-- Supports AppointmentQueries.fetchAppointmentsStartingBetween, which runs at login to find the
+-- current user's appointments starting in the next 15 minutes:
+--   SELECT * FROM appointments WHERE User_ID = ? AND Start BETWEEN ? AND ? ORDER BY Start
+-- With this index MySQL reads only the index range for that user and window instead of every future appointment.
+USE client_schedule;
+
+CREATE INDEX idx_appointments_user_start ON appointments (User_ID, Start);
@@ -0,0 +1,40 @@
+package api;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown by a resource when a request cannot be carried out. The server answers with the exception's HTTP status
+ * and its messages, e.g. the Validator's messages for a rejected appointment.
+ */
+class ApiException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    private final int status;
+    private final List<String> messages;
+
+    /**
+     * @param status  The HTTP status to answer with.
+     * @param message What was wrong with the request.
+     */
+    ApiException(int status, String message) {
+        this(status, Collections.singletonList(message));
+    }
+
+    /**
+     * @param status   The HTTP status to answer with.
+     * @param messages Everything that was wrong with the request.
+     */
+    ApiException(int status, List<String> messages) {
+        super(String.join("; ", messages));
+        this.status = status;
+        this.messages = messages;
+    }
+
+    int getStatus() {
+        return this.status;
+    }
+
+    List<String> getMessages() {
+        return this.messages;
+    }
+}
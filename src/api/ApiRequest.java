@@ -0,0 +1,165 @@
+package api;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One HTTP API request: its method, the path below /api split into segments, the query parameters and the body.
+ * The getters convert parameters and body members to the types the resources need, throwing an ApiException
+ * with status 400 when a value is missing or malformed.
+ */
+final class ApiRequest {
+    private final String method;
+    private final String[] path;
+    private final Map<String, String> query;
+    private final String body;
+    private Map<String, Object> bodyObject;
+
+    /**
+     * @param method   The HTTP method.
+     * @param path     The path below /api, e.g. "appointments/12".
+     * @param rawQuery The undecoded query string, or null.
+     * @param body     The request body, empty if there is none.
+     */
+    ApiRequest(String method, String path, String rawQuery, String body) {
+        this.method = method;
+        this.path = path.isEmpty() ? new String[0] : path.split("/");
+        this.query = parseQuery(rawQuery);
+        this.body = body;
+    }
+
+    String getMethod() {
+        return this.method;
+    }
+
+    /**
+     * @return The number of path segments below /api.
+     */
+    int getPathLength() {
+        return this.path.length;
+    }
+
+    /**
+     * @param index The segment index, 0 being the resource name.
+     * @return The segment, or null if the path is shorter.
+     */
+    String getPathSegment(int index) {
+        return index < this.path.length ? this.path[index] : null;
+    }
+
+    /**
+     * @param index The segment index.
+     * @return The segment as an ID.
+     * @throws ApiException if the segment is not a whole number.
+     */
+    int getPathId(int index) {
+        try {
+            return Integer.parseInt(getPathSegment(index));
+        } catch (NumberFormatException nfe) {
+            throw new ApiException(404, "No such resource: " + String.join("/", this.path));
+        }
+    }
+
+    /**
+     * @param name The query parameter.
+     * @return The parameter as a date in the format yyyy-MM-dd, or null if it was not given.
+     */
+    LocalDate getDateParameter(String name) {
+        String value = this.query.get(name);
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException dtpE) {
+            throw new ApiException(400, name + " must be a date in the format yyyy-MM-dd");
+        }
+    }
+
+    /**
+     * @param name         The query parameter.
+     * @param defaultValue The value to use if the parameter was not given.
+     * @return The parameter as a whole number.
+     */
+    int getIntParameter(String name, int defaultValue) {
+        String value = this.query.get(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException nfe) {
+            throw new ApiException(400, name + " must be a whole number");
+        }
+    }
+
+    /**
+     * @param name The query parameter.
+     * @return The parameter, or null if it was not given.
+     */
+    String getParameter(String name) {
+        return this.query.get(name);
+    }
+
+    /**
+     * @return The body as a JSON object.
+     * @throws ApiException if the body is not a JSON object.
+     */
+    Map<String, Object> getBody() {
+        if (this.bodyObject == null) {
+            try {
+                this.bodyObject = Json.parseObject(this.body);
+            } catch (IllegalArgumentException iaE) {
+                throw new ApiException(400, "The body must be a JSON object: " + iaE.getMessage());
+            }
+        }
+        return this.bodyObject;
+    }
+
+    /**
+     * @param name A member of the body.
+     * @return The member as a string, or null if it is missing or null.
+     */
+    String getString(String name) {
+        Object value = getBody().get(name);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * @param name A member of the body.
+     * @return The member as a whole number.
+     * @throws ApiException if the member is missing or not a whole number.
+     */
+    int getInt(String name) {
+        Object value = getBody().get(name);
+        if (value instanceof Long && (Long) value == ((Long) value).intValue()) {
+            return ((Long) value).intValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Integer.parseInt((String) value);
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        throw new ApiException(400, name + " must be a whole number");
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+}
@@ -0,0 +1,48 @@
+package api;
+
+/**
+ * The status and JSON body a resource answers a request with.
+ */
+final class ApiResponse {
+    private final int status;
+    private final String body;
+
+    ApiResponse(int status, String body) {
+        this.status = status;
+        this.body = body;
+    }
+
+    /**
+     * @param json The response body.
+     * @return A 200 OK response.
+     */
+    static ApiResponse ok(Json.Writer json) {
+        return new ApiResponse(200, json.toString());
+    }
+
+    /**
+     * @param json The created resource.
+     * @return A 201 Created response.
+     */
+    static ApiResponse created(Json.Writer json) {
+        return new ApiResponse(201, json.toString());
+    }
+
+    /**
+     * @return A 204 No Content response.
+     */
+    static ApiResponse noContent() {
+        return new ApiResponse(204, null);
+    }
+
+    int getStatus() {
+        return this.status;
+    }
+
+    /**
+     * @return The JSON body, or null if the response has none.
+     */
+    String getBody() {
+        return this.body;
+    }
+}
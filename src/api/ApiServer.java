@@ -0,0 +1,256 @@
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import helper.ConnectionPool;
+import utilities.ActionTracer;
+import utilities.ControllerActionEvent;
+import utilities.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The ApiServer class serves appointments, customers, availability and reports as a JSON HTTP API, so other
+ * front ends can book against the same rules as the desktop application. It uses the JDK's built-in HTTP server
+ * and the existing query classes; main.ApiRunner starts it.
+ *
+ * Each request leases a database connection from the ConnectionPool for as long as it runs, so the number of
+ * connections stays bounded however many requests arrive at once; requests beyond that wait for a connection and
+ * get 503 if none becomes free in time. On Java 21 and later every request runs on its own virtual thread. On
+ * older runtimes requests run on a fixed set of platform threads and the rest queue.
+ *
+ * Errors are answered as {"errors": ["..."]} with a 4xx status for a bad request and 500 for a failed query.
+ * Appointment and customer writes are made one at a time on each node, as the IDs are allocated as the highest
+ * ID plus one and the overlap check must see every earlier booking.
+ */
+public abstract class ApiServer {
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final long WRITE_LOCK_TIMEOUT_MILLIS = Long.getLong("scheduler.poolTimeoutMillis", 5000);
+
+    private static final Set<String> METHODS = Set.of("GET", "POST", "PUT", "DELETE");
+    private static final Set<String> RESOURCES = Set.of("appointments", "customers", "availability", "reports");
+
+    private static final ReentrantLock writeLock = new ReentrantLock(true);
+    private static final Map<String, LatencyHistogram> requestTimes = new ConcurrentHashMap<>();
+
+    private static HttpServer server;
+    private static ExecutorService executor;
+
+    /**
+     * Starts the API on the given address.
+     *
+     * @param address The address and port to listen on. Port 0 picks a free port.
+     * @param threads The number of request threads when virtual threads are not available.
+     * @param backlog The number of connections the operating system queues before they are accepted.
+     * @return The address the API is listening on.
+     * @throws IOException if the address cannot be bound.
+     */
+    public static synchronized InetSocketAddress start(InetSocketAddress address, int threads, int backlog)
+            throws IOException {
+        if (server != null) {
+            return server.getAddress();
+        }
+        HttpServer httpServer = HttpServer.create(address, backlog);
+        executor = newExecutor(threads);
+        httpServer.setExecutor(executor);
+        httpServer.createContext("/api/", ApiServer::handle);
+        httpServer.start();
+        server = httpServer;
+        return server.getAddress();
+    }
+
+    /**
+     * Stops accepting requests, waits up to the given time for running ones to finish and stops the threads.
+     *
+     * @param graceSeconds How long running requests may take to finish.
+     */
+    public static synchronized void stop(int graceSeconds) {
+        if (server == null) {
+            return;
+        }
+        server.stop(graceSeconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(graceSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        executor = null;
+    }
+
+    /**
+     * @return Whether request handling runs on virtual threads.
+     */
+    public static boolean usesVirtualThreads() {
+        return virtualThreadFactory() != null;
+    }
+
+    /**
+     * @return The handling time of each route, e.g. "POST appointments", sorted by route.
+     */
+    public static Map<String, LatencyHistogram> getRequestTimes() {
+        return new TreeMap<>(requestTimes);
+    }
+
+    /**
+     * Waits for the node's write lock, which appointment and customer writes hold while they check and save.
+     *
+     * @throws ApiException with status 503 if the lock is not free in time.
+     */
+    static void lockWrites() {
+        try {
+            if (writeLock.tryLock(WRITE_LOCK_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+        throw new ApiException(503, "Too many changes at once, please retry");
+    }
+
+    /**
+     * Releases the write lock taken by lockWrites.
+     */
+    static void unlockWrites() {
+        writeLock.unlock();
+    }
+
+    private static ExecutorService newExecutor(int threads) {
+        Method virtual = virtualThreadFactory();
+        if (virtual != null) {
+            try {
+                return (ExecutorService) virtual.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.err.println("Unable to use virtual threads: " + e);
+            }
+        }
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "api-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Looks the virtual thread executor up by name, as the application is still built for Java 17.
+     *
+     * @return Executors.newVirtualThreadPerTaskExecutor, or null on runtimes before Java 21.
+     */
+    private static Method virtualThreadFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException nsmE) {
+            return null;
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        long started = System.nanoTime();
+        String path = exchange.getRequestURI().getPath().substring("/api/".length());
+        while (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        String method = exchange.getRequestMethod();
+        String resource = path.contains("/") ? path.substring(0, path.indexOf('/')) : path;
+        // Unknown paths share one entry, so they cannot grow the statistics without bound
+        String route = (METHODS.contains(method) ? method : "OTHER") + " "
+                + (RESOURCES.contains(resource) ? resource : "unknown");
+        ControllerActionEvent action = ActionTracer.begin("Api " + route);
+        ApiResponse response;
+        try (exchange) {
+            try {
+                if (!RESOURCES.contains(resource)) {
+                    throw new ApiException(404, "No such resource: /api/" + path);
+                }
+                ApiRequest request = new ApiRequest(method, path, exchange.getRequestURI().getRawQuery(),
+                        readBody(exchange));
+                // The query classes find the leased connection themselves, so the lease is only closed here
+                ConnectionPool.Lease lease = ConnectionPool.lease();
+                try {
+                    response = route(resource, request);
+                } finally {
+                    lease.close();
+                }
+            } catch (ApiException apiE) {
+                response = error(apiE.getStatus(), apiE.getMessages().toArray(new String[0]));
+            } catch (SQLTransientConnectionException stcE) {
+                response = error(503, "The database is busy, please retry");
+            } catch (SQLException sqlE) {
+                sqlE.printStackTrace();
+                response = error(500, "An SQL error has occurred upon database query.");
+            } catch (Exception e) {
+                e.printStackTrace();
+                response = error(500, "The request could not be completed.");
+            }
+            send(exchange, response);
+        } finally {
+            ActionTracer.end(action);
+            requestTimes.computeIfAbsent(route, key -> new LatencyHistogram())
+                    .record(System.nanoTime() - started);
+        }
+    }
+
+    private static ApiResponse route(String resource, ApiRequest request) throws Exception {
+        switch (resource) {
+            case "appointments":
+                return AppointmentResource.handle(request);
+            case "customers":
+                return CustomerResource.handle(request);
+            case "availability":
+                return AvailabilityResource.handle(request);
+            case "reports":
+                return ReportResource.handle(request);
+            default:
+                throw new ApiException(404, "No such resource: /api/" + resource);
+        }
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                throw new ApiException(413, "The body must not be larger than " + MAX_BODY_BYTES + " bytes");
+            }
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static ApiResponse error(int status, String... messages) {
+        Json.Writer json = new Json.Writer().beginObject().name("errors").beginArray();
+        for (String message : messages) {
+            json.value(message);
+        }
+        return new ApiResponse(status, json.endArray().endObject().toString());
+    }
+
+    private static void send(HttpExchange exchange, ApiResponse response) throws IOException {
+        if (response.getBody() == null) {
+            exchange.sendResponseHeaders(response.getStatus(), -1);
+            return;
+        }
+        byte[] body = response.getBody().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.getStatus(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package api;
+
+import dbQueries.AppointmentQueries;
+import dbQueries.ContactQueries;
+import dbQueries.ReportQueries;
+import exceptions.AppointmentOverlap;
+import model.Appointment;
+import model.Contact;
+import utilities.AlertManager;
+import utilities.AvailabilityEngine;
+import utilities.TimeManager;
+import utilities.TimeZones;
+import utilities.Validator;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Handles /api/appointments:
+ *
+ * GET    /api/appointments[?from=yyyy-MM-dd&amp;to=yyyy-MM-dd][&amp;customer=id]   List appointments.
+ * GET    /api/appointments/{id}                                          One appointment.
+ * POST   /api/appointments                                               Book an appointment.
+ * PUT    /api/appointments/{id}                                          Change an appointment.
+ * DELETE /api/appointments/{id}                                          Cancel an appointment.
+ *
+ * Bookings and changes are checked by the same Validator methods as the appointment form, so the API enforces
+ * the same field lengths, known users and customers, business hours and overlap rule as the desktop application.
+ * The Validator's messages are returned with status 400, or 409 when the time overlaps another appointment.
+ */
+abstract class AppointmentResource {
+
+    /**
+     * @param request The request, whose first path segment is "appointments".
+     * @return The response.
+     * @throws SQLException if a query fails.
+     */
+    static ApiResponse handle(ApiRequest request) throws SQLException {
+        if (request.getPathLength() == 1) {
+            switch (request.getMethod()) {
+                case "GET":
+                    return list(request);
+                case "POST":
+                    return create(request);
+                default:
+                    throw new ApiException(405, "Use GET or POST on /api/appointments");
+            }
+        }
+        if (request.getPathLength() == 2) {
+            int appointmentId = request.getPathId(1);
+            switch (request.getMethod()) {
+                case "GET":
+                    return ApiResponse.ok(write(new Json.Writer(), find(appointmentId)));
+                case "PUT":
+                    return update(request, appointmentId);
+                case "DELETE":
+                    return delete(appointmentId);
+                default:
+                    throw new ApiException(405, "Use GET, PUT or DELETE on /api/appointments/{id}");
+            }
+        }
+        throw new ApiException(404, "No such resource");
+    }
+
+    private static ApiResponse list(ApiRequest request) throws SQLException {
+        LocalDate from = request.getDateParameter("from");
+        LocalDate to = request.getDateParameter("to");
+        int customerId = request.getIntParameter("customer", -1);
+        List<Appointment> appointments;
+        if (customerId != -1) {
+            appointments = AppointmentQueries.fetchAppointmentsByCustomerId(customerId);
+        } else if (from != null || to != null) {
+            appointments = ReportQueries.fetchAppointments(from, to);
+        } else {
+            appointments = AppointmentQueries.fetchAllAppointments();
+        }
+        Json.Writer json = new Json.Writer().beginObject().name("appointments").beginArray();
+        for (Appointment appointment : appointments) {
+            write(json, appointment);
+        }
+        return ApiResponse.ok(json.endArray().endObject());
+    }
+
+    private static ApiResponse create(ApiRequest request) throws SQLException {
+        ApiServer.lockWrites();
+        try {
+            // The ID is read inside the write lock, so two bookings on this node never get the same one
+            int appointmentId = AppointmentQueries.getNextAppointmentId();
+            Appointment appointment = validate(request, appointmentId);
+            AppointmentQueries.addAppointment(appointment);
+            return ApiResponse.created(write(new Json.Writer(), appointment));
+        } finally {
+            ApiServer.unlockWrites();
+        }
+    }
+
+    private static ApiResponse update(ApiRequest request, int appointmentId) throws SQLException {
+        ApiServer.lockWrites();
+        try {
+            find(appointmentId);
+            Appointment appointment = validate(request, appointmentId);
+            AppointmentQueries.updateAppointment(appointment);
+            return ApiResponse.ok(write(new Json.Writer(), appointment));
+        } finally {
+            ApiServer.unlockWrites();
+        }
+    }
+
+    private static ApiResponse delete(int appointmentId) throws SQLException {
+        ApiServer.lockWrites();
+        try {
+            find(appointmentId);
+            AppointmentQueries.removeAppointment(appointmentId);
+            return ApiResponse.noContent();
+        } finally {
+            ApiServer.unlockWrites();
+        }
+    }
+
+    private static Appointment find(int appointmentId) throws SQLException {
+        Appointment appointment = AppointmentQueries.fetchAppointmentById(appointmentId);
+        if (appointment == null) {
+            throw new ApiException(404, "Appointment " + appointmentId + " does not exist");
+        }
+        return appointment;
+    }
+
+    /**
+     * Builds an appointment from the request body and checks it as Appointments.validateFields does.
+     *
+     * @param request       The request whose body holds the appointment.
+     * @param appointmentId The ID of the appointment being booked or changed.
+     * @return The appointment, ready to be saved.
+     * @throws ApiException with the Validator's messages if the appointment is not valid.
+     */
+    private static Appointment validate(ApiRequest request, int appointmentId) throws SQLException {
+        String title = orEmpty(request.getString("title"));
+        String description = orEmpty(request.getString("description"));
+        String location = orEmpty(request.getString("location"));
+        String type = orEmpty(request.getString("type"));
+        // The client's times are real instants; the rest of the application holds times in the system zone
+        ZonedDateTime start = readTime(request, "start").withZoneSameInstant(TimeZones.system());
+        ZonedDateTime end = readTime(request, "end").withZoneSameInstant(TimeZones.system());
+        int customerId = request.getInt("customerId");
+        int userId = request.getInt("userId");
+        int contactId = request.getInt("contactId");
+
+        boolean overlaps = false;
+        AlertManager.startCollecting();
+        List<String> problems;
+        try {
+            Validator.validateVarcharFifty("Title", title);
+            Validator.validateVarcharFifty("Description", description);
+            Validator.validateVarcharFifty("Location", location);
+            Validator.validateVarcharFifty("Type", type);
+            Validator.isUserId(userId);
+            boolean customerIdInput = Validator.isCustomerId(customerId);
+            if (!isContactId(contactId)) {
+                AlertManager.showAlert("Contact_ID entry does not exist in the database.", "Invalid entry");
+            }
+            boolean datesInput = Validator.isTimeValid(start, end,
+                    start.withZoneSameInstant(AvailabilityEngine.BUSINESS_ZONE).toLocalTime(),
+                    end.withZoneSameInstant(AvailabilityEngine.BUSINESS_ZONE).toLocalTime());
+            if (customerIdInput && datesInput) {
+                Validator.isAppointmentAvailable(start, end, appointmentId);
+            }
+        } catch (AppointmentOverlap overlap) {
+            overlaps = true;
+        } finally {
+            problems = AlertManager.stopCollecting();
+        }
+        if (overlaps) {
+            throw new ApiException(409, problems);
+        }
+        if (!problems.isEmpty()) {
+            throw new ApiException(400, problems);
+        }
+        return new Appointment(appointmentId, title, description, location, type,
+                start, end, customerId, userId, contactId,
+                ZonedDateTime.now(), "admin", TimeManager.getTimestampForCurrentUTCTime(), "admin");
+    }
+
+    private static boolean isContactId(int contactId) throws SQLException {
+        for (Contact contact : ContactQueries.getAllContacts()) {
+            if (contact.getId() == contactId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ZonedDateTime readTime(ApiRequest request, String name) {
+        String value = request.getString(name);
+        if (value == null) {
+            throw new ApiException(400, name + " is required");
+        }
+        try {
+            return ZonedDateTime.parse(value);
+        } catch (DateTimeParseException dtpE) {
+            throw new ApiException(400, name + " must be a date and time with an offset, e.g. 2024-05-01T09:00-04:00");
+        }
+    }
+
+    private static String orEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     * Writes an appointment as a JSON object, with its times as ISO-8601 date-times with offsets.
+     */
+    static Json.Writer write(Json.Writer json, Appointment appointment) {
+        return json.beginObject()
+                .field("id", appointment.getAppointment_ID())
+                .field("title", appointment.getTitle())
+                .field("description", appointment.getDescription())
+                .field("location", appointment.getLocation())
+                .field("type", appointment.getType())
+                .field("start", appointment.getStart().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME))
+                .field("end", appointment.getEnd().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME))
+                .field("customerId", appointment.getCustomer_ID())
+                .field("userId", appointment.getUser_ID())
+                .field("contactId", appointment.getContact_ID())
+                .endObject();
+    }
+}
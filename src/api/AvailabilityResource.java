@@ -0,0 +1,59 @@
+package api;
+
+import model.TimeSlot;
+import utilities.AvailabilityEngine;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Handles GET /api/availability?contact=id&amp;customer=id[&amp;minutes=30][&amp;from=yyyy-MM-dd][&amp;to=yyyy-MM-dd],
+ * which lists the free periods of a contact and/or customer within business hours, as the free-slots command of
+ * ReportRunner does. The search runs from today until 30 days ahead unless a range is given.
+ */
+abstract class AvailabilityResource {
+    // Longer searches are refused, so one request cannot load years of appointments
+    private static final int MAX_DAYS = 366;
+
+    /**
+     * @param request The request, whose first path segment is "availability".
+     * @return The free slots.
+     * @throws SQLException if the busy appointments cannot be loaded.
+     */
+    static ApiResponse handle(ApiRequest request) throws SQLException {
+        if (request.getPathLength() != 1) {
+            throw new ApiException(404, "No such resource");
+        }
+        if (!request.getMethod().equals("GET")) {
+            throw new ApiException(405, "Use GET on /api/availability");
+        }
+        int contactId = request.getIntParameter("contact", -1);
+        int customerId = request.getIntParameter("customer", -1);
+        int minutes = request.getIntParameter("minutes", 30);
+        if (contactId == -1 && customerId == -1) {
+            throw new ApiException(400, "contact or customer is required");
+        }
+        if (minutes <= 0) {
+            throw new ApiException(400, "minutes must be positive");
+        }
+        LocalDate from = request.getDateParameter("from");
+        LocalDate to = request.getDateParameter("to");
+        LocalDate firstDay = from == null ? LocalDate.now(AvailabilityEngine.BUSINESS_ZONE) : from;
+        LocalDate lastDay = to == null ? firstDay.plusDays(30) : to;
+        if (lastDay.isBefore(firstDay) || lastDay.isAfter(firstDay.plusDays(MAX_DAYS))) {
+            throw new ApiException(400, "to must be on or after from, and at most " + MAX_DAYS + " days later");
+        }
+
+        Json.Writer json = new Json.Writer().beginObject().name("slots").beginArray();
+        for (TimeSlot slot : AvailabilityEngine.findFreeSlots(contactId, customerId, firstDay, lastDay,
+                Duration.ofMinutes(minutes))) {
+            json.beginObject()
+                    .field("start", slot.getStart().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME))
+                    .field("end", slot.getEnd().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME))
+                    .endObject();
+        }
+        return ApiResponse.ok(json.endArray().endObject());
+    }
+}
@@ -0,0 +1,167 @@
+package api;
+
+import dbQueries.AppointmentQueries;
+import dbQueries.CustomerQueries;
+import dbQueries.FirstLevelDivisionQueries;
+import model.Customer;
+import utilities.AlertManager;
+import utilities.TimeManager;
+import utilities.TimeZones;
+import utilities.Validator;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Handles /api/customers:
+ *
+ * GET    /api/customers          List customers.
+ * GET    /api/customers/{id}     One customer.
+ * POST   /api/customers          Add a customer.
+ * PUT    /api/customers/{id}     Change a customer.
+ * DELETE /api/customers/{id}     Remove a customer and their appointments.
+ *
+ * New and changed customers are checked by the same Validator methods as the customer form, and the division
+ * must exist. The Validator's messages are returned with status 400.
+ */
+abstract class CustomerResource {
+
+    /**
+     * @param request The request, whose first path segment is "customers".
+     * @return The response.
+     * @throws SQLException if a query fails.
+     */
+    static ApiResponse handle(ApiRequest request) throws SQLException {
+        if (request.getPathLength() == 1) {
+            switch (request.getMethod()) {
+                case "GET":
+                    Json.Writer json = new Json.Writer().beginObject().name("customers").beginArray();
+                    for (Customer customer : CustomerQueries.getAllCustomers()) {
+                        write(json, customer);
+                    }
+                    return ApiResponse.ok(json.endArray().endObject());
+                case "POST":
+                    return create(request);
+                default:
+                    throw new ApiException(405, "Use GET or POST on /api/customers");
+            }
+        }
+        if (request.getPathLength() == 2) {
+            int customerId = request.getPathId(1);
+            switch (request.getMethod()) {
+                case "GET":
+                    return ApiResponse.ok(write(new Json.Writer(), find(customerId)));
+                case "PUT":
+                    return update(request, customerId);
+                case "DELETE":
+                    return delete(customerId);
+                default:
+                    throw new ApiException(405, "Use GET, PUT or DELETE on /api/customers/{id}");
+            }
+        }
+        throw new ApiException(404, "No such resource");
+    }
+
+    private static ApiResponse create(ApiRequest request) throws SQLException {
+        ApiServer.lockWrites();
+        try {
+            Customer customer = validate(request, CustomerQueries.getNextCustomerId());
+            CustomerQueries.addCustomer(customer);
+            return ApiResponse.created(write(new Json.Writer(), customer));
+        } finally {
+            ApiServer.unlockWrites();
+        }
+    }
+
+    private static ApiResponse update(ApiRequest request, int customerId) throws SQLException {
+        ApiServer.lockWrites();
+        try {
+            find(customerId);
+            Customer customer = validate(request, customerId);
+            CustomerQueries.updateCustomerInfo(customer);
+            return ApiResponse.ok(write(new Json.Writer(), customer));
+        } finally {
+            ApiServer.unlockWrites();
+        }
+    }
+
+    private static ApiResponse delete(int customerId) throws SQLException {
+        ApiServer.lockWrites();
+        try {
+            find(customerId);
+            // As on the schedule screen, the customer's appointments are removed first
+            AlertManager.startCollecting();
+            try {
+                AppointmentQueries.removeAppointmentsByCustomerId(
+                        AppointmentQueries.fetchAppointmentsByCustomerId(customerId), customerId);
+            } finally {
+                AlertManager.stopCollecting();
+            }
+            CustomerQueries.removeCustomer(customerId);
+            return ApiResponse.noContent();
+        } finally {
+            ApiServer.unlockWrites();
+        }
+    }
+
+    private static Customer find(int customerId) throws SQLException {
+        Customer customer = CustomerQueries.fetchCustomerById(customerId);
+        if (customer == null) {
+            throw new ApiException(404, "Customer " + customerId + " does not exist");
+        }
+        return customer;
+    }
+
+    /**
+     * Builds a customer from the request body and checks it as Customers.validateCustomerForms does.
+     *
+     * @param request    The request whose body holds the customer.
+     * @param customerId The ID of the customer being added or changed.
+     * @return The customer, ready to be saved.
+     * @throws ApiException with the Validator's messages if the customer is not valid.
+     */
+    private static Customer validate(ApiRequest request, int customerId) {
+        String name = orEmpty(request.getString("name"));
+        String address = orEmpty(request.getString("address"));
+        String postalCode = orEmpty(request.getString("postalCode"));
+        String phone = orEmpty(request.getString("phone"));
+        int divisionId = request.getInt("divisionId");
+
+        AlertManager.startCollecting();
+        List<String> problems;
+        try {
+            Validator.validateName(name);
+            Validator.validateAddress(address);
+            Validator.isPostalCode(postalCode);
+            Validator.isPhone(phone);
+            if (!FirstLevelDivisionQueries.buildDivisionMap().containsKey(divisionId)) {
+                AlertManager.showAlert("Division_ID entry does not exist in the database.", "Invalid entry");
+            }
+        } finally {
+            problems = AlertManager.stopCollecting();
+        }
+        if (!problems.isEmpty()) {
+            throw new ApiException(400, problems);
+        }
+        return new Customer(customerId, name, address, postalCode, phone,
+                ZonedDateTime.of(LocalDateTime.now(), TimeZones.UTC), "admin",
+                TimeManager.getTimestampForCurrentUTCTime(), "admin", divisionId);
+    }
+
+    private static String orEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static Json.Writer write(Json.Writer json, Customer customer) {
+        return json.beginObject()
+                .field("id", customer.getCustomer_ID())
+                .field("name", customer.getCustomer_Name())
+                .field("address", customer.getAddress())
+                .field("postalCode", customer.getPostal_Code())
+                .field("phone", customer.getPhone())
+                .field("divisionId", customer.getDivision_ID())
+                .endObject();
+    }
+}
@@ -0,0 +1,347 @@
+package api;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The Json class reads request bodies and writes responses for the HTTP API, so the server needs no library
+ * beyond the JDK. Objects are read into Maps, arrays into Lists, numbers into Longs or Doubles, and true, false
+ * and null into Booleans and null. Responses are written with a Writer, which adds the commas and quotes.
+ */
+abstract class Json {
+    /**
+     * The deepest nesting of objects and arrays that is read. The parser recurses once per level, so without a
+     * limit a body of nothing but '[' would overflow the stack; the API's bodies are at most two levels deep.
+     */
+    static final int MAX_DEPTH = 32;
+
+    /**
+     * Parses a JSON object.
+     *
+     * @param text The JSON text.
+     * @return The object's members in the order they were written.
+     * @throws IllegalArgumentException if the text is not a single JSON object, or nests objects and arrays
+     *                                  deeper than MAX_DEPTH.
+     */
+    static Map<String, Object> parseObject(String text) {
+        Reader reader = new Reader(text);
+        reader.skipWhitespace();
+        if (!reader.peek('{')) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> object = (Map<String, Object>) reader.readValue();
+        reader.skipWhitespace();
+        if (reader.position < text.length()) {
+            throw new IllegalArgumentException("Unexpected text after the JSON object at " + reader.position);
+        }
+        return object;
+    }
+
+    /**
+     * Reads one JSON value at a time from a string.
+     */
+    private static final class Reader {
+        private final String text;
+        private int position;
+        private int depth;
+
+        private Reader(String text) {
+            this.text = text;
+        }
+
+        private Object readValue() {
+            skipWhitespace();
+            if (this.position >= this.text.length()) {
+                throw error("Unexpected end of JSON");
+            }
+            char c = this.text.charAt(this.position);
+            switch (c) {
+                case '{':
+                    return readObject();
+                case '[':
+                    return readArray();
+                case '"':
+                    return readString();
+                case 't':
+                    expectWord("true");
+                    return Boolean.TRUE;
+                case 'f':
+                    expectWord("false");
+                    return Boolean.FALSE;
+                case 'n':
+                    expectWord("null");
+                    return null;
+                default:
+                    if (c == '-' || (c >= '0' && c <= '9')) {
+                        return readNumber();
+                    }
+                    throw error("Unexpected character '" + c + "'");
+            }
+        }
+
+        private Map<String, Object> readObject() {
+            enter();
+            Map<String, Object> object = new LinkedHashMap<>();
+            this.position++;
+            skipWhitespace();
+            if (peek('}')) {
+                this.position++;
+                this.depth--;
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                if (!peek('"')) {
+                    throw error("Expected a member name");
+                }
+                String name = readString();
+                skipWhitespace();
+                expect(':');
+                object.put(name, readValue());
+                skipWhitespace();
+                if (peek(',')) {
+                    this.position++;
+                } else {
+                    expect('}');
+                    this.depth--;
+                    return object;
+                }
+            }
+        }
+
+        private List<Object> readArray() {
+            enter();
+            List<Object> array = new ArrayList<>();
+            this.position++;
+            skipWhitespace();
+            if (peek(']')) {
+                this.position++;
+                this.depth--;
+                return array;
+            }
+            while (true) {
+                array.add(readValue());
+                skipWhitespace();
+                if (peek(',')) {
+                    this.position++;
+                } else {
+                    expect(']');
+                    this.depth--;
+                    return array;
+                }
+            }
+        }
+
+        private String readString() {
+            StringBuilder value = new StringBuilder();
+            this.position++;
+            while (this.position < this.text.length()) {
+                char c = this.text.charAt(this.position++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (this.position >= this.text.length()) {
+                    break;
+                }
+                char escaped = this.text.charAt(this.position++);
+                switch (escaped) {
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'n': value.append('\n'); break;
+                    case 'r': value.append('\r'); break;
+                    case 't': value.append('\t'); break;
+                    case 'u':
+                        if (this.position + 4 > this.text.length()) {
+                            throw error("Incomplete unicode escape");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(this.text.substring(this.position,
+                                    this.position + 4), 16));
+                        } catch (NumberFormatException nfe) {
+                            throw error("Invalid unicode escape");
+                        }
+                        this.position += 4;
+                        break;
+                    default:
+                        value.append(escaped);
+                }
+            }
+            throw error("Unterminated string");
+        }
+
+        private Object readNumber() {
+            int start = this.position;
+            boolean decimal = false;
+            while (this.position < this.text.length()) {
+                char c = this.text.charAt(this.position);
+                if (c == '.' || c == 'e' || c == 'E') {
+                    decimal = true;
+                } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                    break;
+                }
+                this.position++;
+            }
+            String number = this.text.substring(start, this.position);
+            try {
+                return decimal ? (Object) Double.parseDouble(number) : (Object) Long.parseLong(number);
+            } catch (NumberFormatException nfe) {
+                throw error("Invalid number " + number);
+            }
+        }
+
+        /**
+         * Counts one more level of nesting, before the object or array is read.
+         */
+        private void enter() {
+            if (++this.depth > MAX_DEPTH) {
+                throw error("Objects and arrays are nested deeper than " + MAX_DEPTH + " levels");
+            }
+        }
+
+        private void expectWord(String word) {
+            if (!this.text.startsWith(word, this.position)) {
+                throw error("Expected " + word);
+            }
+            this.position += word.length();
+        }
+
+        private void expect(char c) {
+            if (!peek(c)) {
+                throw error("Expected '" + c + "'");
+            }
+            this.position++;
+        }
+
+        private boolean peek(char c) {
+            return this.position < this.text.length() && this.text.charAt(this.position) == c;
+        }
+
+        private void skipWhitespace() {
+            while (this.position < this.text.length() && Character.isWhitespace(this.text.charAt(this.position))) {
+                this.position++;
+            }
+        }
+
+        private IllegalArgumentException error(String problem) {
+            return new IllegalArgumentException(problem + " at position " + this.position);
+        }
+    }
+
+    /**
+     * Writes a JSON document. Call name before each value inside an object; commas are added as needed.
+     */
+    static final class Writer {
+        private final StringBuilder out = new StringBuilder(256);
+        // Whether the next value or name is the first in its object or array
+        private boolean first = true;
+
+        Writer beginObject() {
+            separate();
+            this.out.append('{');
+            this.first = true;
+            return this;
+        }
+
+        Writer endObject() {
+            this.out.append('}');
+            this.first = false;
+            return this;
+        }
+
+        Writer beginArray() {
+            separate();
+            this.out.append('[');
+            this.first = true;
+            return this;
+        }
+
+        Writer endArray() {
+            this.out.append(']');
+            this.first = false;
+            return this;
+        }
+
+        Writer name(String name) {
+            separate();
+            quote(name);
+            this.out.append(':');
+            // The value follows the colon without a comma
+            this.first = true;
+            return this;
+        }
+
+        Writer value(String value) {
+            separate();
+            if (value == null) {
+                this.out.append("null");
+            } else {
+                quote(value);
+            }
+            return this;
+        }
+
+        Writer value(long value) {
+            separate();
+            this.out.append(value);
+            return this;
+        }
+
+        Writer value(boolean value) {
+            separate();
+            this.out.append(value);
+            return this;
+        }
+
+        Writer field(String name, String value) {
+            return name(name).value(value);
+        }
+
+        Writer field(String name, long value) {
+            return name(name).value(value);
+        }
+
+        Writer field(String name, boolean value) {
+            return name(name).value(value);
+        }
+
+        private void separate() {
+            if (!this.first) {
+                this.out.append(',');
+            }
+            this.first = false;
+        }
+
+        private void quote(String value) {
+            this.out.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"': this.out.append("\\\""); break;
+                    case '\\': this.out.append("\\\\"); break;
+                    case '\n': this.out.append("\\n"); break;
+                    case '\r': this.out.append("\\r"); break;
+                    case '\t': this.out.append("\\t"); break;
+                    default:
+                        if (c < 0x20) {
+                            this.out.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            this.out.append(c);
+                        }
+                }
+            }
+            this.out.append('"');
+        }
+
+        @Override
+        public String toString() {
+            return this.out.toString();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package api;
+
+import utilities.ReportCache;
+import utilities.ReportManager;
+import utilities.ReportScheduler;
+
+import java.time.LocalDate;
+import java.util.concurrent.Callable;
+
+/**
+ * Handles GET /api/reports/{name}[?from=yyyy-MM-dd&amp;to=yyyy-MM-dd], where name is contact-schedule, type-month,
+ * customers-by-division or conflicts, the same reports ReportRunner writes. Reports come from the ReportCache,
+ * so the desktop application, the scheduled jobs and the API share one copy until the data changes. The report
+ * text is returned in the "text" member.
+ */
+abstract class ReportResource {
+
+    /**
+     * @param request The request, whose first path segment is "reports".
+     * @return The report.
+     * @throws Exception if the report cannot be generated.
+     */
+    static ApiResponse handle(ApiRequest request) throws Exception {
+        if (request.getPathLength() != 2) {
+            throw new ApiException(404, "Use /api/reports/{contact-schedule|type-month|customers-by-division"
+                    + "|conflicts}");
+        }
+        if (!request.getMethod().equals("GET")) {
+            throw new ApiException(405, "Use GET on /api/reports/{name}");
+        }
+        LocalDate from = request.getDateParameter("from");
+        LocalDate to = request.getDateParameter("to");
+        // The screens use an empty string for the unbounded reports, so they share the cached copy
+        String params = from == null && to == null ? "" : from + "/" + to;
+        String name = request.getPathSegment(1);
+        String cacheName;
+        Callable<String> generator;
+        switch (name) {
+            case "contact-schedule":
+                cacheName = ReportScheduler.CONTACT_SCHEDULE;
+                generator = () -> ReportManager.contactSchedule(from, to);
+                break;
+            case "type-month":
+                cacheName = ReportScheduler.TYPE_AND_MONTH;
+                generator = () -> ReportManager.countAppointmentsByTypeAndMonth(from, to);
+                break;
+            case "customers-by-division":
+                cacheName = ReportScheduler.CUSTOMERS_BY_DIVISION;
+                params = "";
+                generator = ReportManager::customersByDivision;
+                break;
+            case "conflicts":
+                cacheName = "conflicts";
+                generator = () -> {
+                    StringBuilder report = new StringBuilder();
+                    ReportManager.streamConflicts(from, to, report);
+                    return report.toString();
+                };
+                break;
+            default:
+                throw new ApiException(404, "No report named " + name);
+        }
+        String text = ReportCache.getOrCompute(cacheName, params, generator);
+        return ApiResponse.ok(new Json.Writer().beginObject()
+                .field("name", name)
+                .field("text", text)
+                .endObject());
+    }
+}
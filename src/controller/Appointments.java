@@ -1,7 +1,5 @@
 package controller;
 
-import dbQueries.AppointmentQueries;
-import dbQueries.ContactQueries;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -11,7 +9,13 @@ import javafx.scene.control.*;
 import javafx.scene.input.MouseEvent;
 import javafx.stage.Stage;
 import model.Appointment;
+import monitoring.UiMetrics;
 import languages.LanguageManager;
+import repository.Repositories;
+import utilities.ActionTracer;
+import utilities.AlertManager;
+import utilities.ControllerActionEvent;
+import utilities.BusyBitmapCache;
 import utilities.TimeManager;
 import utilities.Validator;
 
@@ -86,7 +90,11 @@ public class Appointments {
         startTimeValueFactory.setValue(LocalTime.of(LocalTime.now().getHour(), 0));
         endTimeValueFactory.setValue(LocalTime.of(LocalTime.now().getHour(), 0));
 
-        contactComboBox.setItems(ContactQueries.getAllContactNames());
+        try {
+            contactComboBox.setItems(FXCollections.observableArrayList(Repositories.referenceData().getContactNames()));
+        } catch (SQLException sqlE) {
+            sqlE.printStackTrace();
+        }
 
         startDateLabel.setText(LanguageManager.getTranslation("Start_Date"));
         startTimeLabel.setText(LanguageManager.getTranslation("Start_Time") +
@@ -134,11 +142,27 @@ public class Appointments {
         } else {
             contactComboBox.getSelectionModel().selectFirst();
             try {
-                appointmentIdField.setText(String.valueOf(AppointmentQueries.getNextAppointmentId()));
+                appointmentIdField.setText(String.valueOf(Repositories.appointments().nextId()));
             } catch (SQLException sqlE) {
                 sqlE.printStackTrace();
             }
         }
+
+        startDatePicker.valueProperty().addListener((observable, oldDate, newDate) -> {
+            if (newDate != null) {
+                endDatePicker.setValue(newDate);
+            }
+            refreshStartTimes();
+        });
+        contactComboBox.valueProperty().addListener((observable, oldContact, newContact) -> refreshStartTimes());
+        customerIdField.textProperty().addListener((observable, oldId, newId) -> refreshStartTimes());
+        startTimeSpinner.valueProperty().addListener((observable, oldTime, newTime) -> {
+            updateTimeLabel(startTimeLabel, "Start_Time", newTime);
+            refreshEndTimes();
+        });
+        endTimeSpinner.valueProperty().addListener((observable, oldTime, newTime) ->
+                updateTimeLabel(endTimeLabel, "End_Time", newTime));
+        refreshStartTimes();
     }
 
 
@@ -148,16 +172,21 @@ public class Appointments {
      * @param actionEvent generated from clicking the button.
      */
     public void onSaveButton(ActionEvent actionEvent) throws SQLException {
-        if (validateFields()) {
-            if (Scheduler.selectedAppointment != null) {
-                AppointmentQueries.updateAppointment(createAppointment());
-            } else {
-                addAppointment();
+        ControllerActionEvent action = ActionTracer.begin("Appointments.onSaveButton");
+        try {
+            if (validateFields()) {
+                if (Scheduler.selectedAppointment != null) {
+                    Repositories.appointments().update(createAppointment());
+                } else {
+                    addAppointment();
+                }
+                Scheduler.selectedAppointment = null;
+                Scheduler.selectedCustomer = null;
+                Stage stage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
+                stage.close();
             }
-            Scheduler.selectedAppointment = null;
-            Scheduler.selectedCustomer = null;
-            Stage stage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
-            stage.close();
+        } finally {
+            ActionTracer.end(action);
         }
     }
 
@@ -174,7 +203,7 @@ public class Appointments {
      * Creates and adds an appointment to the database.
      */
     public void addAppointment() throws SQLException {
-        AppointmentQueries.addAppointment(createAppointment());
+        Repositories.appointments().add(createAppointment());
     }
 
     /**
@@ -189,12 +218,12 @@ public class Appointments {
         String description = descriptionField.getText();
         String location = locationField.getText();
         String type = typeField.getText();
-        ZonedDateTime start = readDatePicker(0);
-        ZonedDateTime end = readDatePicker(1);
+        ZonedDateTime start = TimeManager.toSystemTimeZone(readDatePicker(0));
+        ZonedDateTime end = TimeManager.toSystemTimeZone(readDatePicker(1));
         int customerId = Integer.parseInt(customerIdField.getText());
         int userId = Integer.parseInt(userIdField.getText());
         int contactId = contactComboBox.getSelectionModel().getSelectedIndex() + 1;
-        ZonedDateTime createDate = ZonedDateTime.of(LocalDateTime.now(), ZoneId.of("UTC"));
+        ZonedDateTime createDate = ZonedDateTime.now();
         String createdBy = "admin";
         Timestamp lastUpdate = TimeManager.getTimestampForCurrentUTCTime();
         String lastUpdatedBy = "admin";
@@ -208,6 +237,10 @@ public class Appointments {
      * @return true if all inputs are validated, false if any inputs are not validated.
      */
     public boolean validateFields() {
+        if (startTimeSpinner.getValue() == null || endTimeSpinner.getValue() == null) {
+            AlertManager.showAlert("No_Free_Times", "Invalid_Entry");
+            return false;
+        }
         boolean titleInput = Validator.validateVarcharFifty("Title", titleField.getText());
         boolean descriptionInput = Validator.validateVarcharFifty("Description", descriptionField.getText());
         boolean locationInput = Validator.validateVarcharFifty("Location", locationField.getText());
@@ -258,6 +291,105 @@ public class Appointments {
         return TimeManager.combineDateAndTime(date, time);
     }
 
+    /**
+     * Fills the start time spinner with the half-hour slots of the selected start date that are inside business
+     * hours and free for both the selected contact and the selected customer. The free slots come from the
+     * BusyBitmapCache, so changing the date, contact or customer does not query the database again unless a new
+     * month is needed. The appointment being modified does not block its own time.
+     * Without a start date every slot is offered, as the date is checked when the appointment is saved.
+     */
+    private void refreshStartTimes() {
+        long started = System.nanoTime();
+        LocalDate date = startDatePicker.getValue();
+        ObservableList<LocalTime> times;
+        if (date == null) {
+            times = generateHours();
+        } else {
+            long free = readFreeSlots(date);
+            times = FXCollections.observableArrayList();
+            for (int slot = 0; slot < BusyBitmapCache.SLOTS_PER_DAY; slot++) {
+                if ((free & (1L << slot)) != 0) {
+                    times.add(BusyBitmapCache.slotStart(slot));
+                }
+            }
+        }
+        replaceTimes(startTimeSpinner, times);
+        refreshEndTimes();
+        UiMetrics.recordRefresh("appointment_times", System.nanoTime() - started);
+    }
+
+    /**
+     * Fills the end time spinner with the times the appointment can end at without running into a busy or
+     * out-of-hours slot, i.e. the end of each free slot that directly follows the selected start time.
+     * If the start time is not on a half-hour slot, every slot is offered instead.
+     */
+    private void refreshEndTimes() {
+        LocalDate date = startDatePicker.getValue();
+        int startSlot = BusyBitmapCache.slotIndex(startTimeSpinner.getValue());
+        ObservableList<LocalTime> times;
+        if (date == null || startSlot < 0) {
+            times = generateHours();
+        } else {
+            long free = readFreeSlots(date);
+            times = FXCollections.observableArrayList();
+            for (int slot = startSlot; slot + 1 < BusyBitmapCache.SLOTS_PER_DAY && (free & (1L << slot)) != 0; slot++) {
+                times.add(BusyBitmapCache.slotStart(slot + 1));
+            }
+        }
+        replaceTimes(endTimeSpinner, times);
+    }
+
+    /**
+     * Reads the free slots of a day for the contact and customer currently selected in the form.
+     *
+     * @param date The day, in the system default time zone.
+     * @return A bitmap in which bit i is set when slot i is free.
+     */
+    private long readFreeSlots(LocalDate date) {
+        int contactId = contactComboBox.getSelectionModel().getSelectedIndex() + 1;
+        int customerId;
+        try {
+            customerId = Integer.parseInt(customerIdField.getText().trim());
+        } catch (NumberFormatException | NullPointerException e) {
+            customerId = -1;
+        }
+        return BusyBitmapCache.freeSlots(contactId, customerId, date, Scheduler.selectedAppointment);
+    }
+
+    /**
+     * Replaces the times offered by a spinner, keeping the selected time if it is still offered and otherwise
+     * selecting the first one. The spinner is left empty when no time is offered.
+     *
+     * @param spinner The start or end time spinner.
+     * @param times   The times to offer.
+     */
+    private void replaceTimes(Spinner<LocalTime> spinner, ObservableList<LocalTime> times) {
+        SpinnerValueFactory.ListSpinnerValueFactory<LocalTime> factory =
+                (SpinnerValueFactory.ListSpinnerValueFactory<LocalTime>) spinner.getValueFactory();
+        LocalTime current = factory.getValue();
+        factory.setItems(times);
+        if (times.contains(current)) {
+            factory.setValue(current);
+        } else {
+            factory.setValue(times.isEmpty() ? null : times.get(0));
+        }
+    }
+
+    /**
+     * Shows a spinner time in its label together with the same time in EST.
+     *
+     * @param label          The start or end time label.
+     * @param translationKey The translation key of the label text.
+     * @param time           The selected time, or null if no time can be selected.
+     */
+    private void updateTimeLabel(Label label, String translationKey, LocalTime time) {
+        String text = LanguageManager.getTranslation(translationKey);
+        if (time != null) {
+            text += TimeManager.convertToESTAndFormatLabel(time);
+        }
+        label.setText(text);
+    }
+
     /**
      * Generates an ObservableList of LocalTime objects representing the hours from 0000 to 2300, with a 30-minute interval.
      *
@@ -279,9 +411,7 @@ public class Appointments {
      *
      */
     public void onStartSpinnerClick(MouseEvent mouseEvent) {
-        String startLabelText = LanguageManager.getTranslation("Start_Time") +
-                TimeManager.convertToESTAndFormatLabel((LocalTime) startTimeSpinner.getValue());
-        startTimeLabel.setText(startLabelText);
+        updateTimeLabel(startTimeLabel, "Start_Time", startTimeSpinner.getValue());
     }
 
     /**
@@ -290,9 +420,7 @@ public class Appointments {
      *
      */
     public void onEndSpinnerClick() {
-        String formattedTime = TimeManager.convertToESTAndFormatLabel(endTimeSpinner.getValue());
-        String label = LanguageManager.getTranslation("End_Time") + formattedTime;
-        endTimeLabel.setText(label);
+        updateTimeLabel(endTimeLabel, "End_Time", endTimeSpinner.getValue());
     }
 
 
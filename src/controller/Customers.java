@@ -1,8 +1,6 @@
 package controller;
 
-import dbQueries.CountryQueries;
-import dbQueries.CustomerQueries;
-import dbQueries.FirstLevelDivisionQueries;
+import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
@@ -10,6 +8,7 @@ import javafx.scene.control.*;
 import javafx.stage.Stage;
 import model.Customer;
 import languages.LanguageManager;
+import repository.Repositories;
 import utilities.TimeManager;
 import utilities.Validator;
 import java.sql.SQLException;
@@ -17,7 +16,7 @@ import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.util.HashMap;
+import java.util.Map;
 
 /**
  * The Customer class is a fundamental component of our customer management system,
@@ -46,8 +45,8 @@ public class Customers {
     public Label phoneLabel;
     public Label countryLabel;
     public Label stateLabel;
-    public HashMap<String, Integer> divisionIdHash;
-    public HashMap<Integer, String> divisionNameHash;
+    public Map<String, Integer> divisionIdHash;
+    public Map<Integer, String> divisionNameHash;
 
     /**
      * This method initializes the CustomerForm by setting the initial values for the various fields used in the form.
@@ -57,11 +56,11 @@ public class Customers {
      */
     @FXML
     private void initialize() throws SQLException {
-        divisionIdHash = FirstLevelDivisionQueries.retrieveAllDivisionIDs();
-        divisionNameHash = FirstLevelDivisionQueries.buildDivisionMap();
-        countryComboBox.setItems(CountryQueries.getAllCountries());
+        divisionIdHash = Repositories.referenceData().getDivisionIdsByName();
+        divisionNameHash = Repositories.referenceData().getDivisionNamesById();
+        countryComboBox.setItems(FXCollections.observableArrayList(Repositories.referenceData().getCountryNames()));
         countryComboBox.getSelectionModel().selectFirst();
-        divisionComboBox.setItems(FirstLevelDivisionQueries.getUSDivisions());
+        showDivisionsOf(countryComboBox.getValue());
         divisionComboBox.getSelectionModel().selectFirst();
         nameLabel.setText(LanguageManager.getTranslation("Customer_Name"));
         addressLabel.setText(LanguageManager.getTranslation("Address"));
@@ -84,7 +83,7 @@ public class Customers {
         } else {
             // if there is no selected Customer, populate the Customer ID field with the next available ID
             try {
-                customerIdField.setText(String.valueOf(CustomerQueries.getNextCustomerId()));
+                customerIdField.setText(String.valueOf(Repositories.customers().nextId()));
             } catch (SQLException sqlE) {
                 sqlE.printStackTrace();
             }
@@ -101,7 +100,7 @@ public class Customers {
         if (validateCustomerForms()) {
             if (Scheduler.selectedCustomer != null) {
                 // Update the existing customer information.
-                CustomerQueries.updateCustomerInfo(createCustomer());
+                Repositories.customers().update(createCustomer());
             } else { // Add the new customer to the database.
                 addCustomerToDatabase();
             }
@@ -132,7 +131,7 @@ public class Customers {
      */
     public void addCustomerToDatabase() throws SQLException {
         try {
-            CustomerQueries.addCustomer(createCustomer());
+            Repositories.customers().add(createCustomer());
         } catch (SQLException e) {
             throw e;
         }
@@ -194,18 +193,24 @@ public class Customers {
      *
      */
     public void onCountryComboBox() {
-        if (countryComboBox.getSelectionModel().getSelectedIndex() == 0) {
-            divisionComboBox.setItems(FirstLevelDivisionQueries.getUSDivisions());
-        }
-        else if (countryComboBox.getSelectionModel().getSelectedIndex() == 1) {
-            divisionComboBox.setItems(FirstLevelDivisionQueries.retrieveUKDivisions());
-        }
-        else if (countryComboBox.getSelectionModel().getSelectedIndex() == 2) {
-            divisionComboBox.setItems(FirstLevelDivisionQueries.getCADivisions());
-        }
+        showDivisionsOf(countryComboBox.getValue());
         divisionComboBox.getSelectionModel().selectFirst();
     }
 
+    /**
+     * Fills the First Level Division ComboBox with the divisions of a country.
+     *
+     * @param country The name of the country, as shown in the country ComboBox.
+     */
+    private void showDivisionsOf(String country) {
+        try {
+            divisionComboBox.setItems(country == null ? FXCollections.observableArrayList()
+                    : FXCollections.observableArrayList(Repositories.referenceData().getDivisionNames(country)));
+        } catch (SQLException sqlE) {
+            sqlE.printStackTrace();
+        }
+    }
+
 
     /**
      * Sets the contents of a ComboBox based on a given Division ID.
@@ -217,15 +222,15 @@ public class Customers {
     public void setComboBoxFromDivisionId(int divisionId) {
         if (divisionId >= 1 && divisionId <= 54) {
             countryComboBox.getSelectionModel().select("U.S");
-            divisionComboBox.setItems(FirstLevelDivisionQueries.getUSDivisions());
+            showDivisionsOf("U.S");
             divisionComboBox.getSelectionModel().select(getDivisionNameFromId(divisionId));
         } else if (divisionId >= 60 && divisionId <= 72) {
             countryComboBox.getSelectionModel().select("Canada");
-            divisionComboBox.setItems(FirstLevelDivisionQueries.getCADivisions());
+            showDivisionsOf("Canada");
             divisionComboBox.getSelectionModel().select(getDivisionNameFromId(divisionId));
         } else if (divisionId >= 101 && divisionId <= 104) {
             countryComboBox.getSelectionModel().select("UK");
-            divisionComboBox.setItems(FirstLevelDivisionQueries.retrieveUKDivisions());
+            showDivisionsOf("UK");
             divisionComboBox.getSelectionModel().select(getDivisionNameFromId(divisionId));
         }
     }
@@ -1,6 +1,5 @@
 package controller;
 
-import dbQueries.UserQueries;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -10,6 +9,7 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
 import languages.LanguageManager;
+import repository.Repositories;
 import utilities.AlertManager;
 import java.io.IOException;
 import java.time.ZoneId;
@@ -59,7 +59,7 @@ public class Login {
     /**
      * This method is called when the user clicks on the login button.
      * It verifies that the username and password fields are
-     * not empty and tries to log the user in using the UserQueries.tryLogin method.
+     * not empty and tries to log the user in through the user repository.
      * If the login is successful, the schedule view is opened.
      *
      * @param actionEvent - The event generated by clicking on the login button.
@@ -70,7 +70,7 @@ public class Login {
             // check for empty fields
             AlertManager.showAlert("Missing_Credentials", "Message");
         } else {
-            if (UserQueries.validateCredentials(usernameTextField.getText(), passwordField.getText())) {
+            if (Repositories.users().validateCredentials(usernameTextField.getText(), passwordField.getText())) {
                 // try to log the user in
                 access = true;
             }
@@ -1,12 +1,24 @@
 package controller;
 
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
-import javafx.scene.control.TextArea;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.ListView;
+import utilities.ActionTracer;
+import utilities.AppointmentCube;
+import utilities.ControllerActionEvent;
+import utilities.ReportBuffer;
+import utilities.ReportCache;
+import utilities.ReportLineList;
 import utilities.ReportManager;
+import utilities.ReportScheduler;
 import languages.LanguageManager;
+import monitoring.UiMetrics;
 import javafx.scene.control.Button;
 
-import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 /**
  * This class serves as the controller for the Reports.fxml file.
  * Its main responsibility is to manage the process of generating, exporting, and presenting reports.
@@ -16,17 +28,32 @@ import java.sql.SQLException;
  * before it is presented as a report.
  * Basically, this class is responsible for monitoring and overseeing the entire report generation
  * and presentation process, to ensure that all tasks are carried out smoothly and successfully.
+ *
+ * Reports are shown one line per ListView row from a ReportBuffer, so only the visible lines are laid out.
+ * Fresh reports are generated on a background thread and appear as they are written.
  * */
 public class Reports {
-    public TextArea reportTextArea;
+    private static final ExecutorService reportWorker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "report-viewer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ListView<String> reportListView;
     public Button contactScheduleButton;
     public Button appointmentsButton;
     public Button exportButton;
     public Button locationReportButton;
+    public ComboBox<AppointmentCube.Dimension> pivotRowsComboBox;
+    public ComboBox<AppointmentCube.Dimension> pivotColumnsComboBox;
+    public ComboBox<AppointmentCube.Measure> pivotMeasureComboBox;
+    public Button pivotButton;
     private String report = "";
+    private final ReportLineList reportLines = new ReportLineList();
 
     /**
-     * This method initializes the text area with the Contact Schedule report
+     * This method initializes the text area with the Contact Schedule report. A cached copy is shown at once
+     * and replaced if the data has changed since it was generated.
      * and also translates all the user interface text to the selected language.
      * The Contact Schedule report contains a schedule of all the contacts for the
      * specified time period. The text area is populated with specific information
@@ -39,40 +66,60 @@ public class Reports {
      */
     @FXML
     private void initialize() {
-        try {
-            String contactScheduleReport = ReportManager.contactSchedule();
-            reportTextArea.setText(contactScheduleReport);
-        } catch (SQLException e) {
-            // Handle the exception
+        reportListView.setItems(reportLines);
+        ReportCache.CachedReport cachedSchedule = ReportCache.latest(ReportScheduler.CONTACT_SCHEDULE, "");
+        if (cachedSchedule != null) {
+            reportLines.show(cachedSchedule.getLines());
+            revalidate(ReportScheduler.CONTACT_SCHEDULE, "", cachedSchedule.getLines(),
+                    out -> ReportManager.streamContactSchedule(null, null, out));
+        } else {
+            showReport(ReportScheduler.CONTACT_SCHEDULE, "",
+                    out -> ReportManager.streamContactSchedule(null, null, out));
         }
         contactScheduleButton.setText(LanguageManager.getTranslation("Contact_Schedule"));
         appointmentsButton.setText(LanguageManager.getTranslation("Sorted_Appointments"));
         exportButton.setText(LanguageManager.getTranslation("Export"));
         locationReportButton.setText(LanguageManager.getTranslation("Customer_Locations"));
+        pivotRowsComboBox.setItems(FXCollections.observableArrayList(AppointmentCube.Dimension.values()));
+        pivotColumnsComboBox.setItems(FXCollections.observableArrayList(AppointmentCube.Dimension.values()));
+        pivotMeasureComboBox.setItems(FXCollections.observableArrayList(AppointmentCube.Measure.values()));
+        pivotRowsComboBox.setValue(AppointmentCube.Dimension.COUNTRY);
+        pivotMeasureComboBox.setValue(AppointmentCube.Measure.COUNT);
+        pivotRowsComboBox.setPromptText(LanguageManager.getTranslation("Rows"));
+        pivotColumnsComboBox.setPromptText(LanguageManager.getTranslation("Columns"));
+        pivotMeasureComboBox.setPromptText(LanguageManager.getTranslation("Measure"));
+        pivotButton.setText(LanguageManager.getTranslation("Pivot"));
     }
 
     /**
-     Updates the GUI TextArea with the contact schedule report generated by the ReportManager.
+     Updates the report view with the contact schedule report generated by the ReportManager.
+     The cached report is reused unless the underlying data has changed since it was generated.
      Also sets the report member variable to the appropriate text for the title of the related txt file.
-     @throws SQLException if an error occurs while querying the database
      */
-    public void updateContactSchedule() throws SQLException {
+    public void updateContactSchedule() {
+        ControllerActionEvent action = ActionTracer.begin("Reports.updateContactSchedule");
         try {
-            reportTextArea.setText(ReportManager.contactSchedule());
+            showReport(ReportScheduler.CONTACT_SCHEDULE, "",
+                    out -> ReportManager.streamContactSchedule(null, null, out));
             report = "contact_schedule";
-        } catch (SQLException e) {
-            reportTextArea.setText(LanguageManager.getTranslation("An SQL error has occurred upon database query."));
-            report = "SQL_error"; throw e;
+        } finally {
+            ActionTracer.end(action);
         }
     }
 
     /**
-     Sets the TextArea to display a report of appointments sorted by type and month, and sets the report member variable
-     to the appropriate name for the related txt file.
+     Sets the report view to display a report of appointments sorted by type and month, and sets the report member
+     variable to the appropriate name for the related txt file.
      */
     public void onAppointmentsButton() {
-        reportTextArea.setText(ReportManager.countAppointmentsByTypeAndMonth());
-        report = "appointments_by_type_and_month.txt";
+        ControllerActionEvent action = ActionTracer.begin("Reports.onAppointmentsButton");
+        try {
+            showReport(ReportScheduler.TYPE_AND_MONTH, "",
+                    out -> out.append(ReportManager.countAppointmentsByTypeAndMonth()));
+            report = "appointments_by_type_and_month.txt";
+        } finally {
+            ActionTracer.end(action);
+        }
     }
 
     /**
@@ -80,15 +127,128 @@ public class Reports {
      * If the report is printed multiple times, it will be appended to the file.
      */
     public void onExportButton() {
-        ReportManager.writeReportToFile(report, reportTextArea.getText());
+        ControllerActionEvent action = ActionTracer.begin("Reports.onExportButton");
+        try {
+            ReportManager.writeReportToFile(report, reportLines.getBuffer());
+        } finally {
+            ActionTracer.end(action);
+        }
     }
     /**
-     * Updates the TextArea with customer data sorted by location and sets the report member variable
+     * Updates the report view with customer data sorted by location and sets the report member variable
      * to the appropriate file name for the location report.
      */
     public void onLocationReportButton() {
-        reportTextArea.setText(ReportManager.customersByDivision());
-        report = "customer_location_report.txt";
+        ControllerActionEvent action = ActionTracer.begin("Reports.onLocationReportButton");
+        try {
+            showReport(ReportScheduler.CUSTOMERS_BY_DIVISION, "", ReportManager::streamCustomersByDivision);
+            report = "customer_location_report.txt";
+        } finally {
+            ActionTracer.end(action);
+        }
+    }
+
+    /**
+     * Updates the report view with a pivot of all appointments using the selected row dimension, column dimension
+     * and measure. Leaving the columns unselected gives a single total column, e.g. appointments per country.
+     * The pivot is cached per selection like the other reports.
+     */
+    public void onPivotButton() {
+        ControllerActionEvent action = ActionTracer.begin("Reports.onPivotButton");
+        try {
+            AppointmentCube.Dimension rows = pivotRowsComboBox.getValue();
+            AppointmentCube.Dimension columns = pivotColumnsComboBox.getValue();
+            AppointmentCube.Measure measure = pivotMeasureComboBox.getValue();
+            if (rows == null || measure == null) {
+                return;
+            }
+            showReport("pivot", rows + "/" + columns + "/" + measure,
+                    out -> out.append(ReportManager.pivot(rows, columns, measure)));
+            report = "pivot_report.txt";
+        } finally {
+            ActionTracer.end(action);
+        }
+    }
+
+    /**
+     * Checks a report that is already shown from the cache against the current data version on the report worker
+     * thread. If the data has changed, e.g. through another client or the ReportRunner daemon, the report is
+     * regenerated off screen and its lines replace the shown ones, unless another report has been opened since.
+     * If the check fails, the cached report stays on screen.
+     *
+     * @param name      The report name used as the cache key.
+     * @param params    The report parameters, or an empty string if the report takes none.
+     * @param shown     The cached lines being shown.
+     * @param generator Writes the report text.
+     */
+    private void revalidate(String name, String params, ReportBuffer shown, ReportCache.StreamingGenerator generator) {
+        reportWorker.execute(() -> {
+            ControllerActionEvent action = ActionTracer.begin("Reports.revalidate (worker)");
+            long started = System.nanoTime();
+            try {
+                ReportBuffer current = ReportCache.getOrStream(name, params, new ReportBuffer(), generator);
+                if (current != shown) {
+                    Platform.runLater(() -> {
+                        if (reportLines.getBuffer() == shown) {
+                            reportLines.show(current);
+                        }
+                    });
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+            } finally {
+                UiMetrics.recordRefresh("report_" + name, System.nanoTime() - started);
+                ActionTracer.end(action);
+            }
+        });
+    }
+
+    /**
+     * Shows a report, reusing the cached copy unless the underlying data has changed since it was generated.
+     * Otherwise the report is streamed into a new buffer on the report worker thread, and its lines appear in the
+     * view as they are written. If the data version cannot be checked, the report is generated without caching.
+     *
+     * @param name      The report name used as the cache key.
+     * @param params    The report parameters, or an empty string if the report takes none.
+     * @param generator Writes the report text.
+     */
+    private void showReport(String name, String params, ReportCache.StreamingGenerator generator) {
+        ReportBuffer target = new ReportBuffer();
+        reportLines.show(target);
+        // The report's statements run on the worker, so they are traced under an action of their own named after
+        // the button that asked for it
+        String caller = ActionTracer.currentAction();
+        String workerAction = (caller == null ? "Reports.showReport" : caller) + " (worker)";
+        reportWorker.execute(() -> {
+            ControllerActionEvent action = ActionTracer.begin(workerAction);
+            long started = System.nanoTime();
+            try {
+                ReportBuffer current = ReportCache.getOrStream(name, params, target, generator);
+                if (current != target) {
+                    Platform.runLater(() -> {
+                        if (reportLines.getBuffer() == target) {
+                            reportLines.show(current);
+                        }
+                    });
+                }
+            } catch (Exception e) {
+                if (!target.isFinished()) {
+                    try {
+                        if (target.charCount() > 0) {
+                            throw e;
+                        }
+                        generator.write(target);
+                    } catch (Exception ex) {
+                        target.append(target.charCount() == 0 ? "" : "\n");
+                        target.append(LanguageManager.getTranslation("An SQL error has occurred upon database query."));
+                    }
+                }
+            } finally {
+                target.finish();
+                UiMetrics.recordRefresh("report_" + name, System.nanoTime() - started);
+                ActionTracer.end(action);
+            }
+        });
     }
 
-}
+}
\ No newline at end of file
@@ -1,7 +1,6 @@
 package controller;
 
-import dbQueries.CustomerQueries;
-import dbQueries.AppointmentQueries;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
@@ -21,14 +20,18 @@ import languages.LanguageManager;
 import model.Appointment;
 import java.time.LocalDate;
 import model.Customer;
+import monitoring.UiMetrics;
+import repository.Repositories;
+import utilities.ActionTracer;
 import utilities.AlertManager;
+import utilities.ControllerActionEvent;
+import utilities.ReminderService;
 import java.io.IOException;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoField;
 import java.sql.SQLException;
 import java.time.format.DateTimeFormatter;
 import java.sql.Timestamp;
-import java.time.LocalTime;
 import java.time.ZoneId;
 
 /**
@@ -224,8 +227,8 @@ public class Scheduler {
         lastUpdatedByColumn_c.setCellValueFactory(new PropertyValueFactory<>("Last_Updated_By"));
         divisionIdColumn_c.setCellValueFactory(new PropertyValueFactory<>("Division_ID"));
 
-        checkAppointments();
         displayAlertForAppointmentsWithin15();
+        startReminders();
     }
 
     /**
@@ -243,7 +246,7 @@ public class Scheduler {
      */
     public void setSelectedAppointment() {
         selectedCustomer = null;
-        selectedAppointment = (Appointment) selectionView.getSelectionModel().getSelectedItem();
+        selectedAppointment = selectionView.getSelectionModel().getSelectedItem();
         if (selectedAppointment != null) {
             selectedDate = selectedAppointment.getStart();
         }
@@ -258,7 +261,7 @@ public class Scheduler {
         selectedDate = null;
 
         // Set the selected customer
-        selectedCustomer = (Customer) custTableView.getSelectionModel().getSelectedItem();
+        selectedCustomer = custTableView.getSelectionModel().getSelectedItem();
     }
 
     /**
@@ -267,34 +270,39 @@ public class Scheduler {
      * @throws IOException if there is an error loading the FXML file.
      */
     public void onAddButton() throws IOException, SQLException {
-        // Reset the appointment and customer selection
-        selectedAppointment = null;
-        selectedCustomer = null;
+        ControllerActionEvent action = ActionTracer.begin("Scheduler.onAddButton");
+        try {
+            // Reset the appointment and customer selection
+            selectedAppointment = null;
+            selectedCustomer = null;
 
-        // Set the FXML file loader and form title based on the current view
-        FXMLLoader loader;
-        String title;
+            // Set the FXML file loader and form title based on the current view
+            FXMLLoader loader;
+            String title;
 
-        if (viewingAppointments) {
-            loader = new FXMLLoader(getClass().getResource("/view/Appointments.fxml"));
-            title = LanguageManager.getTranslation("Add_Appointment");
-        } else {
-            loader = new FXMLLoader(getClass().getResource("/view/Customers.fxml"));
-            title = LanguageManager.getTranslation("Add_Customer");
-        }
+            if (viewingAppointments) {
+                loader = new FXMLLoader(getClass().getResource("/view/Appointments.fxml"));
+                title = LanguageManager.getTranslation("Add_Appointment");
+            } else {
+                loader = new FXMLLoader(getClass().getResource("/view/Customers.fxml"));
+                title = LanguageManager.getTranslation("Add_Customer");
+            }
 
-        // Load the FXML file and create a new form stage
-        Parent root = loader.load();
-        Stage formStage = new Stage();
+            // Load the FXML file and create a new form stage
+            Parent root = loader.load();
+            Stage formStage = new Stage();
 
-        // Set the form scene, title, and other properties
-        formStage.setScene(new Scene(root));
-        formStage.setTitle(title);
-        formStage.setResizable(false);
-        formStage.showAndWait();
+            // Set the form scene, title, and other properties
+            formStage.setScene(new Scene(root));
+            formStage.setTitle(title);
+            formStage.setResizable(false);
+            formStage.showAndWait();
 
-        // Refresh the data tables after the form is closed
-        reloadTables();
+            // Refresh the data tables after the form is closed
+            reloadTables();
+        } finally {
+            ActionTracer.end(action);
+        }
     }
 
     /**
@@ -304,30 +312,34 @@ public class Scheduler {
      * @throws IOException if the FXML file for the selected form cannot be found or loaded
      */
     public void onUpdateButton() throws IOException, SQLException {
-        if (selectedAppointment != null || selectedCustomer != null) {
-            FXMLLoader formLoader;
-            if (viewingAppointments) {
-                formLoader = new FXMLLoader(getClass().getResource("/view/Appointments.fxml"));
-                Parent root = formLoader.load();
-                appointmentFormScene = new Scene(root);
-                appointmentFormStage.setScene(appointmentFormScene);
-                appointmentFormStage.setTitle(LanguageManager.getTranslation("Update_Appointment"));
-                appointmentFormStage.setResizable(false);
-                appointmentFormStage.showAndWait();
+        ControllerActionEvent action = ActionTracer.begin("Scheduler.onUpdateButton");
+        try {
+            if (selectedAppointment != null || selectedCustomer != null) {
+                FXMLLoader formLoader;
+                if (viewingAppointments) {
+                    formLoader = new FXMLLoader(getClass().getResource("/view/Appointments.fxml"));
+                    Parent root = formLoader.load();
+                    appointmentFormScene = new Scene(root);
+                    appointmentFormStage.setScene(appointmentFormScene);
+                    appointmentFormStage.setTitle(LanguageManager.getTranslation("Update_Appointment"));
+                    appointmentFormStage.setResizable(false);
+                    appointmentFormStage.showAndWait();
+                } else {
+                    formLoader = new FXMLLoader(getClass().getResource("/view/Customers.fxml"));
+                    Parent root = formLoader.load();
+                    customerFormScene = new Scene(root);
+                    customerFormStage.setScene(customerFormScene);
+                    customerFormStage.setTitle(LanguageManager.getTranslation("Update_Customer"));
+                    customerFormStage.setResizable(false);
+                    customerFormStage.showAndWait();
+                }
+                reloadTables();
             } else {
-                formLoader = new FXMLLoader(getClass().getResource("/view/Customers.fxml"));
-                Parent root = formLoader.load();
-                customerFormScene = new Scene(root);
-                customerFormStage.setScene(customerFormScene);
-                customerFormStage.setTitle(LanguageManager.getTranslation("Update_Customer"));
-                customerFormStage.setResizable(false);
-                customerFormStage.showAndWait();
+                AlertManager.showAlert("Make a Selection", "Please select an item to update.");
             }
-            reloadTables();
-        } else {
-            AlertManager.showAlert("Make a Selection", "Please select an item to update.");
+        } finally {
+            ActionTracer.end(action);
         }
-
     }
 
     /**
@@ -335,29 +347,34 @@ public class Scheduler {
      * @throws SQLException when an error occurs while deleting the appointment or customer from the database.
      */
     public void onDeleteButton() throws SQLException {
-        if (selectedAppointment != null || selectedCustomer != null) {
-            if (viewingAppointments && selectedAppointment != null) {
-                if (AlertManager.showConfirm("Delete_Appointment")) {
-                    AppointmentQueries.removeAppointment(selectedAppointment.getAppointment_ID());
-                    AlertManager.showAlert(LanguageManager.getTranslation("Appointment_ID") + ": " +
-                                    selectedAppointment.getAppointment_ID() + "\n" +
-                                    LanguageManager.getTranslation("Appointment_Type") + selectedAppointment.getType(),
-                            LanguageManager.getTranslation("Appointment_Deleted"));
-                }
-            } else {
-                if (selectedCustomer != null) {
-                    if (AlertManager.showConfirm("Delete_Customer")) {
-                        AppointmentQueries.removeAppointmentsByCustomerId(AppointmentQueries.fetchAllAppointments(), selectedCustomer.getCustomer_ID());
-                        CustomerQueries.removeCustomer(selectedCustomer.getCustomer_ID());
+        ControllerActionEvent action = ActionTracer.begin("Scheduler.onDeleteButton");
+        try {
+            if (selectedAppointment != null || selectedCustomer != null) {
+                if (viewingAppointments && selectedAppointment != null) {
+                    if (AlertManager.showConfirm("Delete_Appointment")) {
+                        Repositories.appointments().remove(selectedAppointment.getAppointment_ID());
+                        AlertManager.showAlert(LanguageManager.getTranslation("Appointment_ID") + ": " +
+                                        selectedAppointment.getAppointment_ID() + "\n" +
+                                        LanguageManager.getTranslation("Appointment_Type") + selectedAppointment.getType(),
+                                LanguageManager.getTranslation("Appointment_Deleted"));
+                    }
+                } else {
+                    if (selectedCustomer != null) {
+                        if (AlertManager.showConfirm("Delete_Customer")) {
+                            removeAppointmentsOfCustomer(selectedCustomer.getCustomer_ID());
+                            Repositories.customers().remove(selectedCustomer.getCustomer_ID());
+                        }
                     }
                 }
+                reloadTables();
+                selectedCustomer = null;
+                selectedAppointment = null;
+            } else {
+                AlertManager.showAlert(LanguageManager.getTranslation("Please_Make_A_Selection_To_Delete"),
+                        LanguageManager.getTranslation("Delete_Error"));
             }
-            reloadTables();
-            selectedCustomer = null;
-            selectedAppointment = null;
-        } else {
-            AlertManager.showAlert(LanguageManager.getTranslation("Please_Make_A_Selection_To_Delete"),
-                    LanguageManager.getTranslation("Delete_Error"));
+        } finally {
+            ActionTracer.end(action);
         }
     }
 
@@ -427,10 +444,30 @@ public class Scheduler {
         closeScheduleWindow(actionEvent);
     }
 
+    /**
+     * Removes every appointment of a customer and tells the user whether that succeeded.
+     *
+     * @param customerId The ID of the customer whose appointments are removed.
+     */
+    private void removeAppointmentsOfCustomer(int customerId) {
+        boolean success = false;
+        try {
+            Repositories.appointments().removeByCustomerId(customerId);
+            success = true;
+        } catch (SQLException sqlE) {
+            sqlE.printStackTrace();
+        } finally {
+            String successMessage = LanguageManager.getTranslation("Removal_Successful");
+            String errorMessage = LanguageManager.getTranslation("Removal_Unsuccessful");
+            String titleSuccess = LanguageManager.getTranslation("Success");
+            String titleError = LanguageManager.getTranslation("Error");
+            AlertManager.showAlert(success ? successMessage : errorMessage, success ? titleSuccess : titleError);
+        }
+    }
+
     /**
      * Reloads TableViews after updating customer and appointment records.
-     * Updates the customerList and appointmentList by calling the getAllCustomers and getAllAppointments methods
-     * in the CustomerQueries and AppointmentQueries classes respectively.
+     * Updates the customerList and appointmentList from the customer and appointment repositories.
      * Displays customers in the custTableView and appointments in the selectionView based on the user selection.
      * If the user has selected to sort appointments by month, the appointments are filtered using the monthFilter method and displayed in the selectionView.
      * If the user has selected to sort appointments by week, the appointments are filtered using the weekFilter method and displayed in the selectionView.
@@ -438,50 +475,64 @@ public class Scheduler {
      * @throws SQLException if there is an error while retrieving customer and appointment records from the database.
      */
     public void reloadTables() throws SQLException {
-        customerList = CustomerQueries.getAllCustomers();
-        appointmentList = AppointmentQueries.fetchAllAppointments();
+        ControllerActionEvent action = ActionTracer.begin("Scheduler.reloadTables");
+        try {
+            long started = System.nanoTime();
+            customerList = FXCollections.observableList(Repositories.customers().findAll());
+            appointmentList = FXCollections.observableList(Repositories.appointments().findAll());
 
-        custTableView.setItems(customerList);
+            custTableView.setItems(customerList);
 
-        ObservableList<Appointment> displayedAppointments;
-        selectionView.setItems(appointmentList);
+            ObservableList<Appointment> displayedAppointments;
+            selectionView.setItems(appointmentList);
 
-        if (monthSort) {
-            displayedAppointments = FXCollections.observableArrayList(filterAppointmentsByMonth());
-            selectionView.setItems(displayedAppointments);
-        } else {
-            displayedAppointments = FXCollections.observableArrayList(weekFilter());
-            selectionView.setItems(displayedAppointments);
+            if (monthSort) {
+                displayedAppointments = FXCollections.observableArrayList(filterAppointmentsByMonth());
+                selectionView.setItems(displayedAppointments);
+            } else {
+                displayedAppointments = FXCollections.observableArrayList(weekFilter());
+                selectionView.setItems(displayedAppointments);
 
-        }
+            }
 
-        if (viewAll) {
-            selectionView.setItems(appointmentList);
+            if (viewAll) {
+                selectionView.setItems(appointmentList);
+            }
+            UiMetrics.recordRefresh("schedule_tables", System.nanoTime() - started);
+        } finally {
+            ActionTracer.end(action);
         }
-
     }
 
+    /**
+     * Shows an alert listing the appointments that start within the next 15 minutes,
+     * or an alert saying that there are none.
+     */
     public void displayAlertForAppointmentsWithin15() {
-        String alertText = null;
         try {
-            alertList = AppointmentQueries.fetchAllAppointmentsWithin15Minutes();
-            System.out.println(alertList);
+            ZonedDateTime from = ZonedDateTime.now();
+            alertList = FXCollections.observableList(Repositories.appointments()
+                    .findStartingBetween(Repositories.users().getCurrentUserId(), from, from.plusMinutes(15)));
         } catch (SQLException e) {
-            throw new RuntimeException(e);
-        } finally {
-            for(Appointment appointment: alertList)
-            {
-                alertText += appointment.getAppointment_ID() + " ";
-                alertText += appointment.getStart();
-            }
-            if(alertList.size() != 0){
-                AlertManager.showAlert("You have appointments within the next 15 minutes:\n " + alertText,
-                        "Appointments Pending");
-            } else {
-                AlertManager.showAlert("No appointments coming up!",
-                        "No Appointments!");
+            e.printStackTrace();
+        }
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime cutoff = now.plus(ReminderService.DEFAULT_LEAD);
+        StringBuilder alertText = new StringBuilder();
+        for (Appointment appointment : alertList) {
+            if (!appointment.getStart().isBefore(now) && !appointment.getStart().isAfter(cutoff)) {
+                alertText.append(appointment.getAppointment_ID()).append(" ")
+                        .append(TimeManager.getDateFromZonedDateTime(appointment.getStart())).append(" ")
+                        .append(TimeManager.getTimeFromZonedDateTime(appointment.getStart())).append("\n");
             }
         }
+        if (alertText.length() != 0) {
+            AlertManager.showAlert("You have appointments within the next 15 minutes:\n " + alertText,
+                    "Appointments Pending");
+        } else {
+            AlertManager.showAlert("No appointments coming up!",
+                    "No Appointments!");
+        }
     }
 
     /**
@@ -543,45 +594,17 @@ public class Scheduler {
     }
 
     /**
-     * This method checks for any appointments that are scheduled within 15 minutes of the current local time.
-     * @return true if there are appointments within 15 minutes, false otherwise
+     * Starts the ReminderService for today's and tomorrow's appointments. The warning banner shows that nothing is
+     * due until the service raises a reminder, which then replaces it with the appointment that starts in
+     * 15 minutes. Reminders keep arriving for as long as the application runs.
      * */
-    private boolean checkAppointments() {
-        // set initial alert status to false
-        boolean alert = false;
-
-        // set time delta to 15 minutes in milliseconds
-        int FIFTEEN_MINUTES = 900000;
-
-        // get all appointments
-        ObservableList<Appointment> appointments = FXCollections.observableArrayList();
-        try {
-            appointments = AppointmentQueries.fetchAllAppointments();
-        } catch (SQLException sqlE) {
-            // handle exception
-        }
-
-        // get current local time and date
-        LocalTime now = LocalTime.now();
-        LocalDate today = LocalDate.now();
-
-        // loop through all appointments and check if they're scheduled in the next 15 minutes
-        for (Appointment a : appointments) {
-            if (a.getStart().toLocalDate().equals(today)) {
-                LocalTime aTime = a.getStart().toLocalTime();
-                if (aTime.compareTo(now) <= FIFTEEN_MINUTES && aTime.compareTo(now) > 0) {
-                    showAppointmentWarning(true, a.getAppointment_ID(), a.getStart());
-                    alert = true;
-                }
-            }
-        }
-
-        // Show warning if there are no appointments within 15 mins
-        if (!alert) {
-            showAppointmentWarning(false, -1, ZonedDateTime.now());
-        }
-
-        return alert;
+    private void startReminders() {
+        showAppointmentWarning(false, -1, ZonedDateTime.now());
+        ReminderService.start(
+                () -> Repositories.appointments().findStartingOn(LocalDate.now(), LocalDate.now().plusDays(1)),
+                ReminderService.DEFAULT_LEAD,
+                appointment -> Platform.runLater(() ->
+                        showAppointmentWarning(true, appointment.getAppointment_ID(), appointment.getStart())));
     }
 
     /**
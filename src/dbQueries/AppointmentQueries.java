@@ -2,17 +2,18 @@ package dbQueries;
 
 import helper.JDBC;
 import javafx.collections.FXCollections;
+import utilities.BusyBitmapCache;
+import utilities.ReminderService;
+import utilities.ReportCache;
 import utilities.TimeManager;
 import javafx.collections.ObservableList;
 import java.sql.ResultSet;
 import utilities.AlertManager;
 import java.sql.PreparedStatement;
-import java.sql.Timestamp;
 import model.Appointment;
 import languages.LanguageManager;
 import java.sql.SQLException;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.sql.Timestamp;
 import java.time.ZonedDateTime;
 
 /**
@@ -46,30 +47,109 @@ public class AppointmentQueries {
         return processResultsToObservableList(resultSet);
     }
     /**
-     * Returns an ObservableList containing all Appointments that start within 15 minutes retrieved from the database.
-     * The method establishes a connection to the database, creates an SQL statement to retrieve all Appointment
-     * records, executes the statement, and maps each record to a new Appointment object which is added to the
-     * ObservableList. If there is an error executing the SQL statement, a SQLException is thrown.
+     * Returns an ObservableList containing the current user's Appointments that start within the next 15 minutes.
+     * If nobody has logged in, the Appointments of every user are returned.
      *
-     * @return An ObservableList containing all Appointments.
+     * @return An ObservableList containing the Appointments starting in the next 15 minutes.
      * @throws SQLException if there is an error executing the SQL statement.
      */
     public static ObservableList<Appointment> fetchAllAppointmentsWithin15Minutes() throws SQLException {
-        ResultSet appointments = null;
-        LocalDateTime now = LocalDateTime.now();
-        ZoneId zid = ZoneId.systemDefault();
-        ZonedDateTime zdt = now.atZone(zid);
-        LocalDateTime ldt = zdt.withZoneSameInstant(ZoneId.of("UTC")).toLocalDateTime();
-        try {
-            //SQL Statement
-            String sqlQuery = "SELECT * FROM appointments\n" +
-                    "where Start > '" + ldt + "'  - interval 15 minute;";
-            PreparedStatement statement = JDBC.openConnection().prepareStatement(sqlQuery);
-            appointments = statement.executeQuery();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
+        ZonedDateTime now = ZonedDateTime.now();
+        return fetchAppointmentsStartingBetween(UserQueries.getCurrentUserId(), now, now.plusMinutes(15));
+    }
+
+    /**
+     * Returns the Appointments of a user that start within the given window, ordered by start.
+     * The bounds are bound as parameters, and with the (User_ID, Start) index created by
+     * db/001_appointments_user_start_index.sql the database reads only the matching index range,
+     * so the cost does not grow with the amount of future schedule.
+     *
+     * @param userId The User_ID whose Appointments are returned, or -1 for every user.
+     * @param from   The earliest start to include.
+     * @param to     The latest start to include.
+     * @return An ObservableList containing the matching Appointments.
+     * @throws SQLException if there is an error executing the SQL statement.
+     */
+    public static ObservableList<Appointment> fetchAppointmentsStartingBetween(int userId, ZonedDateTime from,
+                                                                            ZonedDateTime to) throws SQLException {
+        //SQL Statement
+        String sqlQuery = userId == -1
+                ? "SELECT * FROM appointments WHERE Start BETWEEN ? AND ? ORDER BY Start"
+                : "SELECT * FROM appointments WHERE User_ID = ? AND Start BETWEEN ? AND ? ORDER BY Start";
+        try (PreparedStatement statement = JDBC.getConnection().prepareStatement(sqlQuery)) {
+            int index = 1;
+            if (userId != -1) {
+                statement.setInt(index++, userId);
+            }
+            statement.setTimestamp(index++, Timestamp.from(from.toInstant()));
+            statement.setTimestamp(index, Timestamp.from(to.toInstant()));
+            try (ResultSet results = statement.executeQuery()) {
+                return processResultsToObservableList(results);
+            }
+        }
+    }
+
+    /**
+     * Returns the Appointments that start no later than the given end and end no earlier than the given start,
+     * leaving out one Appointment. These are the only Appointments Validator.checkIfTimeIsBetween can report for
+     * the given range, so the overlap check reads them instead of the whole table.
+     * Like checkIfTimeIsBetween, the range is read by its wall-clock times whatever zone it is labelled with, as the
+     * appointment form labels the entered times as UTC; those are the times the table holds.
+     *
+     * @param start         The start of the range being checked.
+     * @param end           The end of the range being checked.
+     * @param appointmentId The Appointment_ID to leave out, e.g. the appointment being edited.
+     * @return An ObservableList containing the matching Appointments.
+     * @throws SQLException if there is an error executing the SQL statement.
+     */
+    public static ObservableList<Appointment> fetchAppointmentsTouching(ZonedDateTime start, ZonedDateTime end,
+                                                                        int appointmentId) throws SQLException {
+        //SQL Statement
+        String sqlQuery = "SELECT * FROM appointments WHERE Start <= ? AND End >= ? AND Appointment_ID != ?";
+        try (PreparedStatement statement = JDBC.getConnection().prepareStatement(sqlQuery)) {
+            statement.setTimestamp(1, Timestamp.valueOf(end.toLocalDateTime()));
+            statement.setTimestamp(2, Timestamp.valueOf(start.toLocalDateTime()));
+            statement.setInt(3, appointmentId);
+            try (ResultSet results = statement.executeQuery()) {
+                return processResultsToObservableList(results);
+            }
+        }
+    }
+
+    /**
+     * Returns the Appointment with the given ID.
+     *
+     * @param appointmentId The Appointment_ID to look up.
+     * @return The Appointment, or null if there is none with that ID.
+     * @throws SQLException if there is an error executing the SQL statement.
+     */
+    public static Appointment fetchAppointmentById(int appointmentId) throws SQLException {
+        //SQL Statement
+        String sqlQuery = "SELECT * FROM appointments WHERE Appointment_ID = ?";
+        try (PreparedStatement statement = JDBC.getConnection().prepareStatement(sqlQuery)) {
+            statement.setInt(1, appointmentId);
+            try (ResultSet results = statement.executeQuery()) {
+                return results.next() ? RowMapper.toAppointment(results) : null;
+            }
+        }
+    }
+
+    /**
+     * Returns the Appointments of one customer, ordered by start.
+     *
+     * @param customerId The Customer_ID whose Appointments are returned.
+     * @return An ObservableList containing the customer's Appointments.
+     * @throws SQLException if there is an error executing the SQL statement.
+     */
+    public static ObservableList<Appointment> fetchAppointmentsByCustomerId(int customerId) throws SQLException {
+        //SQL Statement
+        String sqlQuery = "SELECT * FROM appointments WHERE Customer_ID = ? ORDER BY Start";
+        try (PreparedStatement statement = JDBC.getConnection().prepareStatement(sqlQuery)) {
+            statement.setInt(1, customerId);
+            try (ResultSet results = statement.executeQuery()) {
+                return processResultsToObservableList(results);
+            }
         }
-        return processResultsToObservableList(appointments);
     }
 
     /**
@@ -127,27 +207,7 @@ public class AppointmentQueries {
      * @throws SQLException If there is an error executing the SQL query, such as a syntax error or a database connection issue.
      */
     private static ObservableList<Appointment> processResultsToObservableList(ResultSet resultSet) throws SQLException {
-        ObservableList<Appointment> appointments = FXCollections.observableArrayList();
-        while (resultSet.next()) {
-            int appointmentId = resultSet.getInt("Appointment_ID");
-            String title = resultSet.getString("Title");
-            String description = resultSet.getString("Description");
-            String location = resultSet.getString("Location");
-            String type = resultSet.getString("Type");
-            ZonedDateTime startDateTime = TimeManager.toSystemTimeZone(resultSet.getTimestamp("Start"));
-            ZonedDateTime endDateTime = TimeManager.toSystemTimeZone(resultSet.getTimestamp("End"));
-            String createdBy = resultSet.getString("Created_By");
-            ZonedDateTime createDateTime = TimeManager.toSystemTimeZone(resultSet.getTimestamp("Create_Date"));
-            Timestamp lastUpdateTimestamp = resultSet.getTimestamp("Last_Update");
-            String lastUpdatedBy = resultSet.getString("Last_Updated_By");
-            int customerId = resultSet.getInt("Customer_ID");
-            int userId = resultSet.getInt("User_ID");
-            int contactId = resultSet.getInt("Contact_ID");
-            Appointment appointment = new Appointment(appointmentId, title, description, location, type, startDateTime, endDateTime,
-                    customerId, userId, contactId, createDateTime, createdBy, lastUpdateTimestamp, lastUpdatedBy);
-            appointments.add(appointment);
-        }
-        return appointments;
+        return FXCollections.observableArrayList(RowMapper.toAppointments(resultSet));
     }
 
     /**
@@ -188,17 +248,15 @@ public class AppointmentQueries {
      */
     public static int getNextAppointmentId() throws SQLException {
         int nextAppointmentId = -1;
-        try {
-            //SQL Statement
-            String sqlQuery = "SELECT MAX(Appointment_ID) AS max_app_id FROM APPOINTMENTS";
-            PreparedStatement preparedStatement = JDBC.openConnection().prepareStatement(sqlQuery);
-            ResultSet resultSet = preparedStatement.executeQuery();
-
+        //SQL Statement
+        String sqlQuery = "SELECT MAX(Appointment_ID) AS max_app_id FROM APPOINTMENTS";
+        try (PreparedStatement preparedStatement = JDBC.getConnection().prepareStatement(sqlQuery);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
             while (resultSet.next()) {
                 nextAppointmentId = resultSet.getInt("max_app_id") + 1;
             }
         } catch (SQLException exception) {
-            exception.printStackTrace();
+            throw new SQLException("An error occurred while reading the next appointment ID", exception);
         }
         return nextAppointmentId;
     }
@@ -206,8 +264,8 @@ public class AppointmentQueries {
     /**
      * Adds an appointment to the database. This method takes an instance of the Appointment class as a
      * parameter and saves it to the database.
-     * This method may throw a SQLException if there's any problem while executing database queries during
-     * the process of inserting the appointment into the database.
+     * This method throws a SQLException if there's any problem while executing database queries during
+     * the process of inserting the appointment into the database, so the caller knows nothing was saved.
      *
      * @param appointment An instance of the class Appointment, containing the details of
      *                    the appointment to be added to the database.
@@ -215,21 +273,19 @@ public class AppointmentQueries {
      */
     public static void addAppointment(Appointment appointment) throws SQLException {
         if (appointment != null) {
-            try {
-                String query = "INSERT INTO APPOINTMENTS (Appointment_ID, Title, " +
-                        "Description, Location, Type, Start, End, " +
-                        "Customer_ID, Create_Date, Created_By, Last_Update, Last_Updated_By, User_ID, Contact_ID) " +
-                        "VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
-
-                PreparedStatement statement = JDBC.openConnection().prepareStatement(query);
+            String query = "INSERT INTO APPOINTMENTS (Appointment_ID, Title, " +
+                    "Description, Location, Type, Start, End, " +
+                    "Customer_ID, Create_Date, Created_By, Last_Update, Last_Updated_By, User_ID, Contact_ID) " +
+                    "VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
+            try (PreparedStatement statement = JDBC.getConnection().prepareStatement(query)) {
                 statement.setInt(1, appointment.getAppointment_ID());
                 statement.setString(2, appointment.getTitle());
                 statement.setString(3, appointment.getDescription());
                 statement.setString(4, appointment.getLocation());
                 statement.setString(5, appointment.getType());
-                statement.setTimestamp(6, TimeManager.toTimestampUsingSQLFormat(appointment.getStart()));
-                statement.setTimestamp(7, TimeManager.toTimestampUsingSQLFormat(appointment.getEnd()));
-                statement.setInt(8, appointment.getAppointment_ID());
+                statement.setTimestamp(6, TimeManager.toTimestamp(appointment.getStartEpochSecond()));
+                statement.setTimestamp(7, TimeManager.toTimestamp(appointment.getEndEpochSecond()));
+                statement.setInt(8, appointment.getCustomer_ID());
                 statement.setTimestamp(9, TimeManager.toTimestampUsingSQLFormat(appointment.getCreate_Date()));
                 statement.setString(10, "admin");
                 statement.setTimestamp(11, appointment.getLast_Update());
@@ -237,10 +293,12 @@ public class AppointmentQueries {
                 statement.setInt(13, appointment.getUser_ID());
                 statement.setInt(14, appointment.getContact_ID());
                 statement.execute();
+            } catch (SQLException e) {
+                throw new SQLException("An error occurred while attempting to add the appointment to the database", e);
             }
-            catch (SQLException e) {
-                e.printStackTrace();
-            }
+            ReportCache.dataChanged();
+            ReminderService.requestRefresh();
+            BusyBitmapCache.invalidate();
         }
     }
 
@@ -249,27 +307,23 @@ public class AppointmentQueries {
      *
      * @param appointment The appointment object containing the updated information to be saved in the database.
      *
-     * @throws IllegalArgumentException if the provided appointment object is null.
+     * @throws SQLException if there are any issues writing to the database, so the caller knows nothing was saved.
      *
      * This method will attempt to update the appointment information in the database with what
      * is provided in the appointment object parameter.
-     * If there are any issues writing to the database, an exception will be thrown.
-     * If the provided appointment object is null, an IllegalArgumentException will be thrown.
      */
-    public static void updateAppointment(Appointment appointment) {
-        try {
-            String sql = "UPDATE APPOINTMENTS SET " +
-                    "Title = ?, Description = ?, Location = ?, Type = ?, Start = ?, End = ?, " +
-                    "Customer_ID = ?, Created_By = ?, Last_Updated_By = ?, User_ID = ?, Contact_ID = ? " +
-                    "WHERE Appointment_ID = ?";
-            PreparedStatement pstmt = JDBC.openConnection().prepareStatement(sql);
-
+    public static void updateAppointment(Appointment appointment) throws SQLException {
+        String sql = "UPDATE APPOINTMENTS SET " +
+                "Title = ?, Description = ?, Location = ?, Type = ?, Start = ?, End = ?, " +
+                "Customer_ID = ?, Created_By = ?, Last_Updated_By = ?, User_ID = ?, Contact_ID = ? " +
+                "WHERE Appointment_ID = ?";
+        try (PreparedStatement pstmt = JDBC.getConnection().prepareStatement(sql)) {
             pstmt.setString(1, appointment.getTitle());
             pstmt.setString(2, appointment.getDescription());
             pstmt.setString(3, appointment.getLocation());
             pstmt.setString(4, appointment.getType());
-            pstmt.setTimestamp(5, TimeManager.toTimestampUsingSQLFormat(appointment.getStart()));
-            pstmt.setTimestamp(6, TimeManager.toTimestampUsingSQLFormat(appointment.getEnd()));
+            pstmt.setTimestamp(5, TimeManager.toTimestamp(appointment.getStartEpochSecond()));
+            pstmt.setTimestamp(6, TimeManager.toTimestamp(appointment.getEndEpochSecond()));
             pstmt.setInt(7, appointment.getCustomer_ID());
             pstmt.setString(8, "admin");
             pstmt.setString(9, "admin");
@@ -278,8 +332,11 @@ public class AppointmentQueries {
             pstmt.setInt(12, appointment.getAppointment_ID());
             pstmt.executeUpdate();
         } catch(SQLException ex) {
-            ex.printStackTrace();
+            throw new SQLException("An error occurred while attempting to update the appointment in the database", ex);
         }
+        ReportCache.dataChanged();
+        ReminderService.requestRefresh();
+        BusyBitmapCache.invalidate();
     }
 
     /**
@@ -313,6 +370,28 @@ public class AppointmentQueries {
         }
     }
 
+    /**
+     * Removes every appointment of one customer with a single statement, without showing anything to the user.
+     *
+     * @param customerId The ID of the customer whose appointments are removed.
+     * @return The number of appointments removed.
+     * @throws SQLException if there is an error accessing the database
+     */
+    public static int removeAppointmentsOfCustomer(int customerId) throws SQLException {
+        int removed;
+        try (PreparedStatement statement = JDBC.getConnection()
+                .prepareStatement("DELETE FROM appointments WHERE Customer_ID = ?")) {
+            statement.setInt(1, customerId);
+            removed = statement.executeUpdate();
+        }
+        if (removed > 0) {
+            ReportCache.dataChanged();
+            ReminderService.requestRefresh();
+            BusyBitmapCache.invalidate();
+        }
+        return removed;
+    }
+
     /**
      * Removes an appointment from the database, with the specified unique identifier.
      * This method takes in an ID corresponding to the appointment to be removed. This
@@ -335,6 +414,9 @@ public class AppointmentQueries {
 
         // Execute the SQL statement
         deleteStatement.executeUpdate();
+        ReportCache.dataChanged();
+        ReminderService.requestRefresh();
+        BusyBitmapCache.invalidate();
     }
 
 }
@@ -0,0 +1,56 @@
+package dbQueries;
+
+import helper.JDBC;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * This class loads the busy periods the AvailabilityEngine works from.
+ * Only the Start and End columns are read, and they are returned as primitive arrays of epoch seconds
+ * rather than Appointment objects, so a year of appointments can be loaded without creating any model objects.
+ */
+public abstract class AvailabilityQueries {
+
+    /**
+     * Retrieves the start and end of every appointment of a contact or a customer that overlaps the given period.
+     *
+     * @param contactId  The Contact_ID whose appointments are busy, or -1 to ignore contacts.
+     * @param customerId The Customer_ID whose appointments are busy, or -1 to ignore customers.
+     * @param from       The start of the period.
+     * @param to         The end of the period.
+     * @return Two arrays of equal length: the starts and the ends of the busy periods in epoch seconds.
+     * @throws SQLException if there is an error executing the SQL statement.
+     */
+    public static long[][] fetchBusyIntervals(int contactId, int customerId, Instant from, Instant to)
+            throws SQLException {
+        //SQL Statement
+        String sqlQuery = "SELECT Start, End FROM appointments " +
+                "WHERE (Contact_ID = ? OR Customer_ID = ?) AND Start < ? AND End > ?";
+        long[] starts = new long[64];
+        long[] ends = new long[64];
+        int count = 0;
+        try (PreparedStatement statement = JDBC.getConnection().prepareStatement(sqlQuery)) {
+            statement.setInt(1, contactId);
+            statement.setInt(2, customerId);
+            statement.setTimestamp(3, Timestamp.from(to));
+            statement.setTimestamp(4, Timestamp.from(from));
+            try (ResultSet results = statement.executeQuery()) {
+                while (results.next()) {
+                    if (count == starts.length) {
+                        starts = Arrays.copyOf(starts, count * 2);
+                        ends = Arrays.copyOf(ends, count * 2);
+                    }
+                    starts[count] = Math.floorDiv(results.getTimestamp("Start").getTime(), 1000);
+                    ends[count] = Math.floorDiv(results.getTimestamp("End").getTime(), 1000);
+                    count++;
+                }
+            }
+        }
+        return new long[][]{Arrays.copyOf(starts, count), Arrays.copyOf(ends, count)};
+    }
+}
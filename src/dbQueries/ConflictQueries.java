@@ -0,0 +1,53 @@
+package dbQueries;
+
+import helper.JDBC;
+import utilities.ConflictDetector;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+/**
+ * This class loads the appointments the ConflictDetector sweeps.
+ * Only the ID, Customer_ID, Contact_ID, Start and End columns are read, and the rows are streamed from the server
+ * straight into a ConflictDetector.Schedule, so millions of appointments can be checked without building
+ * Appointment objects or holding the whole result set in the driver.
+ */
+public abstract class ConflictQueries {
+
+    /**
+     * Retrieves the appointments whose start falls within the given date range.
+     * A null bound leaves that side of the range open.
+     *
+     * @param from The first day to include, or null for no lower bound.
+     * @param to   The last day to include, or null for no upper bound.
+     * @return The matching appointments as a Schedule.
+     * @throws SQLException if there is an error executing the SQL statement.
+     */
+    public static ConflictDetector.Schedule fetchSchedule(LocalDate from, LocalDate to) throws SQLException {
+        //SQL Statement
+        String sqlQuery = "SELECT Appointment_ID, Customer_ID, Contact_ID, Start, End FROM appointments " +
+                "WHERE Start >= ? AND Start < ?";
+        Timestamp lower = Timestamp.valueOf((from == null ? LocalDate.of(1970, 1, 1) : from).atStartOfDay());
+        Timestamp upper = Timestamp.valueOf((to == null ? LocalDate.of(9999, 1, 1) : to.plusDays(1)).atStartOfDay());
+        ConflictDetector.Schedule schedule = new ConflictDetector.Schedule();
+        try (PreparedStatement statement = JDBC.getConnection().prepareStatement(sqlQuery,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Connector/J streams rows one at a time instead of buffering the whole result; other drivers
+            // reject a negative fetch size and are asked for rows in blocks instead
+            statement.setFetchSize(JDBC.isMySql() ? Integer.MIN_VALUE : 1000);
+            statement.setTimestamp(1, lower);
+            statement.setTimestamp(2, upper);
+            try (ResultSet results = statement.executeQuery()) {
+                while (results.next()) {
+                    schedule.add(results.getInt(1), results.getInt(2), results.getInt(3),
+                            Math.floorDiv(results.getTimestamp(4).getTime(), 1000),
+                            Math.floorDiv(results.getTimestamp(5).getTime(), 1000));
+                }
+            }
+        }
+        return schedule;
+    }
+}
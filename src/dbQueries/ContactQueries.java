@@ -39,13 +39,7 @@ public class ContactQueries {
             PreparedStatement statement = JDBC.openConnection().prepareStatement(query);
             ResultSet results = statement.executeQuery();
 
-            while (results.next()) {
-                int contactId = results.getInt("Contact_ID");
-                String contactName = results.getString("Contact_Name");
-                String email = results.getString("Email");
-                Contact c = new Contact(contactId, contactName, email);
-                contactList.add(c);
-            }
+            contactList.addAll(RowMapper.toContacts(results));
         }
         catch(SQLException e) {
             e.printStackTrace();
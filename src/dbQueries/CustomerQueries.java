@@ -1,14 +1,14 @@
 package dbQueries;
 
 import java.sql.SQLException;
-import java.sql.Timestamp;
 import java.sql.Statement;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.util.List;
 import javafx.collections.ObservableList;
-import java.time.ZonedDateTime;
 import javafx.collections.FXCollections;
 import model.Customer;
+import utilities.ReportCache;
 import utilities.TimeManager;
 import helper.JDBC;
 
@@ -39,29 +39,7 @@ public class CustomerQueries {
         try (PreparedStatement statement = JDBC.openConnection().prepareStatement("SELECT * FROM customers");
              ResultSet results = statement.executeQuery()) {
 
-            while (results.next()) {
-                String postalCode = results.getString("Postal_Code");
-                int customerId = results.getInt("Customer_ID");
-                String address = results.getString("Address");
-                int divisionId = results.getInt("Division_ID");
-                Timestamp lastUpdate = results.getTimestamp("Last_Update");
-                ZonedDateTime createDate = TimeManager.toSystemTimeZone(results.getTimestamp("Create_Date"));
-                String customerName = results.getString("Customer_Name");
-                String lastUpdatedBy = results.getString("Last_Updated_By");
-                String phone = results.getString("Phone");
-                String createdBy = results.getString("Created_By");
-                Customer customer = new Customer(customerId,
-                        customerName,
-                        address,
-                        postalCode,
-                        phone,
-                        createDate,
-                        createdBy,
-                        lastUpdate,
-                        lastUpdatedBy,
-                        divisionId);
-                customerArrayList.add(customer);
-            }
+            customerArrayList.addAll(RowMapper.toCustomers(results));
         } catch (SQLException sqlE) {
             sqlE.printStackTrace();
             throw new SQLException("An error occurred while retrieving all customers from the database.");
@@ -70,29 +48,44 @@ public class CustomerQueries {
         return customerArrayList;
     }
 
+    /**
+     * Returns the customer with the given ID.
+     *
+     * @param customerId The Customer_ID to look up.
+     * @return The Customer, or null if there is none with that ID.
+     * @throws SQLException if there is an error executing the SQL statement.
+     */
+    public static Customer fetchCustomerById(int customerId) throws SQLException {
+        //SQL Statement
+        try (PreparedStatement statement = JDBC.getConnection()
+                .prepareStatement("SELECT * FROM customers WHERE Customer_ID = ?")) {
+            statement.setInt(1, customerId);
+            try (ResultSet results = statement.executeQuery()) {
+                List<Customer> customers = RowMapper.toCustomers(results);
+                return customers.isEmpty() ? null : customers.get(0);
+            }
+        }
+    }
+
     /**
      * This method retrieves the next available customer ID from the database by querying the database for the
      * highest customer ID currently in use and incrementing that value by 1 to ensure a unique ID for the new customer.
      * @return an integer value representing the next available customer ID.
-     *         If the method encounters an error while querying the database, it will return -1.
      * @throws SQLException if there is an error with the database connection or query.
      *         This exception will be thrown to the calling method in the event that an error occurs within the
      *         Java Database Connectivity (JDBC) framework.
      */
     public static int getNextCustomerId() throws SQLException {
         int nextCustomerId = -1;
-
-        try {
-            Statement statement = JDBC.openConnection().createStatement();
-            //SQL Statement
-            String sqlQuery = "SELECT MAX(customer_id) as max_customer_id FROM customers";
-            ResultSet resultSet = statement.executeQuery(sqlQuery);
-
+        //SQL Statement
+        String sqlQuery = "SELECT MAX(customer_id) as max_customer_id FROM customers";
+        try (Statement statement = JDBC.getConnection().createStatement();
+             ResultSet resultSet = statement.executeQuery(sqlQuery)) {
             while (resultSet.next()) {
                 nextCustomerId = resultSet.getInt("max_customer_id") + 1;
             }
         } catch (SQLException exception) {
-            exception.printStackTrace();
+            throw new SQLException("An error occurred while reading the next customer ID", exception);
         }
 
         return nextCustomerId;
@@ -110,6 +103,7 @@ public class CustomerQueries {
         String sqlQuery = "DELETE FROM customers WHERE customer_id = " + customerId;
         try (PreparedStatement statement = JDBC.openConnection().prepareStatement(sqlQuery)) {
             statement.execute();
+            ReportCache.dataChanged();
         } catch (SQLException sqlE) {
             throw new SQLException("Failed to remove customer with ID " + customerId, sqlE);
         }
@@ -146,6 +140,7 @@ public class CustomerQueries {
                 statement.setString(9, "admin");
                 statement.setInt(10, customer.getDivision_ID());
                 statement.execute();
+                ReportCache.dataChanged();
             } catch (SQLException e) {
                 throw new SQLException("An error occurred while attempting to add customer to the database", e);
             }
@@ -159,18 +154,16 @@ public class CustomerQueries {
      *
      * @param customer The Customer object containing the updated information that needs to be stored in the database.
      *                 This object must not be null.
-     * @throws IllegalArgumentException If the provided Customer object is null.
+     * @throws SQLException If the customer could not be updated, so the caller knows nothing was saved.
      *
      * @since 1.0
      */
-    public static void updateCustomerInfo(Customer customer) {
-        try {
-            // SQL Statement
-            String query = "UPDATE CUSTOMERS SET Customer_Name = ?, Address = ?, Postal_Code = ?, Phone = ?, " +
-                    "Create_Date = ?, Created_By = ?, Last_Update = ?, Last_Updated_By = ?, Division_ID = ? " +
-                    "WHERE Customer_ID = ?";
-            PreparedStatement statement = JDBC.openConnection().prepareStatement(query);
-
+    public static void updateCustomerInfo(Customer customer) throws SQLException {
+        // SQL Statement
+        String query = "UPDATE CUSTOMERS SET Customer_Name = ?, Address = ?, Postal_Code = ?, Phone = ?, " +
+                "Create_Date = ?, Created_By = ?, Last_Update = ?, Last_Updated_By = ?, Division_ID = ? " +
+                "WHERE Customer_ID = ?";
+        try (PreparedStatement statement = JDBC.getConnection().prepareStatement(query)) {
             // set the parameters for the update statement
             statement.setString(1, customer.getCustomer_Name());
             statement.setString(2, customer.getAddress());
@@ -187,8 +180,9 @@ public class CustomerQueries {
             statement.executeUpdate();
         }
         catch(SQLException ex) {
-            ex.printStackTrace();
+            throw new SQLException("An error occurred while attempting to update the customer in the database", ex);
         }
+        ReportCache.dataChanged();
     }
 }
 
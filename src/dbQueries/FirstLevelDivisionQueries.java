@@ -68,6 +68,29 @@ public class FirstLevelDivisionQueries {
         return divisionMap;
     }
 
+    /**
+     * Retrieves the names of the first-level divisions of one country, ordered by Division_ID.
+     *
+     * @param country The name of the country, as stored in the COUNTRIES table.
+     * @return An observable list of the division names of that country.
+     * @throws SQLException if there is an error executing the SQL statement.
+     */
+    public static ObservableList<String> getDivisionsByCountry(String country) throws SQLException {
+        ObservableList<String> divisionList = FXCollections.observableArrayList();
+        //SQL Statement
+        String query = "SELECT d.Division FROM first_level_divisions d " +
+                "JOIN countries c ON c.Country_ID = d.Country_ID WHERE c.Country = ? ORDER BY d.Division_ID";
+        try (PreparedStatement statement = JDBC.openConnection().prepareStatement(query)) {
+            statement.setString(1, country);
+            try (ResultSet results = statement.executeQuery()) {
+                while (results.next()) {
+                    divisionList.add(results.getString("Division"));
+                }
+            }
+        }
+        return divisionList;
+    }
+
     /**
      * This method queries the database to retrieve a list of US divisions.
      * @return An observable list of division names associated with US divisions in the database.
@@ -0,0 +1,195 @@
+package dbQueries;
+
+import helper.JDBC;
+import model.Appointment;
+import model.Contact;
+import model.Customer;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class performs the read-only queries that feed the ReportManager.
+ * Unlike the other query classes it returns plain java.util.List objects, so reports can be generated
+ * from the command line without the JavaFX runtime on the classpath.
+ */
+public abstract class ReportQueries {
+
+    /**
+     * Retrieves the appointments whose start falls within the given date range, ordered by start.
+     * A null bound leaves that side of the range open.
+     *
+     * @param from The first day to include, or null for no lower bound.
+     * @param to   The last day to include, or null for no upper bound.
+     * @return A List of the matching Appointments.
+     * @throws SQLException if there is an error executing the SQL statement.
+     */
+    public static List<Appointment> fetchAppointments(LocalDate from, LocalDate to) throws SQLException {
+        return queryAppointments(from, to, "Start");
+    }
+
+    /**
+     * Retrieves the appointments whose start falls within the given date range, ordered by contact and start.
+     *
+     * @param from The first day to include, or null for no lower bound.
+     * @param to   The last day to include, or null for no upper bound.
+     * @return A List of the matching Appointments grouped by Contact_ID.
+     * @throws SQLException if there is an error executing the SQL statement.
+     */
+    public static List<Appointment> fetchAppointmentsByContact(LocalDate from, LocalDate to) throws SQLException {
+        return queryAppointments(from, to, "Contact_ID, Start");
+    }
+
+    /**
+     * Retrieves all contacts ordered by their ID.
+     *
+     * @return A List of every Contact in the database.
+     * @throws SQLException if there is an error executing the SQL statement.
+     */
+    public static List<Contact> fetchContacts() throws SQLException {
+        try (PreparedStatement statement = JDBC.getConnection()
+                .prepareStatement("SELECT * FROM contacts ORDER BY Contact_ID");
+             ResultSet results = statement.executeQuery()) {
+            return RowMapper.toContacts(results);
+        }
+    }
+
+    /**
+     * Retrieves all customers ordered by their division and ID.
+     *
+     * @return A List of every Customer in the database.
+     * @throws SQLException if there is an error executing the SQL statement.
+     */
+    public static List<Customer> fetchCustomers() throws SQLException {
+        try (PreparedStatement statement = JDBC.getConnection()
+                .prepareStatement("SELECT * FROM customers ORDER BY Division_ID, Customer_ID");
+             ResultSet results = statement.executeQuery()) {
+            return RowMapper.toCustomers(results);
+        }
+    }
+
+    /**
+     * Retrieves the division ID of every customer.
+     *
+     * @return A Map from Customer_ID to Division_ID.
+     * @throws SQLException if there is an error executing the SQL statement.
+     */
+    public static Map<Integer, Integer> fetchCustomerDivisions() throws SQLException {
+        Map<Integer, Integer> divisions = new HashMap<>();
+        try (PreparedStatement statement = JDBC.getConnection()
+                .prepareStatement("SELECT Customer_ID, Division_ID FROM customers");
+             ResultSet results = statement.executeQuery()) {
+            while (results.next()) {
+                divisions.put(results.getInt("Customer_ID"), results.getInt("Division_ID"));
+            }
+        }
+        return divisions;
+    }
+
+    /**
+     * Retrieves the name of every first level division.
+     *
+     * @return A Map from Division_ID to division name.
+     * @throws SQLException if there is an error executing the SQL statement.
+     */
+    public static Map<Integer, String> fetchDivisionNames() throws SQLException {
+        return queryNames("SELECT Division_ID, Division FROM first_level_divisions", "Division_ID", "Division");
+    }
+
+    /**
+     * Retrieves the name of the country each first level division belongs to.
+     *
+     * @return A Map from Division_ID to country name.
+     * @throws SQLException if there is an error executing the SQL statement.
+     */
+    public static Map<Integer, String> fetchDivisionCountries() throws SQLException {
+        return queryNames("SELECT d.Division_ID, c.Country FROM first_level_divisions d " +
+                "JOIN countries c ON c.Country_ID = d.Country_ID", "Division_ID", "Country");
+    }
+
+    /**
+     * Retrieves the user name of every user.
+     *
+     * @return A Map from User_ID to user name.
+     * @throws SQLException if there is an error executing the SQL statement.
+     */
+    public static Map<Integer, String> fetchUserNames() throws SQLException {
+        return queryNames("SELECT User_ID, User_Name FROM users", "User_ID", "User_Name");
+    }
+
+    /**
+     * Builds a stamp describing the current state of the report source tables.
+     * The stamp changes whenever a row is added to or removed from the appointments, customers or contacts tables,
+     * or when an appointment or customer row receives a newer Last_Update. It is cheap enough to run before
+     * every cached report lookup.
+     *
+     * @return A string that changes whenever the data behind the reports changes.
+     * @throws SQLException if there is an error executing the SQL statement.
+     */
+    public static String fetchDataVersion() throws SQLException {
+        //SQL Statement
+        String sqlQuery = "SELECT (SELECT COUNT(*) FROM appointments) AS appointment_count, " +
+                "(SELECT MAX(Last_Update) FROM appointments) AS appointment_update, " +
+                "(SELECT COUNT(*) FROM customers) AS customer_count, " +
+                "(SELECT MAX(Last_Update) FROM customers) AS customer_update, " +
+                "(SELECT COUNT(*) FROM contacts) AS contact_count";
+        try (PreparedStatement statement = JDBC.getConnection().prepareStatement(sqlQuery);
+             ResultSet results = statement.executeQuery()) {
+            results.next();
+            return results.getLong("appointment_count") + "/" + results.getTimestamp("appointment_update") + "/" +
+                    results.getLong("customer_count") + "/" + results.getTimestamp("customer_update") + "/" +
+                    results.getLong("contact_count");
+        }
+    }
+
+    /**
+     * Runs an appointment query bounded by an optional date range.
+     *
+     * @param from    The first day to include, or null for no lower bound.
+     * @param to      The last day to include, or null for no upper bound.
+     * @param orderBy The ORDER BY column list.
+     * @return A List of the matching Appointments.
+     * @throws SQLException if there is an error executing the SQL statement.
+     */
+    private static List<Appointment> queryAppointments(LocalDate from, LocalDate to, String orderBy)
+            throws SQLException {
+        //SQL Statement
+        String sqlQuery = "SELECT * FROM appointments WHERE Start >= ? AND Start < ? ORDER BY " + orderBy;
+        Timestamp lower = Timestamp.valueOf((from == null ? LocalDate.of(1970, 1, 1) : from).atStartOfDay());
+        Timestamp upper = Timestamp.valueOf((to == null ? LocalDate.of(9999, 1, 1) : to.plusDays(1)).atStartOfDay());
+        try (PreparedStatement statement = JDBC.getConnection().prepareStatement(sqlQuery)) {
+            statement.setTimestamp(1, lower);
+            statement.setTimestamp(2, upper);
+            try (ResultSet results = statement.executeQuery()) {
+                return RowMapper.toAppointments(results);
+            }
+        }
+    }
+
+    /**
+     * Runs a query returning an ID column and a name column.
+     *
+     * @param sqlQuery   The SQL statement.
+     * @param idColumn   The label of the ID column.
+     * @param nameColumn The label of the name column.
+     * @return A Map from ID to name.
+     * @throws SQLException if there is an error executing the SQL statement.
+     */
+    private static Map<Integer, String> queryNames(String sqlQuery, String idColumn, String nameColumn)
+            throws SQLException {
+        Map<Integer, String> names = new HashMap<>();
+        try (PreparedStatement statement = JDBC.getConnection().prepareStatement(sqlQuery);
+             ResultSet results = statement.executeQuery()) {
+            while (results.next()) {
+                names.put(results.getInt(idColumn), results.getString(nameColumn));
+            }
+        }
+        return names;
+    }
+}
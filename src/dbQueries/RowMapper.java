@@ -0,0 +1,139 @@
+package dbQueries;
+
+import model.Appointment;
+import model.Contact;
+import model.Customer;
+import utilities.TimeManager;
+import utilities.TimeZones;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class converts database rows into model objects.
+ * It deliberately avoids any JavaFX types so the same mapping can be shared by the query classes used
+ * by the GUI and by the headless report runner, which must start without loading the JavaFX toolkit.
+ */
+public abstract class RowMapper {
+
+    /**
+     * Maps every remaining row of the given ResultSet to an Appointment object.
+     *
+     * @param resultSet The ResultSet positioned before the first appointment row.
+     * @return A List of Appointment objects in the order they were returned by the database.
+     * @throws SQLException If a column cannot be read from the ResultSet.
+     */
+    public static List<Appointment> toAppointments(ResultSet resultSet) throws SQLException {
+        List<Appointment> appointments = new ArrayList<>();
+        ZoneId zone = TimeZones.system();
+        while (resultSet.next()) {
+            appointments.add(toAppointment(resultSet, zone));
+        }
+        return appointments;
+    }
+
+    /**
+     * Maps the current row of the given ResultSet to an Appointment object.
+     *
+     * @param resultSet The ResultSet positioned on an appointment row.
+     * @return The Appointment created from the current row.
+     * @throws SQLException If a column cannot be read from the ResultSet.
+     */
+    public static Appointment toAppointment(ResultSet resultSet) throws SQLException {
+        return toAppointment(resultSet, TimeZones.system());
+    }
+
+    /**
+     * Maps the current row of the given ResultSet to an Appointment object whose times are shown in the given zone.
+     * The Start, End and Create_Date columns are kept as epoch seconds, so no ZonedDateTime is created here.
+     *
+     * @param resultSet The ResultSet positioned on an appointment row.
+     * @param zone      The time zone the appointment's times are shown in.
+     * @return The Appointment created from the current row.
+     * @throws SQLException If a column cannot be read from the ResultSet.
+     */
+    public static Appointment toAppointment(ResultSet resultSet, ZoneId zone) throws SQLException {
+        int appointmentId = resultSet.getInt("Appointment_ID");
+        String title = resultSet.getString("Title");
+        String description = resultSet.getString("Description");
+        String location = resultSet.getString("Location");
+        String type = resultSet.getString("Type");
+        long start = epochSecond(resultSet.getTimestamp("Start"));
+        long end = epochSecond(resultSet.getTimestamp("End"));
+        String createdBy = resultSet.getString("Created_By");
+        long createDate = epochSecond(resultSet.getTimestamp("Create_Date"));
+        Timestamp lastUpdateTimestamp = resultSet.getTimestamp("Last_Update");
+        long lastUpdate = lastUpdateTimestamp == null ? Appointment.NO_TIME : lastUpdateTimestamp.getTime();
+        String lastUpdatedBy = resultSet.getString("Last_Updated_By");
+        int customerId = resultSet.getInt("Customer_ID");
+        int userId = resultSet.getInt("User_ID");
+        int contactId = resultSet.getInt("Contact_ID");
+        return new Appointment(appointmentId, title, description, location, type, start, end, zone,
+                customerId, userId, contactId, createDate, createdBy, lastUpdate, lastUpdatedBy);
+    }
+
+    /**
+     * @param timestamp A DATETIME column value, or null.
+     * @return The value in UTC epoch seconds, or NO_TIME for null.
+     */
+    private static long epochSecond(Timestamp timestamp) {
+        return timestamp == null ? Appointment.NO_TIME : TimeManager.toEpochSecond(timestamp);
+    }
+
+    /**
+     * Maps every remaining row of the given ResultSet to a Customer object.
+     *
+     * @param results The ResultSet positioned before the first customer row.
+     * @return A List of Customer objects in the order they were returned by the database.
+     * @throws SQLException If a column cannot be read from the ResultSet.
+     */
+    public static List<Customer> toCustomers(ResultSet results) throws SQLException {
+        List<Customer> customers = new ArrayList<>();
+        while (results.next()) {
+            String postalCode = results.getString("Postal_Code");
+            int customerId = results.getInt("Customer_ID");
+            String address = results.getString("Address");
+            int divisionId = results.getInt("Division_ID");
+            Timestamp lastUpdate = results.getTimestamp("Last_Update");
+            ZonedDateTime createDate = TimeManager.toSystemTimeZone(results.getTimestamp("Create_Date"));
+            String customerName = results.getString("Customer_Name");
+            String lastUpdatedBy = results.getString("Last_Updated_By");
+            String phone = results.getString("Phone");
+            String createdBy = results.getString("Created_By");
+            customers.add(new Customer(customerId,
+                    customerName,
+                    address,
+                    postalCode,
+                    phone,
+                    createDate,
+                    createdBy,
+                    lastUpdate,
+                    lastUpdatedBy,
+                    divisionId));
+        }
+        return customers;
+    }
+
+    /**
+     * Maps every remaining row of the given ResultSet to a Contact object.
+     *
+     * @param results The ResultSet positioned before the first contact row.
+     * @return A List of Contact objects in the order they were returned by the database.
+     * @throws SQLException If a column cannot be read from the ResultSet.
+     */
+    public static List<Contact> toContacts(ResultSet results) throws SQLException {
+        List<Contact> contacts = new ArrayList<>();
+        while (results.next()) {
+            int contactId = results.getInt("Contact_ID");
+            String contactName = results.getString("Contact_Name");
+            String email = results.getString("Email");
+            contacts.add(new Contact(contactId, contactName, email));
+        }
+        return contacts;
+    }
+}
@@ -5,18 +5,34 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import model.User;
 import utilities.AlertManager;
+import utilities.CacheStats;
 import utilities.LoginMonitor;
+import utilities.LoginThrottle;
 import utilities.TimeManager;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This class performs all queries related to user objects in the database.
  */
 public class UserQueries {
+    private static final String CREDENTIAL_QUERY =
+            "SELECT User_ID, User_Name, Password FROM users WHERE User_Name = ?";
+    private static PreparedStatement credentialStatement;
+    private static volatile Map<Integer, String> userIndex;
+    private static volatile int currentUserId = -1;
+    private static final CacheStats userIndexStats = new CacheStats();
+    private static final CacheStats statementStats = new CacheStats();
 
     /**
      * A utility method to retrieve a list of all users from the database.
@@ -53,36 +69,165 @@ public class UserQueries {
 
     /**
      * Validates user credentials by attempting to authenticate with the given username and password.
-     * Each attempt is logged by the LoginMonitor.
+     * Each attempt is logged by the LoginMonitor, and attempts over the LoginThrottle limits are rejected
+     * without querying the database. After a successful login the user index is warmed in the background.
      *
      * @param username the username to validate
      * @param password the password to validate
      * @return true if the specified user is validated; false if either of the credentials are incorrect or if an exception occurs
      */
     public static boolean validateCredentials(String username, String password) {
-        //Get current time to log the timestamp for the login attempt
-        ZonedDateTime time = ZonedDateTime.now();
+        //Reject the attempt without querying the database if too many attempts were made recently
+        if (!LoginThrottle.tryAcquire(username)) {
+            LoginMonitor.recordAttempt(username, false);
+            AlertManager.showAlert("Too_Many_Attempts", "Login Failed");
+            return false;
+        }
 
         try {
-            //Construct the SQL query to validate the user's credentials
-            String sql = "SELECT * FROM USERS WHERE USER_NAME = '" + username + "' AND password = '" + password + "'";
-            //Open a JDBC connection to execute the query
-            PreparedStatement statement = JDBC.openConnection().prepareStatement(sql);
-            //Execute the query and fetch the results
-            ResultSet results = statement.executeQuery();
-            results.next();
-            //Check if the fetched results match the provided credentials
-            if (results.getString("User_Name").equals(username) && results.getString("Password").equals(password)) {
+            int userId = findUserId(username, password);
+            if (userId != -1) {
                 //If the credentials match, record a successful attempt and return success
-                LoginMonitor.recordAttempt(username, "SUCCESSFUL");
+                LoginMonitor.recordAttempt(username, true);
+                currentUserId = userId;
+                CompletableFuture.runAsync(UserQueries::warmUserIndex);
                 return true;
             }
+            LoginMonitor.recordAttempt(username, false);
         } catch (SQLException exception) {
             //If an exception occurs, record the failed attempt and return failure
-            LoginMonitor.recordAttempt(username, "FAILED");
+            LoginMonitor.recordAttempt(username, false);
         }
         //In case of failed login attempt, show an alert and return failure
         AlertManager.showAlert("Login Failed", "Incorrect credentials");
         return false;
     }
+
+    /**
+     * Looks up a user by name with a cached, parameterized statement and checks the password.
+     * Only User_ID, User_Name and the stored password are selected; the password is compared in constant time.
+     * The column's collation in MySQL ignores case and trailing spaces, so the index finds the candidate rows
+     * and the username is then compared exactly, so "TEST " does not log in as "test".
+     * Nothing is logged or shown, so this can be benchmarked directly.
+     *
+     * @param username the username to look up
+     * @param password the password to check
+     * @return the User_ID of the user, or -1 if the username does not exist or the password is wrong
+     * @throws SQLException if the query fails
+     */
+    public static int findUserId(String username, String password) throws SQLException {
+        if (username == null || password == null) {
+            return -1;
+        }
+        synchronized (UserQueries.class) {
+            PreparedStatement statement = credentialStatement();
+            statement.setString(1, username);
+            try (ResultSet results = statement.executeQuery()) {
+                while (results.next()) {
+                    if (!username.equals(results.getString("User_Name"))) {
+                        continue;
+                    }
+                    byte[] stored = results.getString("Password").getBytes(StandardCharsets.UTF_8);
+                    if (MessageDigest.isEqual(stored, password.getBytes(StandardCharsets.UTF_8))) {
+                        return results.getInt("User_ID");
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the User_ID of the user who logged in, or -1 if nobody has logged in yet
+     */
+    public static int getCurrentUserId() {
+        return currentUserId;
+    }
+
+    /**
+     * Loads the ID and name of every user into the in-memory user index, replacing the previous index.
+     * Errors are printed and leave the previous index in place.
+     */
+    public static void warmUserIndex() {
+        Map<Integer, String> index = new HashMap<>();
+        try (PreparedStatement statement = JDBC.getConnection()
+                .prepareStatement("SELECT User_ID, User_Name FROM users");
+             ResultSet results = statement.executeQuery()) {
+            while (results.next()) {
+                index.put(results.getInt("User_ID"), results.getString("User_Name"));
+            }
+            userIndex = Collections.unmodifiableMap(index);
+        } catch (SQLException | RuntimeException exception) {
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Checks whether a User_ID exists using the in-memory user index, loading the index first if it is cold.
+     *
+     * @param userId the User_ID to check
+     * @return true if a user with the ID exists
+     */
+    public static boolean isKnownUserId(int userId) {
+        if (userIndex == null) {
+            userIndexStats.miss();
+            warmUserIndex();
+        } else {
+            userIndexStats.hit();
+        }
+        Map<Integer, String> index = userIndex;
+        return index != null && index.containsKey(userId);
+    }
+
+    /**
+     * Returns the name of a user from the in-memory user index, loading the index first if it is cold.
+     *
+     * @param userId the User_ID to look up
+     * @return the user name, or null if there is no such user
+     */
+    public static String getUserName(int userId) {
+        if (userIndex == null) {
+            userIndexStats.miss();
+            warmUserIndex();
+        } else {
+            userIndexStats.hit();
+        }
+        Map<Integer, String> index = userIndex;
+        return index == null ? null : index.get(userId);
+    }
+
+    /**
+     * @return the hits and misses of the in-memory user index
+     */
+    public static CacheStats getUserIndexStats() {
+        return userIndexStats;
+    }
+
+    /**
+     * @return the hits and misses of the cached credential lookup statement
+     */
+    public static CacheStats getStatementCacheStats() {
+        return statementStats;
+    }
+
+    /**
+     * Returns the cached credential lookup statement, preparing it again if its connection has been closed.
+     *
+     * @return the prepared statement
+     * @throws SQLException if the statement cannot be prepared
+     */
+    private static PreparedStatement credentialStatement() throws SQLException {
+        if (credentialStatement == null || credentialStatement.isClosed()
+                || credentialStatement.getConnection().isClosed()) {
+            Connection connection = JDBC.getConnection();
+            if (connection == null) {
+                throw new SQLException("No database connection");
+            }
+            statementStats.miss();
+            credentialStatement = connection.prepareStatement(CREDENTIAL_QUERY);
+        } else {
+            statementStats.hit();
+        }
+        return credentialStatement;
+    }
 }
@@ -6,6 +6,7 @@ package exceptions;
  * an available time slot to avoid overlapping appointments.
  */
 public class AppointmentOverlap extends RuntimeException {
+    private static final long serialVersionUID = 1L;
 
     /**
      * Constructs an instance of the AppointmentOverlapException class with a specified cause.
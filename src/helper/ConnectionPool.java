@@ -0,0 +1,273 @@
+package helper;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The ConnectionPool class keeps a bounded set of open database connections for code that runs many short units
+ * of work at once, such as the HTTP API. A unit of work leases a connection for the current thread:
+ *
+ *     try (ConnectionPool.Lease lease = ConnectionPool.lease()) {
+ *         AppointmentQueries.addAppointment(appointment);
+ *     }
+ *
+ * While the lease is held, JDBC.openConnection and JDBC.getConnection return the leased connection, so the query
+ * classes need no changes and run every statement of the unit of work on the same connection. Closing the lease
+ * closes the statements opened through it, rolls back anything left uncommitted and puts the connection back.
+ * Code that runs outside a lease, like the desktop screens, keeps using JDBC's own connection.
+ *
+ * At most scheduler.poolSize connections (default 10) are open at once. A thread that finds them all in use waits
+ * up to scheduler.poolTimeoutMillis (default 5000) and then gets an SQLTransientConnectionException, so a burst of
+ * requests queues for the database instead of opening a connection each.
+ */
+public abstract class ConnectionPool {
+    private static final int maxSize = Math.max(1, Integer.getInteger("scheduler.poolSize", 10));
+    private static final long timeoutMillis = Long.getLong("scheduler.poolTimeoutMillis", 5000);
+    // Idle connections older than this are checked with isValid before they are handed out
+    private static final long validateAfterMillis = 30_000;
+
+    private static final Semaphore permits = new Semaphore(maxSize, true);
+    private static final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private static final ThreadLocal<Lease> leases = new ThreadLocal<>();
+    private static final AtomicInteger waiting = new AtomicInteger();
+    private static final AtomicInteger leased = new AtomicInteger();
+
+    /**
+     * Leases a connection to the current thread, waiting for one to be returned if they are all in use.
+     * A thread that already holds a lease gets the same lease back; the connection is returned when the
+     * outermost lease is closed.
+     *
+     * @return The lease, to be closed when the unit of work is done.
+     * @throws SQLTransientConnectionException if no connection became free within the timeout.
+     * @throws SQLException if a new connection could not be opened.
+     */
+    public static Lease lease() throws SQLException {
+        Lease current = leases.get();
+        if (current != null) {
+            current.depth++;
+            return current;
+        }
+        long started = System.nanoTime();
+        waiting.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("No database connection became free within "
+                        + timeoutMillis + " ms");
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", ie);
+        } finally {
+            waiting.decrementAndGet();
+        }
+        PooledConnection pooled;
+        try {
+            pooled = takeIdle();
+            if (pooled == null) {
+                pooled = new PooledConnection(JDBC.newConnection());
+            }
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        QueryMetrics.recordConnectionAcquire(System.nanoTime() - started);
+        leased.incrementAndGet();
+        Lease lease = new Lease(pooled);
+        leases.set(lease);
+        return lease;
+    }
+
+    /**
+     * @return The connection leased to the current thread, or null if it holds no lease.
+     */
+    static Connection current() {
+        Lease lease = leases.get();
+        return lease == null ? null : lease.connection;
+    }
+
+    /**
+     * @return The number of connections leased and not yet returned.
+     */
+    public static int getLeasedCount() {
+        return leased.get();
+    }
+
+    /**
+     * @return The number of open connections waiting to be leased.
+     */
+    public static int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * @return The number of threads waiting for a connection to be returned.
+     */
+    public static int getWaitingCount() {
+        return waiting.get();
+    }
+
+    /**
+     * @return The most connections the pool opens at once.
+     */
+    public static int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Closes every idle connection. Leased connections are closed when they are returned after this.
+     */
+    public static void shutdown() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    /**
+     * Takes the most recently returned idle connection that still works, closing any that do not.
+     */
+    private static PooledConnection takeIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (System.currentTimeMillis() - pooled.returnedMillis < validateAfterMillis) {
+                return pooled;
+            }
+            try {
+                if (pooled.connection.isValid(2)) {
+                    return pooled;
+                }
+            } catch (SQLException ignored) {
+            }
+            discard(pooled);
+        }
+        return null;
+    }
+
+    private static void discard(PooledConnection pooled) {
+        try {
+            pooled.connection.close();
+        } catch (SQLException sqlE) {
+            System.err.println("Error closing pooled connection: " + sqlE.getMessage());
+        }
+    }
+
+    /**
+     * An open connection owned by the pool, with the time it was last returned.
+     */
+    private static final class PooledConnection {
+        private final Connection connection;
+        private long returnedMillis;
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+    }
+
+    /**
+     * A connection leased to one thread. The connection it hands out ignores close, so query code that closes
+     * its connection does not take it away from the rest of the unit of work.
+     */
+    public static final class Lease implements AutoCloseable {
+        private final PooledConnection pooled;
+        private final Connection connection;
+        private final List<Statement> statements = new ArrayList<>();
+        private int depth = 1;
+
+        private Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+            this.connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new LeasedHandler(pooled.connection, this.statements));
+        }
+
+        /**
+         * @return The leased connection.
+         */
+        public Connection getConnection() {
+            return this.connection;
+        }
+
+        /**
+         * Returns the connection to the pool once the outermost lease on this thread is closed.
+         */
+        @Override
+        public void close() {
+            if (--this.depth > 0) {
+                return;
+            }
+            leases.remove();
+            boolean reusable = true;
+            // The query classes do not always close their statements, so they are closed here
+            for (Statement statement : this.statements) {
+                try {
+                    statement.close();
+                } catch (SQLException ignored) {
+                }
+            }
+            try {
+                if (!this.pooled.connection.getAutoCommit()) {
+                    this.pooled.connection.rollback();
+                    this.pooled.connection.setAutoCommit(true);
+                }
+                reusable = !this.pooled.connection.isClosed();
+            } catch (SQLException sqlE) {
+                reusable = false;
+            }
+            leased.decrementAndGet();
+            if (reusable) {
+                this.pooled.returnedMillis = System.currentTimeMillis();
+                idle.offerFirst(this.pooled);
+            } else {
+                discard(this.pooled);
+            }
+            permits.release();
+        }
+    }
+
+    private static final class LeasedHandler implements InvocationHandler {
+        private final Connection connection;
+        private final List<Statement> statements;
+
+        private LeasedHandler(Connection connection, List<Statement> statements) {
+            this.connection = connection;
+            this.statements = statements;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    return null;
+                case "isClosed":
+                    return false;
+                case "equals":
+                    return args != null && args.length == 1 && proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            Object result;
+            try {
+                result = method.invoke(this.connection, args);
+            } catch (InvocationTargetException ite) {
+                throw ite.getCause();
+            }
+            if (result instanceof Statement) {
+                this.statements.add((Statement) result);
+            }
+            return result;
+        }
+    }
+}
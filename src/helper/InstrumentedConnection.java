@@ -0,0 +1,259 @@
+package helper;
+
+import utilities.ActionTracer;
+import utilities.JdbcStatementEvent;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * The InstrumentedConnection class wraps a JDBC Connection so every statement run through it reports to
+ * QueryMetrics. It is built from dynamic proxies, so the query classes keep using the plain java.sql interfaces
+ * and need no changes.
+ *
+ * Statements created by a wrapped connection are wrapped in turn. Each execute call is timed, and its SQL, update
+ * count and the bind parameters set so far are passed to QueryMetrics.recordExecution. ResultSets returned by a
+ * statement count the rows read and report them when they are closed or read to the end. Every other method is
+ * passed straight to the driver's object.
+ *
+ * Each execution is also a JdbcStatementEvent for JDK Flight Recorder, and its time is added to the controller
+ * action running on the same thread, if any.
+ */
+public abstract class InstrumentedConnection {
+
+    /**
+     * Wraps a connection and counts it as opened; closing it counts it as closed. A connection that is already
+     * wrapped is returned as it is.
+     *
+     * @param connection The driver's connection, or null.
+     * @return The wrapped connection, or null if connection is null.
+     */
+    public static Connection wrap(Connection connection) {
+        if (connection == null || Proxy.isProxyClass(connection.getClass())
+                && Proxy.getInvocationHandler(connection) instanceof ConnectionHandler) {
+            return connection;
+        }
+        QueryMetrics.recordConnectionOpened();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    /**
+     * Calls a method on the wrapped object, rethrowing whatever the method threw.
+     */
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ite) {
+            throw ite.getCause();
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+        private boolean closed;
+
+        private ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // A wrapped connection is equal only to itself, so it can still be used as a map key
+            if (method.getName().equals("equals") && args != null && args.length == 1) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode") && args == null) {
+                return System.identityHashCode(proxy);
+            }
+            if (method.getName().equals("close")) {
+                synchronized (this) {
+                    if (!this.closed) {
+                        this.closed = true;
+                        QueryMetrics.recordConnectionClosed();
+                    }
+                }
+            }
+            Object result = InstrumentedConnection.invoke(this.connection, method, args);
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return wrapStatement(PreparedStatement.class, (Statement) result, (String) args[0], proxy);
+                case "prepareCall":
+                    return wrapStatement(CallableStatement.class, (Statement) result, (String) args[0], proxy);
+                case "createStatement":
+                    return wrapStatement(Statement.class, (Statement) result, null, proxy);
+                default:
+                    return result;
+            }
+        }
+    }
+
+    private static Object wrapStatement(Class<? extends Statement> type, Statement statement, String sql,
+                                        Object connection) {
+        return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{type},
+                new StatementHandler(statement, sql, (Connection) connection));
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String preparedSql;
+        private final Connection connection;
+        private Object[] binds = new Object[1];
+
+        private StatementHandler(Statement statement, String preparedSql, Connection connection) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(proxy, method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                Arrays.fill(this.binds, null);
+            } else if (name.equals("getConnection")) {
+                return this.connection;
+            } else if (name.equals("getResultSet")) {
+                ResultSet results = (ResultSet) InstrumentedConnection.invoke(this.statement, method, args);
+                return wrapResultSet(results, currentSql(null), proxy);
+            }
+            return InstrumentedConnection.invoke(this.statement, method, args);
+        }
+
+        private Object execute(Object proxy, Method method, Object[] args) throws Throwable {
+            String sql = currentSql(args != null && args.length > 0 && args[0] instanceof String
+                    ? (String) args[0] : null);
+            JdbcStatementEvent event = new JdbcStatementEvent();
+            event.begin();
+            long started = System.nanoTime();
+            Object result;
+            try {
+                result = InstrumentedConnection.invoke(this.statement, method, args);
+            } catch (SQLException sqlE) {
+                long elapsed = System.nanoTime() - started;
+                QueryMetrics.recordExecution(sql, elapsed, -1, true, this.binds);
+                finish(event, sql, elapsed, -1, true);
+                throw sqlE;
+            }
+            long elapsed = System.nanoTime() - started;
+            long rows = result instanceof ResultSet ? -1 : updateCount(result);
+            QueryMetrics.recordExecution(sql, elapsed, rows, false, this.binds);
+            finish(event, sql, elapsed, rows, false);
+            if (result instanceof ResultSet) {
+                return wrapResultSet((ResultSet) result, sql, proxy);
+            }
+            return result;
+        }
+
+        private static void finish(JdbcStatementEvent event, String sql, long elapsed, long rows, boolean failed) {
+            event.end();
+            ActionTracer.statementExecuted(elapsed);
+            if (event.shouldCommit()) {
+                event.action = ActionTracer.currentAction();
+                event.sql = QueryMetrics.template(sql);
+                event.rows = rows;
+                event.failed = failed;
+                event.commit();
+            }
+        }
+
+        private String currentSql(String executedSql) {
+            if (executedSql != null) {
+                return executedSql;
+            }
+            return this.preparedSql == null ? "(unknown)" : this.preparedSql;
+        }
+
+        private void bind(int index, Object value) {
+            if (index <= 0) {
+                return;
+            }
+            if (index >= this.binds.length) {
+                // Sized to the highest position bound, so the slow query log lists exactly the parameters set
+                this.binds = Arrays.copyOf(this.binds, index + 1);
+            }
+            this.binds[index] = value;
+        }
+
+        private static long updateCount(Object result) {
+            if (result instanceof Integer || result instanceof Long) {
+                return Math.max(0, ((Number) result).longValue());
+            }
+            long total = 0;
+            if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    total += Math.max(0, count);
+                }
+            } else if (result instanceof long[]) {
+                for (long count : (long[]) result) {
+                    total += Math.max(0, count);
+                }
+            }
+            return total;
+        }
+    }
+
+    private static ResultSet wrapResultSet(ResultSet results, String sql, Object statement) {
+        if (results == null) {
+            return null;
+        }
+        return (ResultSet) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                new ResultSetHandler(results, sql, (Statement) statement));
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet results;
+        private final String sql;
+        private final Statement statement;
+        private long rows;
+        private boolean reported;
+
+        private ResultSetHandler(ResultSet results, String sql, Statement statement) {
+            this.results = results;
+            this.sql = sql;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next":
+                    boolean hasRow = (Boolean) InstrumentedConnection.invoke(this.results, method, args);
+                    if (hasRow) {
+                        this.rows++;
+                    } else {
+                        report();
+                    }
+                    return hasRow;
+                case "close":
+                    report();
+                    return InstrumentedConnection.invoke(this.results, method, args);
+                case "getStatement":
+                    return this.statement;
+                default:
+                    return InstrumentedConnection.invoke(this.results, method, args);
+            }
+        }
+
+        private void report() {
+            if (!this.reported) {
+                this.reported = true;
+                QueryMetrics.addRows(this.sql, this.rows);
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package helper;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.SQLException;
 
 /**
  * This Java class provides the functionality to establish a
@@ -19,6 +20,18 @@ import java.sql.DriverManager;
  * system resources are conserved and the connection is
  * effectively terminated, preventing potential issues such as
  * memory leaks, unexpected hangs, and crashes.
+ *
+ * Connections are handed out wrapped in an InstrumentedConnection, so every statement
+ * run through them is timed by QueryMetrics, and the time taken to open each
+ * connection is recorded as its acquire time.
+ *
+ * A thread holding a ConnectionPool lease is given the leased connection by both
+ * openConnection and getConnection instead.
+ *
+ * The local client_schedule database is used unless the scheduler.jdbcUrl,
+ * scheduler.jdbcUser and scheduler.jdbcPassword system properties name another one,
+ * e.g. a copy filled with synthetic data for performance work. Drivers other than
+ * Connector/J must be on the classpath and are found by DriverManager.
  */
 
 public abstract class JDBC {
@@ -27,17 +40,25 @@ public abstract class JDBC {
     private static final String vendor = ":mysql:";
     private static final String location = "//localhost/";
     private static final String databaseName = "client_schedule";
-    private static final String jdbcUrl = protocol + vendor + location + databaseName + "?connectionTimeZone = SERVER"; // LOCAL
+    private static final String jdbcUrl = System.getProperty("scheduler.jdbcUrl",
+            protocol + vendor + location + databaseName + "?connectionTimeZone = SERVER" // LOCAL
+            + "&useServerPrepStmts=true&cachePrepStmts=true"); // Reuse server-side prepared statements
     private static final String driver = "com.mysql.cj.jdbc.Driver"; // Driver reference
-    private static final String userName = "sqlUser"; // Username
-    private static String password = "Passw0rd!"; // Password
+    private static final String userName = System.getProperty("scheduler.jdbcUser", "sqlUser"); // Username
+    private static String password = System.getProperty("scheduler.jdbcPassword", "Passw0rd!"); // Password
     public static Connection connection;  // Connection Interface
 
     public static Connection openConnection()
     {
+        Connection leased = ConnectionPool.current();
+        if (leased != null) {
+            return leased;
+        }
         try {
-            Class.forName(driver); // Locate Driver
-            connection = DriverManager.getConnection(jdbcUrl, userName, password); // Reference Connection object
+            long started = System.nanoTime();
+            Connection opened = newConnection();
+            QueryMetrics.recordConnectionAcquire(System.nanoTime() - started);
+            connection = opened;
             System.out.println("Connection successful!");
         }
         catch(Exception e)
@@ -47,6 +68,51 @@ public abstract class JDBC {
         return connection;
     }
 
+    /**
+     * Opens a new instrumented connection without touching the shared one.
+     *
+     * @return The new connection.
+     * @throws SQLException if the driver cannot be loaded or the database cannot be reached.
+     */
+    static Connection newConnection() throws SQLException {
+        if (isMySql()) {
+            try {
+                Class.forName(driver); // Locate Driver
+            } catch (ClassNotFoundException cnfE) {
+                throw new SQLException("JDBC driver not found: " + driver, cnfE);
+            }
+        }
+        return InstrumentedConnection.wrap(DriverManager.getConnection(jdbcUrl, userName, password));
+    }
+
+    /**
+     * @return Whether the configured database is MySQL, so Connector/J specific settings can be used.
+     */
+    public static boolean isMySql() {
+        return jdbcUrl.startsWith(protocol + vendor);
+    }
+
+    /**
+     * Returns the connection opened most recently, opening a new one only if there is none or it has been closed.
+     * Use this instead of openConnection for statements that are prepared once and reused.
+     *
+     * @return The shared connection, or null if a connection cannot be opened.
+     */
+    public static Connection getConnection() {
+        Connection leased = ConnectionPool.current();
+        if (leased != null) {
+            return leased;
+        }
+        try {
+            if (connection != null && !connection.isClosed()) {
+                return connection;
+            }
+        } catch (Exception e) {
+            System.out.println("Error:" + e.getMessage());
+        }
+        return openConnection();
+    }
+
     public static void closeConnection() {
         try {
             connection.close();
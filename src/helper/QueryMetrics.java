@@ -0,0 +1,353 @@
+package helper;
+
+import utilities.AsyncAuditWriter;
+import utilities.LatencyHistogram;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The QueryMetrics class collects timing statistics for every statement the application runs.
+ * The InstrumentedConnection that JDBC hands out reports each execution here, keyed by its SQL template: the SQL
+ * text with white space collapsed and any literal numbers or strings replaced by '?'. For each template it keeps a
+ * LatencyHistogram of execution times, the number of executions, rows and errors. The time taken to open a
+ * connection is kept in a histogram of its own.
+ *
+ * Executions slower than the slow query threshold are also written to slow_queries.txt, with the template and the
+ * type and length of each bind parameter but never its value. The threshold is 250 ms unless the
+ * scheduler.slowQueryMillis system property or setSlowQueryThresholdMillis sets another; 0 logs every query.
+ * The log is written by an AsyncAuditWriter, so a slow query is not made slower by the disk.
+ */
+public abstract class QueryMetrics {
+    public static final String SLOW_QUERY_LOG = "slow_queries.txt";
+    private static final int MAX_CACHED_TEMPLATES = 1024;
+    private static final int LOG_CAPACITY = 1024;
+    private static final int LOG_BATCH_SIZE = 32;
+    private static final long LOG_FLUSH_INTERVAL_MILLIS = 500;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 2000;
+
+    private static final ConcurrentHashMap<String, TemplateStats> templates = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, String> normalizedSql = new ConcurrentHashMap<>();
+    private static final LatencyHistogram connectionAcquire = new LatencyHistogram();
+    private static final LongAdder connectionsOpened = new LongAdder();
+    private static final LongAdder connectionsClosed = new LongAdder();
+    private static volatile long slowQueryThresholdNanos =
+            Long.getLong("scheduler.slowQueryMillis", 250) * 1_000_000;
+
+    private static AsyncAuditWriter<String> slowQueryWriter;
+    private static boolean slowQueryLogFailed;
+    private static boolean shutdownHookAdded;
+
+    /**
+     * The statistics of one SQL template.
+     */
+    public static final class TemplateStats {
+        private final String template;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        private TemplateStats(String template) {
+            this.template = template;
+        }
+
+        /**
+         * @return The SQL template.
+         */
+        public String getTemplate() {
+            return this.template;
+        }
+
+        /**
+         * @return The execution times of the template.
+         */
+        public LatencyHistogram getLatency() {
+            return this.latency;
+        }
+
+        /**
+         * @return The rows read or changed by every execution of the template.
+         */
+        public long getRows() {
+            return this.rows.sum();
+        }
+
+        /**
+         * @return The number of executions that threw an SQLException.
+         */
+        public long getErrors() {
+            return this.errors.sum();
+        }
+    }
+
+    /**
+     * Records one execution of a statement.
+     *
+     * @param sql    The SQL text the statement was prepared or executed with.
+     * @param nanos  The time the execute call took.
+     * @param rows   The number of rows changed, or -1 for a query, whose rows are counted later with addRows.
+     * @param failed Whether the execution threw an SQLException.
+     * @param binds  The bind parameters by position, starting at index 1, or null for a plain statement.
+     */
+    public static void recordExecution(String sql, long nanos, long rows, boolean failed, Object[] binds) {
+        TemplateStats stats = stats(sql);
+        stats.latency.record(nanos);
+        if (rows > 0) {
+            stats.rows.add(rows);
+        }
+        if (failed) {
+            stats.errors.increment();
+        }
+        if (nanos >= slowQueryThresholdNanos) {
+            logSlowQuery(stats.template, nanos, rows, failed, binds);
+        }
+    }
+
+    /**
+     * Adds the rows a query returned once its ResultSet has been read.
+     *
+     * @param sql  The SQL text the statement was prepared or executed with.
+     * @param rows The number of rows read.
+     */
+    public static void addRows(String sql, long rows) {
+        if (rows > 0) {
+            stats(sql).rows.add(rows);
+        }
+    }
+
+    /**
+     * Records the time taken to obtain a database connection, whether it was opened or leased from the pool.
+     *
+     * @param nanos The time taken.
+     */
+    public static void recordConnectionAcquire(long nanos) {
+        connectionAcquire.record(nanos);
+    }
+
+    /**
+     * Records that a connection to the database has been opened.
+     */
+    public static void recordConnectionOpened() {
+        connectionsOpened.increment();
+    }
+
+    /**
+     * Records that a connection opened earlier has been closed.
+     */
+    public static void recordConnectionClosed() {
+        connectionsClosed.increment();
+    }
+
+    /**
+     * @return The number of connections opened and not yet closed.
+     */
+    public static long getOpenConnections() {
+        return Math.max(0, connectionsOpened.sum() - connectionsClosed.sum());
+    }
+
+    /**
+     * @return The number of connections opened since the application started.
+     */
+    public static long getConnectionsOpened() {
+        return connectionsOpened.sum();
+    }
+
+    /**
+     * @return The times taken to obtain database connections.
+     */
+    public static LatencyHistogram getConnectionAcquire() {
+        return connectionAcquire;
+    }
+
+    /**
+     * @return The statistics of every template run so far, slowest total time first.
+     */
+    public static List<TemplateStats> getTemplates() {
+        List<TemplateStats> list = new ArrayList<>(templates.values());
+        list.sort(Comparator.comparingLong((TemplateStats stats) -> stats.latency.getTotalNanos()).reversed());
+        return list;
+    }
+
+    /**
+     * @param millis Executions taking at least this long are written to the slow query log.
+     */
+    public static void setSlowQueryThresholdMillis(long millis) {
+        slowQueryThresholdNanos = Math.max(0, millis) * 1_000_000;
+    }
+
+    /**
+     * @return The slow query threshold in milliseconds.
+     */
+    public static long getSlowQueryThresholdMillis() {
+        return slowQueryThresholdNanos / 1_000_000;
+    }
+
+    /**
+     * Forgets the statistics of every template. Connection counts are kept, since connections still open would
+     * otherwise be missing from them.
+     */
+    public static void reset() {
+        templates.clear();
+    }
+
+    /**
+     * Formats the statistics as a table with one line per template: executions, rows, errors, and the mean, median,
+     * 99th percentile and maximum execution time in milliseconds.
+     *
+     * @return The formatted statistics.
+     */
+    public static String summary() {
+        StringBuilder summary = new StringBuilder();
+        LatencyHistogram.Snapshot acquire = connectionAcquire.snapshot();
+        summary.append(String.format(Locale.ROOT, "Connections acquired: %d, mean %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                acquire.getCount(), acquire.getMeanNanos() / 1e6, acquire.getValueAtPercentile(99) / 1e6,
+                acquire.getMaxNanos() / 1e6));
+        summary.append(String.format(Locale.ROOT, "%8s %10s %6s %9s %9s %9s %9s  %s%n",
+                "calls", "rows", "errors", "mean ms", "p50 ms", "p99 ms", "max ms", "template"));
+        for (TemplateStats stats : getTemplates()) {
+            LatencyHistogram.Snapshot latency = stats.latency.snapshot();
+            summary.append(String.format(Locale.ROOT, "%8d %10d %6d %9.2f %9.2f %9.2f %9.2f  %s%n",
+                    latency.getCount(), stats.getRows(), stats.getErrors(), latency.getMeanNanos() / 1e6,
+                    latency.getValueAtPercentile(50) / 1e6, latency.getValueAtPercentile(99) / 1e6,
+                    latency.getMaxNanos() / 1e6, stats.template));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Writes any pending slow query records and closes the log. A later slow query reopens it.
+     */
+    public static void shutdown() {
+        AsyncAuditWriter<String> writer;
+        synchronized (QueryMetrics.class) {
+            writer = slowQueryWriter;
+            slowQueryWriter = null;
+        }
+        if (writer != null) {
+            writer.close(SHUTDOWN_TIMEOUT_MILLIS);
+        }
+    }
+
+    /**
+     * Reduces SQL text to its template: runs of white space become one space, and quoted strings and numbers
+     * outside identifiers become '?'. Results are cached, since most statements are built from constant text.
+     *
+     * @param sql The SQL text.
+     * @return The template.
+     */
+    static String template(String sql) {
+        String cached = normalizedSql.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        StringBuilder template = new StringBuilder(sql.length());
+        int i = 0;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (c == '\'' || c == '"') {
+                int close = i + 1;
+                while (close < sql.length() && sql.charAt(close) != c) {
+                    close += sql.charAt(close) == '\\' ? 2 : 1;
+                }
+                template.append('?');
+                i = close + 1;
+            } else if (Character.isDigit(c) && (i == 0 || !isIdentifierPart(sql.charAt(i - 1)))) {
+                while (i < sql.length() && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                template.append('?');
+            } else if (Character.isWhitespace(c)) {
+                while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (template.length() > 0) {
+                    template.append(' ');
+                }
+            } else {
+                template.append(c);
+                i++;
+            }
+        }
+        String result = template.toString().trim();
+        if (normalizedSql.size() < MAX_CACHED_TEMPLATES) {
+            normalizedSql.put(sql, result);
+        }
+        return result;
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '`';
+    }
+
+    private static TemplateStats stats(String sql) {
+        String template = template(sql);
+        TemplateStats stats = templates.get(template);
+        if (stats == null) {
+            stats = templates.computeIfAbsent(template, TemplateStats::new);
+        }
+        return stats;
+    }
+
+    /**
+     * Describes the bind parameters without their values, e.g. "[1: Integer, 2: String(12), 3: null]".
+     */
+    static String redactBinds(Object[] binds) {
+        if (binds == null) {
+            return "[]";
+        }
+        StringBuilder description = new StringBuilder("[");
+        for (int index = 1; index < binds.length; index++) {
+            if (description.length() > 1) {
+                description.append(", ");
+            }
+            Object value = binds[index];
+            description.append(index).append(": ");
+            if (value == null) {
+                description.append("null");
+            } else if (value instanceof CharSequence) {
+                description.append("String(").append(((CharSequence) value).length()).append(')');
+            } else {
+                description.append(value.getClass().getSimpleName());
+            }
+        }
+        return description.append(']').toString();
+    }
+
+    private static void logSlowQuery(String template, long nanos, long rows, boolean failed, Object[] binds) {
+        AsyncAuditWriter<String> writer = slowQueryWriter();
+        if (writer != null) {
+            writer.submit(String.format(Locale.ROOT, "%s %.1f ms%s%s %s binds=%s", Instant.now(), nanos / 1e6,
+                    rows < 0 ? "" : " rows=" + rows, failed ? " FAILED" : "", template, redactBinds(binds)));
+        }
+    }
+
+    /**
+     * Opens the slow query log on first use. If it cannot be opened, slow queries are only counted.
+     *
+     * @return The log writer, or null if the log cannot be opened.
+     */
+    private static synchronized AsyncAuditWriter<String> slowQueryWriter() {
+        if (slowQueryWriter == null && !slowQueryLogFailed) {
+            try {
+                slowQueryWriter = new AsyncAuditWriter<>("slow-query-log",
+                        AsyncAuditWriter.lineFileSink(SLOW_QUERY_LOG, line -> line), LOG_CAPACITY, LOG_BATCH_SIZE,
+                        LOG_FLUSH_INTERVAL_MILLIS);
+                if (!shutdownHookAdded) {
+                    Runtime.getRuntime().addShutdownHook(new Thread(QueryMetrics::shutdown,
+                            "slow-query-log-shutdown"));
+                    shutdownHookAdded = true;
+                }
+            } catch (IOException e) {
+                slowQueryLogFailed = true;
+                System.err.println("Unable to open " + SLOW_QUERY_LOG + ": " + e.getMessage());
+            }
+        }
+        return slowQueryWriter;
+    }
+}
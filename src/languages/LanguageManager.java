@@ -14,7 +14,6 @@ import java.util.ResourceBundle;
 public abstract class LanguageManager {
 
     private static ResourceBundle resourceBundle = ResourceBundle.getBundle("languages/lang", Locale.getDefault());
-    private static boolean translationExists = false;
 
     /**
      * Attempts to translate the given string using the available language resources.
@@ -26,15 +25,10 @@ public abstract class LanguageManager {
      * @return String The translated text, if available; otherwise, returns the original text.
      */
     public static String getTranslation(String text) {
+        // The lookup result is kept in a local, as the API server translates messages on many threads at once
         try {
-            resourceBundle.getString(text);
-            translationExists = true;
-        } catch (MissingResourceException mre) {
-            translationExists = false;
-        }
-        if (translationExists) {
             return resourceBundle.getString(text);
-        } else {
+        } catch (MissingResourceException mre) {
             return text;
         }
     }
@@ -0,0 +1,93 @@
+package main;
+
+import api.ApiServer;
+import helper.ConnectionPool;
+import helper.QueryMetrics;
+import monitoring.MetricsServer;
+import monitoring.SchedulerMBeans;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.sql.SQLException;
+
+/***
+ * Headless entry point that serves the scheduler as a JSON HTTP API without starting JavaFX.
+ *
+ * Usage: ApiRunner [--port=8080] [--address=127.0.0.1] [--threads=200] [--backlog=4096] [--query-stats]
+ *
+ * The API listens on the loopback address unless --address names another one, so it is normally reached through
+ * the web portal's gateway. --threads sets the number of request threads on runtimes without virtual threads.
+ * The database connections are limited by -Dscheduler.poolSize (default 10). The MBeans and, if
+ * -Dscheduler.metricsPort is set, the Prometheus endpoint are started as in the desktop application.
+ * See api.ApiServer for the resources.
+ */
+public class ApiRunner {
+
+    // Starts the API server
+    public static void main(String[] args) {
+        int port = 8080;
+        String address = "127.0.0.1";
+        int threads = 200;
+        int backlog = 4096;
+        try {
+            for (String arg : args) {
+                if (arg.startsWith("--port=")) {
+                    port = Integer.parseInt(arg.substring("--port=".length()));
+                } else if (arg.startsWith("--address=")) {
+                    address = arg.substring("--address=".length());
+                } else if (arg.startsWith("--threads=")) {
+                    threads = Integer.parseInt(arg.substring("--threads=".length()));
+                } else if (arg.startsWith("--backlog=")) {
+                    backlog = Integer.parseInt(arg.substring("--backlog=".length()));
+                } else if (arg.equals("--query-stats")) {
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.print(QueryMetrics.summary()),
+                            "query-stats"));
+                } else {
+                    exitWithUsage("Unknown argument: " + arg);
+                }
+            }
+        } catch (NumberFormatException nfe) {
+            exitWithUsage("Ports, threads and backlog must be whole numbers.");
+        }
+
+        // Open the first connection now, so a wrong database setup is reported before requests arrive
+        try (ConnectionPool.Lease lease = ConnectionPool.lease()) {
+            lease.getConnection().isValid(2);
+        } catch (SQLException sqlE) {
+            System.err.println("Unable to connect to the database: " + sqlE.getMessage());
+            System.exit(1);
+        }
+
+        InetSocketAddress listening;
+        try {
+            listening = ApiServer.start(new InetSocketAddress(address, port), threads, backlog);
+        } catch (IOException ioE) {
+            System.err.println("Unable to listen on " + address + ":" + port + ": " + ioE.getMessage());
+            ConnectionPool.shutdown();
+            System.exit(1);
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            ApiServer.stop(5);
+            MetricsServer.stop();
+            ConnectionPool.shutdown();
+        }));
+        SchedulerMBeans.register();
+        MetricsServer.startIfConfigured();
+        System.out.println("API listening on http://" + listening.getHostString() + ":" + listening.getPort()
+                + "/api/ with " + (ApiServer.usesVirtualThreads() ? "virtual threads" : threads + " threads")
+                + " and up to " + ConnectionPool.getMaxSize() + " database connections");
+    }
+
+    /**
+     * Prints the problem and the usage text to standard error, then exits with status 2.
+     *
+     * @param problem A description of what was wrong with the arguments.
+     */
+    private static void exitWithUsage(String problem) {
+        System.err.println(problem);
+        System.err.println("Usage: ApiRunner [--port=8080] [--address=127.0.0.1] [--threads=200] [--backlog=4096] "
+                + "[--query-stats]");
+        System.exit(2);
+    }
+}
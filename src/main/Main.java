@@ -6,6 +6,13 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import monitoring.MetricsServer;
+import monitoring.SchedulerMBeans;
+import utilities.LoginMonitor;
+import utilities.ReminderService;
+import utilities.ReportScheduler;
+
+import java.time.LocalTime;
 
 /***
  * Entry to main program
@@ -19,6 +26,20 @@ public class Main extends Application {
         stage.setTitle("Login");
         stage.setScene(new Scene(root, 400, 200));
         stage.show();
+        // Keep the scheduled reports warm in the background
+        ReportScheduler.startDefaultJobs(LocalTime.of(6, 0), null);
+        // Publish runtime statistics for JConsole and VisualVM
+        SchedulerMBeans.register();
+        MetricsServer.startIfConfigured();
+    }
+
+    // Stops background work when the last window closes
+    @Override
+    public void stop() {
+        ReportScheduler.shutdown();
+        LoginMonitor.shutdown();
+        ReminderService.shutdown();
+        MetricsServer.stop();
     }
 
     // Starts program
@@ -0,0 +1,196 @@
+package main;
+
+import helper.JDBC;
+import helper.QueryMetrics;
+import model.TimeSlot;
+import monitoring.MetricsServer;
+import monitoring.SchedulerMBeans;
+import utilities.AvailabilityEngine;
+import utilities.ReportManager;
+import utilities.ReportScheduler;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
+/***
+ * Headless entry point that generates a report from the command line without starting JavaFX.
+ *
+ * Usage: ReportRunner &lt;contact-schedule|type-month|customers-by-division&gt;
+ *        [--from=yyyy-MM-dd] [--to=yyyy-MM-dd] [--out=file]
+ *        ReportRunner daemon [--at=HH:mm] [--out=directory]
+ *        ReportRunner free-slots [--contact=id] [--customer=id] [--minutes=30] [--from=yyyy-MM-dd] [--to=yyyy-MM-dd]
+ *        ReportRunner conflicts [--from=yyyy-MM-dd] [--to=yyyy-MM-dd] [--out=file]
+ *        Any command also takes --query-stats.
+ *
+ * The report is appended to the output file, which defaults to the file name the Reports screen exports to.
+ * In daemon mode the runner stays up and appends the contact schedule every morning and the appointment
+ * type counts every month to files in the output directory.
+ * The free-slots command prints the free periods of a contact and/or customer within business hours,
+ * from today until 30 days ahead unless a range is given.
+ * The conflicts command lists every double-booked customer and contact. It is written to the output file as it is
+ * found, so it can run over millions of appointments.
+ * With --query-stats, the time taken by each SQL statement is printed to standard error when the runner exits.
+ */
+public class ReportRunner {
+
+    // Starts the report runner
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            exitWithUsage("No report name given.");
+        }
+        String reportName = args[0];
+        LocalDate from = null;
+        LocalDate to = null;
+        LocalTime runAt = LocalTime.of(6, 0);
+        String outputPath = null;
+        int contactId = -1;
+        int customerId = -1;
+        int minutes = 30;
+        try {
+            for (int i = 1; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.startsWith("--from=")) {
+                    from = LocalDate.parse(arg.substring("--from=".length()));
+                } else if (arg.startsWith("--to=")) {
+                    to = LocalDate.parse(arg.substring("--to=".length()));
+                } else if (arg.startsWith("--at=")) {
+                    runAt = LocalTime.parse(arg.substring("--at=".length()));
+                } else if (arg.startsWith("--contact=")) {
+                    contactId = Integer.parseInt(arg.substring("--contact=".length()));
+                } else if (arg.startsWith("--customer=")) {
+                    customerId = Integer.parseInt(arg.substring("--customer=".length()));
+                } else if (arg.startsWith("--minutes=")) {
+                    minutes = Integer.parseInt(arg.substring("--minutes=".length()));
+                } else if (arg.startsWith("--out=")) {
+                    outputPath = arg.substring("--out=".length());
+                } else if (arg.equals("--query-stats")) {
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.print(QueryMetrics.summary()),
+                            "query-stats"));
+                } else {
+                    exitWithUsage("Unknown argument: " + arg);
+                }
+            }
+        } catch (DateTimeParseException dtpe) {
+            exitWithUsage("Dates must be in the format yyyy-MM-dd and times in the format HH:mm.");
+        } catch (NumberFormatException nfe) {
+            exitWithUsage("IDs and minutes must be whole numbers.");
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            exitWithUsage("--to must not be before --from.");
+        }
+
+        if (JDBC.openConnection() == null) {
+            System.err.println("Unable to connect to the database.");
+            System.exit(1);
+        }
+
+        if (reportName.equals("daemon")) {
+            runScheduledReports(runAt, outputPath == null ? "." : outputPath);
+            return;
+        }
+
+        String report;
+        try {
+            switch (reportName) {
+                case "free-slots":
+                    if (contactId == -1 && customerId == -1) {
+                        exitWithUsage("free-slots needs --contact or --customer.");
+                    }
+                    LocalDate firstDay = from == null ? LocalDate.now(AvailabilityEngine.BUSINESS_ZONE) : from;
+                    LocalDate lastDay = to == null ? firstDay.plusDays(30) : to;
+                    for (TimeSlot slot : AvailabilityEngine.findFreeSlots(contactId, customerId, firstDay, lastDay,
+                            Duration.ofMinutes(minutes))) {
+                        System.out.println(slot.getStart().withZoneSameInstant(AvailabilityEngine.BUSINESS_ZONE)
+                                + " - " + slot.getEnd().withZoneSameInstant(AvailabilityEngine.BUSINESS_ZONE));
+                    }
+                    JDBC.closeConnection();
+                    return;
+                case "conflicts":
+                    outputPath = outputPath == null ? "appointment_conflicts.txt" : outputPath;
+                    long conflicts;
+                    try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(outputPath, true)))) {
+                        conflicts = ReportManager.streamConflicts(from, to, writer);
+                        writer.println();
+                    } catch (IOException ioE) {
+                        System.err.println("Error writing " + outputPath + ": " + ioE.getMessage());
+                        JDBC.closeConnection();
+                        System.exit(1);
+                        return;
+                    }
+                    JDBC.closeConnection();
+                    System.out.println(conflicts + " conflicts written to " + outputPath);
+                    return;
+                case "contact-schedule":
+                    report = ReportManager.contactSchedule(from, to);
+                    outputPath = outputPath == null ? "contact_schedule" : outputPath;
+                    break;
+                case "type-month":
+                    report = ReportManager.countAppointmentsByTypeAndMonth(from, to);
+                    outputPath = outputPath == null ? "appointments_by_type_and_month.txt" : outputPath;
+                    break;
+                case "customers-by-division":
+                    report = ReportManager.customersByDivision();
+                    outputPath = outputPath == null ? "customer_location_report.txt" : outputPath;
+                    break;
+                default:
+                    exitWithUsage("Unknown report: " + reportName);
+                    return;
+            }
+        } catch (SQLException sqlE) {
+            System.err.println("Error generating " + reportName + ": " + sqlE.getMessage());
+            JDBC.closeConnection();
+            System.exit(1);
+            return;
+        }
+        ReportManager.writeReportToFile(outputPath, report);
+        JDBC.closeConnection();
+        System.out.println("Report written to " + outputPath);
+    }
+
+    /**
+     * Starts the default report jobs and blocks until the process is stopped.
+     *
+     * @param runAt     The time of day the jobs run.
+     * @param outputDir The directory the reports are appended to.
+     */
+    private static void runScheduledReports(LocalTime runAt, String outputDir) {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            ReportScheduler.shutdown();
+            MetricsServer.stop();
+            JDBC.closeConnection();
+        }));
+        ReportScheduler.startDefaultJobs(runAt, outputDir);
+        SchedulerMBeans.register();
+        MetricsServer.startIfConfigured();
+        System.out.println("Scheduled reports running daily at " + runAt + ", writing to " + outputDir);
+        try {
+            Thread.currentThread().join();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Prints the problem and the usage text to standard error, then exits with status 2.
+     *
+     * @param problem A description of what was wrong with the arguments.
+     */
+    private static void exitWithUsage(String problem) {
+        System.err.println(problem);
+        System.err.println("Usage: ReportRunner <contact-schedule|type-month|customers-by-division> "
+                + "[--from=yyyy-MM-dd] [--to=yyyy-MM-dd] [--out=file]");
+        System.err.println("       ReportRunner daemon [--at=HH:mm] [--out=directory]");
+        System.err.println("       ReportRunner free-slots [--contact=id] [--customer=id] [--minutes=30] "
+                + "[--from=yyyy-MM-dd] [--to=yyyy-MM-dd]");
+        System.err.println("       ReportRunner conflicts [--from=yyyy-MM-dd] [--to=yyyy-MM-dd] [--out=file]");
+        System.err.println("Any command also takes --query-stats to print SQL timings on exit.");
+        System.exit(2);
+    }
+}
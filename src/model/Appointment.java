@@ -2,6 +2,7 @@
 package model;
 
 import java.sql.Timestamp;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 
 /**
@@ -9,6 +10,10 @@ import java.time.ZonedDateTime;
  * It serves as a representation of an appointment in a scheduling system.
  * This class provides methods for creating and manipulating appointments,
  * storing their relevant attributes, and retrieving information about them.
+ *
+ * Start and end are held as UTC epoch seconds rather than ZonedDateTime objects, which keeps an appointment small
+ * when thousands are loaded for a report. ZonedDateTime views are only created when they are asked for, and are
+ * then kept until the time changes.
  */
 public class Appointment extends DBDateObj {
     /**
@@ -56,15 +61,34 @@ public class Appointment extends DBDateObj {
      * The data type being used to represent it is DATETIME, which refers to a composite data type that includes
      * both date and time elements. In other words, this appointment start time is defined with both the specific
      * date and precise time of day on which it is scheduled to begin.
+     * It is held as UTC epoch seconds, or NO_TIME if it has not been set.
      */
-    private ZonedDateTime start;
+    private long start;
 
     /**
      * The data type of this field is DATETIME,
      * which represents a combination of date and time. This field specifies the exact time
      * at which the appointment will conclude.
+     * It is held as UTC epoch seconds, or NO_TIME if it has not been set.
      */
-    private ZonedDateTime end;
+    private long end;
+
+    /**
+     * The time zone getStart and getEnd show the appointment in.
+     */
+    private ZoneId zone;
+
+    /**
+     * The start and end in the appointment's own time zone, created the first time they are asked for.
+     */
+    private ZonedDateTime startView;
+    private ZonedDateTime endView;
+
+    /**
+     * The start and end in the time zone last asked for through getStart(ZoneId), if that is not the
+     * appointment's own time zone.
+     */
+    private ZonedViews zonedViews;
 
     /**
      This Javadoc provides information about the "customer ID" attribute that is associated with a
@@ -130,8 +154,48 @@ public class Appointment extends DBDateObj {
         this.description = description;
         this.location = location;
         this.type = type;
-        this.start = start;
-        this.end = end;
+        this.start = start == null ? NO_TIME : start.toEpochSecond();
+        this.end = end == null ? NO_TIME : end.toEpochSecond();
+        this.zone = start != null ? start.getZone() : end != null ? end.getZone() : null;
+        this.Customer_ID = customerId;
+        this.User_ID = userId;
+        this.Contact_ID = contactId;
+    }
+
+    /**
+     * Constructs a new Appointment from times already held as epoch values, e.g. when reading a database row.
+     * No ZonedDateTime is created until getStart or getEnd is called.
+     *
+     * @param id                  The unique ID of the appointment.
+     * @param title               A short title or subject describing the appointment.
+     * @param description         A brief description of the appointment.
+     * @param location            The location where the appointment will take place.
+     * @param type                The type of the appointment.
+     * @param startEpochSecond    The start in UTC epoch seconds.
+     * @param endEpochSecond      The end in UTC epoch seconds.
+     * @param zone                The time zone getStart and getEnd show the appointment in.
+     * @param customerId          The unique ID of the customer associated with the appointment.
+     * @param userId              The unique ID of the user who scheduled the appointment.
+     * @param contactId           The unique ID of the contact associated with the appointment.
+     * @param createEpochSecond   When the appointment was created, in UTC epoch seconds.
+     * @param createdBy           The name of the individual who created the appointment.
+     * @param lastUpdateMillis    When the appointment was last updated, in epoch milliseconds.
+     * @param lastUpdatedBy       The name of the individual who last updated the appointment.
+     */
+    public Appointment(int id, String title, String description, String location, String type,
+                       long startEpochSecond, long endEpochSecond, ZoneId zone, int customerId, int userId,
+                       int contactId, long createEpochSecond, String createdBy, long lastUpdateMillis,
+                       String lastUpdatedBy)
+    {
+        super(createEpochSecond, zone, createdBy, lastUpdateMillis, lastUpdatedBy);
+        this.Appointment_ID = id;
+        this.Title = title;
+        this.description = description;
+        this.location = location;
+        this.type = type;
+        this.start = startEpochSecond;
+        this.end = endEpochSecond;
+        this.zone = zone;
         this.Customer_ID = customerId;
         this.User_ID = userId;
         this.Contact_ID = contactId;
@@ -243,24 +307,116 @@ public class Appointment extends DBDateObj {
      @return the starting date and time of the event in the form of a ZonedDateTime object
      @see java.time.ZonedDateTime */
     public ZonedDateTime getStart() {
-        return this.start;
+        ZonedDateTime view = this.startView;
+        if (view == null && this.start != NO_TIME) {
+            view = toZonedDateTime(this.start, this.zone);
+            this.startView = view;
+        }
+        return view;
     }
 
     public void setStart(ZonedDateTime start) {
-        this.start = start;
+        this.start = start == null ? NO_TIME : start.toEpochSecond();
+        if (this.zone == null && start != null) {
+            this.zone = start.getZone();
+        }
+        clearViews();
     }
     /**
      * Sets the start date and time for an event in ZonedDateTime format.
      */
     public ZonedDateTime getEnd() {
-        return this.end;
+        ZonedDateTime view = this.endView;
+        if (view == null && this.end != NO_TIME) {
+            view = toZonedDateTime(this.end, this.zone);
+            this.endView = view;
+        }
+        return view;
     }
     /**
 
      Sets the end date and time of an event to the specified ZonedDateTime object.
      @param end the ZonedDateTime object representing the end date and time of the event */
     public void setEnd(ZonedDateTime end) {
-        this.end = end;
+        this.end = end == null ? NO_TIME : end.toEpochSecond();
+        if (this.zone == null && end != null) {
+            this.zone = end.getZone();
+        }
+        clearViews();
+    }
+
+    /**
+     * Returns the start of the appointment in the given time zone. The view for the zone asked for most
+     * recently is kept, so repeated calls for the same zone do not create new objects.
+     *
+     * @param zone The time zone to show the start in.
+     * @return The start in the given zone, or null if it has not been set.
+     */
+    public ZonedDateTime getStart(ZoneId zone) {
+        return zone.equals(this.zone) ? getStart() : views(zone).start;
+    }
+
+    /**
+     * Returns the end of the appointment in the given time zone. The view for the zone asked for most
+     * recently is kept, so repeated calls for the same zone do not create new objects.
+     *
+     * @param zone The time zone to show the end in.
+     * @return The end in the given zone, or null if it has not been set.
+     */
+    public ZonedDateTime getEnd(ZoneId zone) {
+        return zone.equals(this.zone) ? getEnd() : views(zone).end;
+    }
+
+    /**
+     * @return The start in UTC epoch seconds, or NO_TIME if it has not been set.
+     */
+    public long getStartEpochSecond() {
+        return this.start;
+    }
+
+    /**
+     * @return The end in UTC epoch seconds, or NO_TIME if it has not been set.
+     */
+    public long getEndEpochSecond() {
+        return this.end;
+    }
+
+    /**
+     * Returns the cached views for a time zone other than the appointment's own, creating them if the zone changed.
+     */
+    private ZonedViews views(ZoneId zone) {
+        ZonedViews views = this.zonedViews;
+        if (views == null || !views.zone.equals(zone)) {
+            views = new ZonedViews(zone, this.start == NO_TIME ? null : toZonedDateTime(this.start, zone),
+                    this.end == NO_TIME ? null : toZonedDateTime(this.end, zone));
+            this.zonedViews = views;
+        }
+        return views;
+    }
+
+    /**
+     * Forgets the cached views after the start or end changed.
+     */
+    private void clearViews() {
+        this.startView = null;
+        this.endView = null;
+        this.zonedViews = null;
+    }
+
+    /**
+     * The start and end of an appointment in one time zone. Instances are immutable, so a view can be shared
+     * between threads without locking.
+     */
+    private static final class ZonedViews {
+        private final ZoneId zone;
+        private final ZonedDateTime start;
+        private final ZonedDateTime end;
+
+        private ZonedViews(ZoneId zone, ZonedDateTime start, ZonedDateTime end) {
+            this.zone = zone;
+            this.start = start;
+            this.end = end;
+        }
     }
     /**
 
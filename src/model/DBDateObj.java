@@ -1,7 +1,8 @@
 package model;
 
 import java.sql.Timestamp;
-import java.time.LocalDateTime;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 
 /**
@@ -12,12 +13,26 @@ import java.time.ZonedDateTime;
  * purposes such as auditing, analysis or reporting.
  * */
 public class DBDateObj {
+    /**
+     * Marks an epoch time field that has not been set.
+     */
+    public static final long NO_TIME = Long.MIN_VALUE;
+
     /**
      * This documentation describes the attribute that holds the date and time when the object was
      * initially created and saved in the database. The corresponding database column in which
      * this value is stored is named 'Create_Date' and has a data type of DATETIME.
+     * It is held as UTC epoch seconds, or NO_TIME if it has not been set.
+     */
+    private long Create_Date;
+    /**
+     * The time zone getCreate_Date shows the creation date in.
+     */
+    private ZoneId createZone;
+    /**
+     * The creation date as a ZonedDateTime, created the first time it is asked for.
      */
-    private ZonedDateTime Create_Date;
+    private ZonedDateTime createDateView;
     /**
      * This documentation refers to the field "Created_By" present in the database table.
      * The "Created_By" field holds the name of the user who created the object.
@@ -31,8 +46,9 @@ public class DBDateObj {
      * It should be noted that this particular value is retrieved from the database column named 'Last_Update'
      * which stores timestamp values.
      * This method is useful for applications that require up-to-date data in order to function efficiently.
+     * It is held as epoch milliseconds, or NO_TIME if it has not been set.
      */
-    private Timestamp Last_Update;
+    private long Last_Update;
     /**
      * This field represents the individual who last updated the specific object in the database.
      * The information is stored in a database column called 'Last_Updated_By', which is defined as a
@@ -52,9 +68,28 @@ public class DBDateObj {
      DBDateObj object with meaningful information about its creation and update history.
      * */
     public DBDateObj(ZonedDateTime createDate, String createdBy, Timestamp lastUpdate, String lastUpdatedBy) {
-        this.Create_Date = createDate;
+        this.Create_Date = createDate == null ? NO_TIME : createDate.toEpochSecond();
+        this.createZone = createDate == null ? null : createDate.getZone();
         this.Created_By = createdBy;
-        this.Last_Update = lastUpdate;
+        this.Last_Update = lastUpdate == null ? NO_TIME : lastUpdate.getTime();
+        this.Last_Updated_By = lastUpdatedBy;
+    }
+
+    /**
+     * Creates a new DBDateObj from times already held as epoch values, e.g. when reading a database row.
+     *
+     * @param createEpochSecond When the object was created, in UTC epoch seconds, or NO_TIME.
+     * @param zone              The time zone getCreate_Date shows the creation date in.
+     * @param createdBy         Who created the object.
+     * @param lastUpdateMillis  When the object was last updated, in epoch milliseconds, or NO_TIME.
+     * @param lastUpdatedBy     Who last updated the object.
+     */
+    public DBDateObj(long createEpochSecond, ZoneId zone, String createdBy, long lastUpdateMillis,
+                     String lastUpdatedBy) {
+        this.Create_Date = createEpochSecond;
+        this.createZone = zone;
+        this.Created_By = createdBy;
+        this.Last_Update = lastUpdateMillis;
         this.Last_Updated_By = lastUpdatedBy;
     }
     /**
@@ -65,7 +100,12 @@ public class DBDateObj {
      * @return ZonedDateTime the creation date of the object.
      * */
     public ZonedDateTime getCreate_Date() {
-        return this.Create_Date;
+        ZonedDateTime view = this.createDateView;
+        if (view == null && this.Create_Date != NO_TIME) {
+            view = toZonedDateTime(this.Create_Date, this.createZone);
+            this.createDateView = view;
+        }
+        return view;
     }
     /**
      * The setCreationDateToCurrentDateAndTime() method updates the creation date of the
@@ -77,7 +117,10 @@ public class DBDateObj {
      * Additionally, it can serve as a reference point for future updates or modifications to the object.
      */
     public void setCreateDate() {
-        this.Create_Date = ZonedDateTime.now();
+        ZonedDateTime now = ZonedDateTime.now();
+        this.Create_Date = now.toEpochSecond();
+        this.createZone = now.getZone();
+        this.createDateView = now;
     }
     /**
      * This method is used to obtain information about the creator of the object.
@@ -105,6 +148,13 @@ public class DBDateObj {
      * @return Timestamp representing the most recent time the object was updated.
      * */
     public Timestamp getLast_Update() {
+        return this.Last_Update == NO_TIME ? null : new Timestamp(this.Last_Update);
+    }
+
+    /**
+     * @return The time the object was last updated in epoch milliseconds, or NO_TIME if it has not been set.
+     */
+    public long getLastUpdateMillis() {
         return this.Last_Update;
     }
     /**
@@ -114,7 +164,7 @@ public class DBDateObj {
      * This method can be used to mark an object as recently updated, ensuring that it reflects the latest changes made.
      */
     public void setLastUpdate() {
-        this.Last_Update = Timestamp.valueOf(LocalDateTime.now());
+        this.Last_Update = System.currentTimeMillis();
     }
     /**
      * This method retrieves and returns the name of the person who last updated the object.
@@ -138,4 +188,15 @@ public class DBDateObj {
     public void setLast_Updated_By(String updater) {
         this.Last_Updated_By = updater;
     }
+
+    /**
+     * Creates the ZonedDateTime view of an epoch time field.
+     *
+     * @param epochSecond The time in UTC epoch seconds.
+     * @param zone        The time zone to show it in, or null for the system default time zone.
+     * @return The time as a ZonedDateTime.
+     */
+    protected static ZonedDateTime toZonedDateTime(long epochSecond, ZoneId zone) {
+        return ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), zone == null ? ZoneId.systemDefault() : zone);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+// This class holds a single entry of the login audit log
+package model;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * This class represents one login attempt as recorded in the login audit log.
+ * It stores when the attempt happened, the username that was entered and whether the attempt succeeded.
+ * The password is never part of the record.
+ *
+ * Each attempt is written to the login activity log as a single tab separated line:
+ * the local timestamp, SUCCESS or FAILURE, and the escaped username.
+ */
+public class LoginAttempt {
+    /**
+     * The time of the attempt in milliseconds since the epoch.
+     */
+    private final long timestamp;
+    /**
+     * The username entered for the attempt, exactly as typed.
+     */
+    private final String username;
+    /**
+     * Whether the username and password were accepted.
+     */
+    private final boolean successful;
+
+    /**
+     * Creates a login attempt record.
+     *
+     * @param timestamp  The time of the attempt in milliseconds since the epoch.
+     * @param username   The username entered.
+     * @param successful Whether the attempt succeeded.
+     */
+    public LoginAttempt(long timestamp, String username, boolean successful) {
+        this.timestamp = timestamp;
+        this.username = username == null ? "" : username;
+        this.successful = successful;
+    }
+
+    /**
+     * @return The time of the attempt in milliseconds since the epoch.
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * @return The username entered for the attempt.
+     */
+    public String getUsername() {
+        return this.username;
+    }
+
+    /**
+     * @return True if the attempt succeeded.
+     */
+    public boolean isSuccessful() {
+        return this.successful;
+    }
+
+    /**
+     * Formats the attempt as a single log line without a line break.
+     * Tabs, line breaks and backslashes in the username are escaped so every record stays on one line.
+     *
+     * @return The log line.
+     */
+    public String toLogLine() {
+        StringBuilder line = new StringBuilder(48 + this.username.length());
+        line.append(ZonedDateTime.ofInstant(Instant.ofEpochMilli(this.timestamp), ZoneId.systemDefault()))
+                .append('\t').append(this.successful ? "SUCCESS" : "FAILURE").append('\t');
+        for (int i = 0; i < this.username.length(); i++) {
+            char c = this.username.charAt(i);
+            switch (c) {
+                case '\\': line.append("\\\\"); break;
+                case '\t': line.append("\\t"); break;
+                case '\n': line.append("\\n"); break;
+                case '\r': line.append("\\r"); break;
+                default: line.append(c);
+            }
+        }
+        return line.toString();
+    }
+
+    /**
+     * Parses a line written by {@link #toLogLine()}.
+     *
+     * @param line The log line.
+     * @return The login attempt, or null if the line is not a login attempt record.
+     */
+    public static LoginAttempt fromLogLine(String line) {
+        int firstTab = line.indexOf('\t');
+        int secondTab = firstTab < 0 ? -1 : line.indexOf('\t', firstTab + 1);
+        if (secondTab < 0) {
+            return null;
+        }
+        long timestamp;
+        try {
+            timestamp = ZonedDateTime.parse(line.substring(0, firstTab)).toInstant().toEpochMilli();
+        } catch (RuntimeException e) {
+            return null;
+        }
+        String outcome = line.substring(firstTab + 1, secondTab);
+        StringBuilder username = new StringBuilder();
+        for (int i = secondTab + 1; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length()) {
+                char escaped = line.charAt(++i);
+                username.append(escaped == 't' ? '\t' : escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+            } else {
+                username.append(c);
+            }
+        }
+        return new LoginAttempt(timestamp, username.toString(), outcome.equals("SUCCESS"));
+    }
+}
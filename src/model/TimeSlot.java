@@ -0,0 +1,60 @@
+// This class holds a free period found by the AvailabilityEngine
+package model;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+/**
+ * This class represents a period of time with a start and an end, such as a free slot in which an appointment
+ * can be booked. Both times are in the system default time zone, like the start and end of an Appointment.
+ */
+public class TimeSlot {
+    /**
+     * The first moment of the slot.
+     */
+    private final ZonedDateTime start;
+    /**
+     * The moment the slot ends. The slot does not include this moment.
+     */
+    private final ZonedDateTime end;
+
+    /**
+     * Constructor for TimeSlot.
+     *
+     * @param start The first moment of the slot.
+     * @param end   The moment the slot ends.
+     */
+    public TimeSlot(ZonedDateTime start, ZonedDateTime end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * @return The first moment of the slot.
+     */
+    public ZonedDateTime getStart() {
+        return this.start;
+    }
+
+    /**
+     * @return The moment the slot ends.
+     */
+    public ZonedDateTime getEnd() {
+        return this.end;
+    }
+
+    /**
+     * @return The length of the slot.
+     */
+    public Duration getDuration() {
+        return Duration.between(this.start, this.end);
+    }
+
+    /**
+     * @return The slot formatted as "start - end".
+     */
+    @Override
+    public String toString() {
+        return this.start + " - " + this.end;
+    }
+}
@@ -0,0 +1,31 @@
+package monitoring;
+
+/**
+ * Shows how well one in-memory cache is working.
+ */
+public interface CacheMXBean {
+    /**
+     * @return The number of lookups answered from the cache.
+     */
+    long getHits();
+
+    /**
+     * @return The number of lookups that had to load their value.
+     */
+    long getMisses();
+
+    /**
+     * @return The share of lookups answered from the cache, from 0 to 1.
+     */
+    double getHitRate();
+
+    /**
+     * @return The number of entries held, or -1 if the cache does not count them.
+     */
+    int getSize();
+
+    /**
+     * Sets the hit and miss counts back to zero.
+     */
+    void resetStatistics();
+}
@@ -0,0 +1,41 @@
+package monitoring;
+
+/**
+ * Shows how the application uses database connections.
+ */
+public interface ConnectionPoolMXBean {
+    /**
+     * @return The number of connections handed out and not yet closed.
+     */
+    int getActiveConnections();
+
+    /**
+     * @return The number of open connections waiting to be handed out.
+     */
+    int getIdleConnections();
+
+    /**
+     * @return The number of threads waiting for a connection.
+     */
+    int getWaitingThreads();
+
+    /**
+     * @return The number of connections opened since the application started.
+     */
+    long getConnectionsOpened();
+
+    /**
+     * @return The median time taken to obtain a connection, in milliseconds.
+     */
+    double getAcquireMillisP50();
+
+    /**
+     * @return The 99th percentile of the time taken to obtain a connection, in milliseconds.
+     */
+    double getAcquireMillisP99();
+
+    /**
+     * @return The longest time taken to obtain a connection, in milliseconds.
+     */
+    double getAcquireMillisMax();
+}
@@ -0,0 +1,240 @@
+package monitoring;
+
+import api.ApiServer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import helper.ConnectionPool;
+import helper.QueryMetrics;
+import utilities.LatencyHistogram;
+import utilities.LoginMonitor;
+import utilities.LoginThrottle;
+import utilities.ReminderService;
+import utilities.ReportScheduler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The MetricsServer class serves the application's statistics in the Prometheus text format, so many client
+ * instances on a shared terminal server can be scraped. It uses the JDK's built-in HTTP server and is off unless
+ * the scheduler.metricsPort system property is set, e.g. -Dscheduler.metricsPort=9464. It listens on the loopback
+ * address only, unless scheduler.metricsAddress names another address to bind to.
+ *
+ * GET /metrics returns the data layer, connection pool, cache, screen refresh, API request, login, reminder and
+ * report job statistics.
+ * Every value is read from the live counters while the response is written; the counters themselves are
+ * LongAdders and lock-free histograms, so the instrumented code never waits for a scrape.
+ */
+public abstract class MetricsServer {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    private static HttpServer server;
+
+    /**
+     * Starts the endpoint if the scheduler.metricsPort system property is set. Failures are printed and leave the
+     * application running without the endpoint.
+     */
+    public static synchronized void startIfConfigured() {
+        Integer port = Integer.getInteger("scheduler.metricsPort");
+        if (port == null || server != null) {
+            return;
+        }
+        String address = System.getProperty("scheduler.metricsAddress", "127.0.0.1");
+        try {
+            start(new InetSocketAddress(address, port));
+            System.out.println("Metrics available at http://" + address + ":" + server.getAddress().getPort()
+                    + "/metrics");
+        } catch (IOException e) {
+            System.err.println("Unable to start the metrics endpoint on " + address + ":" + port + ": "
+                    + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts the endpoint on the given address.
+     *
+     * @param address The address and port to listen on. Port 0 picks a free port.
+     * @return The address the endpoint is listening on.
+     * @throws IOException if the address cannot be bound.
+     */
+    public static synchronized InetSocketAddress start(InetSocketAddress address) throws IOException {
+        if (server != null) {
+            return server.getAddress();
+        }
+        HttpServer httpServer = HttpServer.create(address, 0);
+        httpServer.createContext("/metrics", MetricsServer::handle);
+        httpServer.start();
+        server = httpServer;
+        return server.getAddress();
+    }
+
+    /**
+     * Stops the endpoint if it is running.
+     */
+    public static synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET") && !exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if (exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * Formats every metric in the Prometheus text exposition format.
+     *
+     * @return The response body.
+     */
+    static String render() {
+        StringBuilder out = new StringBuilder(8192);
+
+        header(out, "scheduler_db_connections_open", "gauge", "Database connections opened and not yet closed.");
+        sample(out, "scheduler_db_connections_open", "", QueryMetrics.getOpenConnections());
+        header(out, "scheduler_db_connection_acquire_seconds", "summary", "Time taken to obtain a connection.");
+        summary(out, "scheduler_db_connection_acquire_seconds", "", QueryMetrics.getConnectionAcquire());
+        header(out, "scheduler_db_pool_idle", "gauge", "Pooled connections waiting to be leased.");
+        sample(out, "scheduler_db_pool_idle", "", ConnectionPool.getIdleCount());
+        header(out, "scheduler_db_pool_waiting", "gauge", "Threads waiting for a pooled connection.");
+        sample(out, "scheduler_db_pool_waiting", "", ConnectionPool.getWaitingCount());
+
+        header(out, "scheduler_query_duration_seconds", "summary", "Statement execution time per SQL template.");
+        for (QueryMetrics.TemplateStats stats : QueryMetrics.getTemplates()) {
+            summary(out, "scheduler_query_duration_seconds", label("template", stats.getTemplate()),
+                    stats.getLatency());
+        }
+        header(out, "scheduler_query_rows_total", "counter", "Rows read or changed per SQL template.");
+        for (QueryMetrics.TemplateStats stats : QueryMetrics.getTemplates()) {
+            sample(out, "scheduler_query_rows_total", label("template", stats.getTemplate()), stats.getRows());
+        }
+        header(out, "scheduler_query_errors_total", "counter", "Failed executions per SQL template.");
+        for (QueryMetrics.TemplateStats stats : QueryMetrics.getTemplates()) {
+            sample(out, "scheduler_query_errors_total", label("template", stats.getTemplate()), stats.getErrors());
+        }
+
+        header(out, "scheduler_cache_hits_total", "counter", "Lookups answered from a cache.");
+        for (MonitoredCache cache : MonitoredCache.all()) {
+            sample(out, "scheduler_cache_hits_total", label("cache", cache.getName()), cache.getHits());
+        }
+        header(out, "scheduler_cache_misses_total", "counter", "Lookups that had to load their value.");
+        for (MonitoredCache cache : MonitoredCache.all()) {
+            sample(out, "scheduler_cache_misses_total", label("cache", cache.getName()), cache.getMisses());
+        }
+        header(out, "scheduler_cache_entries", "gauge", "Entries held by a cache.");
+        for (MonitoredCache cache : MonitoredCache.all()) {
+            if (cache.getSize() >= 0) {
+                sample(out, "scheduler_cache_entries", label("cache", cache.getName()), cache.getSize());
+            }
+        }
+
+        header(out, "scheduler_ui_refresh_seconds", "summary", "Time taken by a screen to refresh its data.");
+        for (Map.Entry<String, LatencyHistogram> entry : UiMetrics.getRefreshes().entrySet()) {
+            summary(out, "scheduler_ui_refresh_seconds", label("view", entry.getKey()), entry.getValue());
+        }
+
+        header(out, "scheduler_api_request_seconds", "summary", "Time taken to answer HTTP API requests.");
+        for (Map.Entry<String, LatencyHistogram> entry : ApiServer.getRequestTimes().entrySet()) {
+            summary(out, "scheduler_api_request_seconds", label("route", entry.getKey()), entry.getValue());
+        }
+
+        header(out, "scheduler_login_attempts_total", "counter", "Login attempts checked against the database.");
+        sample(out, "scheduler_login_attempts_total", label("outcome", "success"),
+                LoginMonitor.getSuccessfulAttemptCount());
+        sample(out, "scheduler_login_attempts_total", label("outcome", "failure"),
+                LoginMonitor.getFailedAttemptCount());
+        header(out, "scheduler_login_throttled_total", "counter", "Login attempts rejected by the rate limit.");
+        sample(out, "scheduler_login_throttled_total", label("scope", "user"),
+                LoginThrottle.getRejectedForUserCount());
+        sample(out, "scheduler_login_throttled_total", label("scope", "global"),
+                LoginThrottle.getRejectedGloballyCount());
+
+        header(out, "scheduler_reminder_queue_depth", "gauge", "Appointment reminders waiting to fire.");
+        sample(out, "scheduler_reminder_queue_depth", "", ReminderService.getQueueDepth());
+
+        header(out, "scheduler_report_job_seconds", "summary", "Duration of scheduled report jobs.");
+        Map<String, ReportScheduler.JobStats> jobs = ReportScheduler.getJobStats();
+        for (Map.Entry<String, ReportScheduler.JobStats> entry : jobs.entrySet()) {
+            summary(out, "scheduler_report_job_seconds", label("job", entry.getKey()),
+                    entry.getValue().getDurations());
+        }
+        header(out, "scheduler_report_job_failures_total", "counter", "Scheduled report jobs that failed.");
+        for (Map.Entry<String, ReportScheduler.JobStats> entry : jobs.entrySet()) {
+            sample(out, "scheduler_report_job_failures_total", label("job", entry.getKey()),
+                    entry.getValue().getFailures());
+        }
+        return out.toString();
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, long value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    /**
+     * Writes a histogram as a Prometheus summary in seconds: a few quantiles, the sum and the count.
+     */
+    private static void summary(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        String separator = labels.isEmpty() ? "" : labels + ",";
+        for (double quantile : QUANTILES) {
+            out.append(name).append('{').append(separator).append("quantile=\"").append(quantile).append("\"} ")
+                    .append(seconds(snapshot.getValueAtPercentile(quantile * 100))).append('\n');
+        }
+        String suffix = labels.isEmpty() ? "" : "{" + labels + "}";
+        out.append(name).append("_sum").append(suffix).append(' ').append(seconds(snapshot.getTotalNanos()))
+                .append('\n');
+        out.append(name).append("_count").append(suffix).append(' ').append(snapshot.getCount()).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    /**
+     * Formats one label, escaping the value as the text format requires.
+     */
+    private static String label(String name, String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + name.length() + 3);
+        escaped.append(name).append("=\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                escaped.append('\\').append(c);
+            } else if (c == '\n') {
+                escaped.append("\\n");
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.append('"').toString();
+    }
+}
@@ -0,0 +1,66 @@
+package monitoring;
+
+import dbQueries.UserQueries;
+import utilities.BusyBitmapCache;
+import utilities.CacheStats;
+import utilities.ReportCache;
+
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * One of the application's caches as seen by the monitoring endpoints, with the name it is published under.
+ */
+final class MonitoredCache implements CacheMXBean {
+    private static final List<MonitoredCache> ALL = List.of(
+            new MonitoredCache("ReportCache", ReportCache.getStats(), ReportCache::size),
+            new MonitoredCache("BusyBitmapCache", BusyBitmapCache.getStats(), BusyBitmapCache::size),
+            new MonitoredCache("UserIndex", UserQueries.getUserIndexStats(), () -> -1),
+            new MonitoredCache("StatementCache", UserQueries.getStatementCacheStats(), () -> -1));
+
+    private final String name;
+    private final CacheStats stats;
+    private final IntSupplier size;
+
+    private MonitoredCache(String name, CacheStats stats, IntSupplier size) {
+        this.name = name;
+        this.stats = stats;
+        this.size = size;
+    }
+
+    /**
+     * @return Every cache that is monitored.
+     */
+    static List<MonitoredCache> all() {
+        return ALL;
+    }
+
+    String getName() {
+        return this.name;
+    }
+
+    @Override
+    public long getHits() {
+        return this.stats.getHits();
+    }
+
+    @Override
+    public long getMisses() {
+        return this.stats.getMisses();
+    }
+
+    @Override
+    public double getHitRate() {
+        return this.stats.getHitRate();
+    }
+
+    @Override
+    public int getSize() {
+        return this.size.getAsInt();
+    }
+
+    @Override
+    public void resetStatistics() {
+        this.stats.reset();
+    }
+}
@@ -0,0 +1,97 @@
+package monitoring;
+
+import java.util.List;
+
+/**
+ * Shows the execution times of the SQL statements the application runs, per query template.
+ */
+public interface QueryStatsMXBean {
+    /**
+     * @return The statistics of every template run so far, slowest total time first.
+     */
+    List<QueryTemplateStats> getTemplates();
+
+    /**
+     * @return The number of statements executed since the statistics were last reset.
+     */
+    long getExecutions();
+
+    /**
+     * @return Executions taking at least this many milliseconds are written to the slow query log.
+     */
+    long getSlowQueryThresholdMillis();
+
+    /**
+     * @param millis The new slow query threshold in milliseconds.
+     */
+    void setSlowQueryThresholdMillis(long millis);
+
+    /**
+     * Forgets the statistics of every template.
+     */
+    void resetStatistics();
+
+    /**
+     * The statistics of one query template at one moment. Times are in milliseconds.
+     */
+    final class QueryTemplateStats {
+        private final String template;
+        private final long calls;
+        private final long rows;
+        private final long errors;
+        private final double meanMillis;
+        private final double p50Millis;
+        private final double p95Millis;
+        private final double p99Millis;
+        private final double maxMillis;
+
+        public QueryTemplateStats(String template, long calls, long rows, long errors, double meanMillis,
+                                  double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+            this.template = template;
+            this.calls = calls;
+            this.rows = rows;
+            this.errors = errors;
+            this.meanMillis = meanMillis;
+            this.p50Millis = p50Millis;
+            this.p95Millis = p95Millis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+        }
+
+        public String getTemplate() {
+            return this.template;
+        }
+
+        public long getCalls() {
+            return this.calls;
+        }
+
+        public long getRows() {
+            return this.rows;
+        }
+
+        public long getErrors() {
+            return this.errors;
+        }
+
+        public double getMeanMillis() {
+            return this.meanMillis;
+        }
+
+        public double getP50Millis() {
+            return this.p50Millis;
+        }
+
+        public double getP95Millis() {
+            return this.p95Millis;
+        }
+
+        public double getP99Millis() {
+            return this.p99Millis;
+        }
+
+        public double getMaxMillis() {
+            return this.maxMillis;
+        }
+    }
+}
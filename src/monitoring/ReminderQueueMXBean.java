@@ -0,0 +1,11 @@
+package monitoring;
+
+/**
+ * Shows the appointment reminders waiting to fire.
+ */
+public interface ReminderQueueMXBean {
+    /**
+     * @return The number of reminders waiting to fire, including cancelled ones not yet removed.
+     */
+    int getQueueDepth();
+}
@@ -0,0 +1,74 @@
+package monitoring;
+
+import java.util.List;
+
+/**
+ * Shows the runs of the scheduled report jobs.
+ */
+public interface ReportJobsMXBean {
+    /**
+     * @return The statistics of every report job that has run, by name.
+     */
+    List<ReportJobStats> getJobs();
+
+    /**
+     * The runs of one report job at one moment. Times are in milliseconds.
+     */
+    final class ReportJobStats {
+        private final String name;
+        private final long runs;
+        private final long failures;
+        private final String lastRun;
+        private final double lastDurationMillis;
+        private final double meanMillis;
+        private final double p99Millis;
+        private final double maxMillis;
+
+        public ReportJobStats(String name, long runs, long failures, String lastRun, double lastDurationMillis,
+                              double meanMillis, double p99Millis, double maxMillis) {
+            this.name = name;
+            this.runs = runs;
+            this.failures = failures;
+            this.lastRun = lastRun;
+            this.lastDurationMillis = lastDurationMillis;
+            this.meanMillis = meanMillis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public long getRuns() {
+            return this.runs;
+        }
+
+        public long getFailures() {
+            return this.failures;
+        }
+
+        /**
+         * @return When the last run finished, as an ISO-8601 instant.
+         */
+        public String getLastRun() {
+            return this.lastRun;
+        }
+
+        public double getLastDurationMillis() {
+            return this.lastDurationMillis;
+        }
+
+        public double getMeanMillis() {
+            return this.meanMillis;
+        }
+
+        public double getP99Millis() {
+            return this.p99Millis;
+        }
+
+        public double getMaxMillis() {
+            return this.maxMillis;
+        }
+    }
+}
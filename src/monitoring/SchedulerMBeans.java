@@ -0,0 +1,165 @@
+package monitoring;
+
+import helper.ConnectionPool;
+import helper.QueryMetrics;
+import utilities.LatencyHistogram;
+import utilities.ReminderService;
+import utilities.ReportScheduler;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The SchedulerMBeans class publishes the application's runtime statistics as MXBeans on the platform MBean
+ * server, so a running scheduler can be watched live in JConsole or VisualVM under the "c195.scheduler" domain:
+ *
+ * type=ConnectionPool              Connections in use, idle and waited for, and the time taken to obtain one.
+ * type=Cache,name=ReportCache      Hit rate of cached reports.
+ * type=Cache,name=BusyBitmapCache  Hit rate of the free-slot bitmaps behind the appointment form.
+ * type=Cache,name=UserIndex        Hit rate of the in-memory user reference data.
+ * type=Cache,name=StatementCache   Reuse of the prepared credential lookup.
+ * type=QueryStats                  Execution time percentiles per SQL template, and the slow query threshold.
+ * type=ReminderQueue               Reminders waiting to fire.
+ * type=ReportJobs                  Durations of the scheduled report jobs.
+ *
+ * Every attribute is read from the live counters when it is requested, so registering costs nothing until
+ * someone looks.
+ */
+public abstract class SchedulerMBeans {
+    public static final String DOMAIN = "c195.scheduler";
+
+    private static boolean registered;
+
+    /**
+     * Registers every MXBean once. Failures are printed and leave the application running without them.
+     */
+    public static synchronized void register() {
+        if (registered) {
+            return;
+        }
+        registered = true;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        register(server, "type=ConnectionPool", new ConnectionPoolStats());
+        for (MonitoredCache cache : MonitoredCache.all()) {
+            register(server, "type=Cache,name=" + cache.getName(), cache);
+        }
+        register(server, "type=QueryStats", new QueryStats());
+        register(server, "type=ReminderQueue", (ReminderQueueMXBean) ReminderService::getQueueDepth);
+        register(server, "type=ReportJobs", new ReportJobs());
+    }
+
+    private static void register(MBeanServer server, String properties, Object mbean) {
+        try {
+            ObjectName name = new ObjectName(DOMAIN + ":" + properties);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(mbean, name);
+            }
+        } catch (JMException e) {
+            System.err.println("Unable to register MBean " + properties + ": " + e.getMessage());
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static final class ConnectionPoolStats implements ConnectionPoolMXBean {
+        // Connections sitting idle in the ConnectionPool are open but not in use
+        @Override
+        public int getActiveConnections() {
+            long open = QueryMetrics.getOpenConnections() - ConnectionPool.getIdleCount();
+            return (int) Math.max(0, Math.min(Integer.MAX_VALUE, open));
+        }
+
+        @Override
+        public int getIdleConnections() {
+            return ConnectionPool.getIdleCount();
+        }
+
+        @Override
+        public int getWaitingThreads() {
+            return ConnectionPool.getWaitingCount();
+        }
+
+        @Override
+        public long getConnectionsOpened() {
+            return QueryMetrics.getConnectionsOpened();
+        }
+
+        @Override
+        public double getAcquireMillisP50() {
+            return millis(QueryMetrics.getConnectionAcquire().snapshot().getValueAtPercentile(50));
+        }
+
+        @Override
+        public double getAcquireMillisP99() {
+            return millis(QueryMetrics.getConnectionAcquire().snapshot().getValueAtPercentile(99));
+        }
+
+        @Override
+        public double getAcquireMillisMax() {
+            return millis(QueryMetrics.getConnectionAcquire().snapshot().getMaxNanos());
+        }
+    }
+
+    private static final class QueryStats implements QueryStatsMXBean {
+        @Override
+        public List<QueryTemplateStats> getTemplates() {
+            List<QueryTemplateStats> templates = new ArrayList<>();
+            for (QueryMetrics.TemplateStats stats : QueryMetrics.getTemplates()) {
+                LatencyHistogram.Snapshot latency = stats.getLatency().snapshot();
+                templates.add(new QueryTemplateStats(stats.getTemplate(), latency.getCount(), stats.getRows(),
+                        stats.getErrors(), latency.getMeanNanos() / 1e6, millis(latency.getValueAtPercentile(50)),
+                        millis(latency.getValueAtPercentile(95)), millis(latency.getValueAtPercentile(99)),
+                        millis(latency.getMaxNanos())));
+            }
+            return templates;
+        }
+
+        @Override
+        public long getExecutions() {
+            long executions = 0;
+            for (QueryMetrics.TemplateStats stats : QueryMetrics.getTemplates()) {
+                executions += stats.getLatency().getCount();
+            }
+            return executions;
+        }
+
+        @Override
+        public long getSlowQueryThresholdMillis() {
+            return QueryMetrics.getSlowQueryThresholdMillis();
+        }
+
+        @Override
+        public void setSlowQueryThresholdMillis(long millis) {
+            QueryMetrics.setSlowQueryThresholdMillis(millis);
+        }
+
+        @Override
+        public void resetStatistics() {
+            QueryMetrics.reset();
+        }
+    }
+
+    private static final class ReportJobs implements ReportJobsMXBean {
+        @Override
+        public List<ReportJobStats> getJobs() {
+            List<ReportJobStats> jobs = new ArrayList<>();
+            for (Map.Entry<String, ReportScheduler.JobStats> entry : ReportScheduler.getJobStats().entrySet()) {
+                ReportScheduler.JobStats stats = entry.getValue();
+                LatencyHistogram.Snapshot durations = stats.getDurations().snapshot();
+                jobs.add(new ReportJobStats(entry.getKey(), durations.getCount(), stats.getFailures(),
+                        Instant.ofEpochMilli(stats.getLastRunMillis()).toString(),
+                        millis(stats.getLastDurationNanos()), durations.getMeanNanos() / 1e6,
+                        millis(durations.getValueAtPercentile(99)), millis(durations.getMaxNanos())));
+            }
+            return jobs;
+        }
+    }
+}
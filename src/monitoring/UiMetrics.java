@@ -0,0 +1,37 @@
+package monitoring;
+
+import utilities.LatencyHistogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The UiMetrics class times how long the screens take to refresh their data, keyed by a short view name such as
+ * "schedule_tables". Each view gets a LatencyHistogram, so recording a refresh is lock-free and cheap enough
+ * to leave on in every build.
+ */
+public abstract class UiMetrics {
+    private static final ConcurrentHashMap<String, LatencyHistogram> refreshes = new ConcurrentHashMap<>();
+
+    /**
+     * Records one refresh of a view.
+     *
+     * @param view  The view name.
+     * @param nanos How long the refresh took.
+     */
+    public static void recordRefresh(String view, long nanos) {
+        LatencyHistogram histogram = refreshes.get(view);
+        if (histogram == null) {
+            histogram = refreshes.computeIfAbsent(view, name -> new LatencyHistogram());
+        }
+        histogram.record(nanos);
+    }
+
+    /**
+     * @return The refresh times of every view refreshed so far, by view name.
+     */
+    public static Map<String, LatencyHistogram> getRefreshes() {
+        return new TreeMap<>(refreshes);
+    }
+}
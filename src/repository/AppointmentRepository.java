@@ -0,0 +1,107 @@
+package repository;
+
+import model.Appointment;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * The AppointmentRepository interface is where the controllers read and write appointments, so the storage behind
+ * them can be changed without changing the screens. JdbcAppointmentRepository stores them in the database through
+ * AppointmentQueries; InMemoryAppointmentRepository keeps them in memory for tests and benchmarks.
+ *
+ * Every change made through a repository refreshes the ReportCache, the ReminderService and the BusyBitmapCache,
+ * as the query classes do. Lists returned by a repository belong to the caller.
+ */
+public interface AppointmentRepository {
+
+    /**
+     * @return Every appointment.
+     * @throws SQLException if the appointments cannot be read.
+     */
+    List<Appointment> findAll() throws SQLException;
+
+    /**
+     * @param appointmentId The Appointment_ID to look up.
+     * @return The appointment, or null if there is none with that ID.
+     * @throws SQLException if the appointment cannot be read.
+     */
+    Appointment findById(int appointmentId) throws SQLException;
+
+    /**
+     * @param customerId The Customer_ID whose appointments are returned.
+     * @return The customer's appointments, ordered by start.
+     * @throws SQLException if the appointments cannot be read.
+     */
+    List<Appointment> findByCustomerId(int customerId) throws SQLException;
+
+    /**
+     * Returns the appointments of a user that start within the given window, both ends included.
+     *
+     * @param userId The User_ID whose appointments are returned, or -1 for every user.
+     * @param from   The earliest start to include.
+     * @param to     The latest start to include.
+     * @return The matching appointments, ordered by start.
+     * @throws SQLException if the appointments cannot be read.
+     */
+    List<Appointment> findStartingBetween(int userId, ZonedDateTime from, ZonedDateTime to) throws SQLException;
+
+    /**
+     * Returns the appointments that start on the given days of the system time zone.
+     *
+     * @param from The first day to include.
+     * @param to   The last day to include.
+     * @return The matching appointments, ordered by start.
+     * @throws SQLException if the appointments cannot be read.
+     */
+    List<Appointment> findStartingOn(LocalDate from, LocalDate to) throws SQLException;
+
+    /**
+     * Returns the appointments that start no later than end and end no earlier than start, which includes every
+     * appointment that overlaps or adjoins the range. Validator.isAppointmentAvailable checks these.
+     * The range is read by its wall-clock times in the system time zone, whatever zone it is labelled with, as
+     * Validator.checkIfTimeIsBetween compares them and the appointment form labels the entered times as UTC.
+     *
+     * @param start         The start of the range.
+     * @param end           The end of the range.
+     * @param appointmentId An Appointment_ID to leave out, e.g. the appointment being edited, or -1.
+     * @return The matching appointments.
+     * @throws SQLException if the appointments cannot be read.
+     */
+    List<Appointment> findTouching(ZonedDateTime start, ZonedDateTime end, int appointmentId) throws SQLException;
+
+    /**
+     * @return The highest Appointment_ID plus one, which new appointments are given.
+     * @throws SQLException if the highest ID cannot be read.
+     */
+    int nextId() throws SQLException;
+
+    /**
+     * @param appointment The new appointment, whose Appointment_ID comes from nextId.
+     * @throws SQLException if the appointment cannot be stored.
+     */
+    void add(Appointment appointment) throws SQLException;
+
+    /**
+     * Replaces the stored appointment that has the same Appointment_ID. Nothing happens if there is none.
+     *
+     * @param appointment The changed appointment.
+     * @throws SQLException if the appointment cannot be stored.
+     */
+    void update(Appointment appointment) throws SQLException;
+
+    /**
+     * @param appointmentId The Appointment_ID of the appointment to remove.
+     * @throws SQLException if the appointment cannot be removed.
+     */
+    void remove(int appointmentId) throws SQLException;
+
+    /**
+     * @param customerId The Customer_ID whose appointments are removed.
+     * @return The number of appointments removed.
+     * @throws SQLException if the appointments cannot be removed.
+     */
+    int removeByCustomerId(int customerId) throws SQLException;
+}
@@ -0,0 +1,54 @@
+package repository;
+
+import model.Customer;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * The CustomerRepository interface is where the controllers read and write customers. JdbcCustomerRepository
+ * stores them in the database through CustomerQueries; InMemoryCustomerRepository keeps them in memory.
+ *
+ * A customer can only be removed once their appointments have been removed through the AppointmentRepository.
+ */
+public interface CustomerRepository {
+
+    /**
+     * @return Every customer.
+     * @throws SQLException if the customers cannot be read.
+     */
+    List<Customer> findAll() throws SQLException;
+
+    /**
+     * @param customerId The Customer_ID to look up.
+     * @return The customer, or null if there is none with that ID.
+     * @throws SQLException if the customer cannot be read.
+     */
+    Customer findById(int customerId) throws SQLException;
+
+    /**
+     * @return The highest Customer_ID plus one, which new customers are given.
+     * @throws SQLException if the highest ID cannot be read.
+     */
+    int nextId() throws SQLException;
+
+    /**
+     * @param customer The new customer, whose Customer_ID comes from nextId.
+     * @throws SQLException if the customer cannot be stored.
+     */
+    void add(Customer customer) throws SQLException;
+
+    /**
+     * Replaces the stored customer that has the same Customer_ID. Nothing happens if there is none.
+     *
+     * @param customer The changed customer.
+     * @throws SQLException if the customer cannot be stored.
+     */
+    void update(Customer customer) throws SQLException;
+
+    /**
+     * @param customerId The Customer_ID of the customer to remove.
+     * @throws SQLException if the customer cannot be removed.
+     */
+    void remove(int customerId) throws SQLException;
+}
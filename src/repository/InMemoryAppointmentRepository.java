@@ -0,0 +1,317 @@
+package repository;
+
+import model.Appointment;
+import utilities.BusyBitmapCache;
+import utilities.ReminderService;
+import utilities.ReportCache;
+import utilities.TimeManager;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps appointments in memory, for tests and benchmarks that should not need a database.
+ *
+ * Appointments are held in an IntMap by Appointment_ID, and a StartIndex orders them by start, so a lookup by ID
+ * reads a few array slots and a time window or overlap check reads only the appointments near it. The start and
+ * end are recorded when an appointment is stored; changes to a returned appointment are not seen by the time
+ * queries until it is passed to update. Reads share a read lock and changes take the write lock, so the repository
+ * can be used from the JavaFX thread, the ReminderService and API requests at once.
+ */
+public class InMemoryAppointmentRepository implements AppointmentRepository {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IntMap<Entry> byId = new IntMap<>();
+    private final StartIndex byStart = new StartIndex();
+    private int maxId;
+
+    /**
+     * Stores many appointments at once and rebuilds the start index with one sort, which is much faster than
+     * adding them one by one. Appointments with an ID that is already stored replace the stored one.
+     *
+     * @param appointments The appointments to store.
+     */
+    public void addAll(Collection<Appointment> appointments) {
+        lock.writeLock().lock();
+        try {
+            for (Appointment appointment : appointments) {
+                byId.put(appointment.getAppointment_ID(), new Entry(appointment));
+                maxId = Math.max(maxId, appointment.getAppointment_ID());
+            }
+            List<Entry> entries = byId.values();
+            long[] starts = new long[entries.size()];
+            long[] ends = new long[entries.size()];
+            int[] ids = new int[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                starts[i] = entries.get(i).start;
+                ends[i] = entries.get(i).end;
+                ids[i] = entries.get(i).appointment.getAppointment_ID();
+            }
+            byStart.rebuild(starts, ends, ids, entries.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        dataChanged();
+    }
+
+    /**
+     * @return The number of appointments stored.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Every appointment, ordered by start.
+     */
+    @Override
+    public List<Appointment> findAll() {
+        lock.readLock().lock();
+        try {
+            return collect(0, Long.MAX_VALUE, -1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Appointment findById(int appointmentId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = byId.get(appointmentId);
+            return entry == null ? null : entry.appointment;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads the whole start index, as customers are not indexed; removing a customer is rare.
+     */
+    @Override
+    public List<Appointment> findByCustomerId(int customerId) {
+        lock.readLock().lock();
+        try {
+            List<Appointment> found = new ArrayList<>();
+            for (int position = 0; position < byStart.size(); position++) {
+                Appointment appointment = byId.get(byStart.id(position)).appointment;
+                if (appointment.getCustomer_ID() == customerId) {
+                    found.add(appointment);
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Appointment> findStartingBetween(int userId, ZonedDateTime from, ZonedDateTime to) {
+        // Starts are whole seconds, so a bound within a second excludes the start at the beginning of that second
+        long lower = from.toEpochSecond() + (from.getNano() > 0 ? 1 : 0);
+        lock.readLock().lock();
+        try {
+            return collect(byStart.firstAtOrAfter(lower), to.toEpochSecond(), userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads the days in the system time zone, as ReportQueries.fetchAppointments does.
+     */
+    @Override
+    public List<Appointment> findStartingOn(LocalDate from, LocalDate to) {
+        ZoneId zone = ZoneId.systemDefault();
+        long lower = from.atStartOfDay(zone).toEpochSecond();
+        long upper = to.plusDays(1).atStartOfDay(zone).toEpochSecond() - 1;
+        lock.readLock().lock();
+        try {
+            return collect(byStart.firstAtOrAfter(lower), upper, -1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads the index from the range's start minus the longest duration stored, as no appointment that starts
+     * earlier can reach the range.
+     */
+    @Override
+    public List<Appointment> findTouching(ZonedDateTime start, ZonedDateTime end, int appointmentId) {
+        long from = TimeManager.toSystemTimeZone(start).toEpochSecond();
+        long to = TimeManager.toSystemTimeZone(end).toEpochSecond();
+        lock.readLock().lock();
+        try {
+            List<Appointment> found = new ArrayList<>();
+            for (int position = byStart.firstAtOrAfter(from - byStart.getLongestDuration());
+                 position < byStart.size() && byStart.start(position) <= to; position++) {
+                Entry entry = byId.get(byStart.id(position));
+                if (entry.end >= from && byStart.id(position) != appointmentId) {
+                    found.add(entry.appointment);
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int nextId() {
+        lock.readLock().lock();
+        try {
+            return maxId + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @throws SQLIntegrityConstraintViolationException if an appointment with the same ID is already stored,
+     *                                                  as the database would report it.
+     */
+    @Override
+    public void add(Appointment appointment) throws SQLIntegrityConstraintViolationException {
+        if (appointment == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int id = appointment.getAppointment_ID();
+            if (byId.containsKey(id)) {
+                throw new SQLIntegrityConstraintViolationException("Duplicate entry '" + id + "' for Appointment_ID");
+            }
+            Entry entry = new Entry(appointment);
+            byId.put(id, entry);
+            byStart.add(entry.start, entry.end, id);
+            maxId = Math.max(maxId, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        dataChanged();
+    }
+
+    @Override
+    public void update(Appointment appointment) {
+        lock.writeLock().lock();
+        try {
+            int id = appointment.getAppointment_ID();
+            Entry previous = byId.get(id);
+            if (previous == null) {
+                return;
+            }
+            Entry entry = new Entry(appointment);
+            byStart.remove(previous.start, id);
+            byId.put(id, entry);
+            byStart.add(entry.start, entry.end, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        dataChanged();
+    }
+
+    @Override
+    public void remove(int appointmentId) {
+        lock.writeLock().lock();
+        try {
+            if (!removeLocked(appointmentId)) {
+                return;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        dataChanged();
+    }
+
+    @Override
+    public int removeByCustomerId(int customerId) {
+        int removed = 0;
+        lock.writeLock().lock();
+        try {
+            for (Appointment appointment : findByCustomerId(customerId)) {
+                if (removeLocked(appointment.getAppointment_ID())) {
+                    removed++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (removed > 0) {
+            dataChanged();
+        }
+        return removed;
+    }
+
+    /**
+     * Removes an appointment while the write lock is held. The highest ID is found again if it was removed,
+     * so nextId behaves as MAX(Appointment_ID) + 1 does in the database.
+     *
+     * @return Whether there was an appointment with the ID.
+     */
+    private boolean removeLocked(int appointmentId) {
+        Entry entry = byId.remove(appointmentId);
+        if (entry == null) {
+            return false;
+        }
+        byStart.remove(entry.start, appointmentId);
+        if (appointmentId == maxId) {
+            maxId = Math.max(0, byId.maxKey());
+        }
+        return true;
+    }
+
+    /**
+     * Collects the appointments from a position of the start index up to a latest start, both included.
+     *
+     * @param position The first position to read.
+     * @param to       The latest start to include, in UTC epoch seconds.
+     * @param userId   The User_ID to keep, or -1 for every user.
+     * @return The appointments in order of start.
+     */
+    private List<Appointment> collect(int position, long to, int userId) {
+        List<Appointment> found = new ArrayList<>();
+        for (; position < byStart.size() && byStart.start(position) <= to; position++) {
+            Appointment appointment = byId.get(byStart.id(position)).appointment;
+            if (userId == -1 || appointment.getUser_ID() == userId) {
+                found.add(appointment);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Tells the caches and the ReminderService that appointments changed, as AppointmentQueries does.
+     */
+    private static void dataChanged() {
+        ReportCache.dataChanged();
+        ReminderService.requestRefresh();
+        BusyBitmapCache.invalidate();
+    }
+
+    /**
+     * An appointment with the start and end it was indexed by.
+     */
+    private static final class Entry {
+        private final Appointment appointment;
+        private final long start;
+        private final long end;
+
+        private Entry(Appointment appointment) {
+            this.appointment = appointment;
+            this.start = appointment.getStartEpochSecond();
+            this.end = appointment.getEndEpochSecond();
+        }
+    }
+}
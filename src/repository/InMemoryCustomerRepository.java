@@ -0,0 +1,88 @@
+package repository;
+
+import model.Customer;
+import utilities.ReportCache;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keeps customers in memory in an IntMap by Customer_ID, for tests and benchmarks that should not need a database.
+ * The methods are synchronized, as customers change far less often than they are read and the lists are short.
+ * Unlike the database, removing a customer does not check for their appointments.
+ */
+public class InMemoryCustomerRepository implements CustomerRepository {
+    private final IntMap<Customer> byId = new IntMap<>();
+    private int maxId;
+
+    /**
+     * Stores many customers at once. Customers with an ID that is already stored replace the stored one.
+     *
+     * @param customers The customers to store.
+     */
+    public synchronized void addAll(Collection<Customer> customers) {
+        for (Customer customer : customers) {
+            byId.put(customer.getCustomer_ID(), customer);
+            maxId = Math.max(maxId, customer.getCustomer_ID());
+        }
+        ReportCache.dataChanged();
+    }
+
+    /**
+     * @return Every customer, ordered by Customer_ID.
+     */
+    @Override
+    public synchronized List<Customer> findAll() {
+        List<Customer> customers = byId.values();
+        customers.sort(Comparator.comparingInt(Customer::getCustomer_ID));
+        return customers;
+    }
+
+    @Override
+    public synchronized Customer findById(int customerId) {
+        return byId.get(customerId);
+    }
+
+    @Override
+    public synchronized int nextId() {
+        return maxId + 1;
+    }
+
+    /**
+     * @throws SQLIntegrityConstraintViolationException if a customer with the same ID is already stored,
+     *                                                  as the database would report it.
+     */
+    @Override
+    public synchronized void add(Customer customer) throws SQLIntegrityConstraintViolationException {
+        if (customer == null) {
+            return;
+        }
+        if (byId.containsKey(customer.getCustomer_ID())) {
+            throw new SQLIntegrityConstraintViolationException(
+                    "Duplicate entry '" + customer.getCustomer_ID() + "' for Customer_ID");
+        }
+        byId.put(customer.getCustomer_ID(), customer);
+        maxId = Math.max(maxId, customer.getCustomer_ID());
+        ReportCache.dataChanged();
+    }
+
+    @Override
+    public synchronized void update(Customer customer) {
+        if (byId.containsKey(customer.getCustomer_ID())) {
+            byId.put(customer.getCustomer_ID(), customer);
+            ReportCache.dataChanged();
+        }
+    }
+
+    @Override
+    public synchronized void remove(int customerId) {
+        if (byId.remove(customerId) != null) {
+            if (customerId == maxId) {
+                maxId = Math.max(0, byId.maxKey());
+            }
+            ReportCache.dataChanged();
+        }
+    }
+}
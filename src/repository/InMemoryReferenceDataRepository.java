@@ -0,0 +1,82 @@
+package repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the contacts, countries and first-level divisions in memory, for tests and benchmarks that should not
+ * need a database. They are added once, before the repository is used, and not changed afterwards.
+ */
+public class InMemoryReferenceDataRepository implements ReferenceDataRepository {
+    private final Map<Integer, String> contacts = new TreeMap<>();
+    private final Map<Integer, String> countries = new TreeMap<>();
+    private final Map<Integer, String> divisions = new TreeMap<>();
+    private final Map<Integer, Integer> divisionCountries = new HashMap<>();
+
+    /**
+     * @param contactId The Contact_ID.
+     * @param name      The Contact_Name.
+     */
+    public synchronized void addContact(int contactId, String name) {
+        contacts.put(contactId, name);
+    }
+
+    /**
+     * @param countryId The Country_ID.
+     * @param name      The Country name, e.g. "U.S".
+     */
+    public synchronized void addCountry(int countryId, String name) {
+        countries.put(countryId, name);
+    }
+
+    /**
+     * @param divisionId The Division_ID.
+     * @param name       The Division name.
+     * @param countryId  The Country_ID of the country the division belongs to.
+     */
+    public synchronized void addDivision(int divisionId, String name, int countryId) {
+        divisions.put(divisionId, name);
+        divisionCountries.put(divisionId, countryId);
+    }
+
+    /**
+     * @return The contact names, ordered by Contact_ID.
+     */
+    @Override
+    public synchronized List<String> getContactNames() {
+        return new ArrayList<>(contacts.values());
+    }
+
+    @Override
+    public synchronized List<String> getCountryNames() {
+        return new ArrayList<>(countries.values());
+    }
+
+    @Override
+    public synchronized List<String> getDivisionNames(String country) {
+        List<String> names = new ArrayList<>();
+        for (Map.Entry<Integer, String> division : divisions.entrySet()) {
+            if (country.equals(countries.get(divisionCountries.get(division.getKey())))) {
+                names.add(division.getValue());
+            }
+        }
+        return names;
+    }
+
+    @Override
+    public synchronized Map<String, Integer> getDivisionIdsByName() {
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        divisions.forEach((id, name) -> ids.put(name, id));
+        return ids;
+    }
+
+    @Override
+    public synchronized Map<Integer, String> getDivisionNamesById() {
+        return Collections.unmodifiableMap(new TreeMap<>(divisions));
+    }
+}
@@ -0,0 +1,82 @@
+package repository;
+
+import utilities.AlertManager;
+import utilities.LoginMonitor;
+import utilities.LoginThrottle;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the users in memory, for tests and benchmarks that should not need a database.
+ * Logins go through the LoginThrottle and LoginMonitor as in UserQueries.validateCredentials, and user names are
+ * matched exactly, as UserQueries.findUserId matches them.
+ */
+public class InMemoryUserRepository implements UserRepository {
+    private final IntMap<String[]> byId = new IntMap<>();
+    private final Map<String, Integer> idsByName = new HashMap<>();
+    private volatile int currentUserId = -1;
+
+    /**
+     * @param userId   The User_ID.
+     * @param userName The User_Name.
+     * @param password The Password.
+     */
+    public synchronized void addUser(int userId, String userName, String password) {
+        byId.put(userId, new String[]{userName, password});
+        idsByName.put(userName, userId);
+    }
+
+    @Override
+    public boolean validateCredentials(String username, String password) {
+        //Reject the attempt without looking the user up if too many attempts were made recently
+        if (!LoginThrottle.tryAcquire(username)) {
+            LoginMonitor.recordAttempt(username, false);
+            AlertManager.showAlert("Too_Many_Attempts", "Login Failed");
+            return false;
+        }
+        int userId = findUserId(username, password);
+        LoginMonitor.recordAttempt(username, userId != -1);
+        if (userId != -1) {
+            currentUserId = userId;
+            return true;
+        }
+        AlertManager.showAlert("Login Failed", "Incorrect credentials");
+        return false;
+    }
+
+    @Override
+    public int getCurrentUserId() {
+        return currentUserId;
+    }
+
+    @Override
+    public synchronized boolean isKnownUserId(int userId) {
+        return byId.containsKey(userId);
+    }
+
+    @Override
+    public synchronized String getUserName(int userId) {
+        String[] user = byId.get(userId);
+        return user == null ? null : user[0];
+    }
+
+    /**
+     * Looks a user up by name and compares the password in constant time, as UserQueries.findUserId does.
+     *
+     * @return The User_ID, or -1 if the username does not exist or the password is wrong.
+     */
+    private synchronized int findUserId(String username, String password) {
+        if (username == null || password == null) {
+            return -1;
+        }
+        Integer userId = idsByName.get(username);
+        if (userId == null) {
+            return -1;
+        }
+        byte[] stored = byId.get(userId)[1].getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(stored, password.getBytes(StandardCharsets.UTF_8)) ? userId : -1;
+    }
+}
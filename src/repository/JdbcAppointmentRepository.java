@@ -0,0 +1,74 @@
+package repository;
+
+import dbQueries.AppointmentQueries;
+import dbQueries.ReportQueries;
+import model.Appointment;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Stores appointments in the database through AppointmentQueries and ReportQueries.
+ * Errors are handled as those methods handle them: some are printed and leave the list empty or the change unmade.
+ */
+public class JdbcAppointmentRepository implements AppointmentRepository {
+
+    @Override
+    public List<Appointment> findAll() throws SQLException {
+        return AppointmentQueries.fetchAllAppointments();
+    }
+
+    @Override
+    public Appointment findById(int appointmentId) throws SQLException {
+        return AppointmentQueries.fetchAppointmentById(appointmentId);
+    }
+
+    @Override
+    public List<Appointment> findByCustomerId(int customerId) throws SQLException {
+        return AppointmentQueries.fetchAppointmentsByCustomerId(customerId);
+    }
+
+    @Override
+    public List<Appointment> findStartingBetween(int userId, ZonedDateTime from, ZonedDateTime to)
+            throws SQLException {
+        return AppointmentQueries.fetchAppointmentsStartingBetween(userId, from, to);
+    }
+
+    @Override
+    public List<Appointment> findStartingOn(LocalDate from, LocalDate to) throws SQLException {
+        return ReportQueries.fetchAppointments(from, to);
+    }
+
+    @Override
+    public List<Appointment> findTouching(ZonedDateTime start, ZonedDateTime end, int appointmentId)
+            throws SQLException {
+        return AppointmentQueries.fetchAppointmentsTouching(start, end, appointmentId);
+    }
+
+    @Override
+    public int nextId() throws SQLException {
+        return AppointmentQueries.getNextAppointmentId();
+    }
+
+    @Override
+    public void add(Appointment appointment) throws SQLException {
+        AppointmentQueries.addAppointment(appointment);
+    }
+
+    @Override
+    public void update(Appointment appointment) throws SQLException {
+        AppointmentQueries.updateAppointment(appointment);
+    }
+
+    @Override
+    public void remove(int appointmentId) throws SQLException {
+        AppointmentQueries.removeAppointment(appointmentId);
+    }
+
+    @Override
+    public int removeByCustomerId(int customerId) throws SQLException {
+        return AppointmentQueries.removeAppointmentsOfCustomer(customerId);
+    }
+}
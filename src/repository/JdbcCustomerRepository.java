@@ -0,0 +1,43 @@
+package repository;
+
+import dbQueries.CustomerQueries;
+import model.Customer;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Stores customers in the database through CustomerQueries.
+ */
+public class JdbcCustomerRepository implements CustomerRepository {
+
+    @Override
+    public List<Customer> findAll() throws SQLException {
+        return CustomerQueries.getAllCustomers();
+    }
+
+    @Override
+    public Customer findById(int customerId) throws SQLException {
+        return CustomerQueries.fetchCustomerById(customerId);
+    }
+
+    @Override
+    public int nextId() throws SQLException {
+        return CustomerQueries.getNextCustomerId();
+    }
+
+    @Override
+    public void add(Customer customer) throws SQLException {
+        CustomerQueries.addCustomer(customer);
+    }
+
+    @Override
+    public void update(Customer customer) throws SQLException {
+        CustomerQueries.updateCustomerInfo(customer);
+    }
+
+    @Override
+    public void remove(int customerId) throws SQLException {
+        CustomerQueries.removeCustomer(customerId);
+    }
+}
@@ -0,0 +1,41 @@
+package repository;
+
+import dbQueries.ContactQueries;
+import dbQueries.CountryQueries;
+import dbQueries.FirstLevelDivisionQueries;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the contacts, countries and first-level divisions from the database through ContactQueries,
+ * CountryQueries and FirstLevelDivisionQueries.
+ */
+public class JdbcReferenceDataRepository implements ReferenceDataRepository {
+
+    @Override
+    public List<String> getContactNames() {
+        return ContactQueries.getAllContactNames();
+    }
+
+    @Override
+    public List<String> getCountryNames() throws SQLException {
+        return CountryQueries.getAllCountries();
+    }
+
+    @Override
+    public List<String> getDivisionNames(String country) throws SQLException {
+        return FirstLevelDivisionQueries.getDivisionsByCountry(country);
+    }
+
+    @Override
+    public Map<String, Integer> getDivisionIdsByName() {
+        return FirstLevelDivisionQueries.retrieveAllDivisionIDs();
+    }
+
+    @Override
+    public Map<Integer, String> getDivisionNamesById() {
+        return FirstLevelDivisionQueries.buildDivisionMap();
+    }
+}
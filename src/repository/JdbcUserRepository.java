@@ -0,0 +1,29 @@
+package repository;
+
+import dbQueries.UserQueries;
+
+/**
+ * Checks logins against the database and looks users up in the user index of UserQueries.
+ */
+public class JdbcUserRepository implements UserRepository {
+
+    @Override
+    public boolean validateCredentials(String username, String password) {
+        return UserQueries.validateCredentials(username, password);
+    }
+
+    @Override
+    public int getCurrentUserId() {
+        return UserQueries.getCurrentUserId();
+    }
+
+    @Override
+    public boolean isKnownUserId(int userId) {
+        return UserQueries.isKnownUserId(userId);
+    }
+
+    @Override
+    public String getUserName(int userId) {
+        return UserQueries.getUserName(userId);
+    }
+}
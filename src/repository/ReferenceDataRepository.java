@@ -0,0 +1,43 @@
+package repository;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The ReferenceDataRepository interface reads the contacts, countries and first-level divisions the forms offer.
+ * The application does not change them.
+ */
+public interface ReferenceDataRepository {
+
+    /**
+     * @return The name of every contact.
+     * @throws SQLException if the contacts cannot be read.
+     */
+    List<String> getContactNames() throws SQLException;
+
+    /**
+     * @return The name of every country, ordered by Country_ID.
+     * @throws SQLException if the countries cannot be read.
+     */
+    List<String> getCountryNames() throws SQLException;
+
+    /**
+     * @param country The name of a country, as returned by getCountryNames.
+     * @return The names of the country's first-level divisions, ordered by Division_ID.
+     * @throws SQLException if the divisions cannot be read.
+     */
+    List<String> getDivisionNames(String country) throws SQLException;
+
+    /**
+     * @return The Division_ID of every first-level division, by division name.
+     * @throws SQLException if the divisions cannot be read.
+     */
+    Map<String, Integer> getDivisionIdsByName() throws SQLException;
+
+    /**
+     * @return The name of every first-level division, by Division_ID.
+     * @throws SQLException if the divisions cannot be read.
+     */
+    Map<Integer, String> getDivisionNamesById() throws SQLException;
+}
@@ -0,0 +1,71 @@
+package repository;
+
+/**
+ * The Repositories class holds the repositories the controllers and the Validator use. They are the JDBC
+ * repositories unless a test or benchmark installs others, e.g. the in-memory repositories, with use.
+ * Install them before the first screen opens; screens that are already open keep the ones they read.
+ */
+public abstract class Repositories {
+    private static volatile AppointmentRepository appointments = new JdbcAppointmentRepository();
+    private static volatile CustomerRepository customers = new JdbcCustomerRepository();
+    private static volatile ReferenceDataRepository referenceData = new JdbcReferenceDataRepository();
+    private static volatile UserRepository users = new JdbcUserRepository();
+
+    /**
+     * @return The repository appointments are read from and written to.
+     */
+    public static AppointmentRepository appointments() {
+        return appointments;
+    }
+
+    /**
+     * @return The repository customers are read from and written to.
+     */
+    public static CustomerRepository customers() {
+        return customers;
+    }
+
+    /**
+     * @return The repository the contacts, countries and divisions are read from.
+     */
+    public static ReferenceDataRepository referenceData() {
+        return referenceData;
+    }
+
+    /**
+     * @return The repository logins are checked against.
+     */
+    public static UserRepository users() {
+        return users;
+    }
+
+    /**
+     * Installs a set of repositories in place of the current ones.
+     *
+     * @param appointmentRepository   The appointment repository.
+     * @param customerRepository      The customer repository.
+     * @param referenceDataRepository The reference data repository.
+     * @param userRepository          The user repository.
+     */
+    public static synchronized void use(AppointmentRepository appointmentRepository,
+                                        CustomerRepository customerRepository,
+                                        ReferenceDataRepository referenceDataRepository,
+                                        UserRepository userRepository) {
+        if (appointmentRepository == null || customerRepository == null || referenceDataRepository == null
+                || userRepository == null) {
+            throw new IllegalArgumentException("Every repository must be given");
+        }
+        appointments = appointmentRepository;
+        customers = customerRepository;
+        referenceData = referenceDataRepository;
+        users = userRepository;
+    }
+
+    /**
+     * Installs the JDBC repositories again.
+     */
+    public static void useJdbc() {
+        use(new JdbcAppointmentRepository(), new JdbcCustomerRepository(), new JdbcReferenceDataRepository(),
+                new JdbcUserRepository());
+    }
+}
@@ -0,0 +1,113 @@
+package repository;
+
+import java.util.Arrays;
+
+/**
+ * A sorted index of appointment starts for InMemoryAppointmentRepository. The starts, in UTC epoch seconds, and
+ * the Appointment_IDs are kept in two parallel arrays ordered by start and then ID, so a time range is found with
+ * a binary search and read in order without boxing. Adding or removing an entry moves the entries after it, which
+ * for a single booking costs far less than the search a TreeMap would make over boxed keys.
+ *
+ * The longest duration ever indexed is kept as well. Every appointment that overlaps a range starts after the
+ * range's start minus that duration, which bounds the part of the index an overlap check reads.
+ * It is not thread-safe; the repository guards it with its lock.
+ */
+final class StartIndex {
+    private long[] starts = new long[16];
+    private int[] ids = new int[16];
+    private int size;
+    private long longestDuration;
+
+    int size() {
+        return size;
+    }
+
+    long start(int position) {
+        return starts[position];
+    }
+
+    int id(int position) {
+        return ids[position];
+    }
+
+    long getLongestDuration() {
+        return longestDuration;
+    }
+
+    void add(long start, long end, int id) {
+        int position = search(start, id);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(starts, position, starts, position + 1, size - position);
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        starts[position] = start;
+        ids[position] = id;
+        size++;
+        longestDuration = Math.max(longestDuration, end - start);
+    }
+
+    void remove(long start, int id) {
+        int position = search(start, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(starts, position + 1, starts, position, size - position - 1);
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    /**
+     * Replaces the whole index with the given entries in one sort, for loading many appointments at once.
+     */
+    void rebuild(long[] newStarts, long[] newEnds, int[] newIds, int count) {
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> newStarts[a] != newStarts[b]
+                ? Long.compare(newStarts[a], newStarts[b]) : Integer.compare(newIds[a], newIds[b]));
+        starts = new long[Math.max(16, count)];
+        ids = new int[starts.length];
+        longestDuration = 0;
+        for (int i = 0; i < count; i++) {
+            starts[i] = newStarts[order[i]];
+            ids[i] = newIds[order[i]];
+            longestDuration = Math.max(longestDuration, newEnds[order[i]] - newStarts[order[i]]);
+        }
+        size = count;
+    }
+
+    /**
+     * @return The position of the first entry that starts at or after the given second.
+     */
+    int firstAtOrAfter(long start) {
+        int position = search(start, Integer.MIN_VALUE);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    /**
+     * @return The position of the entry, or (-(insertion point) - 1) if it is not in the index.
+     */
+    private int search(long start, int id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int order = starts[middle] != start ? Long.compare(starts[middle], start) : Integer.compare(ids[middle], id);
+            if (order < 0) {
+                low = middle + 1;
+            } else if (order > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+}
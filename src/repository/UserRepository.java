@@ -0,0 +1,36 @@
+package repository;
+
+/**
+ * The UserRepository interface checks logins and looks users up. JdbcUserRepository uses UserQueries, which
+ * keeps the user index in memory after login; InMemoryUserRepository holds the users themselves.
+ */
+public interface UserRepository {
+
+    /**
+     * Checks a login. Attempts over the LoginThrottle limits are rejected without looking the user up, every
+     * attempt is recorded by the LoginMonitor and a failed one is reported to the user. A successful login
+     * becomes the current user.
+     *
+     * @param username The username entered.
+     * @param password The password entered.
+     * @return true if the credentials are correct.
+     */
+    boolean validateCredentials(String username, String password);
+
+    /**
+     * @return The User_ID of the user who logged in, or -1 if nobody has logged in yet.
+     */
+    int getCurrentUserId();
+
+    /**
+     * @param userId The User_ID to check.
+     * @return true if a user with the ID exists.
+     */
+    boolean isKnownUserId(int userId);
+
+    /**
+     * @param userId The User_ID to look up.
+     * @return The user name, or null if there is no such user.
+     */
+    String getUserName(int userId);
+}
@@ -0,0 +1,71 @@
+package utilities;
+
+/**
+ * The ActionTracer class records controller actions as JDK Flight Recorder events. Each thread keeps a stack of
+ * the actions it is running, so a JDBC statement can name the action it belongs to and add its time to it.
+ * When no recording is running the events are disabled, and beginning and ending an action costs a thread-local
+ * lookup and a few field writes.
+ *
+ * Usage in a controller:
+ *     ControllerActionEvent action = ActionTracer.begin("Scheduler.onAddButton");
+ *     try {
+ *         ...
+ *     } finally {
+ *         ActionTracer.end(action);
+ *     }
+ */
+public abstract class ActionTracer {
+    private static final ThreadLocal<ControllerActionEvent> current = new ThreadLocal<>();
+
+    /**
+     * Starts timing an action on the current thread.
+     *
+     * @param action The controller method, e.g. "Appointments.onSaveButton".
+     * @return The event to pass to end.
+     */
+    public static ControllerActionEvent begin(String action) {
+        ControllerActionEvent event = new ControllerActionEvent();
+        event.action = action;
+        event.parent = current.get();
+        current.set(event);
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finishes an action started with begin and records it if a recording wants it.
+     *
+     * @param event The event returned by begin.
+     */
+    public static void end(ControllerActionEvent event) {
+        event.end();
+        if (event.parent == null) {
+            current.remove();
+        } else {
+            current.set(event.parent);
+        }
+        if (event.shouldCommit()) {
+            event.commit();
+        }
+    }
+
+    /**
+     * @return The name of the innermost action running on the current thread, or null if there is none.
+     */
+    public static String currentAction() {
+        ControllerActionEvent event = current.get();
+        return event == null ? null : event.action;
+    }
+
+    /**
+     * Adds a statement's execution time to every action running on the current thread.
+     *
+     * @param nanos How long the statement took.
+     */
+    public static void statementExecuted(long nanos) {
+        for (ControllerActionEvent event = current.get(); event != null; event = event.parent) {
+            event.statements++;
+            event.databaseTime += nanos;
+        }
+    }
+}
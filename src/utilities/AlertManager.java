@@ -4,6 +4,9 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
 import languages.LanguageManager;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * The Alerter class is a utility class designed for displaying alerts
  * and confirmation windows in a user-friendly manner.
@@ -13,14 +16,43 @@ import languages.LanguageManager;
  * such as messages, warnings, errors, and provide options for users to take actions.
  * The Alerter class is designed to assist applications in displaying helpful messages,
  * guiding users through complex processes, and providing them with clear feedback.
+ *
+ * Code without a window, such as the HTTP API, can call startCollecting before running the Validator. Until
+ * stopCollecting is called, the alerts raised on that thread are kept as translated messages instead of shown.
  */
 public abstract class AlertManager {
+    private static final ThreadLocal<List<String>> collected = new ThreadLocal<>();
+
+    /**
+     * Keeps the alerts raised on the current thread instead of showing them, until stopCollecting is called.
+     */
+    public static void startCollecting() {
+        collected.set(new ArrayList<>());
+    }
+
+    /**
+     * Stops collecting alerts on the current thread.
+     *
+     * @return The messages of the alerts raised since startCollecting, in order, or an empty list if
+     *         startCollecting was not called.
+     */
+    public static List<String> stopCollecting() {
+        List<String> messages = collected.get();
+        collected.remove();
+        return messages == null ? new ArrayList<>() : messages;
+    }
+
     /**
      * Displays an alert with a custom message and title. Message and title are retrieved from the LanguageManager.
      * @param message - the desired message for the alert
      * @param title - the desired title for the alert window
      **/
     public static void showAlert(String message, String title) {
+        List<String> messages = collected.get();
+        if (messages != null) {
+            messages.add(LanguageManager.getTranslation(message));
+            return;
+        }
         Alert alert = new Alert(Alert.AlertType.NONE, LanguageManager.getTranslation(message), ButtonType.OK);
         alert.setTitle(LanguageManager.getTranslation(title));
         alert.setHeight(900);
@@ -32,6 +64,11 @@ public abstract class AlertManager {
      * @param title - the desired title for the alert window
      **/
     public static void showAlert(String message, String title, String text) {
+        List<String> messages = collected.get();
+        if (messages != null) {
+            messages.add(LanguageManager.getTranslation(message) + " " + text);
+            return;
+        }
         Alert alert = new Alert(Alert.AlertType.NONE, LanguageManager.getTranslation(message), ButtonType.OK);
         alert.setTitle(LanguageManager.getTranslation(title));
         alert.setContentText(text);
@@ -41,9 +78,15 @@ public abstract class AlertManager {
     /**
      * Displays a confirmation window and returns true if user selects YES, false if NO or CANCEL is selected.
      * @param message - the desired message for the confirmation window to show
-     * @return true if user selects YES, false if user selects NO or CANCEL
+     * @return true if user selects YES, false if user selects NO or CANCEL. While alerts are being collected
+     * nobody can answer, so the message is collected and false is returned.
      **/
     public static boolean showConfirm(String message) {
+        List<String> messages = collected.get();
+        if (messages != null) {
+            messages.add(LanguageManager.getTranslation(message));
+            return false;
+        }
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION, LanguageManager.getTranslation(message), ButtonType.YES,
                 ButtonType.NO, ButtonType.CANCEL);
         alert.showAndWait();
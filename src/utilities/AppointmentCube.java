@@ -0,0 +1,457 @@
+package utilities;
+
+import model.Appointment;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The AppointmentCube class is a small in-memory aggregation cube over appointments.
+ * Every appointment is dictionary-encoded once into a column of int codes per dimension, plus a column of booked
+ * minutes, so any two dimensions can be cross-tabulated in a single pass over primitive arrays.
+ *
+ * Example: {@code cube.pivot(Dimension.CONTACT, Dimension.WEEK, Measure.COUNT)} counts appointments per contact
+ * per week, and {@code cube.pivot(Dimension.COUNTRY, null, Measure.COUNT)} counts appointments per country.
+ */
+public class AppointmentCube {
+
+    /**
+     * The attributes appointments can be grouped by.
+     */
+    public enum Dimension { MONTH, WEEK, TYPE, CONTACT, COUNTRY, DIVISION, USER }
+
+    /**
+     * The values that can be summed for each group.
+     */
+    public enum Measure { COUNT, BOOKED_MINUTES }
+
+    private static final String UNKNOWN = "(unknown)";
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    /**
+     * The day key of appointments without a start. No epoch day in range of a LocalDate comes near it.
+     */
+    private static final int NO_DAY = Integer.MIN_VALUE;
+
+    private final int size;
+    private final int[][] codes;
+    private final String[][] labels;
+    private final int[] bookedMinutes;
+
+    private AppointmentCube(int size, int[][] codes, String[][] labels, int[] bookedMinutes) {
+        this.size = size;
+        this.codes = codes;
+        this.labels = labels;
+        this.bookedMinutes = bookedMinutes;
+    }
+
+    /**
+     * Builds a cube from a list of appointments in one pass.
+     * Lookup maps that are missing an ID place the appointment under "(unknown)" for that dimension.
+     * Months and weeks are taken from the start in the system time zone, the zone the report queries show
+     * appointments in, using the cached offsets in TimeZones rather than a ZonedDateTime per appointment.
+     * The int dimensions are encoded through unboxed dictionaries, and a label is looked up only the first time
+     * its code is assigned. The day, division and country codes are remembered per day and per customer, so most
+     * rows cost one dictionary probe for each of the day, customer, contact, user and type.
+     *
+     * @param appointments      The appointments to aggregate.
+     * @param contactNames      Contact names keyed by Contact_ID.
+     * @param customerDivisions Division IDs keyed by Customer_ID.
+     * @param divisionNames     Division names keyed by Division_ID.
+     * @param divisionCountries Country names keyed by Division_ID.
+     * @param userNames         User names keyed by User_ID.
+     * @return The populated cube.
+     */
+    public static AppointmentCube build(List<Appointment> appointments, Map<Integer, String> contactNames,
+                                        Map<Integer, Integer> customerDivisions, Map<Integer, String> divisionNames,
+                                        Map<Integer, String> divisionCountries, Map<Integer, String> userNames) {
+        int size = appointments.size();
+        Dimension[] dimensions = Dimension.values();
+        int[][] codes = new int[dimensions.length][size];
+        List<List<String>> labels = new ArrayList<>();
+        for (int d = 0; d < dimensions.length; d++) {
+            labels.add(new ArrayList<>());
+        }
+        int[] bookedMinutes = new int[size];
+
+        IntDictionary months = new IntDictionary();
+        IntDictionary weeks = new IntDictionary();
+        IntDictionary contacts = new IntDictionary();
+        IntDictionary divisions = new IntDictionary();
+        IntDictionary users = new IntDictionary();
+        Map<String, Integer> types = new HashMap<>();
+        Map<String, Integer> countries = new HashMap<>();
+        // Days and customers are not dimensions; their codes index the codes already worked out for them
+        IntDictionary days = new IntDictionary();
+        int[] dayMonths = new int[16];
+        int[] dayWeeks = new int[16];
+        IntDictionary customers = new IntDictionary();
+        int[] customerDivisionCodes = new int[16];
+        int[] divisionCountryCodes = new int[16];
+        ZoneId zone = TimeZones.system();
+
+        for (int row = 0; row < size; row++) {
+            Appointment appointment = appointments.get(row);
+            long start = appointment.getStartEpochSecond();
+            int day = start == Appointment.NO_TIME ? NO_DAY
+                    : (int) Math.floorDiv(start + TimeZones.offsetSeconds(start, zone), SECONDS_PER_DAY);
+            int dayCode = days.get(day);
+            if (dayCode < 0) {
+                dayCode = days.add(day);
+                dayMonths = ensureCapacity(dayMonths, dayCode);
+                dayWeeks = ensureCapacity(dayWeeks, dayCode);
+                LocalDate date = day == NO_DAY ? null : LocalDate.ofEpochDay(day);
+                int monthKey = date == null ? NO_DAY : date.getYear() * 100 + date.getMonthValue();
+                int weekKey = date == null ? NO_DAY
+                        : date.get(IsoFields.WEEK_BASED_YEAR) * 100 + date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+                int monthCode = months.get(monthKey);
+                if (monthCode < 0) {
+                    monthCode = months.add(monthKey);
+                    labels.get(Dimension.MONTH.ordinal()).add(date == null ? UNKNOWN
+                            : String.format("%d-%02d", monthKey / 100, monthKey % 100));
+                }
+                int weekCode = weeks.get(weekKey);
+                if (weekCode < 0) {
+                    weekCode = weeks.add(weekKey);
+                    labels.get(Dimension.WEEK.ordinal()).add(date == null ? UNKNOWN
+                            : String.format("%d-W%02d", weekKey / 100, weekKey % 100));
+                }
+                dayMonths[dayCode] = monthCode;
+                dayWeeks[dayCode] = weekCode;
+            }
+            codes[Dimension.MONTH.ordinal()][row] = dayMonths[dayCode];
+            codes[Dimension.WEEK.ordinal()][row] = dayWeeks[dayCode];
+
+            int customerCode = customers.get(appointment.getCustomer_ID());
+            if (customerCode < 0) {
+                customerCode = customers.add(appointment.getCustomer_ID());
+                customerDivisionCodes = ensureCapacity(customerDivisionCodes, customerCode);
+                int divisionId = customerDivisions.getOrDefault(appointment.getCustomer_ID(), -1);
+                int divisionCode = divisions.get(divisionId);
+                if (divisionCode < 0) {
+                    divisionCode = divisions.add(divisionId);
+                    labels.get(Dimension.DIVISION.ordinal()).add(divisionNames.getOrDefault(divisionId, UNKNOWN));
+                    divisionCountryCodes = ensureCapacity(divisionCountryCodes, divisionCode);
+                    divisionCountryCodes[divisionCode] = encode(countries, labels.get(Dimension.COUNTRY.ordinal()),
+                            divisionCountries.getOrDefault(divisionId, UNKNOWN));
+                }
+                customerDivisionCodes[customerCode] = divisionCode;
+            }
+            int divisionCode = customerDivisionCodes[customerCode];
+            codes[Dimension.DIVISION.ordinal()][row] = divisionCode;
+            codes[Dimension.COUNTRY.ordinal()][row] = divisionCountryCodes[divisionCode];
+
+            int contactCode = contacts.get(appointment.getContact_ID());
+            if (contactCode < 0) {
+                contactCode = contacts.add(appointment.getContact_ID());
+                labels.get(Dimension.CONTACT.ordinal()).add(
+                        contactNames.getOrDefault(appointment.getContact_ID(), UNKNOWN));
+            }
+            codes[Dimension.CONTACT.ordinal()][row] = contactCode;
+
+            int userCode = users.get(appointment.getUser_ID());
+            if (userCode < 0) {
+                userCode = users.add(appointment.getUser_ID());
+                labels.get(Dimension.USER.ordinal()).add(userNames.getOrDefault(appointment.getUser_ID(), UNKNOWN));
+            }
+            codes[Dimension.USER.ordinal()][row] = userCode;
+
+            codes[Dimension.TYPE.ordinal()][row] = encode(types, labels.get(Dimension.TYPE.ordinal()),
+                    appointment.getType() == null ? UNKNOWN : appointment.getType());
+
+            long minutes = (appointment.getEndEpochSecond() - appointment.getStartEpochSecond()) / 60;
+            bookedMinutes[row] = (int) Math.max(0, Math.min(Integer.MAX_VALUE, minutes));
+        }
+
+        String[][] labelArrays = new String[dimensions.length][];
+        for (int d = 0; d < dimensions.length; d++) {
+            labelArrays[d] = labels.get(d).toArray(new String[0]);
+        }
+        return new AppointmentCube(size, codes, labelArrays, bookedMinutes);
+    }
+
+    /**
+     * @return The number of appointments in the cube.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Sums a measure over every appointment in the cube.
+     *
+     * @param measure The measure to sum.
+     * @return The grand total.
+     */
+    public long total(Measure measure) {
+        if (measure == Measure.COUNT) {
+            return this.size;
+        }
+        long total = 0;
+        for (int minutes : this.bookedMinutes) {
+            total += minutes;
+        }
+        return total;
+    }
+
+    /**
+     * Cross-tabulates the cube by one or two dimensions.
+     * Row and column labels are sorted alphabetically, which also sorts months and weeks chronologically.
+     *
+     * @param rows    The dimension listed down the side of the table.
+     * @param columns The dimension listed across the top of the table, or null for a single total column.
+     * @param measure The measure summed in each cell.
+     * @return The pivot table.
+     */
+    public Pivot pivot(Dimension rows, Dimension columns, Measure measure) {
+        int[] rowCodes = this.codes[rows.ordinal()];
+        int[] columnCodes = columns == null ? null : this.codes[columns.ordinal()];
+        String[] rowLabels = this.labels[rows.ordinal()];
+        String[] columnLabels = columns == null ? new String[]{"Total"} : this.labels[columns.ordinal()];
+
+        long[][] cells = new long[rowLabels.length][columnLabels.length];
+        boolean countOnly = measure == Measure.COUNT;
+        for (int row = 0; row < this.size; row++) {
+            int column = columnCodes == null ? 0 : columnCodes[row];
+            cells[rowCodes[row]][column] += countOnly ? 1 : this.bookedMinutes[row];
+        }
+
+        Integer[] rowOrder = sortedOrder(rowLabels);
+        Integer[] columnOrder = sortedOrder(columnLabels);
+        String[] sortedRowLabels = new String[rowLabels.length];
+        String[] sortedColumnLabels = new String[columnLabels.length];
+        long[][] sortedCells = new long[rowLabels.length][columnLabels.length];
+        for (int r = 0; r < rowOrder.length; r++) {
+            sortedRowLabels[r] = rowLabels[rowOrder[r]];
+            for (int c = 0; c < columnOrder.length; c++) {
+                sortedCells[r][c] = cells[rowOrder[r]][columnOrder[c]];
+            }
+        }
+        for (int c = 0; c < columnOrder.length; c++) {
+            sortedColumnLabels[c] = columnLabels[columnOrder[c]];
+        }
+        return new Pivot(rows, columns, measure, sortedRowLabels, sortedColumnLabels, sortedCells);
+    }
+
+    /**
+     * A cross-tabulation produced by {@link AppointmentCube#pivot}.
+     */
+    public static class Pivot {
+        private final Dimension rows;
+        private final Dimension columns;
+        private final Measure measure;
+        private final String[] rowLabels;
+        private final String[] columnLabels;
+        private final long[][] cells;
+
+        Pivot(Dimension rows, Dimension columns, Measure measure, String[] rowLabels, String[] columnLabels,
+              long[][] cells) {
+            this.rows = rows;
+            this.columns = columns;
+            this.measure = measure;
+            this.rowLabels = rowLabels;
+            this.columnLabels = columnLabels;
+            this.cells = cells;
+        }
+
+        /**
+         * @return The labels listed down the side of the table.
+         */
+        public String[] getRowLabels() {
+            return this.rowLabels.clone();
+        }
+
+        /**
+         * @return The labels listed across the top of the table.
+         */
+        public String[] getColumnLabels() {
+            return this.columnLabels.clone();
+        }
+
+        /**
+         * @param row    The row index.
+         * @param column The column index.
+         * @return The value of a single cell.
+         */
+        public long get(int row, int column) {
+            return this.cells[row][column];
+        }
+
+        /**
+         * Formats the pivot as a fixed-width text table with row and column totals.
+         *
+         * @return The formatted table.
+         */
+        public String render() {
+            String corner = this.rows.name() + (this.columns == null ? "" : " / " + this.columns.name());
+            int labelWidth = corner.length();
+            for (String label : this.rowLabels) {
+                labelWidth = Math.max(labelWidth, label.length());
+            }
+            int cellWidth = "Total".length();
+            for (String label : this.columnLabels) {
+                cellWidth = Math.max(cellWidth, label.length());
+            }
+            long[] columnTotals = new long[this.columnLabels.length];
+            long grandTotal = 0;
+            for (long[] row : this.cells) {
+                for (int c = 0; c < row.length; c++) {
+                    columnTotals[c] += row[c];
+                    grandTotal += row[c];
+                }
+            }
+            cellWidth = Math.max(cellWidth, Long.toString(grandTotal).length());
+            boolean totalColumn = this.columns != null;
+
+            StringBuilder table = new StringBuilder();
+            table.append("|----").append(this.measure.name()).append("----|\n");
+            table.append(pad(corner, labelWidth, false));
+            for (String label : this.columnLabels) {
+                table.append("  ").append(pad(label, cellWidth, true));
+            }
+            if (totalColumn) {
+                table.append("  ").append(pad("Total", cellWidth, true));
+            }
+            table.append("\n");
+            for (int r = 0; r < this.rowLabels.length; r++) {
+                table.append(pad(this.rowLabels[r], labelWidth, false));
+                long rowTotal = 0;
+                for (long value : this.cells[r]) {
+                    table.append("  ").append(pad(Long.toString(value), cellWidth, true));
+                    rowTotal += value;
+                }
+                if (totalColumn) {
+                    table.append("  ").append(pad(Long.toString(rowTotal), cellWidth, true));
+                }
+                table.append("\n");
+            }
+            table.append(pad("Total", labelWidth, false));
+            for (long value : columnTotals) {
+                table.append("  ").append(pad(Long.toString(value), cellWidth, true));
+            }
+            if (totalColumn) {
+                table.append("  ").append(pad(Long.toString(grandTotal), cellWidth, true));
+            }
+            return table.append("\n").toString();
+        }
+
+        private static String pad(String text, int width, boolean alignRight) {
+            StringBuilder padded = new StringBuilder(width);
+            if (!alignRight) {
+                padded.append(text);
+            }
+            for (int i = text.length(); i < width; i++) {
+                padded.append(' ');
+            }
+            if (alignRight) {
+                padded.append(text);
+            }
+            return padded.toString();
+        }
+    }
+
+    /**
+     * Returns the dictionary code for a label, assigning the next code the first time the label is seen.
+     */
+    private static int encode(Map<String, Integer> dictionary, List<String> labels, String label) {
+        Integer code = dictionary.get(label);
+        if (code == null) {
+            code = labels.size();
+            dictionary.put(label, code);
+            labels.add(label);
+        }
+        return code;
+    }
+
+    /**
+     * @return The array, or a copy twice its length if it has no room for the given index.
+     */
+    private static int[] ensureCapacity(int[] array, int index) {
+        return index < array.length ? array : Arrays.copyOf(array, Math.max(index + 1, array.length * 2));
+    }
+
+    private static Integer[] sortedOrder(String[] labels) {
+        Integer[] order = new Integer[labels.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> labels[i]));
+        return order;
+    }
+
+    /**
+     * Assigns dense codes to int keys in the order they are first added. The keys are stored unboxed in an
+     * open-addressed table with linear probing, so a lookup reads a few adjacent slots and creates no objects.
+     */
+    private static final class IntDictionary {
+        private int[] keys = new int[64];
+        /**
+         * The code of the key in the same slot plus one, so that zero marks an empty slot.
+         */
+        private int[] codes = new int[64];
+        private int size;
+
+        /**
+         * @return The key's code, or -1 if it has not been added.
+         */
+        int get(int key) {
+            int mask = this.keys.length - 1;
+            for (int slot = mix(key) & mask; this.codes[slot] != 0; slot = (slot + 1) & mask) {
+                if (this.keys[slot] == key) {
+                    return this.codes[slot] - 1;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Adds a key that {@link #get} did not find.
+         *
+         * @return The key's new code, which is the number of keys added before it.
+         */
+        int add(int key) {
+            if ((this.size + 1) * 4 > this.keys.length * 3) {
+                resize();
+            }
+            insert(this.keys, this.codes, key, this.size + 1);
+            return this.size++;
+        }
+
+        private void resize() {
+            int[] oldKeys = this.keys;
+            int[] oldCodes = this.codes;
+            this.keys = new int[oldKeys.length * 2];
+            this.codes = new int[oldKeys.length * 2];
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldCodes[slot] != 0) {
+                    insert(this.keys, this.codes, oldKeys[slot], oldCodes[slot]);
+                }
+            }
+        }
+
+        private static void insert(int[] keys, int[] codes, int key, int storedCode) {
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (codes[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            codes[slot] = storedCode;
+        }
+
+        /**
+         * Spreads sequential IDs and days over the table, as the low bits alone would fill it in runs.
+         */
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package utilities;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * The AsyncAuditWriter class appends audit records to durable storage on a background thread.
+ * Callers hand records to a bounded ring buffer and return immediately; the writer thread drains the buffer and
+ * commits records in groups, either once a batch is full or once the oldest pending record has waited long enough.
+ * This keeps the caller's latency independent of disk latency while still bounding how much can be lost on a crash.
+ *
+ * When the ring buffer is full, new records are counted as dropped rather than blocking the caller.
+ * {@link #close(long)} stops accepting records, commits everything still buffered and closes the sink.
+ *
+ * @param <T> The record type.
+ */
+public class AsyncAuditWriter<T> {
+
+    /**
+     * Receives committed batches of records on the writer thread.
+     *
+     * @param <T> The record type.
+     */
+    public interface BatchSink<T> {
+        /**
+         * Writes a batch of records and makes them durable before returning.
+         *
+         * @param batch The records, oldest first.
+         * @throws IOException if the records cannot be written.
+         */
+        void write(List<T> batch) throws IOException;
+
+        /**
+         * Releases the sink once the writer has committed its last batch.
+         *
+         * @throws IOException if the sink cannot be closed cleanly.
+         */
+        void close() throws IOException;
+    }
+
+    private final ArrayBlockingQueue<T> ring;
+    private final BatchSink<T> sink;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Thread writerThread;
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong committed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * Creates a writer and starts its daemon thread.
+     *
+     * @param name                The name of the writer thread.
+     * @param sink                Where committed batches are written.
+     * @param capacity            The number of records the ring buffer holds.
+     * @param batchSize           The number of records that triggers a commit.
+     * @param flushIntervalMillis The longest a record waits in the buffer before it is committed.
+     */
+    public AsyncAuditWriter(String name, BatchSink<T> sink, int capacity, int batchSize, long flushIntervalMillis) {
+        this.ring = new ArrayBlockingQueue<>(capacity);
+        this.sink = sink;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMillis));
+        this.writerThread = new Thread(this::run, name);
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Creates a sink that appends one line per record to a text file, which is kept open between batches.
+     *
+     * @param path      The file to append to.
+     * @param formatter Converts a record to a line without a line break.
+     * @param <T>       The record type.
+     * @return The sink.
+     * @throws IOException if the file cannot be opened.
+     */
+    public static <T> BatchSink<T> lineFileSink(String path, Function<T, String> formatter) throws IOException {
+        FileOutputStream stream = new FileOutputStream(path, true);
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+        return new BatchSink<T>() {
+            @Override
+            public void write(List<T> batch) throws IOException {
+                for (T record : batch) {
+                    writer.write(formatter.apply(record));
+                    writer.write('\n');
+                }
+                writer.flush();
+                stream.getChannel().force(false);
+            }
+
+            @Override
+            public void close() throws IOException {
+                writer.close();
+            }
+        };
+    }
+
+    /**
+     * Queues a record for writing without waiting for disk.
+     *
+     * @param record The record.
+     * @return False if the writer is closed or the ring buffer is full and the record was dropped.
+     */
+    public boolean submit(T record) {
+        if (this.closed || !this.ring.offer(record)) {
+            this.dropped.incrementAndGet();
+            return false;
+        }
+        this.accepted.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Waits until every record accepted before this call has been committed or has failed.
+     *
+     * @param timeoutMillis The longest time to wait.
+     * @return True if the records were committed within the timeout.
+     * @throws InterruptedException if the calling thread is interrupted while waiting.
+     */
+    public boolean flush(long timeoutMillis) throws InterruptedException {
+        long target = this.accepted.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (this) {
+            while (this.committed.get() + this.failed.get() < target) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops accepting records, commits everything still in the ring buffer and closes the sink.
+     *
+     * @param timeoutMillis The longest time to wait for the final commit.
+     */
+    public void close(long timeoutMillis) {
+        this.closed = true;
+        try {
+            this.writerThread.join(timeoutMillis);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return The number of records currently waiting in the ring buffer.
+     */
+    public int getPendingCount() {
+        return this.ring.size();
+    }
+
+    /**
+     * @return The number of records committed to the sink.
+     */
+    public long getCommittedCount() {
+        return this.committed.get();
+    }
+
+    /**
+     * @return The number of records rejected because the ring buffer was full or the writer was closed.
+     */
+    public long getDroppedCount() {
+        return this.dropped.get();
+    }
+
+    /**
+     * @return The number of records lost because the sink failed to write them.
+     */
+    public long getFailedCount() {
+        return this.failed.get();
+    }
+
+    /**
+     * The writer thread: collects records into a batch and commits it when it is full, when the oldest record in it
+     * has waited for the flush interval, or when the writer is closing.
+     */
+    private void run() {
+        List<T> batch = new ArrayList<>(this.batchSize);
+        long oldestPending = 0;
+        while (!this.closed || !this.ring.isEmpty() || !batch.isEmpty()) {
+            long wait = batch.isEmpty() ? this.flushIntervalNanos
+                    : this.flushIntervalNanos - (System.nanoTime() - oldestPending);
+            try {
+                T record = wait > 0 ? this.ring.poll(wait, TimeUnit.NANOSECONDS) : this.ring.poll();
+                if (record != null) {
+                    if (batch.isEmpty()) {
+                        oldestPending = System.nanoTime();
+                    }
+                    batch.add(record);
+                    this.ring.drainTo(batch, this.batchSize - batch.size());
+                }
+            } catch (InterruptedException ie) {
+                this.closed = true;
+            }
+            boolean due = batch.size() >= this.batchSize || this.closed
+                    || System.nanoTime() - oldestPending >= this.flushIntervalNanos;
+            if (!batch.isEmpty() && due) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+        try {
+            this.sink.close();
+        } catch (IOException e) {
+            System.err.println("Error closing audit log: " + e.getMessage());
+        }
+    }
+
+    private void commit(List<T> batch) {
+        try {
+            this.sink.write(batch);
+            this.committed.addAndGet(batch.size());
+        } catch (IOException e) {
+            this.failed.addAndGet(batch.size());
+            System.err.println("Error writing " + batch.size() + " audit records: " + e.getMessage());
+        }
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package utilities;
+
+import dbQueries.AvailabilityQueries;
+import model.TimeSlot;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The AvailabilityEngine class finds the free periods in which an appointment can be booked for a contact,
+ * a customer or both. Free time is limited to the 08:00 to 22:00 Eastern business hours that Validator.isTimeValid
+ * enforces, and any appointment of the contact or the customer makes that time busy.
+ *
+ * Busy appointments are handled as two arrays of epoch seconds. Both are sorted and merged with a sweep line into
+ * disjoint busy runs, which are then walked once alongside the business hours of each day, so a year-long range
+ * takes O(n log n) in the number of appointments plus O(days).
+ */
+public abstract class AvailabilityEngine {
+    public static final ZoneId BUSINESS_ZONE = TimeZones.EASTERN;
+    public static final LocalTime OPENING_TIME = LocalTime.of(8, 0);
+    public static final LocalTime CLOSING_TIME = LocalTime.of(22, 0);
+
+    /**
+     * Finds the free slots of at least the given duration for a contact and/or a customer.
+     *
+     * @param contactId  The Contact_ID to check, or -1 to ignore contacts.
+     * @param customerId The Customer_ID to check, or -1 to ignore customers.
+     * @param from       The first business day to search, in Eastern time.
+     * @param to         The last business day to search, in Eastern time.
+     * @param duration   The minimum length of a free slot.
+     * @return The free slots in order, each as long as the free time allows.
+     * @throws SQLException if the busy appointments cannot be loaded.
+     */
+    public static List<TimeSlot> findFreeSlots(int contactId, int customerId, LocalDate from, LocalDate to,
+                                               Duration duration) throws SQLException {
+        Instant rangeStart = from.atTime(OPENING_TIME).atZone(BUSINESS_ZONE).toInstant();
+        Instant rangeEnd = to.atTime(CLOSING_TIME).atZone(BUSINESS_ZONE).toInstant();
+        long[][] busy = AvailabilityQueries.fetchBusyIntervals(contactId, customerId, rangeStart, rangeEnd);
+        return freeSlots(busy[0], busy[1], from, to, duration);
+    }
+
+    /**
+     * Finds the free slots of at least the given duration around already loaded busy periods.
+     *
+     * @param busyStarts The starts of the busy periods in epoch seconds, in any order.
+     * @param busyEnds   The ends of the busy periods in epoch seconds, in any order.
+     * @param from       The first business day to search, in Eastern time.
+     * @param to         The last business day to search, in Eastern time.
+     * @param duration   The minimum length of a free slot.
+     * @return The free slots in order, with times in the system default time zone.
+     */
+    public static List<TimeSlot> freeSlots(long[] busyStarts, long[] busyEnds, LocalDate from, LocalDate to,
+                                           Duration duration) {
+        long[] merged = mergeBusy(busyStarts, busyEnds);
+        long minimum = Math.max(1, duration.getSeconds());
+        ZoneId systemZone = TimeZones.system();
+        List<TimeSlot> slots = new ArrayList<>();
+        int run = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            long free = day.atTime(OPENING_TIME).atZone(BUSINESS_ZONE).toEpochSecond();
+            long closing = day.atTime(CLOSING_TIME).atZone(BUSINESS_ZONE).toEpochSecond();
+            while (run < merged.length && merged[run + 1] <= free) {
+                run += 2;
+            }
+            for (int r = run; r < merged.length && merged[r] < closing; r += 2) {
+                if (merged[r] - free >= minimum) {
+                    slots.add(slot(free, merged[r], systemZone));
+                }
+                free = Math.max(free, merged[r + 1]);
+            }
+            if (closing - free >= minimum) {
+                slots.add(slot(free, closing, systemZone));
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Merges busy periods into disjoint, ordered busy runs with a sweep line. The starts and ends are sorted
+     * separately; walking both arrays in time order while counting open periods gives a run from each point where
+     * the count rises from zero to the point where it falls back to zero. Touching periods are merged.
+     *
+     * @param busyStarts The starts of the busy periods in epoch seconds, in any order.
+     * @param busyEnds   The ends of the busy periods in epoch seconds, in any order.
+     * @return The runs as alternating start and end values: start0, end0, start1, end1, ...
+     */
+    public static long[] mergeBusy(long[] busyStarts, long[] busyEnds) {
+        long[] starts = busyStarts.clone();
+        long[] ends = busyEnds.clone();
+        Arrays.sort(starts);
+        Arrays.sort(ends);
+        long[] runs = new long[starts.length * 2];
+        int runCount = 0;
+        int open = 0;
+        int s = 0;
+        int e = 0;
+        while (s < starts.length) {
+            if (starts[s] <= ends[e]) {
+                if (open++ == 0) {
+                    runs[runCount++] = starts[s];
+                }
+                s++;
+            } else {
+                if (--open == 0) {
+                    runs[runCount++] = ends[e];
+                }
+                e++;
+            }
+        }
+        if (runCount % 2 == 1) {
+            runs[runCount++] = ends[ends.length - 1];
+        }
+        return Arrays.copyOf(runs, runCount);
+    }
+
+    private static TimeSlot slot(long start, long end, ZoneId zone) {
+        return new TimeSlot(ZonedDateTime.ofInstant(Instant.ofEpochSecond(start), zone),
+                ZonedDateTime.ofInstant(Instant.ofEpochSecond(end), zone));
+    }
+}
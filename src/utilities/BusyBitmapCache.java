@@ -0,0 +1,255 @@
+package utilities;
+
+import dbQueries.AvailabilityQueries;
+import model.Appointment;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The BusyBitmapCache class answers which half-hour slots of a day are free for a contact and a customer, so the
+ * Appointments form can offer only times that can actually be booked.
+ *
+ * A day is divided into 48 half-hour slots in the system default time zone, the same slots the time spinners show.
+ * Each contact and each customer has one long per day in which bit i is set when slot i is busy, and a second long
+ * in which bit i is set when more than one appointment covers slot i, so the appointment being edited can be taken
+ * out of a bitmap without hiding another appointment at the same time.
+ *
+ * Bitmaps are loaded a month at a time with one query per resource, so moving between days, contacts and customers
+ * is answered from memory. The cache is cleared when this application changes an appointment, and a month is
+ * reloaded once it is older than {@link #MAX_AGE_MILLIS} to pick up changes made elsewhere.
+ */
+public abstract class BusyBitmapCache {
+    public static final int SLOT_MINUTES = 30;
+    public static final int SLOTS_PER_DAY = 48;
+    public static final long MAX_AGE_MILLIS = 5 * 60_000;
+    private static final long ALL_SLOTS = -1L >>> (64 - SLOTS_PER_DAY);
+    private static final int CONTACT = 0;
+    private static final int CUSTOMER = 1;
+
+    private static final ConcurrentHashMap<Long, MonthBitmap> months = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<YearMonth, long[][]> boundaries = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<LocalDate, Long> businessHours = new ConcurrentHashMap<>();
+    private static final CacheStats stats = new CacheStats();
+
+    /**
+     * Returns the slots of a day that are inside business hours and free for both the contact and the customer.
+     *
+     * @param contactId  The Contact_ID to check, or -1 to ignore contacts.
+     * @param customerId The Customer_ID to check, or -1 to ignore customers.
+     * @param date       The day, in the system default time zone.
+     * @param excluded   The appointment being edited, whose own time stays free, or null for a new appointment.
+     * @return A bitmap in which bit i is set when slot i is free.
+     */
+    public static long freeSlots(int contactId, int customerId, LocalDate date, Appointment excluded) {
+        long busy = 0;
+        if (contactId > 0) {
+            boolean own = excluded != null && excluded.getContact_ID() == contactId;
+            busy |= busySlots(CONTACT, contactId, date, own ? excluded : null);
+        }
+        if (customerId > 0) {
+            boolean own = excluded != null && excluded.getCustomer_ID() == customerId;
+            busy |= busySlots(CUSTOMER, customerId, date, own ? excluded : null);
+        }
+        return businessHoursMask(date) & ~busy;
+    }
+
+    /**
+     * Returns the slots of a day that lie completely within the 08:00 to 22:00 Eastern business hours.
+     *
+     * @param date The day, in the system default time zone.
+     * @return A bitmap in which bit i is set when slot i is inside business hours.
+     */
+    public static long businessHoursMask(LocalDate date) {
+        return businessHours.computeIfAbsent(date, day -> {
+            long[] bounds = dayBoundaries(day);
+            long mask = 0;
+            for (int slot = 0; slot < SLOTS_PER_DAY; slot++) {
+                ZonedDateTime start = ZonedDateTime.ofInstant(Instant.ofEpochSecond(bounds[slot]),
+                        AvailabilityEngine.BUSINESS_ZONE);
+                long opening = start.toLocalDate().atTime(AvailabilityEngine.OPENING_TIME)
+                        .atZone(AvailabilityEngine.BUSINESS_ZONE).toEpochSecond();
+                long closing = start.toLocalDate().atTime(AvailabilityEngine.CLOSING_TIME)
+                        .atZone(AvailabilityEngine.BUSINESS_ZONE).toEpochSecond();
+                if (bounds[slot] >= opening && bounds[slot + 1] <= closing) {
+                    mask |= 1L << slot;
+                }
+            }
+            return mask;
+        });
+    }
+
+    /**
+     * @param slot A slot number from 0 to 47.
+     * @return The time the slot starts, as shown in the time spinners.
+     */
+    public static LocalTime slotStart(int slot) {
+        return LocalTime.MIDNIGHT.plusMinutes((long) slot * SLOT_MINUTES);
+    }
+
+    /**
+     * @param time A time shown in the time spinners.
+     * @return The number of the slot starting at that time, or -1 if no slot starts then.
+     */
+    public static int slotIndex(LocalTime time) {
+        if (time == null || time.getSecond() != 0 || time.getNano() != 0 || time.getMinute() % SLOT_MINUTES != 0) {
+            return -1;
+        }
+        return time.getHour() * (60 / SLOT_MINUTES) + time.getMinute() / SLOT_MINUTES;
+    }
+
+    /**
+     * Forgets every loaded bitmap, e.g. after an appointment was added, moved or removed.
+     */
+    public static void invalidate() {
+        months.clear();
+    }
+
+    /**
+     * @return The hits and misses of month bitmap lookups.
+     */
+    public static CacheStats getStats() {
+        return stats;
+    }
+
+    /**
+     * @return The number of resource months currently held.
+     */
+    public static int size() {
+        return months.size();
+    }
+
+    /**
+     * Returns the busy slots of one contact or customer on one day, loading its month if needed.
+     */
+    private static long busySlots(int kind, int id, LocalDate date, Appointment excluded) {
+        YearMonth month = YearMonth.from(date);
+        long key = ((long) (month.getYear() * 12 + month.getMonthValue()) << 33) | ((long) kind << 32)
+                | (id & 0xffffffffL);
+        long now = System.currentTimeMillis();
+        MonthBitmap bitmap = months.get(key);
+        if (bitmap == null || now - bitmap.loadedAt > MAX_AGE_MILLIS) {
+            stats.miss();
+            bitmap = load(kind, id, month, now);
+            if (bitmap == null) {
+                return 0;
+            }
+            months.put(key, bitmap);
+        } else {
+            stats.hit();
+        }
+        int day = date.getDayOfMonth() - 1;
+        long busy = bitmap.busy[day];
+        if (excluded != null) {
+            long own = cover(new long[][]{dayBoundaries(date)}, excluded.getStartEpochSecond(),
+                    excluded.getEndEpochSecond())[0];
+            busy &= ~(own & ~bitmap.shared[day]);
+        }
+        return busy;
+    }
+
+    /**
+     * Loads the busy slots of one contact or customer for a whole month.
+     *
+     * @return The month's bitmaps, or null if they could not be loaded.
+     */
+    private static MonthBitmap load(int kind, int id, YearMonth month, long now) {
+        long[][] bounds = monthBoundaries(month);
+        long[][] intervals;
+        try {
+            intervals = AvailabilityQueries.fetchBusyIntervals(kind == CONTACT ? id : -1, kind == CUSTOMER ? id : -1,
+                    Instant.ofEpochSecond(bounds[0][0]),
+                    Instant.ofEpochSecond(bounds[bounds.length - 1][SLOTS_PER_DAY]));
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+        MonthBitmap bitmap = new MonthBitmap(bounds.length, now);
+        for (int i = 0; i < intervals[0].length; i++) {
+            long[] covered = cover(bounds, intervals[0][i], intervals[1][i]);
+            for (int day = 0; day < covered.length; day++) {
+                bitmap.shared[day] |= bitmap.busy[day] & covered[day];
+                bitmap.busy[day] |= covered[day];
+            }
+        }
+        return bitmap;
+    }
+
+    /**
+     * Marks the slots covered by one period on each of the given days.
+     *
+     * @param bounds The slot boundaries of consecutive days, as returned by dayBoundaries.
+     * @param start  The start of the period in epoch seconds.
+     * @param end    The end of the period in epoch seconds.
+     * @return One bitmap per day of bounds.
+     */
+    private static long[] cover(long[][] bounds, long start, long end) {
+        long[] covered = new long[bounds.length];
+        for (int day = 0; day < bounds.length; day++) {
+            long[] slots = bounds[day];
+            if (slots[SLOTS_PER_DAY] <= start) {
+                continue;
+            }
+            if (slots[0] >= end) {
+                break;
+            }
+            long mask = 0;
+            for (int slot = 0; slot < SLOTS_PER_DAY; slot++) {
+                if (start < slots[slot + 1] && end > slots[slot]) {
+                    mask |= 1L << slot;
+                }
+            }
+            covered[day] = mask & ALL_SLOTS;
+        }
+        return covered;
+    }
+
+    /**
+     * Returns the 49 slot boundaries of every day of a month.
+     */
+    private static long[][] monthBoundaries(YearMonth month) {
+        return boundaries.computeIfAbsent(month, key -> {
+            long[][] bounds = new long[key.lengthOfMonth()][];
+            for (int day = 0; day < bounds.length; day++) {
+                bounds[day] = dayBoundaries(key.atDay(day + 1));
+            }
+            return bounds;
+        });
+    }
+
+    /**
+     * Returns the 49 slot boundaries of a day in epoch seconds: the start of each slot and the start of the next day.
+     * Slot times that do not exist on a daylight saving change are moved forward as ZonedDateTime does.
+     */
+    private static long[] dayBoundaries(LocalDate date) {
+        ZoneId zone = TimeZones.system();
+        long day = date.toEpochDay();
+        long[] bounds = new long[SLOTS_PER_DAY + 1];
+        for (int slot = 0; slot < SLOTS_PER_DAY; slot++) {
+            bounds[slot] = TimeZones.toEpochSecond(day, slot * SLOT_MINUTES * 60, zone);
+        }
+        bounds[SLOTS_PER_DAY] = TimeZones.toEpochSecond(day + 1, 0, zone);
+        return bounds;
+    }
+
+    /**
+     * The busy and shared bitmaps of one contact or customer for one month, one long per day.
+     */
+    private static final class MonthBitmap {
+        private final long[] busy;
+        private final long[] shared;
+        private final long loadedAt;
+
+        private MonthBitmap(int days, long loadedAt) {
+            this.busy = new long[days];
+            this.shared = new long[days];
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package utilities;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The CacheStats class counts the hits and misses of one cache.
+ * A hit is a lookup answered from memory; a miss is one that had to load or prepare the value first.
+ * The counters are LongAdders, so counting adds next to nothing to a lookup from any thread.
+ */
+public class CacheStats {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Counts a lookup answered from the cache.
+     */
+    public void hit() {
+        this.hits.increment();
+    }
+
+    /**
+     * Counts a lookup that had to load its value.
+     */
+    public void miss() {
+        this.misses.increment();
+    }
+
+    /**
+     * @return The number of lookups answered from the cache.
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * @return The number of lookups that had to load their value.
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * @return The share of lookups answered from the cache, from 0 to 1, or 0 if there were none.
+     */
+    public double getHitRate() {
+        long hitCount = getHits();
+        long total = hitCount + getMisses();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Sets both counters back to zero.
+     */
+    public void reset() {
+        this.hits.reset();
+        this.misses.reset();
+    }
+}
@@ -0,0 +1,204 @@
+package utilities;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The ConflictDetector class finds every pair of appointments that double-book a customer or a contact.
+ * Comparing every appointment with every other one, as Validator.checkIfTimeIsBetween does for a single new
+ * appointment, takes O(n^2) over a whole calendar. Instead the appointments are sorted by resource and start, and
+ * each resource is swept once in start order while keeping the appointments that are still running. Every
+ * appointment still running when another one starts overlaps it, so the sweep takes O(n log n) plus the number of
+ * conflicts found.
+ *
+ * Appointments are held in a Schedule of primitive columns, so millions of rows fit in a few bytes each, and
+ * conflicts are passed to a listener as they are found instead of being collected.
+ * An appointment ending at the moment another one starts does not conflict with it.
+ */
+public abstract class ConflictDetector {
+
+    /**
+     * The kinds of resource an appointment books.
+     */
+    public enum Resource {
+        CUSTOMER, CONTACT
+    }
+
+    /**
+     * Receives the conflicts found by a sweep.
+     */
+    public interface ConflictListener {
+        /**
+         * @param resource            Whether a customer or a contact is double-booked.
+         * @param resourceId          The Customer_ID or Contact_ID that is double-booked.
+         * @param firstAppointmentId  The appointment that starts first.
+         * @param secondAppointmentId The appointment that starts while the first one is running.
+         * @param overlapStart        The start of the overlap in epoch seconds.
+         * @param overlapEnd          The end of the overlap in epoch seconds.
+         * @throws IOException if the listener writes the conflict out and the write fails.
+         */
+        void conflict(Resource resource, int resourceId, int firstAppointmentId, int secondAppointmentId,
+                      long overlapStart, long overlapEnd) throws IOException;
+    }
+
+    /**
+     * The appointments to check, stored as parallel primitive columns.
+     */
+    public static final class Schedule {
+        private int size;
+        private int[] appointmentIds = new int[1024];
+        private int[] customerIds = new int[1024];
+        private int[] contactIds = new int[1024];
+        private long[] starts = new long[1024];
+        private long[] ends = new long[1024];
+
+        /**
+         * Adds an appointment to the schedule.
+         *
+         * @param appointmentId The Appointment_ID.
+         * @param customerId    The Customer_ID.
+         * @param contactId     The Contact_ID.
+         * @param start         The start in epoch seconds.
+         * @param end           The end in epoch seconds.
+         */
+        public void add(int appointmentId, int customerId, int contactId, long start, long end) {
+            if (this.size == this.starts.length) {
+                int capacity = this.size * 2;
+                this.appointmentIds = Arrays.copyOf(this.appointmentIds, capacity);
+                this.customerIds = Arrays.copyOf(this.customerIds, capacity);
+                this.contactIds = Arrays.copyOf(this.contactIds, capacity);
+                this.starts = Arrays.copyOf(this.starts, capacity);
+                this.ends = Arrays.copyOf(this.ends, capacity);
+            }
+            this.appointmentIds[this.size] = appointmentId;
+            this.customerIds[this.size] = customerId;
+            this.contactIds[this.size] = contactId;
+            this.starts[this.size] = start;
+            this.ends[this.size] = end;
+            this.size++;
+        }
+
+        /**
+         * @return The number of appointments in the schedule.
+         */
+        public int size() {
+            return this.size;
+        }
+
+        private int[] resourceIds(Resource resource) {
+            return resource == Resource.CUSTOMER ? this.customerIds : this.contactIds;
+        }
+    }
+
+    /**
+     * Finds every customer conflict and then every contact conflict in a schedule.
+     *
+     * @param schedule The appointments to check.
+     * @param listener Receives each conflict.
+     * @return The number of conflicts found.
+     * @throws IOException if the listener fails.
+     */
+    public static long findConflicts(Schedule schedule, ConflictListener listener) throws IOException {
+        return findConflicts(schedule, Resource.CUSTOMER, listener)
+                + findConflicts(schedule, Resource.CONTACT, listener);
+    }
+
+    /**
+     * Finds every pair of appointments that overlap for the same customer or the same contact.
+     * Within a resource, conflicts are reported in order of the start of the later appointment.
+     *
+     * @param schedule The appointments to check.
+     * @param resource Whether customers or contacts are checked.
+     * @param listener Receives each conflict.
+     * @return The number of conflicts found.
+     * @throws IOException if the listener fails.
+     */
+    public static long findConflicts(Schedule schedule, Resource resource, ConflictListener listener)
+            throws IOException {
+        int[] resourceIds = schedule.resourceIds(resource);
+        int[] order = sortByResourceAndStart(resourceIds, schedule.starts, schedule.size);
+        int[] running = new int[16];
+        int runningCount = 0;
+        long conflicts = 0;
+        int currentResource = 0;
+        for (int position = 0; position < order.length; position++) {
+            int next = order[position];
+            if (position == 0 || resourceIds[next] != currentResource) {
+                currentResource = resourceIds[next];
+                runningCount = 0;
+            }
+            long start = schedule.starts[next];
+            long end = schedule.ends[next];
+            if (end <= start) {
+                continue;
+            }
+            int kept = 0;
+            for (int i = 0; i < runningCount; i++) {
+                int other = running[i];
+                if (schedule.ends[other] > start) {
+                    running[kept++] = other;
+                    listener.conflict(resource, currentResource, schedule.appointmentIds[other],
+                            schedule.appointmentIds[next], start, Math.min(end, schedule.ends[other]));
+                    conflicts++;
+                }
+            }
+            runningCount = kept;
+            if (runningCount == running.length) {
+                running = Arrays.copyOf(running, runningCount * 2);
+            }
+            running[runningCount++] = next;
+        }
+        return conflicts;
+    }
+
+    /**
+     * Orders the appointments by resource and then by start without boxing. Each start is packed with its row
+     * number into a long and sorted, then the rows are distributed into their resources with a stable counting
+     * sort, which keeps them in start order within each resource.
+     *
+     * @param resourceIds The Customer_ID or Contact_ID of each row.
+     * @param starts      The start of each row in epoch seconds.
+     * @param size        The number of rows.
+     * @return The row numbers in resource and start order.
+     */
+    static int[] sortByResourceAndStart(int[] resourceIds, long[] starts, int size) {
+        long minStart = Long.MAX_VALUE;
+        long maxStart = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            minStart = Math.min(minStart, starts[i]);
+            maxStart = Math.max(maxStart, starts[i]);
+        }
+        if (size > 0 && maxStart - minStart >= 1L << 32) {
+            throw new IllegalArgumentException("Appointment starts span more than 136 years.");
+        }
+        long[] packed = new long[size];
+        for (int i = 0; i < size; i++) {
+            packed[i] = ((starts[i] - minStart) << 31) | i;
+        }
+        Arrays.parallelSort(packed);
+
+        int[] distinct = Arrays.copyOf(resourceIds, size);
+        Arrays.parallelSort(distinct);
+        int distinctCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || distinct[i] != distinct[distinctCount - 1]) {
+                distinct[distinctCount++] = distinct[i];
+            }
+        }
+        int[] ranks = new int[size];
+        int[] offsets = new int[distinctCount + 1];
+        for (int i = 0; i < size; i++) {
+            ranks[i] = Arrays.binarySearch(distinct, 0, distinctCount, resourceIds[i]);
+            offsets[ranks[i] + 1]++;
+        }
+        for (int r = 0; r < distinctCount; r++) {
+            offsets[r + 1] += offsets[r];
+        }
+        int[] order = new int[size];
+        for (long value : packed) {
+            int row = (int) (value & Integer.MAX_VALUE);
+            order[offsets[ranks[row]]++] = row;
+        }
+        return order;
+    }
+}
@@ -0,0 +1,37 @@
+package utilities;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A JDK Flight Recorder event covering one controller action, such as saving an appointment or reloading the
+ * schedule tables. The JdbcStatementEvents recorded on the same thread while it runs are its database calls;
+ * their total time is also summed here, so a recording shows at a glance how much of a slow action was spent
+ * in the database. Events are created through ActionTracer.
+ */
+@Name("c195.ControllerAction")
+@Label("Controller Action")
+@Category({"C195 Scheduler", "UI"})
+@Description("A button press or screen refresh handled by a controller")
+@StackTrace(false)
+public class ControllerActionEvent extends jdk.jfr.Event {
+    @Label("Action")
+    @Description("The controller method, e.g. Scheduler.onAddButton")
+    String action;
+
+    @Label("Statements")
+    @Description("The number of JDBC statements executed during the action")
+    int statements;
+
+    @Label("Database Time")
+    @Description("The total execution time of those statements")
+    @Timespan(Timespan.NANOSECONDS)
+    long databaseTime;
+
+    // The action this one started inside of, restored when it ends. Transient fields are not recorded.
+    transient ControllerActionEvent parent;
+}
@@ -0,0 +1,34 @@
+package utilities;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JDK Flight Recorder event covering one JDBC statement execution. It is emitted by the InstrumentedConnection
+ * around every execute call, carries the SQL template rather than bind values, and names the controller action
+ * it ran under, so statements can be grouped by action even when they ran on a worker thread.
+ */
+@Name("c195.JdbcStatement")
+@Label("JDBC Statement")
+@Category({"C195 Scheduler", "Database"})
+@Description("One execution of a SQL statement")
+@StackTrace(false)
+public class JdbcStatementEvent extends jdk.jfr.Event {
+    @Label("Action")
+    @Description("The controller action the statement ran under, if any")
+    public String action;
+
+    @Label("SQL")
+    @Description("The SQL template, with literal values replaced by '?'")
+    public String sql;
+
+    @Label("Rows Changed")
+    @Description("The update count, or -1 for a query")
+    public long rows;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,177 @@
+package utilities;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The LatencyHistogram class counts durations in log-linear buckets, in the manner of HdrHistogram, so percentiles
+ * can be read at any time without keeping the individual samples. Durations below 128 ns get a bucket each; above
+ * that every power of two is split into 64 buckets, so a percentile is accurate to within 1/64 (about 1.6%) of
+ * its value. Durations longer than 2^40 ns (about 18 minutes) are counted in the last bucket.
+ *
+ * Recording is lock-free and takes a few atomic increments, so one histogram can be shared by every thread.
+ * Reads go through a Snapshot, which copies the counts once so all its percentiles agree with each other.
+ */
+public class LatencyHistogram {
+    private static final int LINEAR_BUCKETS = 128;
+    private static final int SUB_BUCKETS = 64;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = LINEAR_BUCKETS + (MAX_EXPONENT - 6) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos The duration in nanoseconds. Negative values are counted as zero.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        this.counts.incrementAndGet(bucketIndex(value));
+        this.count.incrementAndGet();
+        this.totalNanos.addAndGet(value);
+        long max = this.maxNanos.get();
+        while (value > max && !this.maxNanos.compareAndSet(max, value)) {
+            max = this.maxNanos.get();
+        }
+    }
+
+    /**
+     * @return The number of durations recorded.
+     */
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * @return The sum of every duration recorded, in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return this.totalNanos.get();
+    }
+
+    /**
+     * Copies the current counts.
+     *
+     * @return A snapshot of the histogram.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = this.counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total, this.totalNanos.get(), this.maxNanos.get());
+    }
+
+    /**
+     * Clears every count.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.counts.set(i, 0);
+        }
+        this.count.set(0);
+        this.totalNanos.set(0);
+        this.maxNanos.set(0);
+    }
+
+    /**
+     * @param value A duration in nanoseconds, not negative.
+     * @return The bucket the duration is counted in.
+     */
+    static int bucketIndex(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (value >>> (exponent - 6)) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (exponent - 7) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @param index A bucket index.
+     * @return The largest duration counted in the bucket.
+     */
+    static long bucketUpperBound(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int exponent = 7 + (index - LINEAR_BUCKETS) / SUB_BUCKETS;
+        long subBucket = SUB_BUCKETS + (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+        return ((subBucket + 1) << (exponent - 6)) - 1;
+    }
+
+    /**
+     * The counts of a LatencyHistogram at one moment.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+
+        private Snapshot(long[] counts, long count, long totalNanos, long maxNanos) {
+            this.counts = counts;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        /**
+         * @return The number of durations recorded.
+         */
+        public long getCount() {
+            return this.count;
+        }
+
+        /**
+         * @return The sum of every duration recorded, in nanoseconds.
+         */
+        public long getTotalNanos() {
+            return this.totalNanos;
+        }
+
+        /**
+         * @return The longest duration recorded, in nanoseconds.
+         */
+        public long getMaxNanos() {
+            return this.maxNanos;
+        }
+
+        /**
+         * @return The mean duration in nanoseconds, or 0 if nothing was recorded.
+         */
+        public double getMeanNanos() {
+            return this.count == 0 ? 0 : (double) this.totalNanos / this.count;
+        }
+
+        /**
+         * Returns the duration that the given share of the recorded durations do not exceed.
+         *
+         * @param percentile The percentile, from 0 to 100, e.g. 99.9.
+         * @return The duration in nanoseconds, or 0 if nothing was recorded.
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (this.count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * this.count));
+            long seen = 0;
+            for (int i = 0; i < this.counts.length; i++) {
+                seen += this.counts[i];
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(i), this.maxNanos);
+                }
+            }
+            return this.maxNanos;
+        }
+    }
+}
@@ -1,37 +1,153 @@
 package utilities;
 
-import java.time.ZonedDateTime;
+import model.LoginAttempt;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * This Helper class serves the purpose of recording login activity by capturing attempts to login to a system.
- * Whenever a user tries to log in, their password is checked for correctness.
- * If the password is valid, the attempt is recorded in a file named "login_activity.txt".
+ * Every attempt, successful or not, is recorded in the "login_activity" directory.
  * The purpose of recording these attempts is to keep a log for security purposes and
  * to monitor any unauthorized attempts to access the system.
- * The recorded entries for successful logins are marked with a tag, "CORRECT_PASSWORD",
- * indicating that no invalid credentials were used for that particular attempt.
+ *
+ * Each entry is a structured LoginAttempt record holding the time, the username and the outcome; passwords are
+ * never logged. Records are written by an AsyncAuditWriter, so logging in never waits for the disk. Pending records
+ * are flushed when the application stops, and by a shutdown hook if it exits some other way.
+ * The log is split into daily segments of at most 4 MB by a SegmentedLoginLog, whose index answers
+ * questions such as how often a user failed to log in recently without reading the log itself.
  */
 public abstract class LoginMonitor {
+    public static final String LOG_DIRECTORY = "login_activity";
+    private static final long MAX_SEGMENT_BYTES = 4L * 1024 * 1024;
+    private static final int BUFFER_CAPACITY = 4096;
+    private static final int BATCH_SIZE = 64;
+    private static final long FLUSH_INTERVAL_MILLIS = 200;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    private static final LongAdder successfulAttempts = new LongAdder();
+    private static final LongAdder failedAttempts = new LongAdder();
+
+    private static AsyncAuditWriter<LoginAttempt> writer;
+    private static SegmentedLoginLog log;
+    private static boolean shutdownHookAdded;
+
     /**
-     * Records the login attempt details and returns a success flag.
+     * Records the login attempt and returns its outcome.
      *
-     * @param username The username entered.
-     * @param password The password entered by the user.
-     * @return A boolean indicating whether the attempt was successful.
+     * @param username   The username entered.
+     * @param successful Whether the username and password were accepted.
+     * @return The value of successful, so the call can be used inline.
      */
-    public static boolean recordAttempt(String username, String password) {
-        String date = TimeManager.getDateFromZonedDateTime(ZonedDateTime.now());
-        String time = TimeManager.getTimeFromZonedDateTime(ZonedDateTime.now());
-        String attemptDetails = "Date: " + date + "\nTime: " + time + "\nUsername: " + username +"\nPassword: "
-                + password + "\n----------";
-        boolean isSuccessful = password.equals("CORRECT_PASSWORD");
-        if (isSuccessful) {
-            ReportManager.writeReportToFile("login_activity.txt", "Login attempt successful: "
-                    + attemptDetails);
-        } else {
-            ReportManager.writeReportToFile("login_activity.txt", "Login attempt failed: "
-                    + attemptDetails);
-        }
-        return isSuccessful;
+    public static boolean recordAttempt(String username, boolean successful) {
+        (successful ? successfulAttempts : failedAttempts).increment();
+        AsyncAuditWriter<LoginAttempt> auditWriter = writer();
+        if (auditWriter != null) {
+            auditWriter.submit(new LoginAttempt(System.currentTimeMillis(), username, successful));
+        }
+        return successful;
+    }
+
+    /**
+     * @return The number of successful login attempts since the application started.
+     */
+    public static long getSuccessfulAttemptCount() {
+        return successfulAttempts.sum();
+    }
+
+    /**
+     * @return The number of failed login attempts since the application started.
+     */
+    public static long getFailedAttemptCount() {
+        return failedAttempts.sum();
+    }
+
+    /**
+     * Waits until every attempt recorded so far has been written to the log.
+     *
+     * @param timeoutMillis The longest time to wait.
+     * @return True if the log is up to date.
+     */
+    public static boolean flush(long timeoutMillis) {
+        AsyncAuditWriter<LoginAttempt> auditWriter;
+        synchronized (LoginMonitor.class) {
+            auditWriter = writer;
+        }
+        if (auditWriter == null) {
+            return true;
+        }
+        try {
+            return auditWriter.flush(timeoutMillis);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Returns the failed login attempts for a user within the given time before now.
+     * Pending attempts are written first, so the result includes the most recent ones.
+     *
+     * @param username The username to look for.
+     * @param window   How far back to look.
+     * @return The failed attempts, oldest first, or an empty list if the log cannot be read.
+     */
+    public static List<LoginAttempt> failedAttempts(String username, Duration window) {
+        flush(SHUTDOWN_TIMEOUT_MILLIS);
+        SegmentedLoginLog segments;
+        synchronized (LoginMonitor.class) {
+            writer();
+            segments = log;
+        }
+        if (segments == null) {
+            return List.of();
+        }
+        long now = System.currentTimeMillis();
+        try {
+            return segments.failedAttempts(username, now - window.toMillis(), now + 1);
+        } catch (IOException e) {
+            System.err.println("Unable to read " + LOG_DIRECTORY + ": " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Writes any pending attempts and closes the log. A later attempt reopens it.
+     */
+    public static void shutdown() {
+        AsyncAuditWriter<LoginAttempt> auditWriter;
+        synchronized (LoginMonitor.class) {
+            auditWriter = writer;
+            writer = null;
+            log = null;
+        }
+        if (auditWriter != null) {
+            auditWriter.close(SHUTDOWN_TIMEOUT_MILLIS);
+        }
+    }
+
+    /**
+     * Opens the log on first use and registers the shutdown hook that flushes it.
+     *
+     * @return The audit writer, or null if the log file cannot be opened.
+     */
+    private static synchronized AsyncAuditWriter<LoginAttempt> writer() {
+        if (writer == null) {
+            try {
+                log = new SegmentedLoginLog(new File(LOG_DIRECTORY), MAX_SEGMENT_BYTES);
+                writer = new AsyncAuditWriter<>("login-audit", log, BUFFER_CAPACITY, BATCH_SIZE,
+                        FLUSH_INTERVAL_MILLIS);
+                if (!shutdownHookAdded) {
+                    Runtime.getRuntime().addShutdownHook(new Thread(LoginMonitor::shutdown, "login-audit-shutdown"));
+                    shutdownHookAdded = true;
+                }
+            } catch (IOException e) {
+                System.err.println("Unable to open " + LOG_DIRECTORY + ": " + e.getMessage());
+            }
+        }
+        return writer;
     }
 }
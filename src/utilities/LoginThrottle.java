@@ -0,0 +1,140 @@
+package utilities;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LoginThrottle class limits how often credentials are checked against the database.
+ * Attempts are counted per username and across all usernames in sliding one-minute windows. An attempt that would
+ * exceed either limit is rejected before the database is queried, so a misbehaving script cannot hammer the
+ * users table. Attempts rejected for their username still count towards its window, so retrying does not help.
+ *
+ * The global limit is checked first, so attempts rejected by it do not create per-username counters. At most
+ * MAX_TRACKED_USERS usernames are counted separately; once that many are tracked, new usernames share one overflow
+ * counter with the per-username limit, so a flood of made-up names cannot grow the map or slow each attempt down.
+ * Usernames idle for a whole window are forgotten, at most once per bucket, when the map is full.
+ *
+ * The counters are lock-free SlidingWindowCounters. The number of allowed and rejected attempts is kept as metrics.
+ */
+public abstract class LoginThrottle {
+    public static final long WINDOW_MILLIS = 60_000;
+    public static final int MAX_ATTEMPTS_PER_USER = 10;
+    public static final int MAX_ATTEMPTS_TOTAL = 300;
+    private static final int BUCKETS = 12;
+    private static final int MAX_TRACKED_USERS = 10_000;
+
+    private static final ConcurrentHashMap<String, SlidingWindowCounter> userCounters = new ConcurrentHashMap<>();
+    private static final SlidingWindowCounter globalCounter = new SlidingWindowCounter(WINDOW_MILLIS, BUCKETS);
+    private static final SlidingWindowCounter overflowCounter = new SlidingWindowCounter(WINDOW_MILLIS, BUCKETS);
+    private static final AtomicLong nextEvictionMillis = new AtomicLong();
+    private static final LongAdder allowed = new LongAdder();
+    private static final LongAdder rejectedForUser = new LongAdder();
+    private static final LongAdder rejectedGlobally = new LongAdder();
+
+    /**
+     * Counts a login attempt and decides whether it may be checked against the database.
+     *
+     * @param username The username entered.
+     * @return True if the attempt is within both limits, false if it must be rejected.
+     */
+    public static boolean tryAcquire(String username) {
+        long now = System.currentTimeMillis();
+        // Checked without counting, so attempts rejected for their username do not use up everyone's allowance
+        if (globalCounter.sum(now) >= MAX_ATTEMPTS_TOTAL) {
+            rejectedGlobally.increment();
+            return false;
+        }
+        if (userCounter(username == null ? "" : username, now).incrementAndGet(now) > MAX_ATTEMPTS_PER_USER) {
+            rejectedForUser.increment();
+            return false;
+        }
+        if (globalCounter.incrementAndGet(now) > MAX_ATTEMPTS_TOTAL) {
+            rejectedGlobally.increment();
+            return false;
+        }
+        allowed.increment();
+        return true;
+    }
+
+    /**
+     * Finds the counter of a username, creating one while fewer than MAX_TRACKED_USERS are tracked.
+     *
+     * @return The username's counter, or the shared overflow counter if the map is full.
+     */
+    private static SlidingWindowCounter userCounter(String username, long now) {
+        SlidingWindowCounter counter = userCounters.get(username);
+        if (counter != null) {
+            return counter;
+        }
+        if (userCounters.size() >= MAX_TRACKED_USERS) {
+            evictIdleUsers(now);
+            if (userCounters.size() >= MAX_TRACKED_USERS) {
+                return overflowCounter;
+            }
+        }
+        return userCounters.computeIfAbsent(username, name -> new SlidingWindowCounter(WINDOW_MILLIS, BUCKETS));
+    }
+
+    /**
+     * @return The number of attempts allowed through to the database.
+     */
+    public static long getAllowedCount() {
+        return allowed.sum();
+    }
+
+    /**
+     * @return The number of attempts rejected because their username exceeded its limit.
+     */
+    public static long getRejectedForUserCount() {
+        return rejectedForUser.sum();
+    }
+
+    /**
+     * @return The number of attempts rejected because all usernames together exceeded the global limit.
+     */
+    public static long getRejectedGloballyCount() {
+        return rejectedGlobally.sum();
+    }
+
+    /**
+     * @return The number of attempts counted in the current global window.
+     */
+    public static long getCurrentGlobalAttempts() {
+        return globalCounter.sum(System.currentTimeMillis());
+    }
+
+    /**
+     * @return The number of usernames currently being tracked.
+     */
+    public static int getTrackedUserCount() {
+        return userCounters.size();
+    }
+
+    /**
+     * Returns every throttle metric by name, for exporting to monitoring.
+     *
+     * @return The metric values keyed by name.
+     */
+    public static Map<String, Long> metrics() {
+        return Map.of(
+                "login_throttle_allowed_total", getAllowedCount(),
+                "login_throttle_rejected_user_total", getRejectedForUserCount(),
+                "login_throttle_rejected_global_total", getRejectedGloballyCount(),
+                "login_throttle_window_attempts", getCurrentGlobalAttempts(),
+                "login_throttle_tracked_users", (long) getTrackedUserCount());
+    }
+
+    /**
+     * Forgets usernames with no attempts in the current window. The map is scanned at most once per bucket, as no
+     * counter can become idle sooner, so a full map does not cost a scan on every attempt.
+     */
+    private static void evictIdleUsers(long now) {
+        long next = nextEvictionMillis.get();
+        if (now < next || !nextEvictionMillis.compareAndSet(next, now + WINDOW_MILLIS / BUCKETS)) {
+            return;
+        }
+        userCounters.entrySet().removeIf(entry -> entry.getValue().sum(now) == 0);
+    }
+}
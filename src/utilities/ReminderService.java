@@ -0,0 +1,202 @@
+package utilities;
+
+import model.Appointment;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ReminderService class raises a reminder shortly before each upcoming appointment starts, for as long as the
+ * application runs. Upcoming appointments are held in a priority queue ordered by the time their reminder is due,
+ * and a single timer is armed for the head of the queue, so nothing is polled between reminders.
+ *
+ * The queue is refreshed from an appointment source every few minutes and whenever {@link #requestRefresh()} is
+ * called after an edit. A refresh only adds, moves or cancels the reminders that changed, and a reminder that has
+ * already fired is not raised again unless its appointment is moved.
+ *
+ * Listeners are called on the reminder thread; JavaFX callers should hand the work to Platform.runLater.
+ */
+public abstract class ReminderService {
+    public static final Duration DEFAULT_LEAD = Duration.ofMinutes(15);
+    private static final long REFRESH_MINUTES = 5;
+
+    private static Runner runner;
+
+    /**
+     * Receives reminders for appointments that are about to start.
+     */
+    public interface ReminderListener {
+        /**
+         * @param appointment The appointment whose reminder is due.
+         */
+        void appointmentStartingSoon(Appointment appointment);
+    }
+
+    /**
+     * Starts the service, replacing any running instance. The first refresh runs straight away,
+     * so appointments already within the lead time are reminded immediately.
+     *
+     * @param source   Loads the upcoming appointments, e.g. those starting today or tomorrow.
+     * @param lead     How long before an appointment starts its reminder is raised.
+     * @param listener Receives the reminders.
+     */
+    public static synchronized void start(Callable<List<Appointment>> source, Duration lead,
+                                          ReminderListener listener) {
+        shutdown();
+        runner = new Runner(source, lead.toMillis(), listener);
+    }
+
+    /**
+     * Reloads the upcoming appointments soon, e.g. after an appointment was added, moved or removed.
+     */
+    public static synchronized void requestRefresh() {
+        if (runner != null) {
+            runner.executor.execute(runner::refresh);
+        }
+    }
+
+    /**
+     * @return The number of reminders waiting to fire, including reminders cancelled since the last one fired.
+     */
+    public static synchronized int getQueueDepth() {
+        return runner == null ? 0 : runner.queueDepth;
+    }
+
+    /**
+     * Stops the service. Reminders that have not fired yet are discarded.
+     */
+    public static synchronized void shutdown() {
+        if (runner != null) {
+            runner.executor.shutdownNow();
+            runner = null;
+        }
+    }
+
+    /**
+     * A reminder for one appointment. Cancelled reminders stay in the queue and are skipped when they reach its head.
+     */
+    private static final class Reminder implements Comparable<Reminder> {
+        private final Appointment appointment;
+        private final long startMillis;
+        private final long fireAtMillis;
+        private boolean cancelled;
+
+        private Reminder(Appointment appointment, long startMillis, long fireAtMillis) {
+            this.appointment = appointment;
+            this.startMillis = startMillis;
+            this.fireAtMillis = fireAtMillis;
+        }
+
+        @Override
+        public int compareTo(Reminder other) {
+            return Long.compare(this.fireAtMillis, other.fireAtMillis);
+        }
+    }
+
+    /**
+     * One running instance of the service. Its queue and map are only touched on its own thread.
+     */
+    private static final class Runner {
+        private final ScheduledExecutorService executor;
+        private final Callable<List<Appointment>> source;
+        private final long leadMillis;
+        private final ReminderListener listener;
+        private final PriorityQueue<Reminder> queue = new PriorityQueue<>();
+        private final Map<Integer, Reminder> reminders = new HashMap<>();
+        private ScheduledFuture<?> wake;
+        private volatile int queueDepth;
+
+        private Runner(Callable<List<Appointment>> source, long leadMillis, ReminderListener listener) {
+            this.source = source;
+            this.leadMillis = leadMillis;
+            this.listener = listener;
+            this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "appointment-reminders");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.executor.scheduleWithFixedDelay(this::refresh, 0, REFRESH_MINUTES, TimeUnit.MINUTES);
+        }
+
+        /**
+         * Loads the upcoming appointments and brings the queue in line with them.
+         */
+        private void refresh() {
+            List<Appointment> upcoming;
+            try {
+                upcoming = this.source.call();
+            } catch (Exception e) {
+                System.err.println("Unable to refresh appointment reminders: " + e.getMessage());
+                return;
+            }
+            long now = System.currentTimeMillis();
+            Set<Integer> current = new HashSet<>();
+            for (Appointment appointment : upcoming) {
+                long start = appointment.getStartEpochSecond() * 1000;
+                if (start <= now) {
+                    continue;
+                }
+                current.add(appointment.getAppointment_ID());
+                Reminder existing = this.reminders.get(appointment.getAppointment_ID());
+                if (existing != null && existing.startMillis == start) {
+                    continue;
+                }
+                if (existing != null) {
+                    existing.cancelled = true;
+                }
+                Reminder reminder = new Reminder(appointment, start, start - this.leadMillis);
+                this.reminders.put(appointment.getAppointment_ID(), reminder);
+                this.queue.add(reminder);
+            }
+            this.reminders.values().removeIf(reminder -> {
+                boolean stale = reminder.startMillis <= now
+                        || !current.contains(reminder.appointment.getAppointment_ID());
+                if (stale) {
+                    reminder.cancelled = true;
+                }
+                return stale;
+            });
+            fireDue();
+        }
+
+        /**
+         * Raises every reminder that is due and arms the timer for the next one.
+         */
+        private void fireDue() {
+            long now = System.currentTimeMillis();
+            while (!this.queue.isEmpty()) {
+                Reminder head = this.queue.peek();
+                if (!head.cancelled && head.fireAtMillis > now) {
+                    break;
+                }
+                this.queue.poll();
+                if (!head.cancelled && head.startMillis > now) {
+                    try {
+                        this.listener.appointmentStartingSoon(head.appointment);
+                    } catch (RuntimeException e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+            if (this.wake != null) {
+                this.wake.cancel(false);
+                this.wake = null;
+            }
+            Reminder next = this.queue.peek();
+            if (next != null) {
+                this.wake = this.executor.schedule(this::fireDue, next.fireAtMillis - now, TimeUnit.MILLISECONDS);
+            }
+            this.queueDepth = this.queue.size();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package utilities;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ReportBuffer class holds report text as an index of lines stored in fixed-size chunks.
+ * Report generators append to it like any other Appendable, while a viewer reads individual lines by index
+ * as they become complete, so a large report never has to exist as one String or be laid out all at once.
+ *
+ * A buffer is written by one thread and may be read by others. Once {@link #finish()} is called it is immutable
+ * and can be shared, which is how the ReportCache hands the same buffer to every viewer.
+ */
+public class ReportBuffer implements Appendable {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    private final List<String[]> chunks = new ArrayList<>();
+    private final StringBuilder partialLine = new StringBuilder();
+    private int lineCount;
+    private long charCount;
+    private boolean finished;
+    private Runnable listener;
+
+    /**
+     * Creates a finished buffer holding the given text.
+     *
+     * @param text The report text.
+     * @return A finished buffer.
+     */
+    public static ReportBuffer of(String text) {
+        ReportBuffer buffer = new ReportBuffer();
+        buffer.append(text);
+        buffer.finish();
+        return buffer;
+    }
+
+    /**
+     * Appends text, splitting it into lines on '\n'.
+     *
+     * @param text The text to append.
+     * @return This buffer.
+     */
+    @Override
+    public ReportBuffer append(CharSequence text) {
+        return append(text, 0, text == null ? 4 : text.length());
+    }
+
+    /**
+     * Appends part of a character sequence, splitting it into lines on '\n'.
+     *
+     * @param text  The text to append.
+     * @param start The index of the first character to append.
+     * @param end   The index after the last character to append.
+     * @return This buffer.
+     */
+    @Override
+    public ReportBuffer append(CharSequence text, int start, int end) {
+        if (text == null) {
+            text = "null";
+        }
+        Runnable notify;
+        synchronized (this) {
+            checkWritable();
+            int linesBefore = this.lineCount;
+            int lineStart = start;
+            for (int i = start; i < end; i++) {
+                if (text.charAt(i) == '\n') {
+                    this.partialLine.append(text, lineStart, i);
+                    addLine();
+                    lineStart = i + 1;
+                }
+            }
+            this.partialLine.append(text, lineStart, end);
+            this.charCount += end - start;
+            notify = this.lineCount != linesBefore ? this.listener : null;
+        }
+        if (notify != null) {
+            notify.run();
+        }
+        return this;
+    }
+
+    /**
+     * Appends a single character.
+     *
+     * @param c The character to append.
+     * @return This buffer.
+     */
+    @Override
+    public ReportBuffer append(char c) {
+        return append(String.valueOf(c));
+    }
+
+    /**
+     * Marks the end of the report. Any unterminated last line becomes a complete line,
+     * and further appends are rejected.
+     */
+    public void finish() {
+        Runnable notify;
+        synchronized (this) {
+            if (this.finished) {
+                return;
+            }
+            if (this.partialLine.length() > 0) {
+                addLine();
+            }
+            this.finished = true;
+            notify = this.listener;
+        }
+        if (notify != null) {
+            notify.run();
+        }
+    }
+
+    /**
+     * @return True once the report has been fully written.
+     */
+    public synchronized boolean isFinished() {
+        return this.finished;
+    }
+
+    /**
+     * @return The number of complete lines in the buffer.
+     */
+    public synchronized int lineCount() {
+        return this.lineCount;
+    }
+
+    /**
+     * @return The number of characters appended so far, including line breaks.
+     */
+    public synchronized long charCount() {
+        return this.charCount;
+    }
+
+    /**
+     * Returns a single complete line without its line break.
+     *
+     * @param index The line number, starting at 0.
+     * @return The line text.
+     * @throws IndexOutOfBoundsException if the line is not complete yet.
+     */
+    public synchronized String line(int index) {
+        if (index < 0 || index >= this.lineCount) {
+            throw new IndexOutOfBoundsException("Line " + index + " of " + this.lineCount);
+        }
+        return this.chunks.get(index >>> CHUNK_BITS)[index & (CHUNK_SIZE - 1)];
+    }
+
+    /**
+     * Registers a callback that runs on the writing thread whenever new lines become complete
+     * and when the buffer is finished. Only one listener is kept.
+     *
+     * @param listener The callback, or null to remove it.
+     */
+    public synchronized void setListener(Runnable listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Writes every complete line to the given output, each followed by a line break.
+     *
+     * @param out The destination.
+     * @throws IOException if the destination cannot be written.
+     */
+    public void writeTo(Appendable out) throws IOException {
+        int count = lineCount();
+        for (int i = 0; i < count; i++) {
+            out.append(line(i)).append('\n');
+        }
+    }
+
+    /**
+     * @return The complete lines joined into one String. Intended for small reports and file export.
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder((int) Math.min(Integer.MAX_VALUE - 8, charCount() + 1));
+        try {
+            writeTo(text);
+        } catch (IOException impossible) {
+            throw new IllegalStateException(impossible);
+        }
+        return text.toString();
+    }
+
+    private void addLine() {
+        int slot = this.lineCount & (CHUNK_SIZE - 1);
+        if (slot == 0) {
+            this.chunks.add(new String[CHUNK_SIZE]);
+        }
+        this.chunks.get(this.chunks.size() - 1)[slot] = this.partialLine.toString();
+        this.partialLine.setLength(0);
+        this.lineCount++;
+    }
+
+    private void checkWritable() {
+        if (this.finished) {
+            throw new IllegalStateException("The report buffer is already finished.");
+        }
+    }
+}
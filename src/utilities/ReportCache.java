@@ -0,0 +1,196 @@
+package utilities;
+
+import dbQueries.ReportQueries;
+
+import java.sql.SQLException;
+import java.time.ZonedDateTime;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The ReportCache class keeps the most recent result of each report so it can be shown without regenerating it.
+ * Entries are keyed by report name and parameters, and each entry remembers the data version it was built from.
+ * A cached report is only regenerated when the data version reported by the database, or the local edit counter
+ * bumped by this application's own writes, has moved on since the report was built.
+ * Reports are held as finished ReportBuffers, so a viewer can page through a cached report without copying it.
+ */
+public abstract class ReportCache {
+    private static final ConcurrentHashMap<String, CachedReport> reports = new ConcurrentHashMap<>();
+    private static final AtomicLong localEdits = new AtomicLong();
+    private static final CacheStats stats = new CacheStats();
+
+    /**
+     * Writes a report into an Appendable as it is generated.
+     */
+    public interface StreamingGenerator {
+        /**
+         * @param out The destination for the report text.
+         * @throws Exception if the report cannot be generated.
+         */
+        void write(Appendable out) throws Exception;
+    }
+
+    /**
+     * A single cached report together with the data version it was generated from.
+     */
+    public static class CachedReport {
+        private final ReportBuffer lines;
+        private final String dataVersion;
+        private final ZonedDateTime generatedAt;
+
+        CachedReport(ReportBuffer lines, String dataVersion, ZonedDateTime generatedAt) {
+            this.lines = lines;
+            this.dataVersion = dataVersion;
+            this.generatedAt = generatedAt;
+        }
+
+        /**
+         * @return The report text.
+         */
+        public String getText() {
+            return this.lines.toString();
+        }
+
+        /**
+         * @return The report as a finished, line-indexed buffer.
+         */
+        public ReportBuffer getLines() {
+            return this.lines;
+        }
+
+        /**
+         * @return The data version the report was generated from.
+         */
+        public String getDataVersion() {
+            return this.dataVersion;
+        }
+
+        /**
+         * @return The time the report was generated.
+         */
+        public ZonedDateTime getGeneratedAt() {
+            return this.generatedAt;
+        }
+    }
+
+    /**
+     * Returns the last generated result of a report without checking whether it is still current.
+     *
+     * @param name   The report name.
+     * @param params The report parameters, or an empty string if the report takes none.
+     * @return The cached report, or null if the report has not been generated yet.
+     */
+    public static CachedReport latest(String name, String params) {
+        return reports.get(key(name, params));
+    }
+
+    /**
+     * Returns the cached report if the data behind it is unchanged, otherwise regenerates and caches it.
+     *
+     * @param name      The report name.
+     * @param params    The report parameters, or an empty string if the report takes none.
+     * @param generator Produces the report text when the cache is stale.
+     * @return The current report text.
+     * @throws Exception if the data version cannot be read or the generator fails.
+     */
+    public static String getOrCompute(String name, String params, Callable<String> generator) throws Exception {
+        String dataVersion = currentDataVersion();
+        CachedReport cached = reports.get(key(name, params));
+        if (cached != null && cached.getDataVersion().equals(dataVersion)) {
+            stats.hit();
+            return cached.getText();
+        }
+        stats.miss();
+        return store(name, params, dataVersion, generator.call());
+    }
+
+    /**
+     * Returns the cached report if the data behind it is unchanged, otherwise streams a fresh report into the
+     * given buffer and caches that buffer once it is finished. The caller can show the target buffer before calling
+     * this method and switch to the returned buffer if it is a different, cached one.
+     *
+     * @param name      The report name.
+     * @param params    The report parameters, or an empty string if the report takes none.
+     * @param target    The buffer a fresh report is streamed into.
+     * @param generator Writes the report text when the cache is stale.
+     * @return The buffer holding the current report, either a cached one or the finished target.
+     * @throws Exception if the data version cannot be read or the generator fails.
+     */
+    public static ReportBuffer getOrStream(String name, String params, ReportBuffer target,
+                                           StreamingGenerator generator) throws Exception {
+        String dataVersion = currentDataVersion();
+        CachedReport cached = reports.get(key(name, params));
+        if (cached != null && cached.getDataVersion().equals(dataVersion)) {
+            stats.hit();
+            return cached.getLines();
+        }
+        stats.miss();
+        generator.write(target);
+        target.finish();
+        reports.put(key(name, params), new CachedReport(target, dataVersion, ZonedDateTime.now()));
+        return target;
+    }
+
+    /**
+     * Regenerates a report unconditionally and caches the result.
+     *
+     * @param name      The report name.
+     * @param params    The report parameters, or an empty string if the report takes none.
+     * @param generator Produces the report text.
+     * @return The freshly generated report text.
+     * @throws Exception if the data version cannot be read or the generator fails.
+     */
+    public static String refresh(String name, String params, Callable<String> generator) throws Exception {
+        String dataVersion = currentDataVersion();
+        return store(name, params, dataVersion, generator.call());
+    }
+
+    /**
+     * Records that this application changed report data, so every cached report is regenerated on next use
+     * even if the change does not show up in the database version stamp.
+     */
+    public static void dataChanged() {
+        localEdits.incrementAndGet();
+    }
+
+    /**
+     * @return The hits and misses of getOrCompute and getOrStream.
+     */
+    public static CacheStats getStats() {
+        return stats;
+    }
+
+    /**
+     * @return The number of cached reports.
+     */
+    public static int size() {
+        return reports.size();
+    }
+
+    /**
+     * Removes every cached report.
+     */
+    public static void clear() {
+        reports.clear();
+    }
+
+    /**
+     * Combines the database version stamp with the local edit counter.
+     *
+     * @return The current data version.
+     * @throws SQLException if the database version stamp cannot be read.
+     */
+    private static String currentDataVersion() throws SQLException {
+        return ReportQueries.fetchDataVersion() + "#" + localEdits.get();
+    }
+
+    private static String store(String name, String params, String dataVersion, String text) {
+        reports.put(key(name, params), new CachedReport(ReportBuffer.of(text), dataVersion, ZonedDateTime.now()));
+        return text;
+    }
+
+    private static String key(String name, String params) {
+        return name + "|" + params;
+    }
+}
@@ -0,0 +1,92 @@
+package utilities;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The ReportLineList class presents a ReportBuffer to a ListView as an observable list of lines.
+ * The ListView only creates cells for the visible rows, so only those lines are ever laid out.
+ *
+ * While a report is still being generated on a background thread, the list grows as lines are appended.
+ * Updates are coalesced into at most one pending JavaFX pulse, so a fast generator does not flood the FX thread.
+ */
+public class ReportLineList extends ObservableListBase<String> {
+    private final AtomicBoolean syncPending = new AtomicBoolean();
+    private ReportBuffer buffer = ReportBuffer.of("");
+    private int visibleLines;
+
+    /**
+     * Shows a different buffer, replacing the current contents. Must be called on the JavaFX thread.
+     *
+     * @param newBuffer The buffer to show.
+     */
+    public void show(ReportBuffer newBuffer) {
+        this.buffer.setListener(null);
+        int removed = this.visibleLines;
+        this.buffer = newBuffer;
+        this.visibleLines = 0;
+        if (removed > 0) {
+            beginChange();
+            nextRemove(0, Collections.nCopies(removed, ""));
+            endChange();
+        }
+        newBuffer.setListener(this::scheduleSync);
+        sync();
+    }
+
+    /**
+     * @return The buffer currently shown.
+     */
+    public ReportBuffer getBuffer() {
+        return this.buffer;
+    }
+
+    /**
+     * @param index The line number.
+     * @return The text of the line.
+     */
+    @Override
+    public String get(int index) {
+        if (index >= this.visibleLines) {
+            throw new IndexOutOfBoundsException("Line " + index + " of " + this.visibleLines);
+        }
+        return this.buffer.line(index);
+    }
+
+    /**
+     * @return The number of lines the list currently exposes.
+     */
+    @Override
+    public int size() {
+        return this.visibleLines;
+    }
+
+    /**
+     * Requests a sync on the JavaFX thread unless one is already pending.
+     */
+    private void scheduleSync() {
+        if (this.syncPending.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                this.syncPending.set(false);
+                sync();
+            });
+        }
+    }
+
+    /**
+     * Exposes the lines completed since the last sync and notifies the ListView.
+     */
+    private void sync() {
+        int available = this.buffer.lineCount();
+        if (available > this.visibleLines) {
+            int first = this.visibleLines;
+            this.visibleLines = available;
+            beginChange();
+            nextAdd(first, available);
+            endChange();
+        }
+    }
+}
@@ -1,11 +1,7 @@
 package utilities;
 
-import dbQueries.AppointmentQueries;
-import dbQueries.ContactQueries;
-import dbQueries.CustomerQueries;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
+import dbQueries.ConflictQueries;
+import dbQueries.ReportQueries;
 import model.Appointment;
 import model.Contact;
 import model.Customer;
@@ -14,8 +10,17 @@ import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.UncheckedIOException;
 import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.Month;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * The ReportManager class acts as a central hub for generating and writing detailed reports to a txt file.
@@ -28,6 +33,9 @@ import java.time.Month;
  * delivering timely and accurate reports for your clients or stakeholders.
  */
 public abstract class ReportManager {
+    private static final DateTimeFormatter CONFLICT_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
+            .withZone(TimeZones.EASTERN);
+
     /**
      * This method generates a report that provides detailed information about the number of customer appointments,
      * which are categorized by type and month. The output format of this report is a formatted string.
@@ -38,33 +46,51 @@ public abstract class ReportManager {
      * customer appointments for each type, grouped by month.
      */
     public static String countAppointmentsByTypeAndMonth() {
-        int typeCount = 1;
-        StringBuilder appointmentReport = new StringBuilder("");
-        ObservableList<Appointment> appointments = FXCollections.observableArrayList();
+        return countAppointmentsByTypeAndMonth(null, null);
+    }
+
+    /**
+     * Generates the appointments by type and month report for appointments starting within the given date range.
+     * A null bound leaves that side of the range open.
+     *
+     * @param from The first day to include, or null for no lower bound.
+     * @param to   The last day to include, or null for no upper bound.
+     * @return A formatted string, which includes the total number of
+     * customer appointments for each type, grouped by month.
+     */
+    public static String countAppointmentsByTypeAndMonth(LocalDate from, LocalDate to) {
+        List<Appointment> appointments = new ArrayList<>();
         try {
-            appointments = AppointmentQueries.getOrderedAppointments();
+            appointments = ReportQueries.fetchAppointments(from, to);
         } catch (SQLException e) {
             System.err.println("Error in retrieving the appointments.");
         }
+        return renderTypeAndMonthCounts(appointments);
+    }
+
+    /**
+     * Formats the appointments by type and month report from an already loaded list of appointments.
+     * Types are listed alphabetically within each month.
+     *
+     * @param appointments The appointments to count.
+     * @return A formatted string, which includes the total number of
+     * customer appointments for each type, grouped by month.
+     */
+    public static String renderTypeAndMonthCounts(List<Appointment> appointments) {
+        List<TreeMap<String, Integer>> typeCountsByMonth = new ArrayList<>();
+        for (int month = 1; month <= 12; month++) {
+            typeCountsByMonth.add(new TreeMap<>());
+        }
+        for (Appointment appointment : appointments) {
+            typeCountsByMonth.get(appointment.getStart().getMonthValue() - 1)
+                    .merge(appointment.getType(), 1, Integer::sum);
+        }
+        StringBuilder appointmentReport = new StringBuilder("");
         for (int month = 1; month <= 12; month++) {
             appointmentReport.append("|----").append(Month.of(month).name()).append("----|");
-            for (int i = 0; i < appointments.size(); i++) {
-                Appointment currentAppointment = appointments.get(i);
-                if (currentAppointment.getStart().getMonthValue() == month) {
-                    int nextAppointmentIndex = i + 1;
-                    if (nextAppointmentIndex >= appointments.size()) {
-                        nextAppointmentIndex = i;
-                    }
-                    Appointment nextAppointment = appointments.get(nextAppointmentIndex);
-                    if (currentAppointment.getType().equals(nextAppointment.getType()) &&
-                            nextAppointment.getStart().getMonthValue() == month) {
-                        typeCount++;
-                    } else {
-                        appointmentReport.append("\n").append(currentAppointment.getType()).append(" appointments: ")
-                                .append(typeCount);
-                        typeCount = 1;
-                    }
-                }
+            for (Map.Entry<String, Integer> typeCount : typeCountsByMonth.get(month - 1).entrySet()) {
+                appointmentReport.append("\n").append(typeCount.getKey()).append(" appointments: ")
+                        .append(typeCount.getValue());
             }
             appointmentReport.append("\n>\n");
         }
@@ -79,29 +105,92 @@ public abstract class ReportManager {
      * @throws SQLException if an error occurs while retrieving data from the database.
      */
     public static String contactSchedule() throws SQLException {
-        int appointmentIndex = 1;
-        StringBuilder scheduleString = new StringBuilder("");
-        ObservableList<Appointment> appointments;
-        ObservableList<Contact> contacts = FXCollections.observableArrayList();
+        return contactSchedule(null, null);
+    }
+
+    /**
+     * Retrieves the appointments starting within the given date range for each contact,
+     * and returns them in the contact schedule format. A null bound leaves that side of the range open.
+     *
+     * @param from The first day to include, or null for no lower bound.
+     * @param to   The last day to include, or null for no upper bound.
+     * @return A string representing the schedules for each contact.
+     * @throws SQLException if an error occurs while retrieving data from the database.
+     */
+    public static String contactSchedule(LocalDate from, LocalDate to) throws SQLException {
+        List<Contact> contacts = new ArrayList<>();
         try {
-            contacts = ContactQueries.getAllContacts();
+            contacts = ReportQueries.fetchContacts();
         } catch (SQLException exception) { /* do nothing */ }
+        return renderContactSchedule(contacts, ReportQueries.fetchAppointmentsByContact(from, to));
+    }
+
+    /**
+     * Writes the contact schedule for the given date range to an Appendable one appointment at a time,
+     * so a viewer can show the first contacts while the rest are still being written.
+     *
+     * @param from The first day to include, or null for no lower bound.
+     * @param to   The last day to include, or null for no upper bound.
+     * @param out  The destination for the report text.
+     * @throws SQLException if an error occurs while retrieving data from the database.
+     * @throws IOException  if the destination cannot be written.
+     */
+    public static void streamContactSchedule(LocalDate from, LocalDate to, Appendable out)
+            throws SQLException, IOException {
+        List<Contact> contacts = new ArrayList<>();
+        try {
+            contacts = ReportQueries.fetchContacts();
+        } catch (SQLException exception) { /* do nothing */ }
+        appendContactSchedule(contacts, ReportQueries.fetchAppointmentsByContact(from, to), out);
+    }
+
+    /**
+     * Formats the contact schedule report from already loaded contacts and appointments.
+     * Appointments are listed under their contact in the order they appear in the given list.
+     *
+     * @param contacts     The contacts to report on.
+     * @param appointments The appointments to assign to the contacts.
+     * @return A string representing the schedules for each contact.
+     */
+    public static String renderContactSchedule(List<Contact> contacts, List<Appointment> appointments) {
+        StringBuilder scheduleString = new StringBuilder("");
+        try {
+            appendContactSchedule(contacts, appointments, scheduleString);
+        } catch (IOException impossible) {
+            throw new UncheckedIOException(impossible);
+        }
+        return scheduleString.toString();
+    }
+
+    /**
+     * Writes the contact schedule report for already loaded contacts and appointments to an Appendable.
+     *
+     * @param contacts     The contacts to report on.
+     * @param appointments The appointments to assign to the contacts.
+     * @param out          The destination for the report text.
+     * @throws IOException if the destination cannot be written.
+     */
+    public static void appendContactSchedule(List<Contact> contacts, List<Appointment> appointments, Appendable out)
+            throws IOException {
+        Map<Integer, List<Appointment>> appointmentsByContact = new HashMap<>();
+        for (Appointment appointment : appointments) {
+            appointmentsByContact.computeIfAbsent(appointment.getContact_ID(), id -> new ArrayList<>()).add(appointment);
+        }
         for (Contact contact : contacts) {
-            appointmentIndex = 1;
-            appointments = AppointmentQueries.getAppointmentsByContactId(contact.getId());
-            scheduleString.append("Contact: ").append(contact.getName()).append("\n");
-            for (Appointment appointment : appointments) {
-                scheduleString.append("|Appointment ").append(appointmentIndex).append("|\nAppointment_ID: ")
-                        .append(appointment.getAppointment_ID()).append("\nTitle: ").append(appointment.getTitle())
-                        .append("\nType: ").append(appointment.getType()).append("\nDescription: ")
-                        .append(appointment.getDescription()).append("\nStart: ")
-                        .append(TimeManager.toESTTimeZone(appointment.getStart())).append("\nEnd: ")
-                        .append(TimeManager.toESTTimeZone(appointment.getEnd())).append("\nCustomer ID: ")
-                        .append(appointment.getCustomer_ID()).append("\n\n");
+            int appointmentIndex = 1;
+            out.append("Contact: ").append(contact.getName()).append("\n");
+            for (Appointment appointment : appointmentsByContact.getOrDefault(contact.getId(), List.of())) {
+                out.append("|Appointment ").append(String.valueOf(appointmentIndex)).append("|\nAppointment_ID: ")
+                        .append(String.valueOf(appointment.getAppointment_ID())).append("\nTitle: ")
+                        .append(appointment.getTitle()).append("\nType: ").append(appointment.getType())
+                        .append("\nDescription: ").append(appointment.getDescription()).append("\nStart: ")
+                        .append(String.valueOf(TimeManager.toESTTimeZone(appointment.getStart()))).append("\nEnd: ")
+                        .append(String.valueOf(TimeManager.toESTTimeZone(appointment.getEnd())))
+                        .append("\nCustomer ID: ").append(String.valueOf(appointment.getCustomer_ID()))
+                        .append("\n\n");
                 appointmentIndex += 1;
             }
         }
-        return scheduleString.toString();
     }
 
     /**
@@ -109,51 +198,178 @@ public abstract class ReportManager {
      * sorted by their division IDs.
      *
      * @return A string constructed with customer data
-     * The filtered lists are created using lambdas to set predicates.
      */
     public static String customersByDivision() {
+        List<Customer> customerList = new ArrayList<>();
+        try {
+            customerList = ReportQueries.fetchCustomers();
+        } catch (SQLException ignored) {
+        }
+        return renderCustomersByDivision(customerList);
+    }
+
+    /**
+     * Formats the customers by division report from an already loaded list of customers.
+     * US divisions are IDs 1 to 54, Canadian divisions 60 to 72 and UK divisions 101 to 104.
+     *
+     * @param customerList The customers to report on.
+     * @return A string constructed with customer data
+     */
+    public static String renderCustomersByDivision(List<Customer> customerList) {
         StringBuilder report = new StringBuilder("");
-        ObservableList<Customer> customerList = FXCollections.observableArrayList();
         try {
-            customerList = CustomerQueries.getAllCustomers();
+            appendCustomersByDivision(customerList, report);
+        } catch (IOException impossible) {
+            throw new UncheckedIOException(impossible);
+        }
+        return report.toString();
+    }
+
+    /**
+     * Writes the customers by division report to an Appendable as each customer is formatted.
+     *
+     * @param out The destination for the report text.
+     * @throws IOException if the destination cannot be written.
+     */
+    public static void streamCustomersByDivision(Appendable out) throws IOException {
+        List<Customer> customerList = new ArrayList<>();
+        try {
+            customerList = ReportQueries.fetchCustomers();
         } catch (SQLException ignored) {
         }
-        // FilteredList for US customers
-        FilteredList<Customer> customersUS = new FilteredList<>(customerList);
-        customersUS.setPredicate(c -> {
-            int divisionId = c.getDivision_ID();
-            return divisionId >= 1 && divisionId <= 54;
-        });
-        // FilteredList for Canadian customers
-        FilteredList<Customer> customersCA = new FilteredList<>(customerList);
-        customersCA.setPredicate(c -> {
-            int divisionId = c.getDivision_ID();
-            return divisionId >= 60 && divisionId <= 72;
-        });
-        // FilteredList for UK customers
-        FilteredList<Customer> customersUK = new FilteredList<>(customerList);
-        customersUK.setPredicate(c -> {
+        appendCustomersByDivision(customerList, out);
+    }
+
+    /**
+     * Writes the customers by division report for an already loaded list of customers to an Appendable.
+     *
+     * @param customerList The customers to report on.
+     * @param out          The destination for the report text.
+     * @throws IOException if the destination cannot be written.
+     */
+    public static void appendCustomersByDivision(List<Customer> customerList, Appendable out) throws IOException {
+        appendCustomersInDivisions(out, "|-----US Customers-----|\n", customerList, 1, 54);
+        appendCustomersInDivisions(out, "|-----CA Customers-----|\n", customerList, 60, 72);
+        appendCustomersInDivisions(out, "|-----UK Customers-----|\n", customerList, 101, 104);
+    }
+
+    /**
+     * Appends a heading followed by every customer whose division ID falls within the given inclusive range.
+     *
+     * @param report        The report being built.
+     * @param heading       The heading for this group of customers.
+     * @param customerList  The customers to filter.
+     * @param firstDivision The lowest division ID in the group.
+     * @param lastDivision  The highest division ID in the group.
+     * @throws IOException if the report cannot be written.
+     */
+    private static void appendCustomersInDivisions(Appendable report, String heading, List<Customer> customerList,
+                                                   int firstDivision, int lastDivision) throws IOException {
+        report.append(heading);
+        for (Customer c : customerList) {
             int divisionId = c.getDivision_ID();
-            return divisionId >= 101 && divisionId <= 104;
-        });
-        report.append("|-----US Customers-----|\n");
-        for (Customer c : customersUS) {
-            report.append("Name: ").append(c.getCustomer_Name()).append("\nAddress: ")
-                    .append(c.getAddress()).append("\nPhone: ").append(c.getPhone()).append("\n~~~~~~~~~~~~~~~~\n");
+            if (divisionId >= firstDivision && divisionId <= lastDivision) {
+                report.append("Name: ").append(c.getCustomer_Name()).append("\nAddress: ")
+                        .append(c.getAddress()).append("\nPhone: ").append(c.getPhone()).append("\n~~~~~~~~~~~~~~~~\n");
+            }
         }
-        report.append("|-----CA Customers-----|\n");
-        for (Customer c : customersCA) {
-            report.append("Name: ").append(c.getCustomer_Name()).append("\nAddress: ")
-                    .append(c.getAddress()).append("\nPhone: ").append(c.getPhone()).append("\n~~~~~~~~~~~~~~~~\n");
+    }
+
+    /**
+     * Loads the appointments starting within the given date range together with the lookup tables the cube needs,
+     * and builds an AppointmentCube from them. A null bound leaves that side of the range open.
+     *
+     * @param from The first day to include, or null for no lower bound.
+     * @param to   The last day to include, or null for no upper bound.
+     * @return A cube over the matching appointments.
+     * @throws SQLException if an error occurs while retrieving data from the database.
+     */
+    public static AppointmentCube buildCube(LocalDate from, LocalDate to) throws SQLException {
+        Map<Integer, String> contactNames = new HashMap<>();
+        for (Contact contact : ReportQueries.fetchContacts()) {
+            contactNames.put(contact.getId(), contact.getName());
         }
-        report.append("|-----UK Customers-----|\n");
-        for (Customer c : customersUK) {
-            report.append("Name: ").append(c.getCustomer_Name()).append("\nAddress: ")
-                    .append(c.getAddress()).append("\nPhone: ").append(c.getPhone()).append("\n~~~~~~~~~~~~~~~~\n");
+        return AppointmentCube.build(ReportQueries.fetchAppointments(from, to), contactNames,
+                ReportQueries.fetchCustomerDivisions(), ReportQueries.fetchDivisionNames(),
+                ReportQueries.fetchDivisionCountries(), ReportQueries.fetchUserNames());
+    }
+
+    /**
+     * Generates a pivot report over every appointment, e.g. appointments per country
+     * or booked minutes per contact per week.
+     *
+     * @param rows    The dimension listed down the side of the table.
+     * @param columns The dimension listed across the top of the table, or null for a single total column.
+     * @param measure The measure summed in each cell.
+     * @return The formatted pivot table.
+     * @throws SQLException if an error occurs while retrieving data from the database.
+     */
+    public static String pivot(AppointmentCube.Dimension rows, AppointmentCube.Dimension columns,
+                               AppointmentCube.Measure measure) throws SQLException {
+        return buildCube(null, null).pivot(rows, columns, measure).render();
+    }
+
+    /**
+     * Writes every double-booking of a customer or a contact among the appointments starting within the given date
+     * range to an Appendable, one conflict pair per line, followed by the totals. The appointments are read as
+     * primitive columns and checked with the ConflictDetector's sweep, so the report runs over millions of rows.
+     * Times are shown in Eastern time.
+     *
+     * @param from The first day to include, or null for no lower bound.
+     * @param to   The last day to include, or null for no upper bound.
+     * @param out  The destination for the report text.
+     * @return The number of conflicts found.
+     * @throws SQLException if an error occurs while retrieving data from the database.
+     * @throws IOException  if the destination cannot be written.
+     */
+    public static long streamConflicts(LocalDate from, LocalDate to, Appendable out)
+            throws SQLException, IOException {
+        return appendConflicts(ConflictQueries.fetchSchedule(from, to), out);
+    }
+
+    /**
+     * Generates the conflict report for every appointment.
+     *
+     * @return The formatted conflict report.
+     * @throws SQLException if an error occurs while retrieving data from the database.
+     */
+    public static String conflictReport() throws SQLException {
+        StringBuilder report = new StringBuilder();
+        try {
+            streamConflicts(null, null, report);
+        } catch (IOException impossible) {
+            throw new UncheckedIOException(impossible);
         }
         return report.toString();
     }
 
+    /**
+     * Writes the conflict report for an already loaded schedule to an Appendable.
+     *
+     * @param schedule The appointments to check.
+     * @param out      The destination for the report text.
+     * @return The number of conflicts found.
+     * @throws IOException if the destination cannot be written.
+     */
+    public static long appendConflicts(ConflictDetector.Schedule schedule, Appendable out) throws IOException {
+        out.append("Appointment conflicts (").append(String.valueOf(schedule.size()))
+                .append(" appointments checked)\n");
+        long[] counts = new long[ConflictDetector.Resource.values().length];
+        ConflictDetector.findConflicts(schedule, (resource, resourceId, first, second, overlapStart, overlapEnd) -> {
+            counts[resource.ordinal()]++;
+            out.append(resource == ConflictDetector.Resource.CUSTOMER ? "Customer " : "Contact ")
+                    .append(String.valueOf(resourceId)).append(": appointments ").append(String.valueOf(first))
+                    .append(" and ").append(String.valueOf(second)).append(" overlap from ")
+                    .append(CONFLICT_TIME_FORMAT.format(Instant.ofEpochSecond(overlapStart))).append(" to ")
+                    .append(CONFLICT_TIME_FORMAT.format(Instant.ofEpochSecond(overlapEnd))).append(" EST\n");
+        });
+        long customerConflicts = counts[ConflictDetector.Resource.CUSTOMER.ordinal()];
+        long contactConflicts = counts[ConflictDetector.Resource.CONTACT.ordinal()];
+        out.append("Customer conflicts: ").append(String.valueOf(customerConflicts))
+                .append("\nContact conflicts: ").append(String.valueOf(contactConflicts)).append("\n");
+        return customerConflicts + contactConflicts;
+    }
+
     /**
      * This method performs the task of writing or appending a report to a specified file. It takes two parameters:
      * the name of the file and the content of the report. If the file already exists,
@@ -198,4 +414,19 @@ public abstract class ReportManager {
             }
         }
     }
+
+    /**
+     * Appends a report held in a ReportBuffer to a file line by line, without joining it into one String first.
+     *
+     * @param reportName The name of the file the report is written or appended to.
+     * @param report     The report to write.
+     */
+    public static void writeReportToFile(String reportName, ReportBuffer report) {
+        try (PrintWriter printWriter = new PrintWriter(new BufferedWriter(new FileWriter(reportName, true)))) {
+            report.writeTo(printWriter);
+            printWriter.println();
+        } catch (IOException e) {
+            System.out.println("An error occurred while writing report to file: " + e.getMessage());
+        }
+    }
 }
\ No newline at end of file
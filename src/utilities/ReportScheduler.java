@@ -0,0 +1,218 @@
+package utilities;
+
+import helper.ConnectionPool;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The ReportScheduler class runs recurring report jobs on a background daemon thread.
+ * Each run stores its result in the ReportCache, so the Reports screen can show the last result immediately.
+ * A job can also append its result to a file, which is how the headless ReportRunner publishes scheduled reports.
+ * The duration and outcome of every run are kept per report name in a JobStats.
+ */
+public abstract class ReportScheduler {
+    public static final String CONTACT_SCHEDULE = "contact_schedule";
+    public static final String TYPE_AND_MONTH = "appointments_by_type_and_month";
+    public static final String CUSTOMERS_BY_DIVISION = "customer_location_report";
+
+    private static final ConcurrentHashMap<String, JobStats> jobStats = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService executor;
+
+    /**
+     * The runs of one report job.
+     */
+    public static final class JobStats {
+        private final LatencyHistogram durations = new LatencyHistogram();
+        private final LongAdder failures = new LongAdder();
+        private volatile long lastRunMillis;
+        private volatile long lastDurationNanos;
+
+        /**
+         * @return The durations of every run, successful or not.
+         */
+        public LatencyHistogram getDurations() {
+            return this.durations;
+        }
+
+        /**
+         * @return The number of runs that failed.
+         */
+        public long getFailures() {
+            return this.failures.sum();
+        }
+
+        /**
+         * @return When the last run finished, in epoch milliseconds, or 0 if the job has not run.
+         */
+        public long getLastRunMillis() {
+            return this.lastRunMillis;
+        }
+
+        /**
+         * @return How long the last run took, in nanoseconds.
+         */
+        public long getLastDurationNanos() {
+            return this.lastDurationNanos;
+        }
+    }
+
+    /**
+     * Schedules the standard jobs: the contact schedule every morning and the appointment type counts on the first
+     * day of every month. Both reports are also generated once on the scheduler thread straight away,
+     * so the cache is warm without delaying the caller.
+     *
+     * @param runAt     The time of day the jobs run.
+     * @param outputDir The directory scheduled reports are appended to, or null to only cache them.
+     */
+    public static synchronized void startDefaultJobs(LocalTime runAt, String outputDir) {
+        Callable<String> contactSchedule = ReportManager::contactSchedule;
+        Callable<String> typeAndMonth = ReportManager::countAppointmentsByTypeAndMonth;
+        executor().execute(() -> runNow(CONTACT_SCHEDULE, contactSchedule, outputDir));
+        executor().execute(() -> runNow(TYPE_AND_MONTH, typeAndMonth, outputDir));
+        scheduleDaily(CONTACT_SCHEDULE, runAt, contactSchedule, outputDir);
+        scheduleMonthly(TYPE_AND_MONTH, 1, runAt, typeAndMonth, outputDir);
+    }
+
+    /**
+     * Runs a report job every day at the given time.
+     *
+     * @param name      The report name used as the cache key and output file name.
+     * @param runAt     The time of day the job runs.
+     * @param generator Produces the report text.
+     * @param outputDir The directory the report is appended to, or null to only cache it.
+     */
+    public static synchronized void scheduleDaily(String name, LocalTime runAt, Callable<String> generator,
+                                                  String outputDir) {
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime next = now.with(runAt);
+        if (!next.isAfter(now)) {
+            next = next.plusDays(1);
+        }
+        executor().schedule(new Runnable() {
+            @Override
+            public void run() {
+                runNow(name, generator, outputDir);
+                reschedule(this, ZonedDateTime.now().plusDays(1).with(runAt));
+            }
+        }, delayUntil(next), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs a report job every month on the given day at the given time.
+     * Days past the end of a short month run on that month's last day.
+     *
+     * @param name       The report name used as the cache key and output file name.
+     * @param dayOfMonth The day of the month the job runs.
+     * @param runAt      The time of day the job runs.
+     * @param generator  Produces the report text.
+     * @param outputDir  The directory the report is appended to, or null to only cache it.
+     */
+    public static synchronized void scheduleMonthly(String name, int dayOfMonth, LocalTime runAt,
+                                                    Callable<String> generator, String outputDir) {
+        executor().schedule(new Runnable() {
+            @Override
+            public void run() {
+                runNow(name, generator, outputDir);
+                reschedule(this, nextMonthlyRun(dayOfMonth, runAt));
+            }
+        }, delayUntil(nextMonthlyRun(dayOfMonth, runAt)), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Generates a report, caches it and optionally appends it to its output file.
+     * The report is generated on a connection leased from the ConnectionPool for the run.
+     * Failures are logged and do not cancel future runs.
+     *
+     * @param name      The report name used as the cache key and output file name.
+     * @param generator Produces the report text.
+     * @param outputDir The directory the report is appended to, or null to only cache it.
+     */
+    public static void runNow(String name, Callable<String> generator, String outputDir) {
+        JobStats stats = jobStats.computeIfAbsent(name, key -> new JobStats());
+        long started = System.nanoTime();
+        try {
+            String report;
+            // The job leases its own connection, so it never shares JDBC's connection with the JavaFX thread
+            ConnectionPool.Lease lease = ConnectionPool.lease();
+            try {
+                report = ReportCache.refresh(name, "", generator);
+            } finally {
+                lease.close();
+            }
+            if (outputDir != null) {
+                ReportManager.writeReportToFile(outputDir + "/" + name + ".txt", report);
+            }
+        } catch (Exception e) {
+            stats.failures.increment();
+            System.err.println("Scheduled report " + name + " failed: " + e.getMessage());
+        } finally {
+            stats.lastDurationNanos = System.nanoTime() - started;
+            stats.lastRunMillis = System.currentTimeMillis();
+            stats.durations.record(stats.lastDurationNanos);
+        }
+    }
+
+    /**
+     * @return The statistics of every job that has run, by report name.
+     */
+    public static Map<String, JobStats> getJobStats() {
+        return new TreeMap<>(jobStats);
+    }
+
+    /**
+     * Stops the scheduler. Jobs that are already running are allowed to finish.
+     */
+    public static synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    /**
+     * Schedules the next run of a recurring job, unless the scheduler has been shut down in the meantime.
+     */
+    private static synchronized void reschedule(Runnable job, ZonedDateTime next) {
+        if (executor != null) {
+            executor.schedule(job, delayUntil(next), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static synchronized ScheduledExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "report-scheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    private static ZonedDateTime nextMonthlyRun(int dayOfMonth, LocalTime runAt) {
+        ZonedDateTime now = ZonedDateTime.now();
+        for (int monthOffset = 0; ; monthOffset++) {
+            LocalDate month = now.toLocalDate().withDayOfMonth(1).plusMonths(monthOffset);
+            LocalDate day = month.withDayOfMonth(Math.min(dayOfMonth, month.lengthOfMonth()));
+            ZonedDateTime candidate = ZonedDateTime.of(day, runAt, now.getZone());
+            if (candidate.isAfter(now)) {
+                return candidate;
+            }
+        }
+    }
+
+    private static long delayUntil(ZonedDateTime time) {
+        return Math.max(0, Duration.between(ZonedDateTime.now(), time).toMillis());
+    }
+}
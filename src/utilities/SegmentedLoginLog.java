@@ -0,0 +1,304 @@
+package utilities;
+
+import model.LoginAttempt;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The SegmentedLoginLog class stores login attempts as a series of log segments in a directory.
+ * Each segment is a text file of LoginAttempt lines named login_activity-yyyyMMdd-nnnn.log. A segment is sealed when
+ * it reaches its size limit or when the first attempt of a new day arrives; sealing compresses it to .log.gz.
+ *
+ * Next to every segment is a binary .idx sidecar with one fixed-size entry per attempt: the timestamp, a 64-bit hash
+ * of the username, the outcome and the byte offset of the line in the uncompressed segment. Entries are in time order,
+ * so {@link #failedAttempts(String, long, long)} skips segments outside the window by reading their first and last
+ * entries, and binary searches the rest, without opening any log segment. Indexes whose day in the file name lies
+ * outside the window are not opened at all, and the matching entries are read in blocks of BLOCK_ENTRIES.
+ *
+ * Writes happen on the AsyncAuditWriter thread; queries may run on any thread.
+ */
+public class SegmentedLoginLog implements AsyncAuditWriter.BatchSink<LoginAttempt> {
+    public static final String PREFIX = "login_activity-";
+    private static final int ENTRY_SIZE = 8 + 8 + 1 + 8;
+    private static final int BLOCK_ENTRIES = 4096;
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final File directory;
+    private final long maxSegmentBytes;
+    private OutputStream segmentStream;
+    private FileOutputStream segmentFile;
+    private DataOutputStream indexStream;
+    private FileOutputStream indexFile;
+    private File activeSegment;
+    private LocalDate activeDay;
+    private long segmentBytes;
+
+    /**
+     * Opens a log directory, sealing any segment left unsealed by a previous run.
+     *
+     * @param directory       The directory holding the segments.
+     * @param maxSegmentBytes The size at which the active segment is sealed.
+     * @throws IOException if the directory cannot be created or an old segment cannot be sealed.
+     */
+    public SegmentedLoginLog(File directory, long maxSegmentBytes) throws IOException {
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create " + directory);
+        }
+        File[] unsealed = directory.listFiles((dir, name) -> name.startsWith(PREFIX) && name.endsWith(".log"));
+        if (unsealed != null) {
+            for (File segment : unsealed) {
+                seal(segment);
+            }
+        }
+    }
+
+    /**
+     * Appends a batch to the active segment and its index, rotating first if needed, and forces both to disk.
+     *
+     * @param batch The attempts, oldest first.
+     * @throws IOException if the segment or index cannot be written.
+     */
+    @Override
+    public void write(List<LoginAttempt> batch) throws IOException {
+        for (LoginAttempt attempt : batch) {
+            LocalDate day = Instant.ofEpochMilli(attempt.getTimestamp()).atZone(ZoneId.systemDefault()).toLocalDate();
+            if (this.activeSegment == null || !day.equals(this.activeDay) || this.segmentBytes >= this.maxSegmentBytes) {
+                rotate(day);
+            }
+            byte[] line = (attempt.toLogLine() + "\n").getBytes(StandardCharsets.UTF_8);
+            this.segmentStream.write(line);
+            this.indexStream.writeLong(attempt.getTimestamp());
+            this.indexStream.writeLong(hash(attempt.getUsername()));
+            this.indexStream.writeByte(attempt.isSuccessful() ? 1 : 0);
+            this.indexStream.writeLong(this.segmentBytes);
+            this.segmentBytes += line.length;
+        }
+        if (this.activeSegment != null) {
+            this.segmentStream.flush();
+            this.indexStream.flush();
+            this.segmentFile.getChannel().force(false);
+            this.indexFile.getChannel().force(false);
+        }
+    }
+
+    /**
+     * Seals the active segment.
+     *
+     * @throws IOException if the segment cannot be compressed.
+     */
+    @Override
+    public void close() throws IOException {
+        closeActiveSegment();
+    }
+
+    /**
+     * Finds the failed login attempts for a user within a time window using only the segment indexes.
+     *
+     * @param username   The username to look for, matched exactly.
+     * @param fromMillis The start of the window in milliseconds since the epoch, inclusive.
+     * @param toMillis   The end of the window in milliseconds since the epoch, exclusive.
+     * @return The matching attempts, oldest first.
+     * @throws IOException if an index cannot be read.
+     */
+    public List<LoginAttempt> failedAttempts(String username, long fromMillis, long toMillis) throws IOException {
+        return find(username, fromMillis, toMillis, false);
+    }
+
+    /**
+     * Finds the login attempts with the given outcome for a user within a time window using only the segment indexes.
+     *
+     * @param username   The username to look for, matched exactly.
+     * @param fromMillis The start of the window in milliseconds since the epoch, inclusive.
+     * @param toMillis   The end of the window in milliseconds since the epoch, exclusive.
+     * @param successful The outcome to look for.
+     * @return The matching attempts, oldest first.
+     * @throws IOException if an index cannot be read.
+     */
+    public List<LoginAttempt> find(String username, long fromMillis, long toMillis, boolean successful)
+            throws IOException {
+        long userHash = hash(username);
+        List<LoginAttempt> matches = new ArrayList<>();
+        if (fromMillis >= toMillis) {
+            return matches;
+        }
+        // Segments are named after the day of their attempts, so only the days the window touches are opened
+        LocalDate firstDay = Instant.ofEpochMilli(fromMillis).atZone(ZoneId.systemDefault()).toLocalDate();
+        LocalDate lastDay = Instant.ofEpochMilli(toMillis - 1).atZone(ZoneId.systemDefault()).toLocalDate();
+        File[] indexes = this.directory.listFiles((dir, name) -> name.startsWith(PREFIX) && name.endsWith(".idx")
+                && mayHold(name, firstDay, lastDay));
+        if (indexes == null) {
+            return matches;
+        }
+        Arrays.sort(indexes);
+        ByteBuffer probe = ByteBuffer.allocate(8);
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_ENTRIES * ENTRY_SIZE);
+        for (File index : indexes) {
+            try (FileChannel file = FileChannel.open(index.toPath(), StandardOpenOption.READ)) {
+                long entries = file.size() / ENTRY_SIZE;
+                if (entries == 0 || timestampAt(file, probe, 0) >= toMillis
+                        || timestampAt(file, probe, entries - 1) < fromMillis) {
+                    continue;
+                }
+                long low = 0;
+                long high = entries;
+                while (low < high) {
+                    long mid = (low + high) >>> 1;
+                    if (timestampAt(file, probe, mid) < fromMillis) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+                long position = low * ENTRY_SIZE;
+                long end = entries * ENTRY_SIZE;
+                scan:
+                while (position < end) {
+                    block.clear();
+                    block.limit((int) Math.min(block.capacity(), end - position));
+                    readFully(file, block, position);
+                    position += block.limit();
+                    block.flip();
+                    while (block.hasRemaining()) {
+                        long timestamp = block.getLong();
+                        if (timestamp >= toMillis) {
+                            break scan;
+                        }
+                        long entryHash = block.getLong();
+                        boolean entrySuccessful = block.get() == 1;
+                        block.getLong();
+                        if (entryHash == userHash && entrySuccessful == successful) {
+                            matches.add(new LoginAttempt(timestamp, username, successful));
+                        }
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @return Whether an index file's name dates it within the given days, or it cannot be dated from its name.
+     */
+    private static boolean mayHold(String name, LocalDate firstDay, LocalDate lastDay) {
+        if (name.length() < PREFIX.length() + 8) {
+            return true;
+        }
+        try {
+            LocalDate day = LocalDate.parse(name.substring(PREFIX.length(), PREFIX.length() + 8), DAY_FORMAT);
+            return !day.isBefore(firstDay) && !day.isAfter(lastDay);
+        } catch (DateTimeParseException dtpe) {
+            return true;
+        }
+    }
+
+    /**
+     * Seals the active segment and starts a new one for the given day.
+     *
+     * @param day The day the new segment belongs to.
+     * @throws IOException if the files cannot be closed, compressed or created.
+     */
+    private void rotate(LocalDate day) throws IOException {
+        closeActiveSegment();
+        String dayPrefix = PREFIX + DAY_FORMAT.format(day) + "-";
+        int sequence = 0;
+        String[] existing = this.directory.list((dir, name) -> name.startsWith(dayPrefix) && name.endsWith(".idx"));
+        if (existing != null) {
+            for (String name : existing) {
+                try {
+                    sequence = Math.max(sequence, Integer.parseInt(
+                            name.substring(dayPrefix.length(), name.length() - ".idx".length())));
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+        String baseName = dayPrefix + String.format("%04d", sequence + 1);
+        this.activeSegment = new File(this.directory, baseName + ".log");
+        this.activeDay = day;
+        this.segmentBytes = 0;
+        this.segmentFile = new FileOutputStream(this.activeSegment, true);
+        this.segmentStream = new BufferedOutputStream(this.segmentFile);
+        this.indexFile = new FileOutputStream(new File(this.directory, baseName + ".idx"), true);
+        this.indexStream = new DataOutputStream(new BufferedOutputStream(this.indexFile));
+    }
+
+    private void closeActiveSegment() throws IOException {
+        if (this.activeSegment == null) {
+            return;
+        }
+        this.segmentStream.close();
+        this.indexStream.close();
+        File sealed = this.activeSegment;
+        this.activeSegment = null;
+        seal(sealed);
+    }
+
+    /**
+     * Compresses a closed segment to .log.gz and removes the uncompressed file. The index is left as it is.
+     *
+     * @param segment The uncompressed segment.
+     * @throws IOException if the segment cannot be compressed.
+     */
+    private static void seal(File segment) throws IOException {
+        File compressed = new File(segment.getPath() + ".gz");
+        try (InputStream in = new FileInputStream(segment);
+             OutputStream out = new GZIPOutputStream(new FileOutputStream(compressed))) {
+            in.transferTo(out);
+        }
+        if (!segment.delete()) {
+            System.err.println("Unable to remove sealed segment " + segment);
+        }
+    }
+
+    private static long timestampAt(FileChannel file, ByteBuffer probe, long entry) throws IOException {
+        probe.clear();
+        readFully(file, probe, entry * ENTRY_SIZE);
+        return probe.getLong(0);
+    }
+
+    /**
+     * Fills a buffer up to its limit from a position in a file.
+     */
+    private static void readFully(FileChannel file, ByteBuffer buffer, long position) throws IOException {
+        int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            if (file.read(buffer, position + buffer.position() - start) < 0) {
+                throw new EOFException("Index ends inside an entry");
+            }
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a hash of a username, wide enough that two different usernames practically never collide.
+     */
+    private static long hash(String username) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < username.length(); i++) {
+            hash ^= username.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
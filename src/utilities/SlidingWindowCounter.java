@@ -0,0 +1,69 @@
+package utilities;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The SlidingWindowCounter class counts events over a sliding time window without locks.
+ * The window is divided into fixed-size time buckets kept in a ring. Each slot packs the number of the bucket it
+ * belongs to and its count into one long, so a slot left over from an earlier lap of the ring is reset and
+ * incremented with a single compare-and-set.
+ *
+ * The count is exact at bucket granularity: an event stays in the count until its whole bucket leaves the window.
+ */
+public class SlidingWindowCounter {
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray slots;
+    private final long bucketMillis;
+
+    /**
+     * Creates a counter.
+     *
+     * @param windowMillis The length of the window.
+     * @param buckets      The number of buckets the window is divided into.
+     */
+    public SlidingWindowCounter(long windowMillis, int buckets) {
+        this.slots = new AtomicLongArray(buckets);
+        this.bucketMillis = Math.max(1, windowMillis / buckets);
+    }
+
+    /**
+     * Counts one event and returns the number of events in the window including it.
+     *
+     * @param nowMillis The current time in milliseconds.
+     * @return The number of events in the window.
+     */
+    public long incrementAndGet(long nowMillis) {
+        long bucket = nowMillis / this.bucketMillis;
+        int slot = (int) (bucket % this.slots.length());
+        long current;
+        long updated;
+        do {
+            current = this.slots.get(slot);
+            long count = (current >>> COUNT_BITS) == bucket ? current & COUNT_MASK : 0;
+            updated = (bucket << COUNT_BITS) | Math.min(count + 1, COUNT_MASK);
+        } while (!this.slots.compareAndSet(slot, current, updated));
+        return sum(nowMillis);
+    }
+
+    /**
+     * Returns the number of events in the window ending now.
+     *
+     * @param nowMillis The current time in milliseconds.
+     * @return The number of events in the window.
+     */
+    public long sum(long nowMillis) {
+        long bucket = nowMillis / this.bucketMillis;
+        long oldest = bucket - this.slots.length();
+        long total = 0;
+        for (int i = 0; i < this.slots.length(); i++) {
+            long value = this.slots.get(i);
+            long slotBucket = value >>> COUNT_BITS;
+            if (slotBucket > oldest && slotBucket <= bucket) {
+                total += value & COUNT_MASK;
+            }
+        }
+        return total;
+    }
+}
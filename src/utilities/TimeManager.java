@@ -12,11 +12,9 @@ import java.time.format.DateTimeFormatter;
  * you can manipulate time data in a simple and efficient manner.
  */
 public abstract class TimeManager {
-    // Define the date and time formats to be used for different purposes
-    private static DateTimeFormatter SQL_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-    private static DateTimeFormatter REPORT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm z");
-    private static DateTimeFormatter LABEL_FORMAT = DateTimeFormatter.ofPattern(("HH:mm"));
-    private static DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    // The date and time formats to be used for different purposes are shared through TimeZones
+    private static final DateTimeFormatter LABEL_FORMAT = TimeZones.LABEL_FORMAT;
+    private static final DateTimeFormatter DAY_FORMAT = TimeZones.DAY_FORMAT;
 
     /**
      * This method takes in two arguments, a LocalDate object representing a date and a LocalTime object
@@ -32,8 +30,8 @@ public abstract class TimeManager {
         // If both date and time are valid
         if (date != null && time != null) {
             LocalDateTime combinedDateTime = LocalDateTime.of(date, time);
-            ZonedDateTime utcDateTime = ZonedDateTime.of(combinedDateTime, ZoneId.of("America/New_York"));
-            return ZonedDateTime.of(utcDateTime.toLocalDateTime(), ZoneId.of("UTC"));
+            ZonedDateTime utcDateTime = ZonedDateTime.of(combinedDateTime, TimeZones.EASTERN);
+            return ZonedDateTime.of(utcDateTime.toLocalDateTime(), TimeZones.UTC);
         }
         // If either date or time is null, return the current time
         return ZonedDateTime.now();
@@ -65,7 +63,7 @@ public abstract class TimeManager {
      * ZonedDateTime object, but with the TimeZone component matching the System default TimeZone setting of the system.
      */
     public static ZonedDateTime toSystemTimeZone(ZonedDateTime time) {
-        return ZonedDateTime.of(time.toLocalDateTime(), ZoneId.systemDefault());
+        return ZonedDateTime.of(time.toLocalDateTime(), TimeZones.system());
     }
 
     /**
@@ -74,7 +72,7 @@ public abstract class TimeManager {
      * @return A ZonedDateTime object with TimeZone matching the System default TimeZone.
      */
     public static ZonedDateTime toSystemTimeZone(Timestamp time) {
-        return ZonedDateTime.of(time.toLocalDateTime(), ZoneId.systemDefault());
+        return ZonedDateTime.of(time.toLocalDateTime(), TimeZones.system());
     }
 
     /**
@@ -83,7 +81,7 @@ public abstract class TimeManager {
      * @return A new ZonedDateTime object with TimeZone set to EST.
      */
     public static ZonedDateTime toESTTimeZone(ZonedDateTime time) {
-        return ZonedDateTime.of(time.toLocalDateTime(), ZoneId.of("America/New_York"));
+        return ZonedDateTime.of(time.toLocalDateTime(), TimeZones.EASTERN);
     }
 
     /**
@@ -92,12 +90,7 @@ public abstract class TimeManager {
      * @return A new LocalTime object in EST timezone.
      */
     public static LocalTime toESTTimeZone(LocalTime time) {
-        ZoneId systemTimeZone = ZoneId.systemDefault();
-        ZoneId estTimeZone = ZoneId.of("America/New_York");
-        LocalDateTime today = LocalDateTime.of(LocalDate.now(), time);
-        ZonedDateTime systemDateTime = ZonedDateTime.of(today, systemTimeZone);
-        ZonedDateTime estDateTime = systemDateTime.withZoneSameInstant(estTimeZone);
-        return estDateTime.toLocalTime();
+        return LocalTime.ofSecondOfDay(secondOfDay(todayAt(time), TimeZones.EASTERN));
     }
 
     /**
@@ -106,13 +99,19 @@ public abstract class TimeManager {
      * @return A String containing the time converted to EST in the format "(hh:mm:ss a) EST".
      */
     public static String convertToESTAndFormatLabel(LocalTime time) {
-        ZoneId systemTimeZone = ZoneId.systemDefault();
-        ZoneId estTimeZone = ZoneId.of("America/New_York");
-        LocalDateTime today = LocalDateTime.of(LocalDate.now(), time);
-        ZonedDateTime systemZoneDateTime = ZonedDateTime.of(today, systemTimeZone);
-        ZonedDateTime estZoneDateTime = systemZoneDateTime.withZoneSameInstant(estTimeZone);
-        DateTimeFormatter labelFormatter = DateTimeFormatter.ofPattern("hh:mm:ss a");
-        return " (" + labelFormatter.format(estZoneDateTime) + ") EST";
+        return " (" + TimeZones.CLOCK_FORMAT.format(toESTTimeZone(time)) + ") EST";
+    }
+
+    /**
+     * Returns the instant at which a system-local time of day falls today.
+     * @param time The time of day in the system default time zone.
+     * @return The instant in UTC epoch seconds.
+     */
+    private static long todayAt(LocalTime time) {
+        long now = Math.floorDiv(System.currentTimeMillis(), 1000);
+        ZoneId systemZone = TimeZones.system();
+        long today = epochDay(now, TimeZones.offsetSeconds(now, systemZone));
+        return TimeZones.toEpochSecond(today, time.toSecondOfDay(), systemZone);
     }
 
     /**
@@ -120,7 +119,8 @@ public abstract class TimeManager {
      * @return A Timestamp object representing the current UTC time.
      */
     public static Timestamp getTimestampForCurrentUTCTime() {
-        return Timestamp.valueOf(SQL_FORMAT.format(ZonedDateTime.of(LocalDateTime.now(), ZoneId.of("UTC"))));
+        // The current time truncated to whole seconds, as formatting with SQL_FORMAT and parsing it back gave
+        return new Timestamp(Math.floorDiv(System.currentTimeMillis(), 1000) * 1000);
     }
 
     /**
@@ -129,7 +129,74 @@ public abstract class TimeManager {
      * @return A Timestamp object generated from the given ZonedDateTime and SQL_FORMAT.
      */
     public static Timestamp toTimestampUsingSQLFormat(ZonedDateTime time) {
-        return Timestamp.valueOf(SQL_FORMAT.format(time));
+        // Same result as formatting with SQL_FORMAT and parsing it back, without the String round trip
+        Timestamp timestamp = Timestamp.valueOf(time.toLocalDateTime());
+        timestamp.setNanos(0);
+        return timestamp;
+    }
+
+    /**
+     * Converts a Timestamp read from the database into UTC epoch seconds without creating any other objects.
+     * The result is the same instant as toSystemTimeZone(time).
+     * @param time The Timestamp to convert.
+     * @return The whole seconds since the epoch.
+     */
+    public static long toEpochSecond(Timestamp time) {
+        return Math.floorDiv(time.getTime(), 1000);
+    }
+
+    /**
+     * Converts UTC epoch seconds into a Timestamp that can be bound to a statement. The driver writes it as the
+     * system-local date and time, the same value toTimestampUsingSQLFormat gives for a system time zone view.
+     * @param epochSecond The whole seconds since the epoch.
+     * @return The matching Timestamp.
+     */
+    public static Timestamp toTimestamp(long epochSecond) {
+        return new Timestamp(epochSecond * 1000);
+    }
+
+    /**
+     * Returns the number of whole days between the epoch and the local date of an instant, given the UTC offset in
+     * force at that instant. Together with secondOfDay this splits an instant into its local date and time without
+     * creating any objects.
+     * @param epochSecond   The instant in UTC epoch seconds.
+     * @param offsetSeconds The UTC offset of the time zone at that instant.
+     * @return The local date as a day count, as used by LocalDate.ofEpochDay.
+     */
+    public static long epochDay(long epochSecond, int offsetSeconds) {
+        return Math.floorDiv(epochSecond + offsetSeconds, 86_400);
+    }
+
+    /**
+     * Returns the local time of day of an instant as seconds after midnight, given the UTC offset in force at that
+     * instant.
+     * @param epochSecond   The instant in UTC epoch seconds.
+     * @param offsetSeconds The UTC offset of the time zone at that instant.
+     * @return The seconds since local midnight, from 0 to 86399.
+     */
+    public static int secondOfDay(long epochSecond, int offsetSeconds) {
+        return (int) Math.floorMod(epochSecond + offsetSeconds, 86_400L);
+    }
+
+    /**
+     * Returns the local time of day of an instant in a time zone as seconds after midnight, using the zone's cached
+     * offset transitions instead of creating a ZonedDateTime.
+     * @param epochSecond The instant in UTC epoch seconds.
+     * @param zone        The time zone.
+     * @return The seconds since local midnight, from 0 to 86399.
+     */
+    public static int secondOfDay(long epochSecond, ZoneId zone) {
+        return secondOfDay(epochSecond, TimeZones.offsetSeconds(epochSecond, zone));
+    }
+
+    /**
+     * Returns the local date of an instant in a time zone as a day count, using the zone's cached offset transitions.
+     * @param epochSecond The instant in UTC epoch seconds.
+     * @param zone        The time zone.
+     * @return The local date as a day count, as used by LocalDate.ofEpochDay.
+     */
+    public static long epochDay(long epochSecond, ZoneId zone) {
+        return epochDay(epochSecond, TimeZones.offsetSeconds(epochSecond, zone));
     }
 
     /**
@@ -0,0 +1,172 @@
+package utilities;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The TimeZones class is the shared time service behind TimeManager. It holds the ZoneIds and formatters the
+ * application uses, so they are resolved and built once instead of on every conversion, and it answers UTC offset
+ * questions from per-zone transition tables without creating any objects.
+ *
+ * A transition table lists every offset change of a zone between 1900 and 2200 as epoch seconds, found once with
+ * ZoneRules.nextTransition. Looking up the offset of an instant, or the instant of a local date and time, is then a
+ * binary search over a long array. Times outside the table fall back to ZoneRules.
+ *
+ * DateTimeFormatter is immutable, so the shared formatters can be used from any thread.
+ */
+public abstract class TimeZones {
+    public static final ZoneId EASTERN = ZoneId.of("America/New_York");
+    public static final ZoneId UTC = ZoneId.of("UTC");
+
+    public static final DateTimeFormatter SQL_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    public static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    public static final DateTimeFormatter LABEL_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    public static final DateTimeFormatter CLOCK_FORMAT = DateTimeFormatter.ofPattern("hh:mm:ss a");
+
+    private static final long TABLE_START = -2_208_988_800L; // 1900-01-01T00:00Z
+    private static final long TABLE_END = 7_258_118_400L;    // 2200-01-01T00:00Z
+
+    private static final ConcurrentHashMap<ZoneId, OffsetTable> tables = new ConcurrentHashMap<>();
+    private static volatile ZoneId systemZone = ZoneId.systemDefault();
+
+    /**
+     * Returns the system default time zone without asking TimeZone for a fresh copy each time.
+     *
+     * @return The system default time zone as it was when the application started or was last refreshed.
+     */
+    public static ZoneId system() {
+        return systemZone;
+    }
+
+    /**
+     * Reads the system default time zone again, e.g. after TimeZone.setDefault was called.
+     */
+    public static void refreshSystemZone() {
+        systemZone = ZoneId.systemDefault();
+    }
+
+    /**
+     * Returns the UTC offset in force in a time zone at an instant.
+     *
+     * @param epochSecond The instant in UTC epoch seconds.
+     * @param zone        The time zone.
+     * @return The offset in seconds, e.g. -18000 for Eastern Standard Time.
+     */
+    public static int offsetSeconds(long epochSecond, ZoneId zone) {
+        return table(zone).offsetAt(epochSecond);
+    }
+
+    /**
+     * Converts a local date and time in a time zone to UTC epoch seconds. Like ZonedDateTime.of, a time skipped by a
+     * daylight saving change is moved forward by the length of the gap, and a time that occurs twice uses the
+     * earlier offset.
+     *
+     * @param epochDay    The local date, as returned by LocalDate.toEpochDay.
+     * @param secondOfDay The local time in seconds after midnight.
+     * @param zone        The time zone.
+     * @return The instant in UTC epoch seconds.
+     */
+    public static long toEpochSecond(long epochDay, int secondOfDay, ZoneId zone) {
+        return table(zone).toEpochSecond(epochDay * 86_400 + secondOfDay);
+    }
+
+    /**
+     * Returns the transition table of a time zone, building it the first time the zone is used.
+     */
+    private static OffsetTable table(ZoneId zone) {
+        OffsetTable table = tables.get(zone);
+        if (table == null) {
+            table = tables.computeIfAbsent(zone, OffsetTable::new);
+        }
+        return table;
+    }
+
+    /**
+     * The offset changes of one time zone, stored as parallel primitive arrays in transition order.
+     */
+    private static final class OffsetTable {
+        private final ZoneId zone;
+        private final ZoneRules rules;
+        private final long[] transitions;
+        private final int[] offsetsBefore;
+        private final int[] offsetsAfter;
+        private final long[] localStarts;
+        private final int fixedOffset;
+
+        private OffsetTable(ZoneId zone) {
+            this.zone = zone;
+            this.rules = zone.getRules();
+            this.fixedOffset = this.rules.getOffset(Instant.ofEpochSecond(TABLE_START)).getTotalSeconds();
+            long[] instants = new long[64];
+            int[] before = new int[64];
+            int[] after = new int[64];
+            int count = 0;
+            ZoneOffsetTransition transition = this.rules.nextTransition(Instant.ofEpochSecond(TABLE_START));
+            while (transition != null && transition.toEpochSecond() < TABLE_END) {
+                if (count == instants.length) {
+                    instants = Arrays.copyOf(instants, count * 2);
+                    before = Arrays.copyOf(before, count * 2);
+                    after = Arrays.copyOf(after, count * 2);
+                }
+                instants[count] = transition.toEpochSecond();
+                before[count] = transition.getOffsetBefore().getTotalSeconds();
+                after[count] = transition.getOffsetAfter().getTotalSeconds();
+                count++;
+                transition = this.rules.nextTransition(transition.getInstant());
+            }
+            this.transitions = Arrays.copyOf(instants, count);
+            this.offsetsBefore = Arrays.copyOf(before, count);
+            this.offsetsAfter = Arrays.copyOf(after, count);
+            this.localStarts = new long[count];
+            for (int i = 0; i < count; i++) {
+                this.localStarts[i] = instants[i] + Math.min(before[i], after[i]);
+            }
+        }
+
+        /**
+         * @return The offset in force at the instant.
+         */
+        private int offsetAt(long epochSecond) {
+            if (epochSecond < TABLE_START || epochSecond >= TABLE_END) {
+                return this.rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+            }
+            int index = lastAtOrBefore(this.transitions, epochSecond);
+            return index < 0 ? this.fixedOffset : this.offsetsAfter[index];
+        }
+
+        /**
+         * @param localSecond The local date and time as seconds since 1970-01-01T00:00 local time.
+         * @return The instant in UTC epoch seconds.
+         */
+        private long toEpochSecond(long localSecond) {
+            if (localSecond < TABLE_START + 86_400 || localSecond >= TABLE_END - 86_400) {
+                return LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC).atZone(this.zone).toEpochSecond();
+            }
+            int index = lastAtOrBefore(this.localStarts, localSecond);
+            if (index < 0) {
+                return localSecond - this.fixedOffset;
+            }
+            long localEnd = this.transitions[index] + Math.max(this.offsetsBefore[index], this.offsetsAfter[index]);
+            if (localSecond < localEnd) {
+                // Inside a gap or an overlap: use the offset from before the transition
+                return localSecond - this.offsetsBefore[index];
+            }
+            return localSecond - this.offsetsAfter[index];
+        }
+
+        /**
+         * @return The index of the last value not greater than the key, or -1 if every value is greater.
+         */
+        private static int lastAtOrBefore(long[] values, long key) {
+            int index = Arrays.binarySearch(values, key);
+            return index >= 0 ? index : -index - 2;
+        }
+    }
+}
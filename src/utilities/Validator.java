@@ -1,15 +1,10 @@
 package utilities;
 
-import dbQueries.AppointmentQueries;
-import dbQueries.CustomerQueries;
-import dbQueries.UserQueries;
 import exceptions.AppointmentOverlap;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import model.Appointment;
 import model.Customer;
-import model.User;
 import languages.LanguageManager;
+import repository.Repositories;
 
 import java.sql.SQLException;
 import java.time.*;
@@ -222,6 +217,8 @@ import java.util.regex.Pattern;
 
     /**
      * This method validates an input value against a given list of User objects and their corresponding User IDs.
+     * The User IDs come from the user repository. The JDBC one answers from the user index in UserQueries,
+     * which is warmed after login, so this check does not normally query the database.
      *
      * @param value The integer value to be subjected to validation.
      * @return Returns a boolean value reflecting whether the input value is valid according to the given
@@ -230,14 +227,7 @@ import java.util.regex.Pattern;
      *         the provided list and is therefore considered invalid.
      */
     public static boolean isUserId(int value) {
-        ObservableList<User> users = FXCollections.observableArrayList();
-        List<Integer> userIds = new ArrayList<>();
-        try {
-            users = UserQueries.getAllUsers();
-        } catch (SQLException ignored) {
-        }
-        users.forEach(user -> userIds.add(user.getUserID()));
-        if (userIds.contains(value)) {
+        if (Repositories.users().isKnownUserId(value)) {
             return true;
         }
         AlertManager.showAlert("User_ID entry does not exist in the database.", "Invalid entry");
@@ -256,14 +246,12 @@ import java.util.regex.Pattern;
      * list, which in turn provides data integrity and security checks within the customer management system.
      */
     public static boolean isCustomerId(int value) {
-        ObservableList<Customer> customers = FXCollections.observableArrayList();
-        List<Integer> customerIds = new ArrayList<>();
+        Customer customer = null;
         try {
-            customers = CustomerQueries.getAllCustomers();
+            customer = Repositories.customers().findById(value);
         } catch (SQLException ignored) {
         }
-        customers.forEach(customer -> customerIds.add(customer.getCustomer_ID()));
-        if (customerIds.contains(value)) {
+        if (customer != null) {
             return true;
         }
         AlertManager.showAlert("Customer_ID entry does not exist in the database.", "Invalid entry");
@@ -302,6 +290,8 @@ import java.util.regex.Pattern;
      * return true. However, if there is a scheduling conflict,
      * where the time slot is already booked for another appointment,
      * the method will throw an AppointmentOverlap exception.
+     * Only the appointments the appointment repository finds touching the requested range are compared,
+     * rather than every appointment.
      *
      * @param dateStart     The start date and time of the appointment.
      * @param dateEnd       The end date and time of the appointment.
@@ -314,12 +304,12 @@ import java.util.regex.Pattern;
      *                            another appointment in the system.
      */
     public static boolean isAppointmentAvailable(ZonedDateTime dateStart, ZonedDateTime dateEnd, int appointmentID) throws AppointmentOverlap {
-        ObservableList<Appointment> allAppointments = FXCollections.observableArrayList();
+        List<Appointment> nearbyAppointments = new ArrayList<>();
         try {
-            allAppointments = AppointmentQueries.getAllAppointmentsExceptForOne(appointmentID);
+            nearbyAppointments = Repositories.appointments().findTouching(dateStart, dateEnd, appointmentID);
         } catch (SQLException e) {
         }
-        for (Appointment a : allAppointments) {
+        for (Appointment a : nearbyAppointments) {
             if (checkIfTimeIsBetween(TimeManager.toESTTimeZone(dateStart), TimeManager.toESTTimeZone(dateEnd), TimeManager.toESTTimeZone(a.getStart()), TimeManager.toESTTimeZone(a.getEnd()))) {
                 AlertManager.showAlert(LanguageManager.getTranslation("Check_Date") + "\n" +
                         LanguageManager.getTranslation("Overlap") + a.getTitle() + ".", "Invalid_Entry");
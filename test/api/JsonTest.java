@@ -0,0 +1,45 @@
+package api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonTest {
+
+    @Test
+    void readsNestingUpToTheLimit() {
+        String text = "{\"a\":" + "[".repeat(Json.MAX_DEPTH - 1) + "]".repeat(Json.MAX_DEPTH - 1) + "}";
+        Map<String, Object> object = Json.parseObject(text);
+        assertEquals(List.of(), unwrap(object.get("a"), Json.MAX_DEPTH - 2));
+    }
+
+    @Test
+    void rejectsNestingBeyondTheLimit() {
+        String text = "{\"a\":" + "[".repeat(Json.MAX_DEPTH) + "]".repeat(Json.MAX_DEPTH) + "}";
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject(text));
+    }
+
+    @Test
+    void rejectsAnUnclosedDeepBodyWithoutOverflowingTheStack() {
+        String text = "{\"a\":" + "[".repeat(30_000);
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject(text));
+    }
+
+    @Test
+    void aDeepBodyIsABadRequest() {
+        ApiRequest request = new ApiRequest("POST", "appointments", null, "{\"a\":" + "[".repeat(30_000));
+        ApiException thrown = assertThrows(ApiException.class, request::getBody);
+        assertEquals(400, thrown.getStatus());
+    }
+
+    private static Object unwrap(Object value, int levels) {
+        for (int level = 0; level < levels; level++) {
+            value = ((List<?>) value).get(0);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,140 @@
+package repository;
+
+import exceptions.AppointmentOverlap;
+import model.Appointment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utilities.AlertManager;
+import utilities.TimeManager;
+import utilities.Validator;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The behaviour every AppointmentRepository must have. The times are made the way the appointment form makes
+ * them, and the tests run in a zone that is not UTC (see build.gradle), so a range read in the wrong zone misses.
+ */
+abstract class AppointmentRepositoryContract {
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 12);
+
+    protected AppointmentRepository repository;
+
+    /**
+     * @return An empty repository.
+     */
+    protected abstract AppointmentRepository emptyRepository() throws SQLException;
+
+    @BeforeEach
+    void install() throws SQLException {
+        repository = emptyRepository();
+        Repositories.use(repository, new InMemoryCustomerRepository(), new InMemoryReferenceDataRepository(),
+                new InMemoryUserRepository());
+        AlertManager.startCollecting();
+    }
+
+    @AfterEach
+    void uninstall() {
+        AlertManager.stopCollecting();
+        Repositories.useJdbc();
+    }
+
+    @Test
+    void overlapCheckRejectsAnOverlappingBooking() throws SQLException {
+        repository.add(saved(1, "10:00", "11:00"));
+        assertThrows(AppointmentOverlap.class,
+                () -> Validator.isAppointmentAvailable(entered("10:30"), entered("11:30"), 2));
+        assertThrows(AppointmentOverlap.class,
+                () -> Validator.isAppointmentAvailable(entered("09:30"), entered("10:30"), 2));
+    }
+
+    @Test
+    void overlapCheckRejectsAnAdjoiningBooking() throws SQLException {
+        repository.add(saved(1, "10:00", "11:00"));
+        assertThrows(AppointmentOverlap.class,
+                () -> Validator.isAppointmentAvailable(entered("11:00"), entered("12:00"), 2));
+    }
+
+    @Test
+    void overlapCheckAcceptsAFreeSlotAndTheAppointmentItself() throws SQLException {
+        repository.add(saved(1, "10:00", "11:00"));
+        assertTrue(Validator.isAppointmentAvailable(entered("11:30"), entered("12:30"), 2));
+        assertTrue(Validator.isAppointmentAvailable(entered("10:30"), entered("11:30"), 1));
+    }
+
+    @Test
+    void findTouchingReadsTheEnteredWallClockTimes() throws SQLException {
+        repository.add(saved(1, "10:00", "11:00"));
+        repository.add(saved(2, "14:00", "15:00"));
+        List<Appointment> found = repository.findTouching(entered("10:30"), entered("11:30"), -1);
+        assertEquals(1, found.size());
+        assertEquals(1, found.get(0).getAppointment_ID());
+    }
+
+    @Test
+    void updateMovesTheAppointment() throws SQLException {
+        repository.add(saved(1, "10:00", "11:00"));
+        repository.update(saved(1, "16:00", "17:00"));
+        assertTrue(Validator.isAppointmentAvailable(entered("10:00"), entered("11:00"), 2));
+        assertThrows(AppointmentOverlap.class,
+                () -> Validator.isAppointmentAvailable(entered("16:30"), entered("17:30"), 2));
+    }
+
+    @Test
+    void addStoresTheAppointmentsCustomer() throws SQLException {
+        repository.add(saved(5, "10:00", "11:00"));
+        assertEquals(1, repository.findById(5).getCustomer_ID());
+    }
+
+    @Test
+    void addReportsAnAppointmentThatWasNotSaved() throws SQLException {
+        repository.add(saved(1, "10:00", "11:00"));
+        assertThrows(SQLException.class, () -> repository.add(saved(1, "12:00", "13:00")));
+        assertEquals(1, repository.findAll().size());
+    }
+
+    @Test
+    void nextIdFollowsTheHighestId() throws SQLException {
+        repository.add(saved(4, "10:00", "11:00"));
+        repository.add(saved(7, "12:00", "13:00"));
+        assertEquals(8, repository.nextId());
+        repository.remove(7);
+        assertEquals(5, repository.nextId());
+        assertEquals(1, repository.findAll().size());
+    }
+
+    @Test
+    void findStartingBetweenKeepsOneUsersAppointmentsInOrder() throws SQLException {
+        repository.add(saved(1, "12:00", "13:00"));
+        repository.add(saved(2, "09:00", "10:00"));
+        ZonedDateTime from = TimeManager.toSystemTimeZone(entered("08:00"));
+        List<Appointment> found = repository.findStartingBetween(1, from, from.plusHours(8));
+        assertEquals(2, found.size());
+        assertEquals(2, found.get(0).getAppointment_ID());
+        assertTrue(repository.findStartingBetween(2, from, from.plusHours(8)).isEmpty());
+    }
+
+    /**
+     * @return A time as the appointment form reads it from its pickers.
+     */
+    private static ZonedDateTime entered(String time) {
+        return TimeManager.combineDateAndTime(DAY, LocalTime.parse(time));
+    }
+
+    /**
+     * @return An appointment for user 1 as the appointment form creates it for saving.
+     */
+    private static Appointment saved(int id, String start, String end) {
+        return new Appointment(id, "Title " + id, "Description", "Location", "Planning",
+                TimeManager.toSystemTimeZone(entered(start)), TimeManager.toSystemTimeZone(entered(end)),
+                1, 1, 1, ZonedDateTime.now(), "test", TimeManager.getTimestampForCurrentUTCTime(), "test");
+    }
+}
@@ -0,0 +1,9 @@
+package repository;
+
+class InMemoryAppointmentRepositoryTest extends AppointmentRepositoryContract {
+
+    @Override
+    protected AppointmentRepository emptyRepository() {
+        return new InMemoryAppointmentRepository();
+    }
+}
@@ -0,0 +1,61 @@
+package repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IntMapTest {
+
+    @Test
+    void behavesLikeAHashMapUnderRandomChanges() {
+        IntMap<Integer> map = new IntMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(3000) - 100;
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(expected.put(key, i), map.put(key, i));
+                    break;
+                case 1:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.get(key), map.get(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    void removingAKeyKeepsTheRestOfItsProbeRunReachable() {
+        IntMap<String> map = new IntMap<>();
+        for (int key = 0; key < 12; key++) {
+            map.put(key * 16, "v" + key);
+        }
+        map.remove(0);
+        map.remove(5 * 16);
+        assertNull(map.get(0));
+        for (int key = 1; key < 12; key++) {
+            assertEquals(key == 5 ? null : "v" + key, map.get(key * 16));
+        }
+    }
+
+    @Test
+    void maxKeyFollowsRemovals() {
+        IntMap<String> map = new IntMap<>();
+        assertEquals(Integer.MIN_VALUE, map.maxKey());
+        map.put(3, "a");
+        map.put(9, "b");
+        map.remove(9);
+        assertEquals(3, map.maxKey());
+    }
+}
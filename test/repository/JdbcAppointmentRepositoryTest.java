@@ -0,0 +1,25 @@
+package repository;
+
+import helper.JDBC;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Runs the repository contract against the in-memory H2 database named by scheduler.jdbcUrl in build.gradle.
+ */
+class JdbcAppointmentRepositoryTest extends AppointmentRepositoryContract {
+
+    @Override
+    protected AppointmentRepository emptyRepository() throws SQLException {
+        try (Statement statement = JDBC.getConnection().createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS appointments (Appointment_ID INT PRIMARY KEY, " +
+                    "Title VARCHAR(50), Description VARCHAR(50), Location VARCHAR(50), Type VARCHAR(50), " +
+                    "Start DATETIME, End DATETIME, Create_Date DATETIME, Created_By VARCHAR(50), " +
+                    "Last_Update TIMESTAMP, Last_Updated_By VARCHAR(50), Customer_ID INT, User_ID INT, " +
+                    "Contact_ID INT)");
+            statement.execute("DELETE FROM appointments");
+        }
+        return new JdbcAppointmentRepository();
+    }
+}
@@ -0,0 +1,63 @@
+package repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StartIndexTest {
+
+    @Test
+    void ordersByStartThenId() {
+        StartIndex index = new StartIndex();
+        index.add(300, 400, 2);
+        index.add(100, 200, 9);
+        index.add(300, 360, 1);
+        assertEquals(3, index.size());
+        assertEquals(9, index.id(0));
+        assertEquals(1, index.id(1));
+        assertEquals(2, index.id(2));
+        assertEquals(100, index.getLongestDuration());
+    }
+
+    @Test
+    void findsTheFirstEntryAtOrAfterASecond() {
+        StartIndex index = new StartIndex();
+        for (int id = 1; id <= 40; id++) {
+            index.add(id * 10L, id * 10L + 5, id);
+        }
+        assertEquals(0, index.firstAtOrAfter(0));
+        assertEquals(4, index.firstAtOrAfter(50));
+        assertEquals(5, index.firstAtOrAfter(51));
+        assertEquals(40, index.firstAtOrAfter(1000));
+    }
+
+    @Test
+    void removesOnlyTheMatchingEntry() {
+        StartIndex index = new StartIndex();
+        index.add(100, 200, 1);
+        index.add(100, 200, 2);
+        index.remove(100, 1);
+        index.remove(100, 3);
+        assertEquals(1, index.size());
+        assertEquals(2, index.id(0));
+    }
+
+    @Test
+    void rebuildMatchesAddingOneByOne() {
+        long[] starts = {500, 100, 300, 100};
+        long[] ends = {600, 900, 310, 150};
+        int[] ids = {4, 3, 2, 1};
+        StartIndex added = new StartIndex();
+        for (int i = 0; i < ids.length; i++) {
+            added.add(starts[i], ends[i], ids[i]);
+        }
+        StartIndex rebuilt = new StartIndex();
+        rebuilt.rebuild(starts, ends, ids, ids.length);
+        assertEquals(added.size(), rebuilt.size());
+        for (int position = 0; position < added.size(); position++) {
+            assertEquals(added.start(position), rebuilt.start(position));
+            assertEquals(added.id(position), rebuilt.id(position));
+        }
+        assertEquals(800, rebuilt.getLongestDuration());
+    }
+}
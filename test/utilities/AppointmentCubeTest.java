@@ -0,0 +1,107 @@
+package utilities;
+
+import model.Appointment;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the cube's pivots with groupings made from each appointment's ZonedDateTime and the lookup maps.
+ */
+class AppointmentCubeTest {
+    private final Map<Integer, String> contactNames = new HashMap<>();
+    private final Map<Integer, Integer> customerDivisions = new HashMap<>();
+    private final Map<Integer, String> divisionNames = new HashMap<>();
+    private final Map<Integer, String> divisionCountries = new HashMap<>();
+    private final Map<Integer, String> userNames = new HashMap<>();
+
+    @Test
+    void pivotsMatchAGroupingByZonedDateTime() {
+        for (int id = 1; id <= 3; id++) {
+            contactNames.put(id, "Contact " + id);
+            userNames.put(id, "user" + id);
+        }
+        // Divisions are keyed by ID, so each named one has its own row; countries are keyed by name
+        for (int division = 1; division <= 45; division++) {
+            divisionNames.put(division, "Division " + division);
+            if (division <= 40) {
+                divisionCountries.put(division, "Country " + division % 3);
+            }
+        }
+        for (int customer = 1; customer < 200; customer++) {
+            customerDivisions.put(customer, 1 + customer % 45);
+        }
+        // Late December to early January across two years crosses ISO week-year boundaries and both DST changes
+        long first = ZonedDateTime.of(2025, 12, 20, 0, 0, 0, 0, TimeZones.system()).toEpochSecond();
+        long last = ZonedDateTime.of(2027, 1, 10, 0, 0, 0, 0, TimeZones.system()).toEpochSecond();
+        SplittableRandom random = new SplittableRandom(11);
+        List<Appointment> appointments = new ArrayList<>();
+        for (int id = 1; id <= 5_000; id++) {
+            long start = first + random.nextLong(last - first);
+            String type = random.nextInt(20) == 0 ? null : "Type " + random.nextInt(4);
+            appointments.add(new Appointment(id, "Title", "Description", "Location", type, start,
+                    start + 60L * (15 + random.nextInt(120)), TimeZones.system(), 1 + random.nextInt(210),
+                    1 + random.nextInt(4), 1 + random.nextInt(4), start, "test", start * 1000, "test"));
+        }
+
+        AppointmentCube cube = AppointmentCube.build(appointments, contactNames, customerDivisions, divisionNames,
+                divisionCountries, userNames);
+        assertEquals(appointments.size(), cube.size());
+        for (AppointmentCube.Dimension dimension : AppointmentCube.Dimension.values()) {
+            for (AppointmentCube.Measure measure : AppointmentCube.Measure.values()) {
+                assertPivot(expected(appointments, dimension, measure), cube.pivot(dimension, null, measure));
+            }
+        }
+    }
+
+    private static void assertPivot(TreeMap<String, Long> expected, AppointmentCube.Pivot pivot) {
+        assertArrayEquals(expected.keySet().toArray(new String[0]), pivot.getRowLabels());
+        int row = 0;
+        for (long value : expected.values()) {
+            assertEquals(value, pivot.get(row++, 0));
+        }
+    }
+
+    private TreeMap<String, Long> expected(List<Appointment> appointments, AppointmentCube.Dimension dimension,
+                                           AppointmentCube.Measure measure) {
+        TreeMap<String, Long> groups = new TreeMap<>();
+        for (Appointment appointment : appointments) {
+            long value = measure == AppointmentCube.Measure.COUNT ? 1
+                    : (appointment.getEndEpochSecond() - appointment.getStartEpochSecond()) / 60;
+            groups.merge(label(appointment, dimension), value, Long::sum);
+        }
+        return groups;
+    }
+
+    private String label(Appointment appointment, AppointmentCube.Dimension dimension) {
+        ZonedDateTime start = appointment.getStart();
+        int division = customerDivisions.getOrDefault(appointment.getCustomer_ID(), -1);
+        switch (dimension) {
+            case MONTH:
+                return String.format("%d-%02d", start.getYear(), start.getMonthValue());
+            case WEEK:
+                return String.format("%d-W%02d", start.get(IsoFields.WEEK_BASED_YEAR),
+                        start.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+            case TYPE:
+                return appointment.getType() == null ? "(unknown)" : appointment.getType();
+            case CONTACT:
+                return contactNames.getOrDefault(appointment.getContact_ID(), "(unknown)");
+            case COUNTRY:
+                return divisionCountries.getOrDefault(division, "(unknown)");
+            case DIVISION:
+                return divisionNames.getOrDefault(division, "(unknown)");
+            default:
+                return userNames.getOrDefault(appointment.getUser_ID(), "(unknown)");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package utilities;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The throttle keeps its counters in static fields, so the limits are checked in one test within one window.
+ */
+class LoginThrottleTest {
+
+    @Test
+    void limitsEachUsernameAndAllUsernamesWithoutTrackingRejectedOnes() {
+        for (int attempt = 0; attempt < LoginThrottle.MAX_ATTEMPTS_PER_USER; attempt++) {
+            assertTrue(LoginThrottle.tryAcquire("throttled"));
+        }
+        assertFalse(LoginThrottle.tryAcquire("throttled"));
+
+        long allowed = LoginThrottle.MAX_ATTEMPTS_PER_USER;
+        for (int user = 0; allowed < LoginThrottle.MAX_ATTEMPTS_TOTAL; user++, allowed++) {
+            assertTrue(LoginThrottle.tryAcquire("user" + user));
+        }
+        int tracked = LoginThrottle.getTrackedUserCount();
+        long rejected = LoginThrottle.getRejectedGloballyCount();
+        for (int user = 0; user < 100; user++) {
+            assertFalse(LoginThrottle.tryAcquire("flood" + user));
+        }
+        assertEquals(tracked, LoginThrottle.getTrackedUserCount());
+        assertEquals(rejected + 100, LoginThrottle.getRejectedGloballyCount());
+    }
+}
@@ -0,0 +1,85 @@
+package utilities;
+
+import model.LoginAttempt;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares index lookups with a scan of the attempts that were written, over several days and segments.
+ */
+class SegmentedLoginLogTest {
+    private static final String[] USERS = {"test", "admin", "TEST", "user3"};
+
+    @TempDir
+    File directory;
+
+    @Test
+    void findsTheSameAttemptsAsAScan() throws IOException {
+        List<LoginAttempt> written = writeDays(new SegmentedLoginLog(directory, 64 * 1024));
+        long first = written.get(0).getTimestamp();
+        long last = written.get(written.size() - 1).getTimestamp();
+        SplittableRandom random = new SplittableRandom(7);
+        SegmentedLoginLog log = new SegmentedLoginLog(directory, 64 * 1024);
+        for (int query = 0; query < 50; query++) {
+            long from = first - 3_600_000 + (long) (random.nextDouble() * (last - first + 7_200_000));
+            long to = from + (long) (random.nextDouble() * 2 * 86_400_000);
+            for (String user : USERS) {
+                assertEquals(scan(written, user, from, to, false), lines(log.failedAttempts(user, from, to)));
+                assertEquals(scan(written, user, from, to, true), lines(log.find(user, from, to, true)));
+            }
+        }
+        assertEquals(scan(written, "test", first, last + 1, false), lines(log.failedAttempts("test", first, last + 1)));
+    }
+
+    /**
+     * Writes attempts on four days, more on the second than fit in one block or one segment.
+     */
+    private static List<LoginAttempt> writeDays(SegmentedLoginLog log) throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        List<LoginAttempt> written = new ArrayList<>();
+        LocalDate day = LocalDate.of(2030, 3, 11);
+        for (int d = 0; d < 4; d++, day = day.plusDays(1)) {
+            long start = day.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            int count = d == 1 ? 10_000 : 500;
+            List<LoginAttempt> batch = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                long timestamp = start + (long) i * (86_400_000 / count);
+                batch.add(new LoginAttempt(timestamp, USERS[random.nextInt(USERS.length)], random.nextInt(3) == 0));
+            }
+            log.write(batch);
+            written.addAll(batch);
+        }
+        log.close();
+        return written;
+    }
+
+    private static List<String> scan(List<LoginAttempt> written, String user, long from, long to,
+                                           boolean successful) {
+        List<LoginAttempt> found = new ArrayList<>();
+        for (LoginAttempt attempt : written) {
+            if (attempt.getTimestamp() >= from && attempt.getTimestamp() < to
+                    && attempt.getUsername().equals(user) && attempt.isSuccessful() == successful) {
+                found.add(attempt);
+            }
+        }
+        return lines(found);
+    }
+
+    private static List<String> lines(List<LoginAttempt> attempts) {
+        List<String> lines = new ArrayList<>();
+        for (LoginAttempt attempt : attempts) {
+            lines.add(attempt.toLogLine());
+        }
+        return lines;
+    }
+}